@@ -4,13 +4,31 @@ import picocli.CommandLine;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
 import picocli.CommandLine.Help.Visibility;
+import picocli.CommandLine.IParameterConsumer;
+import picocli.CommandLine.Model.ArgSpec;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Model.OptionSpec;
+import picocli.CommandLine.ParameterException;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
 import com.dataforge.core.GeneratorFactory;
+import com.dataforge.core.ShardSpec;
+import com.dataforge.core.columnar.ColumnarGenerationEngine;
+import com.dataforge.core.uniqueness.UniquenessScope;
+import com.dataforge.metrics.DataForgeMBeans;
+import com.dataforge.metrics.ProgressReporter;
+import com.dataforge.metrics.PrometheusEndpoint;
+import com.dataforge.metrics.RunMetrics;
 import com.dataforge.output.CsvOutputWriter;
+import com.dataforge.output.JsonLinesOutputWriter;
 import com.dataforge.output.JsonOutputWriter;
+import com.dataforge.output.MySqlLoadOutputWriter;
+import com.dataforge.output.OutputCompression;
+import com.dataforge.output.PgCopyOutputWriter;
+import com.dataforge.output.RollingOutputWriter;
 import com.dataforge.output.XmlOutputWriter;
 import com.dataforge.output.SqlInsertOutputWriter;
 import com.dataforge.output.DatabaseOutputWriter;
@@ -21,6 +39,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.util.*;
 import java.util.concurrent.Callable;
 
@@ -52,20 +72,66 @@ import java.util.concurrent.Callable;
         "  生成JSON格式:",
         "    dataforge -f name,phone,idcard -c 1000 -o data.json",
         "",
+        "  生成JSON Lines (NDJSON) 格式，每行一个JSON对象:",
+        "    dataforge -f name,phone,idcard -c 1000 -o data.ndjson",
+        "",
         "  生成XML格式:",
         "    dataforge -f name,email,age -c 100 -o users.xml",
         "",
+        "  多线程并行生成 (固定种子下输出与单线程一致):",
+        "    dataforge -f name,email,age -c 1000000 -o users.csv --parallel 16 --seed 42",
+        "",
+        "  分片生成 (每台机器生成一个分片，按分片顺序拼接即为完整文件):",
+        "    dataforge -f name,phone,idcard -c 2000000000 -o users-0.csv --seed 42 --shard 0/8",
+        "",
+        "  本机启动多个JVM分片生成并合并:",
+        "    dataforge -f name,phone,idcard -c 100000000 -o users.csv --seed 42 --shards 4",
+        "",
+        "  多线程 gzip 压缩输出 (同时写出 .gzi 块索引):",
+        "    dataforge -f name,email,age -c 100000000 -o users.csv.gz --parallel 8 --compress gzip --compress-level 6",
+        "",
+        "  按行数滚动输出为多个文件并写出清单:",
+        "    dataforge -f name,email,age -c 100000000 -o users.csv --parallel 8 --roll-rows 10000000",
+        "",
         "  生成SQL INSERT语句:",
         "    dataforge -f name,email,phone -c 1000 -o insert.sql --table users --db-type mysql",
         "",
+        "  生成批量装载文件 (数据文件只含数据，同时写出装载语句 users.load.sql):",
+        "    dataforge -f name,email,age -c 100000000 -o users.copy --format pg-copy --table users",
+        "    dataforge -f name,email,age -c 100000000 -o users.pgcopy --format pg-copy-binary --table users",
+        "    dataforge -f name,email,age -c 100000000 -o users.tsv --format mysql-load --table users",
+        "",
+        "  输出到标准输出供管道使用 (数据之外的日志写到标准错误):",
+        "    dataforge -f name,email,age -c 100000000 -o - --format pg-copy | psql mydb -c \"COPY users (name, email, age) FROM STDIN\"",
+        "    dataforge -f name,email,age -c 100000000 -o - --format pg-copy-binary | psql mydb -c \"COPY users FROM STDIN WITH (FORMAT binary)\"",
+        "    dataforge -f name,email,age -c 100000000 -o - --format ndjson | kafka-console-producer --bootstrap-server localhost:9092 --topic users",
+        "",
         "  直接写入数据库:",
-        "    dataforge -f name,email,age -c 100 --jdbc-url jdbc:mysql://localhost:3306/test --db-username user --db-password pass --table users"
+        "    dataforge -f name,email,age -c 100 --jdbc-url jdbc:mysql://localhost:3306/test --db-username user --db-password pass --table users",
+        "",
+        "  多连接并行写入数据库:",
+        "    dataforge -f name,email,age -c 10000000 --jdbc-url jdbc:postgresql://localhost/test --table users --db-connections 8 --batch-size 1000 --db-commit-interval 50000",
+        "",
+        "  按执行延迟自动调整批大小 (目标每批 200ms):",
+        "    dataforge -f name,email,age -c 10000000 --jdbc-url jdbc:mysql://localhost:3306/test --table users --db-connections 4 --db-adaptive-batch 200",
+        "",
+        "  长时间运行时在 9464 端口提供 Prometheus 指标 (http://host:9464/metrics):",
+        "    dataforge -f name,email,age -c 1000000000 -o users.csv --parallel 8 --metrics-port 9464",
+        "",
+        "  显示每秒进度并在结束时写出 JSON 运行报告:",
+        "    dataforge -f name,email,age -c 100000000 -o users.csv --parallel 8 --progress --run-report run.json"
     }
 )
 public class DataForgeCli implements Callable<Integer> {
 
     private static final Logger logger = LoggerFactory.getLogger(DataForgeCli.class);
 
+    /** 表示标准输出的输出路径 */
+    static final String STDOUT = "-";
+
+    /** 下游关闭管道时的退出码，与被 SIGPIPE 终止的进程一致 */
+    private static final int SIGPIPE_EXIT_CODE = 141;
+
     @Parameters(
         index = "0..*",
         arity = "0..*",
@@ -90,7 +156,8 @@ public class DataForgeCli implements Callable<Integer> {
 
     @Option(
         names = {"-o", "--output"},
-        description = "输出文件路径 (支持 .csv, .json 格式，未指定则输出到控制台)"
+        description = "输出文件路径 (支持 .csv, .json 格式，未指定则输出到控制台)；"
+            + "为 - 时按 --format 把数据写到标准输出，不输出提示信息，适合管道"
     )
     private File outputFile;
 
@@ -102,7 +169,7 @@ public class DataForgeCli implements Callable<Integer> {
 
     @Option(
         names = {"--format"},
-        description = "输出格式 (csv, json, xml, sql)，会根据输出文件扩展名自动判断"
+        description = "输出格式 (csv, json, ndjson, xml, sql, pg-copy, pg-copy-binary, mysql-load)，会根据输出文件扩展名自动判断"
     )
     private String outputFormat;
 
@@ -127,10 +194,30 @@ public class DataForgeCli implements Callable<Integer> {
 
     @Option(
         names = {"--parallel"},
-        description = "启用并行生成模式 (默认: false)",
-        defaultValue = "false"
+        arity = "0..1",
+        parameterConsumer = OptionalNumberConsumer.class,
+        paramLabel = "threads",
+        description = "启用并行生成模式，可指定线程数 (不指定线程数时使用全部CPU核心；默认: 单线程)",
+        fallbackValue = "0"
+    )
+    private int parallelThreads = 1;
+
+    @Option(
+        names = {"--shard"},
+        paramLabel = "i/N",
+        description = "只生成数据集的第 i 个分片 (共 N 片，i 从 0 开始)，需要同时指定 --seed"
+    )
+    private String shard;
+
+    @Option(
+        names = {"--shards"},
+        paramLabel = "N",
+        description = "在本机启动 N 个JVM分片生成，并按分片顺序合并为输出文件"
     )
-    private boolean parallel;
+    private int localShards;
+
+    @Spec
+    private CommandSpec spec;
 
     @Option(
         names = {"--seed"},
@@ -140,7 +227,7 @@ public class DataForgeCli implements Callable<Integer> {
 
     @Option(
         names = {"--table"},
-        description = "SQL输出的目标表名 (用于SQL格式输出)"
+        description = "SQL输出的目标表名 (用于SQL、批量装载格式和数据库输出)"
     )
     private String tableName;
 
@@ -158,6 +245,55 @@ public class DataForgeCli implements Callable<Integer> {
     )
     private String databaseType;
 
+    @Option(
+        names = {"--csv-delimiter"},
+        description = "CSV字段分隔符，单个字符或 \\t/tab (默认: ,)",
+        defaultValue = ","
+    )
+    private String csvDelimiter;
+
+    @Option(
+        names = {"--csv-quote"},
+        description = "CSV引用字符 (默认: \")",
+        defaultValue = "\""
+    )
+    private String csvQuote;
+
+    @Option(
+        names = {"--compress"},
+        description = "输出文件压缩方式 (none, gzip)；gzip 为多线程分块压缩，并在文件旁写出 .gzi 块索引 (默认: none)",
+        defaultValue = "none"
+    )
+    private String compress;
+
+    @Option(
+        names = {"--compress-level"},
+        description = "gzip 压缩级别 0-9 (默认: 6)",
+        defaultValue = "6"
+    )
+    private int compressLevel;
+
+    @Option(
+        names = {"--compress-threads"},
+        description = "gzip 压缩线程数 (默认: 0，使用全部CPU核心)",
+        defaultValue = "0"
+    )
+    private int compressThreads;
+
+    @Option(
+        names = {"--roll-rows"},
+        paramLabel = "N",
+        description = "每个输出文件最多包含 N 行，超出后滚动到下一个文件 (users-00001.csv …)，并写出清单 users.manifest.json"
+    )
+    private long rollRows;
+
+    @Option(
+        names = {"--roll-size"},
+        paramLabel = "SIZE",
+        description = "按文件大小滚动输出，例如 512M、2G (按样本估算每段行数，实际大小在上限附近浮动)"
+    )
+    private String rollSize;
+
     @Option(
         names = {"--jdbc-url"},
         description = "JDBC连接URL (用于数据库直接写入)"
@@ -176,6 +312,60 @@ public class DataForgeCli implements Callable<Integer> {
     )
     private String dbPassword;
 
+    @Option(
+        names = {"--db-connections"},
+        description = "数据库直接写入时并行使用的连接数，每个连接写入一段连续的行区间 (默认: 1)",
+        defaultValue = "1"
+    )
+    private int dbConnections;
+
+    @Option(
+        names = {"--db-commit-interval"},
+        paramLabel = "rows",
+        description = "数据库直接写入时每个连接每写入多少行提交一次 (默认: 每个批次提交一次)",
+        defaultValue = "0"
+    )
+    private long dbCommitInterval;
+
+    @Option(
+        names = {"--db-adaptive-batch"},
+        arity = "0..1",
+        parameterConsumer = OptionalNumberConsumer.class,
+        paramLabel = "ms",
+        description = "数据库直接写入时以 --batch-size 为初始值，按每批执行并提交的耗时自动调整批大小，使其接近目标毫秒数；"
+            + "遇到锁等待超时或死锁时减半批大小并重试，每批单独提交 (不带值时目标为 200ms)",
+        fallbackValue = "200"
+    )
+    private long dbAdaptiveBatchMillis;
+
+    @Option(
+        names = {"--db-disable-constraints"},
+        description = "数据库直接写入期间关闭外键/唯一性检查和索引维护，写入结束后恢复 (需要相应权限)"
+    )
+    private boolean dbDisableConstraints;
+
+    @Option(
+        names = {"--metrics-port"},
+        paramLabel = "port",
+        description = "在该端口的 /metrics 提供 Prometheus 文本格式的运行指标 (各字段行数、写出字节数、队列深度、"
+            + "缓存命中率、唯一性集合大小)，运行结束时关闭；性能、缓存与内存指标同时以 com.dataforge 域的 MBean 提供"
+    )
+    private Integer metricsPort;
+
+    @Option(
+        names = {"--progress"},
+        description = "每秒在标准错误输出一行进度：已写出行数、行/秒、MB/秒和预计剩余时间"
+    )
+    private boolean progress;
+
+    @Option(
+        names = {"--run-report"},
+        paramLabel = "FILE",
+        description = "运行结束时写出 JSON 运行报告：行数、字节数、平均速率、各阶段 (generate/encode/write/commit) 耗时、"
+            + "各写出器与各字段的行数"
+    )
+    private String runReport;
+
     public static void main(String[] args) {
         int exitCode = new CommandLine(new DataForgeCli()).execute(args);
         System.exit(exitCode);
@@ -204,6 +394,32 @@ public class DataForgeCli implements Callable<Integer> {
                 return 1;
             }
 
+            if (shard != null && config.getSeed() == null) {
+                System.err.println("错误: 分片生成需要指定 --seed，以保证各分片属于同一个数据集");
+                return 1;
+            }
+
+            if ((rollRows > 0 || rollSize != null) && (shard != null || localShards > 1)) {
+                System.err.println("错误: 滚动输出 (--roll-rows/--roll-size) 不能与分片生成同时使用");
+                return 1;
+            }
+
+            if (STDOUT.equals(config.getOutputFile()) && (rollRows > 0 || rollSize != null || localShards > 1)) {
+                System.err.println("错误: 输出到标准输出 (-o -) 不能与滚动输出或本机分片 (--shards) 同时使用");
+                return 1;
+            }
+
+            if ((metricsPort != null || progress || runReport != null) && localShards > 1) {
+                System.err.println("错误: --metrics-port、--progress、--run-report 不能与本机分片 (--shards) 同时使用，"
+                        + "可为每个 --shard 进程分别指定");
+                return 1;
+            }
+
+            // 本机多JVM分片生成
+            if (localShards > 1 && shard == null) {
+                return executeLocalShards(config);
+            }
+
             // 执行数据生成
             return executeGeneration(config);
 
@@ -333,7 +549,7 @@ public class DataForgeCli implements Callable<Integer> {
         }
 
         config.setEnableValidation(enableValidation);
-        config.setParallel(parallel);
+        config.setParallelThreads(parallelThreads > 0 ? parallelThreads : Runtime.getRuntime().availableProcessors());
         config.setVerbose(verbose);
         
         if (seed != null) {
@@ -364,6 +580,61 @@ public class DataForgeCli implements Callable<Integer> {
         return fieldMap;
     }
 
+    private int executeLocalShards(DataForgeConfig config) throws Exception {
+        boolean databaseMode = jdbcUrl != null && !jdbcUrl.isEmpty();
+        if (!databaseMode && (config.getOutputFile() == null || config.getOutputFile().isEmpty())) {
+            System.err.println("错误: --shards 需要指定输出文件 (-o) 或数据库 (--jdbc-url)");
+            return 1;
+        }
+
+        long shardSeed = config.getSeed() != null ? config.getSeed() : new Random().nextLong();
+        List<String> childArgs = stripShardArgs(spec.commandLine().getParseResult().originalArgs());
+        childArgs.add("--seed");
+        childArgs.add(String.valueOf(shardSeed));
+        if (!databaseMode && outputFormat == null) {
+            // 分片文件名没有原扩展名，显式传递输出格式
+            childArgs.add("--format");
+            childArgs.add(determineOutputFormat(config.getOutputFile(), config.getOutputFormat()));
+        }
+
+        File output = databaseMode ? null : new File(config.getOutputFile());
+        logger.info("本机分片生成: 分片数 {}, 种子 {}", localShards, shardSeed);
+        int exitCode = new LocalShardOrchestrator(localShards, childArgs, output).run();
+        if (exitCode == 0) {
+            System.out.println("✓ " + localShards + " 个分片共生成 " + config.getCount() + " 条记录"
+                    + (output != null ? "，已合并到: " + output.getPath() : ""));
+            if (output != null) {
+                writeLoadControl(determineOutputFormat(output.getPath(), config.getOutputFormat()), output.getPath(),
+                        new ArrayList<>(config.getFields().keySet()), Collections.singletonList(output.getPath()));
+            }
+        }
+        return exitCode;
+    }
+
+    /**
+     * 去掉由编排器为每个分片重新指定的参数: --shards、--shard、--seed 和输出路径
+     */
+    static List<String> stripShardArgs(List<String> args) {
+        Set<String> withValue = new HashSet<>(Arrays.asList("--shards", "--shard", "--seed", "-o", "--output"));
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < args.size(); i++) {
+            String arg = args.get(i);
+            int eq = arg.indexOf('=');
+            String name = eq > 0 ? arg.substring(0, eq) : arg;
+            if (withValue.contains(name)) {
+                if (eq < 0) {
+                    i++; // 跳过参数值
+                }
+                continue;
+            }
+            if (arg.startsWith("-o") && !arg.startsWith("--")) {
+                continue; // -ofile 形式
+            }
+            result.add(arg);
+        }
+        return result;
+    }
+
     private int executeGeneration(DataForgeConfig config) throws Exception {
         logger.info("开始数据生成，记录数: {}, 字段: {}", config.getCount(), config.getFields().keySet());
 
@@ -384,64 +655,342 @@ public class DataForgeCli implements Callable<Integer> {
             }
         }
 
+        // 分片时只生成数据集中属于本分片的连续行区间
+        long totalRows = config.getCount();
+        long startRow = 0;
+        int rowCount = config.getCount();
+        ShardSpec shardSpec = shard != null ? ShardSpec.parse(shard) : null;
+        if (shardSpec != null) {
+            startRow = shardSpec.startRow(totalRows);
+            rowCount = (int) shardSpec.rowCount(totalRows);
+            logger.info("分片 {}: 行区间 [{}, {})", shardSpec, startRow, startRow + rowCount);
+        }
+
         // 创建生成上下文
-        GenerationContext context = new GenerationContext(config.getCount());
+        GenerationContext context = new GenerationContext(rowCount);
         if (config.getSeed() != null) {
             context.setSeed(config.getSeed());
         }
+        if (shardSpec != null) {
+            context.setParameter(ShardSpec.PARAMETER, shardSpec);
+        }
 
         List<String> fieldNames = new ArrayList<>(config.getFields().keySet());
 
+        // 唯一性状态只在本次运行内有效，运行结束后输出统计并释放
+        UniquenessScope uniquenessScope = new UniquenessScope("run");
+        context.setUniquenessScope(uniquenessScope);
+        // 参数已全部确定：冻结上下文，各写出器拆分出的子上下文共享参数快照与缓存键
+        context.freeze();
+        DataForgeMBeans.register();
+        RunMetrics.Registration scopeMetrics = RunMetrics.getInstance().registerUniquenessScope(uniquenessScope);
+        ProgressReporter progressReporter = new ProgressReporter(rowCount);
+        int exitCode = 1;
+        try (PrometheusEndpoint endpoint = metricsPort != null
+                ? PrometheusEndpoint.start(new InetSocketAddress(metricsPort)) : null) {
+            if (progress) {
+                progressReporter.start(System.err);
+            }
+            exitCode = writeOutput(config, fieldNames, generators, context, startRow, totalRows);
+            return exitCode;
+        } finally {
+            progressReporter.close();
+            if (runReport != null) {
+                writeRunReport(progressReporter, exitCode);
+            }
+            scopeMetrics.close();
+            if (!uniquenessScope.getStatistics().isEmpty()) {
+                logger.info("{}", uniquenessScope.generateReport());
+            }
+            uniquenessScope.close();
+        }
+    }
+
+    /**
+     * 写出 JSON 运行报告；写出失败只给出警告，不改变本次运行的结果
+     */
+    private void writeRunReport(ProgressReporter progressReporter, int exitCode) {
+        String status = exitCode == 0 ? "completed" : exitCode == SIGPIPE_EXIT_CODE ? "broken-pipe" : "failed";
+        try {
+            progressReporter.writeReport(new File(runReport), status);
+            logger.info("运行报告已写出: {}", runReport);
+        } catch (IOException e) {
+            logger.warn("写出运行报告失败: {}", e.getMessage(), e);
+            System.err.println("警告: 写出运行报告失败 - " + e.getMessage());
+        }
+    }
+
+    private int writeOutput(DataForgeConfig config, List<String> fieldNames, Map<String, DataGenerator<?>> generators,
+                            GenerationContext context, long startRow, long totalRows) throws Exception {
+        int rowCount = context.getCount();
+
         // 执行数据生成和输出
         if (jdbcUrl != null && !jdbcUrl.isEmpty()) {
             // 数据库直接写入模式
-            return executeDatabaseWrite(config, fieldNames, generators, context);
+            warnIfCompressionIgnored();
+            return executeDatabaseWrite(config, fieldNames, generators, context, startRow);
         } else if (config.getOutputFile() != null && !config.getOutputFile().isEmpty()) {
             // 输出到文件
             String outputPath = config.getOutputFile();
             String format = determineOutputFormat(outputPath, config.getOutputFormat());
             
-            logger.info("输出到文件: {}, 格式: {}", outputPath, format);
+            int threads = config.getParallelThreads();
+            OutputCompression compression = OutputCompression.parse(compress, compressLevel, compressThreads);
+            if (STDOUT.equals(outputPath)) {
+                return writeStdout(format, fieldNames, generators, context, startRow, totalRows, threads, compression);
+            }
+            logger.info("输出到文件: {}, 格式: {}, 线程数: {}, 压缩: {}", outputPath, format, threads, compression);
             
-            switch (format.toLowerCase()) {
-                case "json":
-                    JsonOutputWriter jsonWriter = new JsonOutputWriter(outputPath, fieldNames, generators);
-                    jsonWriter.write(context);
-                    break;
-                case "xml":
-                    XmlOutputWriter xmlWriter = new XmlOutputWriter(outputPath, fieldNames, generators);
-                    xmlWriter.write(context);
-                    break;
-                case "sql":
-                    String table = tableName != null ? tableName : "generated_data";
-                    SqlInsertOutputWriter sqlWriter = new SqlInsertOutputWriter(outputPath, fieldNames, generators, table, batchSize, databaseType);
-                    sqlWriter.write(context);
-                    break;
-                case "csv":
-                default:
-                    CsvOutputWriter csvWriter = new CsvOutputWriter(outputPath, fieldNames, generators);
-                    csvWriter.write(context);
-                    break;
+            if (rollRows > 0 || rollSize != null) {
+                RollingOutputWriter.Manifest manifest = new RollingOutputWriter(outputPath,
+                        (partPath, partContext, partStart, partThreads) -> writeFile(format, partPath, fieldNames,
+                                generators, partContext, partStart, totalRows, partThreads, compression, true))
+                        .withMaxRows(rollRows)
+                        .withMaxBytes(rollSize != null ? parseSize(rollSize) : 0)
+                        .withThreads(threads)
+                        .withOrderDependentColumns(
+                                ColumnarGenerationEngine.hasOrderDependentColumns(generators.values(), context))
+                        .write(context, startRow);
+                System.out.println("✓ 成功生成 " + rowCount + " 条记录，共 " + manifest.getParts().size()
+                        + " 个分段文件，清单: " + RollingOutputWriter.manifestPath(outputPath));
+                List<String> partPaths = new ArrayList<>();
+                for (RollingOutputWriter.Part part : manifest.getParts()) {
+                    partPaths.add(part.getPath());
+                }
+                writeLoadControl(format, outputPath, fieldNames, partPaths);
+                logger.info("数据生成完成");
+                return 0;
             }
+
+            writeFile(format, outputPath, fieldNames, generators, context, startRow, totalRows, threads, compression, false);
             
-            System.out.println("✓ 成功生成 " + config.getCount() + " 条记录，已保存到: " + outputPath);
+            System.out.println("✓ 成功生成 " + rowCount + " 条记录，已保存到: " + outputPath);
+            if (shard == null) {
+                // 分片文件的装载语句由合并方按最终文件写出
+                writeLoadControl(format, outputPath, fieldNames, Collections.singletonList(outputPath));
+            }
         } else {
             // 输出到控制台
             logger.info("输出到控制台");
-            outputToConsole(fieldNames, generators, context);
+            warnIfCompressionIgnored();
+            outputToConsole(fieldNames, generators, context, startRow);
         }
 
         logger.info("数据生成完成");
         return 0;
     }
 
+    /**
+     * 按格式把数据写到标准输出：不输出任何提示，日志写到标准错误。
+     * 下游提前退出 (例如 head 或 psql 出错) 时写出遇到断开的管道，此时不再报错，
+     * 按 shell 的惯例返回 141 (128 + SIGPIPE)
+     */
+    private int writeStdout(String format, List<String> fieldNames, Map<String, DataGenerator<?>> generators,
+                            GenerationContext context, long startRow, long totalRows, int threads,
+                            OutputCompression compression) throws IOException {
+        logger.info("输出到标准输出, 格式: {}, 线程数: {}, 压缩: {}", format, threads, compression);
+        try {
+            writeFile(format, STDOUT, fieldNames, generators, context, startRow, totalRows, threads, compression, false);
+        } catch (IOException | RuntimeException e) {
+            if (!isBrokenPipe(e)) {
+                throw e;
+            }
+            logger.info("标准输出的读取端已关闭，停止生成");
+            return SIGPIPE_EXIT_CODE;
+        }
+        logger.info("数据生成完成，共 {} 条记录", context.getCount());
+        return 0;
+    }
+
+    /**
+     * 异常链中是否有写入已关闭管道引起的 IOException
+     */
+    static boolean isBrokenPipe(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof IOException && current.getMessage() != null
+                    && current.getMessage().contains("Broken pipe")) {
+                return true;
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 按格式写出一个文件；standalone 为 true 时写出的是滚动输出中独立完整的分段文件
+     */
+    private void writeFile(String format, String outputPath, List<String> fieldNames,
+                           Map<String, DataGenerator<?>> generators, GenerationContext context, long startRow,
+                           long totalRows, int threads, OutputCompression compression, boolean standalone)
+            throws IOException {
+        switch (format.toLowerCase()) {
+            case "ndjson":
+            case "jsonl":
+                new JsonLinesOutputWriter(outputPath, fieldNames, generators)
+                    .withThreads(threads)
+                    .withCompression(compression)
+                    .withStartRow(startRow)
+                    .write(context);
+                break;
+            case "json":
+                JsonOutputWriter jsonWriter = new JsonOutputWriter(outputPath, fieldNames, generators)
+                    .withThreads(threads)
+                    .withCompression(compression)
+                    .withRowRange(startRow, totalRows)
+                    .withStandalone(standalone);
+                jsonWriter.write(context);
+                break;
+            case "xml":
+                XmlOutputWriter xmlWriter = new XmlOutputWriter(outputPath, fieldNames, generators)
+                    .withThreads(threads)
+                    .withCompression(compression)
+                    .withRowRange(startRow, totalRows)
+                    .withStandalone(standalone);
+                xmlWriter.write(context);
+                break;
+            case "pg-copy":
+            case "pg-copy-binary":
+                new PgCopyOutputWriter(outputPath, fieldNames, generators)
+                    .withBinary(format.equalsIgnoreCase("pg-copy-binary"))
+                    .withThreads(threads)
+                    .withCompression(compression)
+                    .withRowRange(startRow, totalRows)
+                    .withStandalone(standalone)
+                    .write(context);
+                break;
+            case "mysql-load":
+                new MySqlLoadOutputWriter(outputPath, fieldNames, generators)
+                    .withThreads(threads)
+                    .withCompression(compression)
+                    .withStartRow(startRow)
+                    .write(context);
+                break;
+            case "sql":
+                String table = tableName != null ? tableName : "generated_data";
+                SqlInsertOutputWriter sqlWriter = new SqlInsertOutputWriter(outputPath, fieldNames, generators, table, batchSize, databaseType)
+                    .withThreads(threads)
+                    .withCompression(compression)
+                    .withRowRange(startRow, totalRows)
+                    .withStandalone(standalone);
+                sqlWriter.write(context);
+                break;
+            case "csv":
+            default:
+                CsvOutputWriter csvWriter = new CsvOutputWriter(outputPath, fieldNames, generators)
+                    .withThreads(threads)
+                    .withCompression(compression)
+                    .withStartRow(startRow)
+                    .withStandalone(standalone)
+                    .withDelimiter(parseCsvChar(csvDelimiter, "--csv-delimiter"))
+                    .withQuote(parseCsvChar(csvQuote, "--csv-quote"));
+                csvWriter.write(context);
+                break;
+        }
+    }
+
+    /**
+     * 为批量装载格式写出装载语句文件：数据文件本身只含数据，COPY / LOAD DATA 语句写在装载语句文件中
+     */
+    private void writeLoadControl(String format, String outputPath, List<String> fieldNames,
+                                  List<String> dataPaths) throws IOException {
+        String table = tableName != null ? tableName : "generated_data";
+        String controlPath;
+        switch (format.toLowerCase()) {
+            case "pg-copy":
+            case "pg-copy-binary":
+                controlPath = PgCopyOutputWriter.writeControlFile(outputPath, table, fieldNames, dataPaths,
+                        format.equalsIgnoreCase("pg-copy-binary"));
+                break;
+            case "mysql-load":
+                controlPath = MySqlLoadOutputWriter.writeControlFile(outputPath, table, fieldNames, dataPaths);
+                break;
+            default:
+                return;
+        }
+        System.out.println("  装载语句已写入: " + controlPath);
+    }
+
+    private void warnIfCompressionIgnored() {
+        if (OutputCompression.parse(compress, compressLevel, compressThreads).isEnabled()) {
+            logger.warn("--compress 只作用于文件输出，已忽略");
+        }
+    }
+
+    /**
+     * 取值可省略的数值选项 (例如 --parallel [threads])：下一个参数是整数时才作为选项值，
+     * 否则使用 fallbackValue，使 "--parallel name,email" 中的字段列表仍作为位置参数。
+     * picocli 会在解析结束时把默认值写入未记录为已匹配的选项，而由消费器处理的选项不会被记录，
+     * 所以使用本消费器的选项不能设置 defaultValue，默认值写在字段的初始值中
+     */
+    static class OptionalNumberConsumer implements IParameterConsumer {
+        @Override
+        public void consumeParameters(Stack<String> args, ArgSpec argSpec, CommandSpec commandSpec) {
+            String value = !args.isEmpty() && args.peek().matches("-?\\d+")
+                    ? args.pop() : ((OptionSpec) argSpec).fallbackValue();
+            try {
+                argSpec.setValue(argSpec.type() == long.class || argSpec.type() == Long.class
+                        ? (Object) Long.valueOf(value) : (Object) Integer.valueOf(value));
+            } catch (NumberFormatException e) {
+                throw new ParameterException(commandSpec.commandLine(),
+                        "Invalid value for option '" + ((OptionSpec) argSpec).longestName() + "': " + value, e);
+            }
+        }
+    }
+
+    /**
+     * 解析带单位的大小参数，支持 K/M/G/T 后缀 (按 1024 进制)，可带可不带 B
+     */
+    static long parseSize(String value) {
+        String text = value.trim().toUpperCase();
+        if (text.endsWith("B")) {
+            text = text.substring(0, text.length() - 1);
+        }
+        long multiplier = 1;
+        if (!text.isEmpty()) {
+            int unit = "KMGT".indexOf(text.charAt(text.length() - 1));
+            if (unit >= 0) {
+                multiplier = 1L << (10 * (unit + 1));
+                text = text.substring(0, text.length() - 1);
+            }
+        }
+        try {
+            long size = Long.parseLong(text.trim()) * multiplier;
+            if (size <= 0) {
+                throw new IllegalArgumentException("大小必须为正数: " + value);
+            }
+            return size;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无法解析大小: " + value, e);
+        }
+    }
+
+    /**
+     * 解析CSV分隔符/引用字符参数，支持转义形式 \t 与名称 tab
+     */
+    static char parseCsvChar(String value, String option) {
+        if ("\\t".equals(value) || "tab".equalsIgnoreCase(value)) {
+            return '\t';
+        }
+        if (value == null || value.length() != 1) {
+            throw new IllegalArgumentException(option + " 需要单个字符: " + value);
+        }
+        return value.charAt(0);
+    }
+
     private String determineOutputFormat(String outputPath, String explicitFormat) {
         if (explicitFormat != null && !explicitFormat.isEmpty()) {
             return explicitFormat;
         }
         
         String lowerPath = outputPath.toLowerCase();
-        if (lowerPath.endsWith(".json")) {
+        if (lowerPath.endsWith(".gz")) {
+            lowerPath = lowerPath.substring(0, lowerPath.length() - 3);
+        }
+        if (lowerPath.endsWith(".ndjson") || lowerPath.endsWith(".jsonl")) {
+            return "ndjson";
+        } else if (lowerPath.endsWith(".json")) {
             return "json";
         } else if (lowerPath.endsWith(".xml")) {
             return "xml";
@@ -453,13 +1002,18 @@ public class DataForgeCli implements Callable<Integer> {
     }
 
     private int executeDatabaseWrite(DataForgeConfig config, List<String> fieldNames, 
-                                   Map<String, DataGenerator<?>> generators, GenerationContext context) {
+                                   Map<String, DataGenerator<?>> generators, GenerationContext context, long startRow) {
         try {
             String table = tableName != null ? tableName : "generated_data";
             logger.info("直接写入数据库: {}, 表: {}", jdbcUrl, table);
             
             DatabaseOutputWriter dbWriter = new DatabaseOutputWriter(
-                jdbcUrl, dbUsername, dbPassword, table, fieldNames, generators, batchSize);
+                jdbcUrl, dbUsername, dbPassword, table, fieldNames, generators, batchSize)
+                .withStartRow(startRow)
+                .withConnections(dbConnections)
+                .withCommitInterval(dbCommitInterval)
+                .withAdaptiveBatchSize(dbAdaptiveBatchMillis)
+                .withConstraintsDisabled(dbDisableConstraints);
             
             // 测试连接
             if (!dbWriter.testConnection()) {
@@ -475,6 +1029,10 @@ public class DataForgeCli implements Callable<Integer> {
             
             dbWriter.write(context);
             logger.info("数据库写入完成");
+            System.out.println("✓ 成功写入 " + context.getCount() + " 条记录到表 " + table);
+            if (dbAdaptiveBatchMillis > 0) {
+                System.out.println("  自适应批大小: " + dbWriter.batchSizeSummary());
+            }
             return 0;
             
         } catch (Exception e) {
@@ -484,7 +1042,8 @@ public class DataForgeCli implements Callable<Integer> {
         }
     }
 
-    private void outputToConsole(List<String> fieldNames, Map<String, DataGenerator<?>> generators, GenerationContext context) {
+    private void outputToConsole(List<String> fieldNames, Map<String, DataGenerator<?>> generators,
+                                 GenerationContext context, long startRow) {
         System.out.println("\n=== DataForge 生成结果 (" + context.getCount() + " 条记录) ===");
         System.out.println();
         
@@ -494,9 +1053,11 @@ public class DataForgeCli implements Callable<Integer> {
         // 输出数据行
         for (int i = 0; i < context.getCount(); i++) {
             GenerationContext rowContext = new GenerationContext(1);
+            rowContext.setUniquenessScope(context.getUniquenessScope());
             if (context.getSeed() != null) {
-                rowContext.setSeed(context.getSeed() + i); // 为每行使用不同的种子
+                rowContext.setSeed(context.getSeed() + startRow + i); // 为每行使用不同的种子
             }
+            rowContext.setParameter(ShardSpec.PARAMETER, ShardSpec.of(context));
             
             StringBuilder row = new StringBuilder();
             
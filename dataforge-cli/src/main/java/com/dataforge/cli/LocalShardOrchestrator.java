@@ -0,0 +1,132 @@
+package com.dataforge.cli;
+
+import com.dataforge.output.GzipBlockIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 本机分片编排器
+ * 在本机启动 N 个 JVM，每个 JVM 以 --shard i/N 生成数据集的一个分片并写入独立的分片文件，
+ * 全部成功后按分片顺序把分片文件拼接为最终输出。各格式写出器保证只有首片写文件头、
+ * 末片写文件尾，因此拼接结果就是完整文件。gzip 压缩的分片是多成员 gzip 流，拼接后仍然合法，
+ * 各分片的 .gzi 块索引平移后合并为最终文件的索引
+ */
+public class LocalShardOrchestrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalShardOrchestrator.class);
+
+    private final int shardCount;
+    private final List<String> baseArgs;
+    private final File outputFile;
+
+    /**
+     * @param shardCount 分片数 (即启动的 JVM 数)
+     * @param baseArgs 传给每个子进程的参数，不含 --shard 与输出路径
+     * @param outputFile 最终输出文件；为 null 时 (例如直接写数据库) 不做合并
+     */
+    public LocalShardOrchestrator(int shardCount, List<String> baseArgs, File outputFile) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        this.shardCount = shardCount;
+        this.baseArgs = new ArrayList<>(baseArgs);
+        this.outputFile = outputFile;
+    }
+
+    /**
+     * 启动全部分片并等待结束
+     *
+     * @return 0 表示全部成功，否则为第一个失败分片的退出码
+     */
+    public int run() throws IOException, InterruptedException {
+        List<File> parts = new ArrayList<>(shardCount);
+        List<Process> processes = new ArrayList<>(shardCount);
+        try {
+            for (int shard = 0; shard < shardCount; shard++) {
+                File part = outputFile != null ? partFile(shard) : null;
+                parts.add(part);
+                List<String> command = buildCommand(shard, part);
+                logger.info("启动分片 {}/{}: {}", shard, shardCount, command);
+                processes.add(new ProcessBuilder(command).inheritIO().start());
+            }
+
+            int exitCode = 0;
+            for (int shard = 0; shard < shardCount; shard++) {
+                int code = processes.get(shard).waitFor();
+                if (code != 0 && exitCode == 0) {
+                    logger.error("分片 {}/{} 失败，退出码: {}", shard, shardCount, code);
+                    exitCode = code;
+                }
+            }
+
+            if (exitCode == 0 && outputFile != null) {
+                merge(parts);
+            }
+            return exitCode;
+        } finally {
+            for (Process process : processes) {
+                process.destroyForcibly();
+            }
+            for (File part : parts) {
+                if (part != null) {
+                    Files.deleteIfExists(part.toPath());
+                    Files.deleteIfExists(GzipBlockIndex.indexPathFor(part.toPath()));
+                }
+            }
+        }
+    }
+
+    List<String> buildCommand(int shard, File part) {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(DataForgeCli.class.getName());
+        command.addAll(baseArgs);
+        command.add("--shard");
+        command.add(shard + "/" + shardCount);
+        if (part != null) {
+            command.add("-o");
+            command.add(part.getPath());
+        }
+        return command;
+    }
+
+    File partFile(int shard) {
+        return new File(outputFile.getPath() + String.format(".part-%05d", shard));
+    }
+
+    /**
+     * 按分片顺序拼接分片文件
+     */
+    void merge(List<File> parts) throws IOException {
+        Path target = outputFile.toPath();
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (File part : parts) {
+                try (FileChannel in = FileChannel.open(part.toPath(), StandardOpenOption.READ)) {
+                    long size = in.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+        }
+        if (parts.stream().allMatch(part -> Files.exists(GzipBlockIndex.indexPathFor(part.toPath())))) {
+            List<Path> gzipParts = parts.stream().map(File::toPath).collect(Collectors.toList());
+            GzipBlockIndex.concat(gzipParts).writeTo(GzipBlockIndex.indexPathFor(target));
+        }
+        logger.info("已合并 {} 个分片到: {}", parts.size(), target);
+    }
+}
\ No newline at end of file
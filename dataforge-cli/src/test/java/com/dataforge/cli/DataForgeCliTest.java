@@ -2,6 +2,14 @@ package com.dataforge.cli;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
+import picocli.CommandLine;
+import picocli.CommandLine.Model.CommandSpec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 public class DataForgeCliTest {
     
@@ -11,4 +19,72 @@ public class DataForgeCliTest {
         // In a real implementation, we would capture stdout and verify the help text
         Assert.assertTrue(true);
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testStripShardArgsRemovesPerShardOptions() {
+        List<String> args = Arrays.asList("-f", "name,phone", "-c", "100", "--shards", "4",
+                "-o", "users.csv", "--seed=42", "--parallel", "2", "--output=other.csv");
+        
+        Assert.assertEquals(DataForgeCli.stripShardArgs(args),
+                Arrays.asList("-f", "name,phone", "-c", "100", "--parallel", "2"));
+    }
+    
+    @Test
+    public void testParseSizeUnits() {
+        Assert.assertEquals(DataForgeCli.parseSize("512"), 512L);
+        Assert.assertEquals(DataForgeCli.parseSize("64k"), 64L * 1024);
+        Assert.assertEquals(DataForgeCli.parseSize("2G"), 2L * 1024 * 1024 * 1024);
+        Assert.assertEquals(DataForgeCli.parseSize("100MB"), 100L * 1024 * 1024);
+    }
+    
+    @Test
+    public void testBrokenPipeIsDetectedThroughCauses() {
+        IOException pipe = new IOException("Broken pipe");
+        Assert.assertTrue(DataForgeCli.isBrokenPipe(pipe));
+        Assert.assertTrue(DataForgeCli.isBrokenPipe(new IOException("写出失败", new UncheckedIOException(pipe))));
+        Assert.assertFalse(DataForgeCli.isBrokenPipe(new IOException("No space left on device")));
+    }
+    
+    /**
+     * 解析参数后的命令模型；由参数消费器处理的选项不记录在 ParseResult 中，因此直接读取选项的值
+     */
+    private static CommandSpec parse(String... args) {
+        CommandLine commandLine = new CommandLine(new DataForgeCli());
+        commandLine.parseArgs(args);
+        return commandLine.getCommandSpec();
+    }
+    
+    private static Object option(CommandSpec spec, String name) {
+        return spec.findOption(name).getValue();
+    }
+    
+    private static Object positionals(CommandSpec spec) {
+        return spec.positionalParameters().get(0).getValue();
+    }
+    
+    @Test
+    public void testParallelWithoutThreadsKeepsPositionalFields() {
+        CommandSpec spec = parse("--parallel", "name,email", "-c", "3");
+        
+        Assert.assertEquals(option(spec, "--parallel"), 0);
+        Assert.assertEquals(positionals(spec), Collections.singletonList("name,email"));
+        Assert.assertEquals(option(spec, "-c"), 3);
+    }
+    
+    @Test
+    public void testParallelWithThreads() {
+        Assert.assertEquals(option(parse("--parallel", "8", "name,email"), "--parallel"), 8);
+        Assert.assertEquals(option(parse("--parallel=4", "-f", "name"), "--parallel"), 4);
+        Assert.assertEquals(option(parse("-f", "name", "--parallel"), "--parallel"), 0);
+        Assert.assertEquals(option(parse("-f", "name"), "--parallel"), 1);
+    }
+    
+    @Test
+    public void testAdaptiveBatchWithoutTargetKeepsPositionalFields() {
+        CommandSpec spec = parse("--db-adaptive-batch", "name,email");
+        Assert.assertEquals(option(spec, "--db-adaptive-batch"), 200L);
+        Assert.assertEquals(positionals(spec), Collections.singletonList("name,email"));
+        
+        Assert.assertEquals(option(parse("--db-adaptive-batch", "500", "name"), "--db-adaptive-batch"), 500L);
+    }
+}
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
 import com.dataforge.core.GeneratorFactory;
+import com.dataforge.core.uniqueness.UniquenessScope;
 
 import java.io.File;
 import java.io.IOException;
@@ -135,17 +136,22 @@ public class ConfigurationManager {
     public static List<Map<String, Object>> executeConfiguration(Configuration config) {
         List<Map<String, Object>> results = new ArrayList<>();
         
-        for (GenerationTask task : config.getTasks()) {
-            results.addAll(executeTask(task, config.getGlobalParameters()));
+        // 每次执行使用独立的唯一性作用域，执行结束即释放
+        try (UniquenessScope scope = new UniquenessScope("configuration")) {
+            for (GenerationTask task : config.getTasks()) {
+                results.addAll(executeTask(task, config.getGlobalParameters(), scope));
+            }
         }
         
         return results;
     }
 
-    private static List<Map<String, Object>> executeTask(GenerationTask task, Map<String, Object> globalParameters) {
+    private static List<Map<String, Object>> executeTask(GenerationTask task, Map<String, Object> globalParameters,
+                                                         UniquenessScope scope) {
         List<Map<String, Object>> results = new ArrayList<>();
         
         GenerationContext context = new GenerationContext(task.getCount());
+        context.setUniquenessScope(scope);
         
         // Set parameters from global and task-specific parameters
         Map<String, Object> mergedParams = new HashMap<>(globalParameters);
@@ -166,7 +172,7 @@ public class ConfigurationManager {
             
             // 处理嵌套任务
             for (GenerationTask nestedTask : task.getNestedTasks()) {
-                List<Map<String, Object>> nestedResults = executeTask(nestedTask, mergedParams);
+                List<Map<String, Object>> nestedResults = executeTask(nestedTask, mergedParams, scope);
                 if (!nestedResults.isEmpty()) {
                     record.putAll(nestedResults.get(0));
                 }
@@ -292,6 +298,7 @@ public class ConfigurationManager {
         private String outputFormat;
         private boolean enableValidation = true;
         private boolean parallel = false;
+        private int parallelThreads = 1;
         private boolean verbose = false;
         private Long seed;
 
@@ -314,6 +321,12 @@ public class ConfigurationManager {
         public boolean isParallel() { return parallel; }
         public void setParallel(boolean parallel) { this.parallel = parallel; }
         
+        public int getParallelThreads() { return parallelThreads; }
+        public void setParallelThreads(int parallelThreads) {
+            this.parallelThreads = Math.max(1, parallelThreads);
+            this.parallel = this.parallelThreads > 1;
+        }
+        
         public boolean isVerbose() { return verbose; }
         public void setVerbose(boolean verbose) { this.verbose = verbose; }
         
@@ -1,44 +1,61 @@
 package com.dataforge.core;
 
+import com.dataforge.core.cache.CacheKey;
+
 /**
  * 带缓存的数据生成器包装器
+ * 缓存键取自 {@link GenerationContext#cacheKey(String)}；上下文冻结后键只构造一次，命中路径不分配对象
  */
 public class CachedDataGenerator<T> implements DataGenerator<T> {
-    
+
     private final String generatorName;
     private final GenerationContext baseContext;
     private final GeneratorCacheManager cacheManager;
-    
+    private volatile DataGenerator<T> delegate;
+
     public CachedDataGenerator(String generatorName, GenerationContext baseContext) {
         this.generatorName = generatorName;
         this.baseContext = baseContext;
         this.cacheManager = GeneratorCacheManager.getInstance();
     }
-    
+
     @Override
-    @SuppressWarnings("unchecked")
     public T generate(GenerationContext context) {
-        String cacheKey = cacheManager.generateCacheKey(generatorName, context);
-        
+        CacheKey cacheKey = context.cacheKey(generatorName);
+
         // 尝试从缓存获取
         T cachedData = cacheManager.getCachedData(cacheKey);
         if (cachedData != null) {
             return cachedData;
         }
-        
+
         // 缓存未命中，生成新数据
-        DataGenerator<T> generator = (DataGenerator<T>) GeneratorFactory.createGenerator(generatorName);
-        T result = generator.generate(context);
-        
+        T result = delegate().generate(context);
+
         // 缓存结果
         cacheManager.cacheData(cacheKey, result);
         cacheManager.recordGeneration();
-        
+
         return result;
     }
-    
+
+    @SuppressWarnings("unchecked")
+    private DataGenerator<T> delegate() {
+        DataGenerator<T> generator = delegate;
+        if (generator == null) {
+            generator = (DataGenerator<T>) GeneratorFactory.createGenerator(generatorName);
+            delegate = generator;
+        }
+        return generator;
+    }
+
     @Override
     public String getName() {
         return generatorName;
     }
+
+    @Override
+    public boolean isOrderDependent(GenerationContext context) {
+        return delegate().isOrderDependent(context);
+    }
 }
\ No newline at end of file
@@ -1,16 +1,20 @@
 package com.dataforge.core;
 
+import com.dataforge.jfr.GenerationChunkEvent;
+import com.dataforge.metrics.RunMetrics;
 import java.util.concurrent.*;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * 并发数据生成器
- * 支持多线程并行生成数据以提高性能
+ * 支持多线程并行生成数据以提高性能。每个任务使用由 {@link GenerationContext#split(long)}
+ * 按任务序号派生的独立上下文，结果按任务序号合并，因此固定种子下的输出与线程调度无关。
+ * 进度按任务而不是按项累计，生成循环内没有共享计数器；每个任务的耗时计入 {@link RunMetrics} 的生成阶段
  */
 public class ConcurrentDataGenerator {
 
@@ -20,7 +24,6 @@ public class ConcurrentDataGenerator {
 
     private final int threadCount;
     private final ExecutorService executorService;
-    private final CompletionService<GenerationResult> completionService;
 
     public ConcurrentDataGenerator() {
         this(DEFAULT_THREAD_COUNT);
@@ -29,7 +32,6 @@ public class ConcurrentDataGenerator {
     public ConcurrentDataGenerator(int threadCount) {
         this.threadCount = Math.max(1, Math.min(threadCount, DEFAULT_THREAD_COUNT * 2));
         this.executorService = Executors.newFixedThreadPool(this.threadCount);
-        this.completionService = new ExecutorCompletionService<>(executorService);
     }
 
     /**
@@ -56,14 +58,15 @@ public class ConcurrentDataGenerator {
             return new ArrayList<>();
         }
 
-        int actualBatchSize = Math.max(1, Math.min(batchSize, totalCount / threadCount + 1));
+        // 分批只取决于 batchSize 而不取决于线程数，保证相同种子在不同线程数下得到相同结果
+        int actualBatchSize = Math.max(1, batchSize);
         int taskCount = (int) Math.ceil((double) totalCount / actualBatchSize);
 
         logger.info("Starting concurrent generation: total={}, batch={}, tasks={}, threads={}",
                    totalCount, actualBatchSize, taskCount, threadCount);
 
         List<Future<GenerationResult>> futures = new ArrayList<>();
-        AtomicInteger processedCount = new AtomicInteger(0);
+        LongAdder processedCount = new LongAdder();
         AtomicLong startTime = new AtomicLong(System.currentTimeMillis());
 
         // 提交任务
@@ -71,27 +74,39 @@ public class ConcurrentDataGenerator {
             final int start = i * actualBatchSize;
             final int end = Math.min(start + actualBatchSize, totalCount);
             final int taskId = i;
+            final GenerationContext taskContext = context.split(taskId, end - start);
 
-            futures.add(completionService.submit(() -> {
-                List<Object> batchResults = new ArrayList<>();
+            futures.add(executorService.submit(() -> {
+                List<Object> batchResults = new ArrayList<>(end - start);
+                GenerationChunkEvent event = new GenerationChunkEvent();
+                event.begin();
+                long started = System.nanoTime();
                 
                 try {
                     for (int j = start; j < end; j++) {
-                        batchResults.add(generator.generate(context));
-                        
-                        // 进度报告
-                        int current = processedCount.incrementAndGet();
-                        if (current % 1000 == 0) {
-                            long elapsed = System.currentTimeMillis() - startTime.get();
-                            double rate = current / (elapsed / 1000.0);
-                            logger.debug("Progress: {}/{} items generated ({} items/sec)", 
-                                       current, totalCount, String.format("%.2f", rate));
-                        }
+                        batchResults.add(generator.generate(taskContext));
                     }
                 } catch (Exception e) {
                     logger.error("Error in batch task {}: {}", taskId, e.getMessage(), e);
                     throw e;
                 }
+                event.end();
+                RunMetrics.getInstance().recordPhase(RunMetrics.Phase.GENERATE, System.nanoTime() - started);
+                
+                // 进度报告：每个任务完成时一次
+                processedCount.add(end - start);
+                if (logger.isDebugEnabled()) {
+                    long current = processedCount.sum();
+                    long elapsed = Math.max(1, System.currentTimeMillis() - startTime.get());
+                    logger.debug("Progress: {}/{} items generated ({} items/sec)",
+                               current, totalCount, String.format("%.2f", current * 1000.0 / elapsed));
+                }
+                if (event.shouldCommit()) {
+                    event.generator = generator.getName();
+                    event.startRow = start;
+                    event.rowCount = end - start;
+                    event.commit();
+                }
                 
                 return new GenerationResult(batchResults);
             }));
@@ -100,8 +115,7 @@ public class ConcurrentDataGenerator {
         // 收集结果
         List<T> results = new ArrayList<>(totalCount);
         try {
-            for (int i = 0; i < taskCount; i++) {
-                Future<GenerationResult> future = completionService.take();
+            for (Future<GenerationResult> future : futures) {
                 GenerationResult result = future.get();
                 
                 @SuppressWarnings("unchecked")
@@ -35,4 +35,16 @@ public interface DataGenerator<T> {
     default List<String> getSupportedParameters() {
         return Collections.emptyList();
     }
+
+    /**
+     * 在给定参数下，生成结果是否依赖此前各行的生成顺序。
+     * 借助唯一性过滤器或序列去重的生成器，某一行的值取决于之前已登记的值，
+     * 并行生成时引擎会按行序调用这类生成器，使输出与线程数无关。
+     *
+     * @param context 生成上下文
+     * @return 依赖生成顺序时返回 true
+     */
+    default boolean isOrderDependent(GenerationContext context) {
+        return false;
+    }
 }
\ No newline at end of file
@@ -1,40 +1,172 @@
 package com.dataforge.core;
 
+import com.dataforge.core.cache.CacheKey;
+import com.dataforge.core.uniqueness.UniquenessScope;
+
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Generation context that holds shared state during data generation.
+ * <p>
+ * A context is meant to be used by one thread at a time. Parallel code should hand each
+ * worker or chunk its own child obtained from {@link #split(long)}: children draw from
+ * independent SplitMix64 streams derived from this context's seed and the stream id, so
+ * seeded runs stay reproducible regardless of thread scheduling. {@link #seekRow(long)}
+ * additionally makes a stream random-access by row index.
+ * <p>
+ * Uniqueness filters and sequence counters live in the context's {@link UniquenessScope},
+ * which children share with their parent. A job should set its own scope and close it when
+ * done; contexts without one fall back to the process-wide {@link UniquenessScope#global()}.
+ * <p>
+ * Once its parameters are final a context can be {@link #freeze() frozen}; cached generators
+ * then look up precomputed {@link CacheKey}s instead of rebuilding a key on every call.
  */
 public class GenerationContext {
     
-    private final Random random;
+    private Random random;
     private final int count;
     private final Map<String, Object> parameters;
     private Long seed;
+    private Long rootSeed;
+    private long streamSeed;
+    private long rowIndex = -1;
+    private UniquenessScope uniquenessScope;
+    private volatile Frozen frozen;
     
     public GenerationContext(int count) {
         this.count = count;
         this.random = new Random();
+        this.streamSeed = random.nextLong();
         this.parameters = new HashMap<>();
     }
     
     public GenerationContext(int count, long seed) {
         this.count = count;
         this.seed = seed;
+        this.rootSeed = seed;
+        this.streamSeed = seed;
         this.random = new Random(seed);
         this.parameters = new HashMap<>();
     }
     
+    /**
+     * Child of {@code parent}. The child of a frozen context is frozen as well and shares the
+     * parent's parameter snapshot and cache keys instead of copying the parameters.
+     */
+    private GenerationContext(GenerationContext parent, int count, Long seed, long streamSeed) {
+        this.count = count;
+        this.seed = seed;
+        this.rootSeed = parent.rootSeed;
+        this.streamSeed = streamSeed;
+        this.random = new SplitMix64Random(streamSeed);
+        this.uniquenessScope = parent.uniquenessScope;
+        Frozen parentFrozen = parent.frozen;
+        if (parentFrozen != null) {
+            this.parameters = parentFrozen.parameters;
+            this.frozen = parentFrozen;
+        } else {
+            this.parameters = new HashMap<>(parent.parameters);
+        }
+    }
+    
+    /**
+     * Derive an independent child context for a worker, chunk or column.
+     * The child copies this context's parameters and count and shares its uniqueness scope;
+     * the child of a frozen context is frozen and shares its parameter snapshot and cache keys.
+     * 
+     * @param streamId the stream id; equal ids yield identical streams
+     * @return the child context
+     */
+    public GenerationContext split(long streamId) {
+        return split(streamId, count);
+    }
+    
+    /**
+     * Derive an independent child context with its own record count.
+     * If this context is seeded the child is seeded as well, with a seed that depends
+     * only on this context's seed and the stream id.
+     * 
+     * @param streamId the stream id; equal ids yield identical streams
+     * @param count the child's record count
+     * @return the child context
+     */
+    public GenerationContext split(long streamId, int count) {
+        long childSeed = SplitMix64Random.deriveSeed(streamSeed, streamId);
+        return new GenerationContext(this, count, seed != null ? childSeed : null, childSeed);
+    }
+    
+    /**
+     * Copy this context with a different record count, e.g. for one part of a rolled output.
+     * Unlike {@link #split(long, int)} the copy keeps this context's seed and stream, so rows
+     * produced through it by row index are identical to the rows this context would produce.
+     *
+     * @param count the copy's record count
+     * @return the copy, frozen if this context is
+     */
+    public GenerationContext withCount(int count) {
+        return new GenerationContext(this, count, seed, streamSeed);
+    }
+
     public Random getRandom() {
         return random;
     }
     
+    /**
+     * Position the random stream at the given row, counter-based.
+     * The values drawn afterwards depend only on this context's stream seed and the row
+     * index, never on what earlier rows consumed, so any row can be produced without
+     * generating the rows before it. Contexts not obtained from {@link #split(long)}
+     * switch to a SplitMix64 stream on the first call.
+     * 
+     * @param row the zero-based row index
+     */
+    public void seekRow(long row) {
+        rowIndex = row;
+        long rowSeed = SplitMix64Random.deriveSeed(streamSeed, row);
+        if (random instanceof SplitMix64Random) {
+            ((SplitMix64Random) random).setState(rowSeed);
+        } else {
+            random = new SplitMix64Random(rowSeed);
+        }
+    }
+    
     public int getCount() {
         return count;
     }
     
+    /**
+     * Get the global index of the row being generated.
+     * Generators can derive globally unique values such as sequence numbers from it,
+     * since row indexes are disjoint across shards.
+     * 
+     * @return the row index set by {@link #seekRow(long)}, or -1 if the context is not row-addressed
+     */
+    public long getRowIndex() {
+        return rowIndex;
+    }
+    
+    /**
+     * Get the scope holding uniqueness filters and sequence counters for this run.
+     * 
+     * @return the scope set by {@link #setUniquenessScope(UniquenessScope)}, or the global scope
+     */
+    public UniquenessScope getUniquenessScope() {
+        return uniquenessScope != null ? uniquenessScope : UniquenessScope.global();
+    }
+    
+    /**
+     * Bind this context, and children split from it afterwards, to a uniqueness scope.
+     * 
+     * @param uniquenessScope the scope, or null to use the global scope
+     */
+    public void setUniquenessScope(UniquenessScope uniquenessScope) {
+        this.uniquenessScope = uniquenessScope;
+    }
+    
     /**
      * Get a parameter value with a default value.
      * 
@@ -58,6 +190,7 @@ public class GenerationContext {
      * @param value the parameter value
      */
     public void setParameter(String key, Object value) {
+        ensureNotFrozen();
         parameters.put(key, value);
     }
     
@@ -70,6 +203,62 @@ public class GenerationContext {
         return new HashMap<>(parameters);
     }
     
+    /**
+     * Freeze the parameters and seed of this context.
+     * Afterwards {@link #setParameter(String, Object)} and {@link #setSeed(Long)} throw
+     * {@link IllegalStateException}, and {@link #cacheKey(String)} returns the same precomputed
+     * key on every call. Random draws and row positioning are unaffected. Children obtained from
+     * {@link #split(long)} or {@link #withCount(int)} afterwards are frozen too: they share this
+     * context's parameter snapshot and return the same cache keys, built from this context's
+     * seed and count, so splitting per column and batch neither copies parameters nor builds keys.
+     * 
+     * @return this context
+     */
+    public synchronized GenerationContext freeze() {
+        if (frozen == null) {
+            frozen = new Frozen(seed, count, parameters.isEmpty()
+                    ? Collections.emptyMap()
+                    : Collections.unmodifiableMap(new HashMap<>(parameters)));
+        }
+        return this;
+    }
+    
+    /**
+     * Check whether {@link #freeze()} has been called.
+     * 
+     * @return true if the parameters and seed can no longer change
+     */
+    public boolean isFrozen() {
+        return frozen != null;
+    }
+    
+    /**
+     * Get the key under which data generated by the named generator with this context is cached.
+     * A frozen context builds each generator's key once and then returns it without allocating;
+     * an unfrozen context builds a new key from a snapshot of its current parameters.
+     * 
+     * @param generatorName the generator name
+     * @return the cache key
+     */
+    public CacheKey cacheKey(String generatorName) {
+        Frozen state = frozen;
+        if (state == null) {
+            return CacheKey.of(generatorName, seed, count, parameters);
+        }
+        CacheKey key = state.cacheKeys.get(generatorName);
+        if (key == null) {
+            key = state.cacheKeys.computeIfAbsent(generatorName,
+                    name -> CacheKey.ofSnapshot(name, state.seed, state.count, state.parameters));
+        }
+        return key;
+    }
+    
+    private void ensureNotFrozen() {
+        if (frozen != null) {
+            throw new IllegalStateException("Generation context is frozen");
+        }
+    }
+    
     /**
      * Get the seed value used for random generation.
      * 
@@ -79,6 +268,17 @@ public class GenerationContext {
         return seed;
     }
     
+    /**
+     * Get the seed of the root context this context was split from.
+     * Unlike {@link #getSeed()} it is the same for every worker, chunk and column of a run,
+     * so values that must agree across them (e.g. permutation keys) can be derived from it.
+     * 
+     * @return the root seed, or null if the run is not seeded
+     */
+    public Long getRootSeed() {
+        return rootSeed;
+    }
+    
     /**
      * Set the seed value for random generation.
      * Note: This creates a new Random instance with the specified seed.
@@ -86,17 +286,28 @@ public class GenerationContext {
      * @param seed the seed value
      */
     public void setSeed(Long seed) {
+        ensureNotFrozen();
         this.seed = seed;
+        this.rootSeed = seed;
         if (seed != null) {
-            // Replace the random instance with a seeded one
-            try {
-                java.lang.reflect.Field randomField = this.getClass().getDeclaredField("random");
-                randomField.setAccessible(true);
-                randomField.set(this, new Random(seed));
-            } catch (Exception e) {
-                // Fallback: set the seed on the existing random instance
-                this.random.setSeed(seed);
-            }
+            this.streamSeed = seed;
+            this.random = new Random(seed);
+        }
+    }
+    
+    /**
+     * State fixed by {@link #freeze()} and shared with the children of the frozen context.
+     */
+    private static final class Frozen {
+        private final Long seed;
+        private final int count;
+        private final Map<String, Object> parameters;
+        private final ConcurrentHashMap<String, CacheKey> cacheKeys = new ConcurrentHashMap<>();
+        
+        Frozen(Long seed, int count, Map<String, Object> parameters) {
+            this.seed = seed;
+            this.count = count;
+            this.parameters = parameters;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,16 @@
 package com.dataforge.core;
 
+import com.dataforge.core.cache.CacheKey;
+import com.dataforge.core.cache.ConcurrentBoundedCache;
+
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 数据生成器缓存管理器
- * 提供缓存机制以提高生成器性能
+ * 提供缓存机制以提高生成器性能。数据缓存为 {@link ConcurrentBoundedCache}，
+ * 同时按条目数与估算字节数限制容量，满时以 CLOCK 算法逐个淘汰，过期条目惰性移除
  */
 public class GeneratorCacheManager {
     
@@ -15,21 +19,47 @@ public class GeneratorCacheManager {
     // 生成器实例缓存
     private final Map<String, DataGenerator<?>> generatorCache = new ConcurrentHashMap<>();
     
-    // 生成数据缓存
-    private final Map<String, CacheEntry<?>> dataCache = new ConcurrentHashMap<>();
+    // 生成数据缓存，配置变更时整体替换
+    private volatile ConcurrentBoundedCache<Object, Object> dataCache;
     
     // 缓存统计
-    private final AtomicLong cacheHits = new AtomicLong(0);
-    private final AtomicLong cacheMisses = new AtomicLong(0);
-    private final AtomicLong totalGenerations = new AtomicLong(0);
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder totalGenerations = new LongAdder();
     
     // 缓存配置
     private int maxCacheSize = 10000;
+    private long maxCacheBytes = 64L * 1024 * 1024; // 64MB
     private long cacheExpirationMs = 300000; // 5分钟
-    private boolean enableDataCache = true;
-    private boolean enableGeneratorCache = true;
+    private volatile boolean enableDataCache = true;
+    private volatile boolean enableGeneratorCache = true;
     
-    private GeneratorCacheManager() {}
+    private GeneratorCacheManager() {
+        this.dataCache = createDataCache();
+    }
+    
+    private ConcurrentBoundedCache<Object, Object> createDataCache() {
+        return new ConcurrentBoundedCache<>(Math.max(1, maxCacheSize), Math.max(1, maxCacheBytes),
+                cacheExpirationMs, GeneratorCacheManager::estimateBytes);
+    }
+    
+    /**
+     * 估算缓存条目占用的堆内存：字符串按对象头加 UTF-16 字符数组计算，其余值按固定开销计算
+     */
+    static long estimateBytes(Object key, Object value) {
+        long bytes = 64;
+        if (key instanceof CacheKey) {
+            bytes += ((CacheKey) key).estimatedBytes();
+        } else {
+            bytes += 40 + 2L * String.valueOf(key).length();
+        }
+        if (value instanceof CharSequence) {
+            bytes += 40 + 2L * ((CharSequence) value).length();
+        } else {
+            bytes += 64;
+        }
+        return bytes;
+    }
     
     public static GeneratorCacheManager getInstance() {
         return INSTANCE;
@@ -46,11 +76,11 @@ public class GeneratorCacheManager {
         
         DataGenerator<?> generator = generatorCache.get(generatorName);
         if (generator != null) {
-            cacheHits.incrementAndGet();
+            cacheHits.increment();
             return (DataGenerator<T>) generator;
         }
         
-        cacheMisses.incrementAndGet();
+        cacheMisses.increment();
         return null;
     }
     
@@ -65,46 +95,40 @@ public class GeneratorCacheManager {
     
     /**
      * 获取缓存的数据
+     * 
+     * @param key {@link CacheKey} 或 {@link #generateCacheKey} 生成的字符串键
      */
     @SuppressWarnings("unchecked")
-    public <T> T getCachedData(String key) {
+    public <T> T getCachedData(Object key) {
         if (!enableDataCache) {
             return null;
         }
         
-        CacheEntry<?> entry = dataCache.get(key);
-        if (entry != null && !entry.isExpired()) {
-            cacheHits.incrementAndGet();
-            return (T) entry.data;
-        }
-        
-        if (entry != null && entry.isExpired()) {
-            dataCache.remove(key);
+        Object data = dataCache.get(key);
+        if (data != null) {
+            cacheHits.increment();
+            return (T) data;
         }
         
-        cacheMisses.incrementAndGet();
+        cacheMisses.increment();
         return null;
     }
     
     /**
      * 缓存数据
      */
-    public <T> void cacheData(String key, T data) {
+    public <T> void cacheData(Object key, T data) {
         if (!enableDataCache || data == null) {
             return;
         }
         
-        // 检查缓存大小限制
-        if (dataCache.size() >= maxCacheSize) {
-            cleanup();
-        }
-        
-        long expirationTime = System.currentTimeMillis() + cacheExpirationMs;
-        dataCache.put(key, new CacheEntry<>(data, expirationTime));
+        // 超出条目数或字节数限制时由缓存自身逐个淘汰
+        dataCache.put(key, data);
     }
     
     /**
-     * 生成缓存键
+     * 生成字符串缓存键
+     * 每次调用都会复制参数表并拼接字符串，频繁调用的路径应改用 {@link GenerationContext#cacheKey(String)}
      */
     public String generateCacheKey(String generatorName, GenerationContext context) {
         StringBuilder keyBuilder = new StringBuilder(generatorName);
@@ -125,23 +149,10 @@ public class GeneratorCacheManager {
     }
     
     /**
-     * 清理过期缓存
+     * 清理过期缓存；容量限制在写入时已经保证，这里只移除过期条目
      */
     public void cleanup() {
-        long currentTime = System.currentTimeMillis();
-        
-        dataCache.entrySet().removeIf(entry -> entry.getValue().isExpired(currentTime));
-        
-        // 如果仍然超过限制，删除最旧的条目
-        if (dataCache.size() >= maxCacheSize) {
-            List<Map.Entry<String, CacheEntry<?>>> entries = new ArrayList<>(dataCache.entrySet());
-            entries.sort(Comparator.comparing(e -> e.getValue().creationTime));
-            
-            int toRemove = dataCache.size() - maxCacheSize / 2;
-            for (int i = 0; i < toRemove && i < entries.size(); i++) {
-                dataCache.remove(entries.get(i).getKey());
-            }
-        }
+        dataCache.cleanUp();
     }
     
     /**
@@ -149,25 +160,28 @@ public class GeneratorCacheManager {
      */
     public void clearAll() {
         dataCache.clear();
+        dataCache.resetStatistics();
         generatorCache.clear();
-        cacheHits.set(0);
-        cacheMisses.set(0);
-        totalGenerations.set(0);
+        cacheHits.reset();
+        cacheMisses.reset();
+        totalGenerations.reset();
     }
     
     /**
      * 获取缓存统计信息
      */
     public CacheStatistics getStatistics() {
-        long hits = cacheHits.get();
-        long misses = cacheMisses.get();
+        long hits = cacheHits.sum();
+        long misses = cacheMisses.sum();
         long total = hits + misses;
         double hitRatio = total > 0 ? (double) hits / total : 0.0;
+        ConcurrentBoundedCache<Object, Object> cache = dataCache;
         
         return new CacheStatistics(
             hits, misses, hitRatio,
-            generatorCache.size(), dataCache.size(),
-            totalGenerations.get()
+            generatorCache.size(), (int) cache.size(),
+            totalGenerations.sum(),
+            cache.getEvictionCount(), cache.getExpirationCount(), cache.weight()
         );
     }
     
@@ -176,39 +190,18 @@ public class GeneratorCacheManager {
      */
     public void configure(CacheConfiguration config) {
         this.maxCacheSize = config.maxCacheSize;
+        this.maxCacheBytes = config.maxCacheBytes;
         this.cacheExpirationMs = config.cacheExpirationMs;
         this.enableDataCache = config.enableDataCache;
         this.enableGeneratorCache = config.enableGeneratorCache;
+        this.dataCache = createDataCache();
     }
     
     /**
      * 记录生成操作
      */
     public void recordGeneration() {
-        totalGenerations.incrementAndGet();
-    }
-    
-    /**
-     * 缓存条目类
-     */
-    private static class CacheEntry<T> {
-        final T data;
-        final long creationTime;
-        final long expirationTime;
-        
-        CacheEntry(T data, long expirationTime) {
-            this.data = data;
-            this.creationTime = System.currentTimeMillis();
-            this.expirationTime = expirationTime;
-        }
-        
-        boolean isExpired() {
-            return isExpired(System.currentTimeMillis());
-        }
-        
-        boolean isExpired(long currentTime) {
-            return currentTime > expirationTime;
-        }
+        totalGenerations.increment();
     }
     
     /**
@@ -221,24 +214,38 @@ public class GeneratorCacheManager {
         public final int generatorCacheSize;
         public final int dataCacheSize;
         public final long totalGenerations;
+        public final long evictions;
+        public final long expirations;
+        public final long dataCacheBytes;
         
         public CacheStatistics(long cacheHits, long cacheMisses, double hitRatio,
                              int generatorCacheSize, int dataCacheSize, long totalGenerations) {
+            this(cacheHits, cacheMisses, hitRatio, generatorCacheSize, dataCacheSize, totalGenerations, 0, 0, 0);
+        }
+        
+        public CacheStatistics(long cacheHits, long cacheMisses, double hitRatio,
+                             int generatorCacheSize, int dataCacheSize, long totalGenerations,
+                             long evictions, long expirations, long dataCacheBytes) {
             this.cacheHits = cacheHits;
             this.cacheMisses = cacheMisses;
             this.hitRatio = hitRatio;
             this.generatorCacheSize = generatorCacheSize;
             this.dataCacheSize = dataCacheSize;
             this.totalGenerations = totalGenerations;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.dataCacheBytes = dataCacheBytes;
         }
         
         @Override
         public String toString() {
             return String.format(
                 "CacheStatistics{hits=%d, misses=%d, hitRatio=%.2f%%, " +
-                "generatorCache=%d, dataCache=%d, totalGenerations=%d}",
+                "generatorCache=%d, dataCache=%d, totalGenerations=%d, " +
+                "evictions=%d, expirations=%d, dataCacheBytes=%d}",
                 cacheHits, cacheMisses, hitRatio * 100,
-                generatorCacheSize, dataCacheSize, totalGenerations
+                generatorCacheSize, dataCacheSize, totalGenerations,
+                evictions, expirations, dataCacheBytes
             );
         }
     }
@@ -248,6 +255,7 @@ public class GeneratorCacheManager {
      */
     public static class CacheConfiguration {
         public int maxCacheSize = 10000;
+        public long maxCacheBytes = 64L * 1024 * 1024; // 64MB
         public long cacheExpirationMs = 300000; // 5分钟
         public boolean enableDataCache = true;
         public boolean enableGeneratorCache = true;
@@ -256,7 +264,16 @@ public class GeneratorCacheManager {
         
         public CacheConfiguration(int maxCacheSize, long cacheExpirationMs, 
                                 boolean enableDataCache, boolean enableGeneratorCache) {
+            this(maxCacheSize, 64L * 1024 * 1024, cacheExpirationMs, enableDataCache, enableGeneratorCache);
+        }
+        
+        /**
+         * @param maxCacheBytes 数据缓存的估算字节数上限
+         */
+        public CacheConfiguration(int maxCacheSize, long maxCacheBytes, long cacheExpirationMs,
+                                boolean enableDataCache, boolean enableGeneratorCache) {
             this.maxCacheSize = maxCacheSize;
+            this.maxCacheBytes = maxCacheBytes;
             this.cacheExpirationMs = cacheExpirationMs;
             this.enableDataCache = enableDataCache;
             this.enableGeneratorCache = enableGeneratorCache;
@@ -267,11 +284,11 @@ public class GeneratorCacheManager {
         }
         
         public static CacheConfiguration highPerformance() {
-            return new CacheConfiguration(50000, 600000, true, true);
+            return new CacheConfiguration(50000, 256L * 1024 * 1024, 600000, true, true);
         }
         
         public static CacheConfiguration memoryOptimized() {
-            return new CacheConfiguration(1000, 60000, true, true);
+            return new CacheConfiguration(1000, 4L * 1024 * 1024, 60000, true, true);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+package com.dataforge.core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * 无锁的对数线性延迟直方图 (HdrHistogram 的桶布局)
+ * 每个 2 的幂区间均分为 64 个子桶，记录值的相对误差不超过 1/64，
+ * 可记录 1ns 到约 68.7s 的延迟，更大的值计入最后一个桶 (最大值仍精确记录)。
+ * 计数按线程分散到固定数量的分段上，记录时只对所在分段做一次无锁自增，
+ * 读取时合并全部分段；内存占用固定，与记录次数无关，百分位数覆盖整个运行期间
+ */
+public final class LatencyHistogram {
+
+    /** 每个 2 的幂区间的子桶数为 2^SUB_BUCKET_BITS */
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final long SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+
+    /** 可区分的最大值为 2^MAX_VALUE_BITS - 1 纳秒 */
+    private static final int MAX_VALUE_BITS = 36;
+    private static final long MAX_TRACKABLE_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT = countsIndex(MAX_TRACKABLE_VALUE) + 1;
+
+    private static final int MAX_STRIPES = 8;
+
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    public LatencyHistogram() {
+        int stripeCount = Integer.highestOneBit(Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors()));
+        this.stripes = new AtomicLongArray[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicLongArray(BUCKET_COUNT);
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    /**
+     * 记录一个非负值 (纳秒)，负值按 0 记录
+     */
+    public void record(long value) {
+        record(value, 1);
+    }
+
+    /**
+     * 把同一个值记录 count 次，用于采样或按批计时时一个测量值代表多次操作
+     */
+    public void record(long value, long count) {
+        if (count <= 0) {
+            return;
+        }
+        long clamped = Math.max(0, value);
+        int stripe = (int) Thread.currentThread().getId() & stripeMask;
+        stripes[stripe].getAndAdd(countsIndex(Math.min(clamped, MAX_TRACKABLE_VALUE)), count);
+        min.accumulate(clamped);
+        max.accumulate(clamped);
+    }
+
+    /**
+     * 合并各分段得到当前计数的快照；与并发记录之间不加锁，快照可能不包含正在记录的值
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long count = stripe.get(i);
+                counts[i] += count;
+                total += count;
+            }
+        }
+        return new Snapshot(counts, total, min.get(), max.get());
+    }
+
+    /**
+     * 清空全部计数
+     */
+    public void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                stripe.set(i, 0);
+            }
+        }
+        min.reset();
+        max.reset();
+    }
+
+    /**
+     * 值所在的桶：第 m 个 2 的幂区间 (m = 0 时包含 [0, 128)) 的子桶 v >>> m，下标为 m * 64 + (v >>> m)
+     */
+    static int countsIndex(long value) {
+        int magnitude = 64 - Long.numberOfLeadingZeros(value | SUB_BUCKET_MASK) - SUB_BUCKET_BITS;
+        return (magnitude << (SUB_BUCKET_BITS - 1)) + (int) (value >>> magnitude);
+    }
+
+    /**
+     * 桶内最大的值，即与桶中任一记录值等价的最大值
+     */
+    static long highestEquivalentValue(int index) {
+        int magnitude = Math.max(0, (index >> (SUB_BUCKET_BITS - 1)) - 1);
+        long subBucket = index - ((long) magnitude << (SUB_BUCKET_BITS - 1));
+        return (subBucket << magnitude) + (1L << magnitude) - 1;
+    }
+
+    /**
+     * 直方图在某一时刻的合并视图
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long totalCount;
+        private final long min;
+        private final long max;
+
+        Snapshot(long[] counts, long totalCount, long min, long max) {
+            this.counts = counts;
+            this.totalCount = totalCount;
+            this.min = min;
+            this.max = max;
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        public long getMin() {
+            return totalCount == 0 ? 0 : min;
+        }
+
+        public long getMax() {
+            return totalCount == 0 ? 0 : max;
+        }
+
+        /**
+         * 百分位数对应的值，percentile 取 [0, 1]；结果为所在桶的上界，不超过记录过的最大值
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (totalCount == 0) {
+                return 0;
+            }
+            double clamped = Math.max(0, Math.min(1, percentile));
+            long target = Math.max(1, (long) Math.ceil(clamped * totalCount));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.max(getMin(), Math.min(highestEquivalentValue(i), max));
+                }
+            }
+            return max;
+        }
+
+        /**
+         * 按桶中点估算的平均值
+         */
+        public double getMean() {
+            if (totalCount == 0) {
+                return 0;
+            }
+            double sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    long high = Math.min(highestEquivalentValue(i), max);
+                    long low = i == 0 ? 0 : highestEquivalentValue(i - 1) + 1;
+                    sum += counts[i] * ((low + high) / 2.0);
+                }
+            }
+            return sum / totalCount;
+        }
+    }
+}
@@ -6,12 +6,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.function.Consumer;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 内存优化数据生成器
- * 支持流式生成，避免内存溢出，适合大规模数据生成
+ * 支持流式生成，避免内存溢出，适合大规模数据生成。
+ * 内存检查与进度日志在每批结束时进行，逐项生成的循环内没有计数与取模
  */
 public class MemoryOptimizedGenerator {
 
@@ -60,27 +59,28 @@ public class MemoryOptimizedGenerator {
 
         logger.info("Starting memory-optimized streaming generation: {} items", totalCount);
         
-        AtomicLong processedCount = new AtomicLong(0);
-        AtomicInteger currentBatch = new AtomicInteger(0);
+        int step = Math.max(1, batchSize);
         long startTime = System.currentTimeMillis();
 
         Runtime runtime = Runtime.getRuntime();
         
         try {
-            for (long i = 0; i < totalCount; i++) {
-                T data = generator.generate(context);
-                consumer.accept(data);
-                
-                long current = processedCount.incrementAndGet();
+            for (long batchStart = 0; batchStart < totalCount; batchStart += step) {
+                long batchEnd = Math.min(totalCount, batchStart + step);
+                for (long i = batchStart; i < batchEnd; i++) {
+                    T data = generator.generate(context);
+                    consumer.accept(data);
+                }
                 
-                // 内存监控
-                if (current % batchSize == 0) {
-                    checkMemoryUsage(runtime, current, totalCount);
+                // 内存监控，只在完整的批次结束时进行
+                if (batchEnd - batchStart == step) {
+                    checkMemoryUsage(runtime, batchEnd, totalCount);
                     
-                    long elapsed = System.currentTimeMillis() - startTime;
-                    double rate = current / (elapsed / 1000.0);
-                    logger.debug("Progress: {}/{} items generated ({} items/sec)", 
-                               current, totalCount, String.format("%.2f", rate));
+                    if (logger.isDebugEnabled()) {
+                        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+                        logger.debug("Progress: {}/{} items generated ({} items/sec)", 
+                                   batchEnd, totalCount, String.format("%.2f", batchEnd * 1000.0 / elapsed));
+                    }
                 }
             }
 
@@ -1,13 +1,19 @@
 package com.dataforge.core;
 
+import java.util.function.Consumer;
+
 /**
  * 带性能监控的数据生成器包装器
+ * 采样间隔为 1 时每次调用都计时；大于 1 时每个线程每 N 次调用只计时一次，
+ * 计数保存在线程本地计数器中，不分配对象也不访问共享状态，
+ * 适合只需几十纳秒的生成器在生产运行中常开监控
  */
 public class MonitoredDataGenerator<T> implements DataGenerator<T> {
     
     private final DataGenerator<T> baseGenerator;
     private final String generatorName;
     private final PerformanceMonitor monitor;
+    private final ThreadLocal<int[]> callsSinceSample = ThreadLocal.withInitial(() -> new int[1]);
     
     public MonitoredDataGenerator(DataGenerator<T> baseGenerator, String generatorName) {
         this.baseGenerator = baseGenerator;
@@ -17,6 +23,14 @@ public class MonitoredDataGenerator<T> implements DataGenerator<T> {
     
     @Override
     public T generate(GenerationContext context) {
+        if (!monitor.isEnabled()) {
+            return baseGenerator.generate(context);
+        }
+        int interval = monitor.getSampleInterval();
+        if (interval > 1) {
+            return generateSampled(context, interval);
+        }
+        
         PerformanceMonitor.OperationContext operationContext = monitor.startOperation(generatorName);
         
         try {
@@ -29,6 +43,38 @@ public class MonitoredDataGenerator<T> implements DataGenerator<T> {
         }
     }
     
+    /**
+     * 每 interval 次调用计时一次，该次耗时按 interval 次操作计入；
+     * 未到采样点的调用直接委托，运行结束时最后不足 interval 次的调用不计入
+     */
+    private T generateSampled(GenerationContext context, int interval) {
+        int[] calls = callsSinceSample.get();
+        if (++calls[0] < interval) {
+            return baseGenerator.generate(context);
+        }
+        calls[0] = 0;
+        long start = System.nanoTime();
+        T result = baseGenerator.generate(context);
+        monitor.recordSample(generatorName, System.nanoTime() - start, interval);
+        return result;
+    }
+    
+    /**
+     * 为 [startRow, startRow + rows) 连续生成值并交给 sink，整批只计时一次。
+     * 每行生成前按行号定位上下文，结果与逐行调用 generate 相同
+     */
+    public void generateBatch(GenerationContext context, long startRow, int rows, Consumer<? super T> sink) {
+        boolean enabled = monitor.isEnabled();
+        long start = enabled ? System.nanoTime() : 0;
+        for (int i = 0; i < rows; i++) {
+            context.seekRow(startRow + i);
+            sink.accept(baseGenerator.generate(context));
+        }
+        if (enabled) {
+            monitor.recordBatch(generatorName, System.nanoTime() - start, rows);
+        }
+    }
+    
     @Override
     public String getName() {
         return baseGenerator.getName();
@@ -39,6 +85,11 @@ public class MonitoredDataGenerator<T> implements DataGenerator<T> {
         return baseGenerator.getSupportedParameters();
     }
     
+    @Override
+    public boolean isOrderDependent(GenerationContext context) {
+        return baseGenerator.isOrderDependent(context);
+    }
+    
     public DataGenerator<T> getBaseGenerator() {
         return baseGenerator;
     }
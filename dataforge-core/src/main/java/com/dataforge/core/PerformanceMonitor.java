@@ -2,7 +2,6 @@ package com.dataforge.core;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
 
 /**
@@ -15,13 +14,13 @@ public class PerformanceMonitor {
     
     // 性能指标
     private final Map<String, GeneratorMetrics> generatorMetrics = new ConcurrentHashMap<>();
-    private final AtomicLong totalOperations = new AtomicLong(0);
-    private final AtomicLong totalTime = new AtomicLong(0);
+    private final LongAdder totalOperations = new LongAdder();
+    private final LongAdder totalTime = new LongAdder();
     private final long startTime = System.currentTimeMillis();
     
-    // 监控配置
-    private boolean enabled = true;
-    private int maxMetricsHistory = 1000;
+    // 监控配置，运行期间可随时修改，已创建的生成器立即生效
+    private volatile boolean enabled = true;
+    private volatile int sampleInterval = 1;
     
     private PerformanceMonitor() {}
     
@@ -51,21 +50,39 @@ public class PerformanceMonitor {
         long endTime = System.nanoTime();
         long duration = endTime - context.startTime;
         
-        recordMetrics(context.generatorName, duration, itemsGenerated);
+        recordMetrics(context.generatorName, duration, 1, itemsGenerated);
     }
     
     /**
-     * 记录指标
+     * 记录指标：operations 次操作，每次耗时 latencyNanos
      */
-    private void recordMetrics(String generatorName, long durationNanos, int itemsGenerated) {
-        GeneratorMetrics metrics = generatorMetrics.computeIfAbsent(
-            generatorName, k -> new GeneratorMetrics(k)
-        );
+    private void recordMetrics(String generatorName, long latencyNanos, long operations, long itemsGenerated) {
+        GeneratorMetrics metrics = generatorMetrics.get(generatorName);
+        if (metrics == null) {
+            metrics = generatorMetrics.computeIfAbsent(generatorName, GeneratorMetrics::new);
+        }
         
-        metrics.recordOperation(durationNanos, itemsGenerated);
+        metrics.recordOperations(latencyNanos, operations, itemsGenerated);
         
-        totalOperations.incrementAndGet();
-        totalTime.addAndGet(durationNanos);
+        totalOperations.add(operations);
+        totalTime.add(latencyNanos * operations);
+    }
+    
+    /**
+     * 记录一批连续操作的总耗时，每次操作按平均耗时计入延迟分布
+     */
+    public void recordBatch(String generatorName, long elapsedNanos, int operations) {
+        if (!enabled || operations <= 0) {
+            return;
+        }
+        recordMetrics(generatorName, elapsedNanos / operations, operations, operations);
+    }
+    
+    /**
+     * 记录一次采样操作的耗时，代表 weight 次同类操作
+     */
+    void recordSample(String generatorName, long durationNanos, int weight) {
+        recordMetrics(generatorName, durationNanos, weight, weight);
     }
     
     /**
@@ -90,8 +107,8 @@ public class PerformanceMonitor {
         long uptimeMs = currentTime - startTime;
         
         return new OverallPerformanceReport(
-            totalOperations.get(),
-            totalTime.get(),
+            totalOperations.sum(),
+            totalTime.sum(),
             uptimeMs,
             generatorMetrics.size(),
             calculateTotalThroughput()
@@ -130,8 +147,8 @@ public class PerformanceMonitor {
      */
     public void reset() {
         generatorMetrics.clear();
-        totalOperations.set(0);
-        totalTime.set(0);
+        totalOperations.reset();
+        totalTime.reset();
     }
     
     /**
@@ -141,6 +158,26 @@ public class PerformanceMonitor {
         this.enabled = enabled;
     }
     
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * 设置采样间隔：1 (默认) 为每次调用都计时；N 大于 1 时为低开销的采样模式，
+     * MonitoredDataGenerator 每个线程每 N 次调用只计时一次并按 N 次计入，
+     * 列式引擎对整批值只计时一次
+     */
+    public void setSampleInterval(int sampleInterval) {
+        if (sampleInterval < 1) {
+            throw new IllegalArgumentException("Sample interval must be positive: " + sampleInterval);
+        }
+        this.sampleInterval = sampleInterval;
+    }
+    
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+    
     /**
      * 操作上下文
      */
@@ -158,16 +195,14 @@ public class PerformanceMonitor {
     
     /**
      * 生成器指标类
+     * 延迟记录在无锁直方图中，记录路径不加锁，百分位数覆盖整个运行期间
      */
     public static class GeneratorMetrics {
         private final String generatorName;
         private final LongAdder totalOperations = new LongAdder();
         private final LongAdder totalTime = new LongAdder();
         private final LongAdder totalItems = new LongAdder();
-        private final List<Long> recentLatencies = Collections.synchronizedList(new ArrayList<>());
-        
-        private volatile long minLatency = Long.MAX_VALUE;
-        private volatile long maxLatency = Long.MIN_VALUE;
+        private final LatencyHistogram latencies = new LatencyHistogram();
         private final long creationTime = System.currentTimeMillis();
         
         public GeneratorMetrics(String generatorName) {
@@ -175,29 +210,14 @@ public class PerformanceMonitor {
         }
         
         void recordOperation(long durationNanos, int itemsGenerated) {
-            totalOperations.increment();
-            totalTime.add(durationNanos);
-            totalItems.add(itemsGenerated);
-            
-            // 更新最小最大延迟
-            updateLatencyBounds(durationNanos);
-            
-            // 记录最近的延迟（用于计算百分位数）
-            synchronized (recentLatencies) {
-                recentLatencies.add(durationNanos);
-                if (recentLatencies.size() > 1000) {
-                    recentLatencies.remove(0);
-                }
-            }
+            recordOperations(durationNanos, 1, itemsGenerated);
         }
         
-        private void updateLatencyBounds(long latency) {
-            if (latency < minLatency) {
-                minLatency = latency;
-            }
-            if (latency > maxLatency) {
-                maxLatency = latency;
-            }
+        void recordOperations(long latencyNanos, long operations, long itemsGenerated) {
+            totalOperations.add(operations);
+            totalTime.add(latencyNanos * operations);
+            totalItems.add(itemsGenerated);
+            latencies.record(latencyNanos, operations);
         }
         
         public String getGeneratorName() {
@@ -223,37 +243,36 @@ public class PerformanceMonitor {
         }
         
         public long getMinLatency() {
-            return minLatency == Long.MAX_VALUE ? 0 : minLatency / 1_000_000; // 毫秒
+            return latencies.snapshot().getMin() / 1_000_000; // 毫秒
         }
         
         public long getMaxLatency() {
-            return maxLatency == Long.MIN_VALUE ? 0 : maxLatency / 1_000_000; // 毫秒
+            return latencies.snapshot().getMax() / 1_000_000; // 毫秒
         }
         
+        /**
+         * 延迟百分位数 (毫秒)，percentile 取 [0, 1]，相对误差不超过 1/64
+         */
         public double getPercentile(double percentile) {
-            List<Long> latencies;
-            synchronized (recentLatencies) {
-                latencies = new ArrayList<>(recentLatencies);
-            }
-            
-            if (latencies.isEmpty()) {
-                return 0;
-            }
-            
-            Collections.sort(latencies);
-            int index = (int) Math.ceil(percentile * latencies.size()) - 1;
-            index = Math.max(0, Math.min(index, latencies.size() - 1));
-            
-            return latencies.get(index) / 1_000_000.0; // 毫秒
+            return latencies.snapshot().getValueAtPercentile(percentile) / 1_000_000.0;
+        }
+        
+        /**
+         * 延迟直方图 (纳秒)，需要同时读取多个百分位数时取一次快照
+         */
+        public LatencyHistogram getLatencyHistogram() {
+            return latencies;
         }
         
         @Override
         public String toString() {
+            LatencyHistogram.Snapshot snapshot = latencies.snapshot();
             return String.format(
                 "GeneratorMetrics{name='%s', operations=%d, avgLatency=%.2fms, " +
-                "throughput=%.2f items/sec, p95=%.2fms, p99=%.2fms}",
-                generatorName, getTotalOperations(), getAverageLatency(),
-                getThroughput(), getPercentile(0.95), getPercentile(0.99)
+                "throughput=%.2f items/sec, p50=%.3fms, p99=%.3fms, p99.9=%.3fms, max=%.3fms}",
+                generatorName, getTotalOperations(), getAverageLatency(), getThroughput(),
+                snapshot.getValueAtPercentile(0.50) / 1_000_000.0, snapshot.getValueAtPercentile(0.99) / 1_000_000.0,
+                snapshot.getValueAtPercentile(0.999) / 1_000_000.0, snapshot.getMax() / 1_000_000.0
             );
         }
     }
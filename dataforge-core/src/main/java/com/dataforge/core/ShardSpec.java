@@ -0,0 +1,117 @@
+package com.dataforge.core;
+
+/**
+ * 分片描述 (第 index 片，共 count 片，index 从 0 开始)
+ * 数据集按行号切成 count 个连续区间，第 index 个进程只生成自己的区间。由于行的随机流按
+ * (种子, 列, 行号) 定位，同一种子下各分片拼接后，无唯一性约束的字段与单进程生成的结果一致。
+ * 需要唯一性的生成器通过 {@link #owns(Object)} 把取值空间按哈希划分给各分片，
+ * 各分片只接受归属于自己的取值，因此无需协调即可保证跨分片不重复
+ */
+public final class ShardSpec {
+
+    /** 生成上下文中保存分片信息的参数名 */
+    public static final String PARAMETER = "shard";
+
+    private static final ShardSpec SINGLE = new ShardSpec(0, 1);
+
+    private final int index;
+    private final int count;
+
+    public ShardSpec(int index, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + count);
+        }
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("Shard index must be in [0, " + count + "): " + index);
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    /**
+     * 解析 "i/N" 格式的分片描述
+     */
+    public static ShardSpec parse(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Shard must be specified as i/N");
+        }
+        int slash = value.indexOf('/');
+        if (slash <= 0 || slash == value.length() - 1) {
+            throw new IllegalArgumentException("Shard must be specified as i/N: " + value);
+        }
+        try {
+            return new ShardSpec(Integer.parseInt(value.substring(0, slash).trim()),
+                    Integer.parseInt(value.substring(slash + 1).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Shard must be specified as i/N: " + value, e);
+        }
+    }
+
+    /**
+     * 获取上下文中的分片信息，未分片时返回单分片
+     */
+    public static ShardSpec of(GenerationContext context) {
+        Object shard = context.getParameter(PARAMETER, null);
+        return shard instanceof ShardSpec ? (ShardSpec) shard : SINGLE;
+    }
+
+    /**
+     * 本分片在总行数为 totalRows 的数据集中的起始行
+     */
+    public long startRow(long totalRows) {
+        return totalRows / count * index + Math.min(index, totalRows % count);
+    }
+
+    /**
+     * 本分片在总行数为 totalRows 的数据集中的行数
+     */
+    public long rowCount(long totalRows) {
+        return totalRows / count + (index < totalRows % count ? 1 : 0);
+    }
+
+    /**
+     * 判断取值是否归属本分片；单分片时总是返回 true
+     */
+    public boolean owns(Object value) {
+        return count == 1 || ownerOf(value) == index;
+    }
+
+    private int ownerOf(Object value) {
+        // 加盐后再混淆，避免取值的 hashCode 与行号分片规律相关
+        return (int) Math.floorMod(SplitMix64Random.mix64(value.hashCode() + 0x5DEECE66DL), (long) count);
+    }
+
+    public boolean isSingle() {
+        return count == 1;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ShardSpec)) {
+            return false;
+        }
+        ShardSpec that = (ShardSpec) o;
+        return index == that.index && count == that.count;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * index + count;
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.dataforge.core;
+
+import java.util.Random;
+
+/**
+ * SplitMix64 随机数生成器
+ * 状态只有一个 long，按黄金分割增量推进并经过 64 位混淆输出。与 java.util.Random 不同，
+ * 它不使用 CAS 更新种子，适合由单个线程独占；多线程场景应通过 {@link GenerationContext#split(long)}
+ * 为每个线程或分片派生独立实例，而不是共享同一个实例
+ */
+public class SplitMix64Random extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    /** 黄金分割增量 (2^64 / φ) */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private long state;
+
+    public SplitMix64Random(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        this.state = seed;
+    }
+
+    /**
+     * 直接设置内部状态，不经过同步的 setSeed，用于按计数器定位到任意位置
+     */
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    /**
+     * Box-Muller 变换，每次固定消耗两个均匀值、只返回其中一个正态值。
+     * java.util.Random 会缓存成对产生的第二个值，而 {@link #setState(long)} 不经过 setSeed 无法清除它，
+     * 定位到某一行后的结果会取决于之前的行；这里不保留任何缓存，结果只取决于当前状态
+     */
+    @Override
+    public double nextGaussian() {
+        // 1 - nextDouble() 落在 (0, 1]，避免对 0 取对数
+        double radius = Math.sqrt(-2.0 * Math.log(1.0 - nextDouble()));
+        return radius * Math.cos(2.0 * Math.PI * nextDouble());
+    }
+
+    /**
+     * SplitMix64 / MurmurHash3 的 64 位终结混淆函数
+     */
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 由父种子和流编号确定性地派生子种子，不同编号得到统计上独立的流
+     *
+     * @param seed 父种子
+     * @param streamId 流编号
+     * @return 子种子
+     */
+    public static long deriveSeed(long seed, long streamId) {
+        return mix64(seed + mix64(streamId + GOLDEN_GAMMA) * GOLDEN_GAMMA);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.dataforge.core.cache;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 生成数据缓存键
+ * 由生成器名称、种子、记录数和参数快照组成，构造时计算并缓存哈希值，之后不可变。
+ * 冻结的上下文为每个生成器名称只构造一次 (见 {@link com.dataforge.core.GenerationContext#cacheKey(String)})，
+ * 查询缓存时不再复制参数表、也不再拼接字符串
+ */
+public final class CacheKey {
+
+    private final String generatorName;
+    private final Long seed;
+    private final int count;
+    private final Map<String, Object> parameters;
+    private final int hash;
+
+    private CacheKey(String generatorName, Long seed, int count, Map<String, Object> parameters) {
+        this.generatorName = generatorName;
+        this.seed = seed;
+        this.count = count;
+        this.parameters = parameters;
+        int h = generatorName.hashCode();
+        h = 31 * h + Objects.hashCode(seed);
+        h = 31 * h + count;
+        h = 31 * h + parameters.hashCode();
+        this.hash = h;
+    }
+
+    /**
+     * @param parameters 参数表，会被复制
+     */
+    public static CacheKey of(String generatorName, Long seed, int count, Map<String, Object> parameters) {
+        Map<String, Object> snapshot = parameters.isEmpty()
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new HashMap<>(parameters));
+        return new CacheKey(generatorName, seed, count, snapshot);
+    }
+
+    /**
+     * 与已有的不可变参数快照组合，不复制参数表
+     */
+    public static CacheKey ofSnapshot(String generatorName, Long seed, int count, Map<String, Object> snapshot) {
+        return new CacheKey(generatorName, seed, count, snapshot);
+    }
+
+    public String getGeneratorName() {
+        return generatorName;
+    }
+
+    /**
+     * 估算占用的堆内存字节数，用于缓存容量统计；参数快照由同一上下文的各个键共享，只按引用计算
+     */
+    public long estimatedBytes() {
+        return 48 + 40 + 2L * generatorName.length();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheKey)) {
+            return false;
+        }
+        CacheKey other = (CacheKey) o;
+        return hash == other.hash
+                && count == other.count
+                && generatorName.equals(other.generatorName)
+                && Objects.equals(seed, other.seed)
+                && parameters.equals(other.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return generatorName + "_seed:" + seed + "_count:" + count + "_" + parameters;
+    }
+}
\ No newline at end of file
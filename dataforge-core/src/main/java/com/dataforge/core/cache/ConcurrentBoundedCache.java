@@ -0,0 +1,379 @@
+package com.dataforge.core.cache;
+
+import com.dataforge.jfr.CacheEvictionEvent;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 并发有界缓存
+ * 按键哈希分成若干条带，每个条带独立加锁，读操作只访问条带内的 ConcurrentHashMap，不加锁。
+ * 淘汰采用 CLOCK (second-chance) 算法：命中时只置访问位，插入时时钟指针跳过并清除被访问过的条目，
+ * 淘汰第一个未被访问的条目，均摊 O(1)，不需要排序或复制整个缓存。
+ * <p>
+ * 同时按条目数和估算字节数 (由 {@link Weigher} 计算) 限制容量；过期采用惰性检查，
+ * 读取或时钟指针经过时才移除过期条目。命中、未命中、淘汰和过期次数用 LongAdder 计数，
+ * 时钟指针淘汰的每个条目还会发出一个 JFR 事件 ({@link CacheEvictionEvent})
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+public class ConcurrentBoundedCache<K, V> {
+
+    /** 不限制 */
+    public static final long UNBOUNDED = Long.MAX_VALUE;
+
+    private static final int MAX_STRIPES = 64;
+    private static final int MIN_ENTRIES_PER_STRIPE = 64;
+
+    /**
+     * 条目权重 (估算字节数) 计算器
+     */
+    @FunctionalInterface
+    public interface Weigher<K, V> {
+        long weigh(K key, V value);
+    }
+
+    private final Stripe<K, V>[] stripes;
+    private final int stripeMask;
+    private final long maxEntries;
+    private final long maxWeight;
+    private final long expireAfterWriteNanos;
+    private final Weigher<? super K, ? super V> weigher;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * 只按条目数限制、不过期的缓存
+     */
+    public ConcurrentBoundedCache(long maxEntries) {
+        this(maxEntries, UNBOUNDED, 0, (key, value) -> 1);
+    }
+
+    /**
+     * @param maxEntries 最大条目数，{@link #UNBOUNDED} 表示不限制
+     * @param maxWeight 最大总权重，{@link #UNBOUNDED} 表示不限制
+     * @param expireAfterWriteMs 写入后的存活毫秒数，小于等于 0 表示永不过期
+     * @param weigher 条目权重计算器
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentBoundedCache(long maxEntries, long maxWeight, long expireAfterWriteMs,
+                                  Weigher<? super K, ? super V> weigher) {
+        if (maxEntries <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException("Cache bounds must be positive: entries=" + maxEntries
+                    + ", weight=" + maxWeight);
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.expireAfterWriteNanos = expireAfterWriteMs > 0 ? expireAfterWriteMs * 1_000_000L : 0;
+        this.weigher = weigher;
+
+        // 小缓存用少量条带，保证每个条带有足够的容量让 CLOCK 近似 LRU
+        long capacity = Math.min(maxEntries, maxWeight);
+        int stripeCount = 1;
+        while (stripeCount < MAX_STRIPES && capacity / (stripeCount * 2L) >= MIN_ENTRIES_PER_STRIPE) {
+            stripeCount <<= 1;
+        }
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe<>(perStripe(maxEntries, stripeCount), perStripe(maxWeight, stripeCount));
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    private static long perStripe(long bound, int stripeCount) {
+        return bound == UNBOUNDED ? UNBOUNDED : (bound + stripeCount - 1) / stripeCount;
+    }
+
+    private Stripe<K, V> stripeFor(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return stripes[h & stripeMask];
+    }
+
+    /**
+     * 读取缓存值，未命中或已过期时返回 null
+     */
+    public V get(K key) {
+        Stripe<K, V> stripe = stripeFor(key);
+        Node<K, V> node = stripe.map.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        if (isExpired(node, System.nanoTime())) {
+            if (stripe.remove(node)) {
+                expirations.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        node.referenced = true;
+        hits.increment();
+        return node.value;
+    }
+
+    /**
+     * 写入缓存值；权重超过单个条带容量的条目不会被缓存
+     */
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException("Cache keys and values must not be null");
+        }
+        long weight = Math.max(0, weigher.weigh(key, value));
+        long expiresAt = expireAfterWriteNanos > 0 ? System.nanoTime() + expireAfterWriteNanos : 0;
+        stripeFor(key).put(this, new Node<>(key, value, weight, expiresAt));
+    }
+
+    /**
+     * 移除缓存值
+     */
+    public void invalidate(K key) {
+        Stripe<K, V> stripe = stripeFor(key);
+        Node<K, V> node = stripe.map.get(key);
+        if (node != null) {
+            stripe.remove(node);
+        }
+    }
+
+    public boolean containsKey(K key) {
+        Node<K, V> node = stripeFor(key).map.get(key);
+        return node != null && !isExpired(node, System.nanoTime());
+    }
+
+    /**
+     * 清空缓存，不重置统计计数
+     */
+    public void clear() {
+        for (Stripe<K, V> stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    /**
+     * 主动移除全部过期条目
+     */
+    public void cleanUp() {
+        long now = System.nanoTime();
+        for (Stripe<K, V> stripe : stripes) {
+            for (Node<K, V> node : stripe.map.values()) {
+                if (isExpired(node, now) && stripe.remove(node)) {
+                    expirations.increment();
+                }
+            }
+        }
+    }
+
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+        expirations.reset();
+    }
+
+    private boolean isExpired(Node<K, V> node, long now) {
+        return node.expiresAt != 0 && now - node.expiresAt > 0;
+    }
+
+    public long size() {
+        long size = 0;
+        for (Stripe<K, V> stripe : stripes) {
+            size += stripe.map.size();
+        }
+        return size;
+    }
+
+    /**
+     * 当前总权重 (估算字节数)
+     */
+    public long weight() {
+        long weight = 0;
+        for (Stripe<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                weight += stripe.weight;
+            }
+        }
+        return weight;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * 缓存条目；referenced 为 CLOCK 访问位，命中时无锁置位
+     */
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final long weight;
+        final long expiresAt;
+        volatile boolean referenced;
+        int slot = -1;
+
+        Node(K key, V value, long weight, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * 条带：映射表 + CLOCK 环。环中空出的槽位记录在空闲栈里复用，环只在没有空槽时扩容
+     */
+    private static final class Stripe<K, V> {
+        final ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+        final long maxEntries;
+        final long maxWeight;
+        Node<K, V>[] ring;
+        int ringUsed;
+        int[] freeSlots = new int[16];
+        int freeCount;
+        int hand;
+        long weight;
+
+        @SuppressWarnings("unchecked")
+        Stripe(long maxEntries, long maxWeight) {
+            this.maxEntries = maxEntries;
+            this.maxWeight = maxWeight;
+            this.ring = new Node[(int) Math.min(16, maxEntries)];
+        }
+
+        synchronized void put(ConcurrentBoundedCache<K, V> cache, Node<K, V> node) {
+            // 先移除旧值：新值超重不缓存时，也不能继续返回被覆盖的旧值
+            Node<K, V> previous = map.remove(node.key);
+            if (previous != null) {
+                unlink(previous);
+            }
+            if (node.weight > maxWeight) {
+                return;
+            }
+            long now = System.nanoTime();
+            while (map.size() + 1 > maxEntries || weight + node.weight > maxWeight) {
+                if (!evictOne(cache, now)) {
+                    break;
+                }
+            }
+            link(node);
+            map.put(node.key, node);
+        }
+
+        /**
+         * 推进时钟指针直到淘汰一个条目；过期条目直接淘汰，被访问过的条目清除访问位后跳过
+         */
+        private boolean evictOne(ConcurrentBoundedCache<K, V> cache, long now) {
+            if (map.isEmpty()) {
+                return false;
+            }
+            while (true) {
+                if (hand >= ringUsed) {
+                    hand = 0;
+                }
+                Node<K, V> candidate = ring[hand++];
+                if (candidate == null) {
+                    continue;
+                }
+                boolean expired = cache.isExpired(candidate, now);
+                if (!expired && candidate.referenced) {
+                    candidate.referenced = false;
+                    continue;
+                }
+                map.remove(candidate.key, candidate);
+                unlink(candidate);
+                if (expired) {
+                    cache.expirations.increment();
+                } else {
+                    cache.evictions.increment();
+                }
+                emitEviction(candidate, expired);
+                return true;
+            }
+        }
+
+        private static void emitEviction(Node<?, ?> node, boolean expired) {
+            CacheEvictionEvent event = new CacheEvictionEvent();
+            if (event.isEnabled()) {
+                event.generator = node.key instanceof CacheKey ? ((CacheKey) node.key).getGeneratorName() : null;
+                event.key = String.valueOf(node.key);
+                event.bytes = node.weight;
+                event.expired = expired;
+                event.commit();
+            }
+        }
+
+        synchronized boolean remove(Node<K, V> node) {
+            if (node.slot < 0 || !map.remove(node.key, node)) {
+                return false;
+            }
+            unlink(node);
+            return true;
+        }
+
+        synchronized void clear() {
+            map.clear();
+            Arrays.fill(ring, 0, ringUsed, null);
+            ringUsed = 0;
+            freeCount = 0;
+            hand = 0;
+            weight = 0;
+        }
+
+        private void link(Node<K, V> node) {
+            int slot;
+            if (freeCount > 0) {
+                slot = freeSlots[--freeCount];
+            } else {
+                if (ringUsed == ring.length) {
+                    ring = Arrays.copyOf(ring, Math.max(16, ring.length * 2));
+                }
+                slot = ringUsed++;
+            }
+            ring[slot] = node;
+            node.slot = slot;
+            weight += node.weight;
+        }
+
+        private void unlink(Node<K, V> node) {
+            int slot = node.slot;
+            if (slot < 0) {
+                return;
+            }
+            ring[slot] = null;
+            node.slot = -1;
+            weight -= node.weight;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.dataforge.core.columnar;
+
+import com.dataforge.core.DataGenerator;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * 列向量的存储类型
+ * 数值列使用原始类型数组，字符串列使用紧凑字符缓冲，其余类型退化为对象列
+ */
+public enum ColumnType {
+    INT,
+    LONG,
+    DOUBLE,
+    STRING,
+    OBJECT;
+
+    /**
+     * 根据生成器推断列类型
+     * 实现了原始类型接口的生成器直接映射为原始类型列，声明为 DataGenerator&lt;String&gt; 的生成器映射为字符串列
+     *
+     * @param generator 数据生成器，可以为 null
+     * @return 列类型
+     */
+    public static ColumnType of(DataGenerator<?> generator) {
+        if (generator instanceof IntValueGenerator) {
+            return INT;
+        }
+        if (generator instanceof LongValueGenerator) {
+            return LONG;
+        }
+        if (generator instanceof DoubleValueGenerator) {
+            return DOUBLE;
+        }
+        if (generator != null && resolveValueType(generator.getClass()) == String.class) {
+            return STRING;
+        }
+        return OBJECT;
+    }
+
+    /**
+     * 沿类层次查找 DataGenerator 的实际类型参数
+     */
+    private static Type resolveValueType(Class<?> type) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Type candidate : current.getGenericInterfaces()) {
+                if (candidate instanceof ParameterizedType) {
+                    ParameterizedType parameterized = (ParameterizedType) candidate;
+                    if (parameterized.getRawType() instanceof Class
+                            && DataGenerator.class.isAssignableFrom((Class<?>) parameterized.getRawType())) {
+                        return parameterized.getActualTypeArguments()[0];
+                    }
+                }
+            }
+        }
+        return null;
+    }
+}
\ No newline at end of file
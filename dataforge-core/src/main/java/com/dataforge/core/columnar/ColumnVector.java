@@ -0,0 +1,86 @@
+package com.dataforge.core.columnar;
+
+import java.util.Arrays;
+
+/**
+ * 列向量基类
+ * 一个列向量保存一个批次内某一列的全部值，值只能按行顺序追加，批次结束后通过 reset 复用
+ */
+public abstract class ColumnVector {
+
+    protected final String name;
+    protected final int capacity;
+    protected final boolean[] nulls;
+    protected int size;
+
+    protected ColumnVector(String name, int capacity) {
+        this.name = name;
+        this.capacity = capacity;
+        this.nulls = new boolean[capacity];
+    }
+
+    /**
+     * 获取列类型
+     */
+    public abstract ColumnType getType();
+
+    /**
+     * 按对象形式读取值，数值列会装箱，仅用于非热点路径
+     */
+    public abstract Object getObject(int row);
+
+    /**
+     * 以对象形式追加值，由引擎在通用路径上调用
+     */
+    public abstract void appendObject(Object value);
+
+    /**
+     * 把指定行的文本表示追加到 builder，null 值不追加任何内容
+     */
+    public abstract void appendTo(StringBuilder builder, int row);
+
+    /**
+     * 追加一个 null 值
+     */
+    public void appendNull() {
+        ensureWritable();
+        nulls[size] = true;
+        appendDefault();
+        size++;
+    }
+
+    /**
+     * 为 null 行在底层存储中占位
+     */
+    protected abstract void appendDefault();
+
+    public boolean isNull(int row) {
+        return nulls[row];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 清空列向量以便复用
+     */
+    public void reset() {
+        Arrays.fill(nulls, 0, size, false);
+        size = 0;
+    }
+
+    protected void ensureWritable() {
+        if (size >= capacity) {
+            throw new IllegalStateException("Column '" + name + "' is full (capacity " + capacity + ")");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,245 @@
+package com.dataforge.core.columnar;
+
+import com.dataforge.core.DataGenerator;
+import com.dataforge.core.GenerationContext;
+import com.dataforge.core.MonitoredDataGenerator;
+import com.dataforge.core.PerformanceMonitor;
+import com.dataforge.metrics.RunMetrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 列式数据生成引擎
+ * 按列填充固定大小的 RecordBatch：同一列的整段行连续调用同一个生成器，数值列写入原始类型数组，
+ * 字符串列写入紧凑字符缓冲，填充完成后整批交给下游写出器。
+ * 每填充一列，按批次行数累加 {@link RunMetrics} 中该字段的行计数；每个批次的填充耗时计入生成阶段
+ */
+public class ColumnarGenerationEngine {
+
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    private final List<String> fieldNames;
+    private final DataGenerator<?>[] generators;
+    private final long[] columnKeys;
+    private final List<ColumnType> columnTypes;
+    private final LongAdder[] columnRows;
+    private final int batchSize;
+
+    public ColumnarGenerationEngine(List<String> fieldNames, Map<String, DataGenerator<?>> generators) {
+        this(fieldNames, generators, DEFAULT_BATCH_SIZE);
+    }
+
+    public ColumnarGenerationEngine(List<String> fieldNames, Map<String, DataGenerator<?>> generators, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.fieldNames = new ArrayList<>(fieldNames);
+        this.generators = new DataGenerator<?>[fieldNames.size()];
+        this.columnKeys = new long[fieldNames.size()];
+        this.columnTypes = new ArrayList<>(fieldNames.size());
+        this.columnRows = new LongAdder[fieldNames.size()];
+        for (int i = 0; i < this.generators.length; i++) {
+            DataGenerator<?> generator = generators.get(fieldNames.get(i));
+            this.generators[i] = generator;
+            // 列流以列名为键，增删或调整其他列不会改变本列的数据
+            this.columnKeys[i] = fieldNames.get(i).hashCode();
+            this.columnTypes.add(ColumnType.of(generator));
+            this.columnRows[i] = RunMetrics.getInstance().fieldRowCounter(fieldNames.get(i));
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 创建与本引擎字段布局一致的空批次
+     */
+    public RecordBatch createBatch() {
+        return new RecordBatch(fieldNames, columnTypes, batchSize);
+    }
+
+    /**
+     * 生成 context.getCount() 行数据并逐批交给 sink
+     */
+    public void generate(GenerationContext context, RecordBatchSink sink) throws IOException {
+        generate(context, 0, context.getCount(), sink);
+    }
+
+    /**
+     * 生成 [startRow, startRow + rowCount) 范围内的数据并逐批交给 sink
+     * 同一个批次对象在各批之间复用
+     */
+    public void generate(GenerationContext context, long startRow, long rowCount, RecordBatchSink sink) throws IOException {
+        RecordBatch batch = createBatch();
+        long endRow = startRow + rowCount;
+        for (long row = startRow; row < endRow; row += batchSize) {
+            int rows = (int) Math.min(batchSize, endRow - row);
+            fill(batch, row, rows, context);
+            sink.accept(batch);
+        }
+    }
+
+    /**
+     * 填充一个批次
+     * 每一列使用由列名派生的独立随机流，并在生成每一行前按 (种子, 列, 行号) 定位，
+     * 因此任意一行的结果与批次大小、生成顺序以及其他列都无关，可以直接跳到任意行区间生成。
+     * 依赖生成顺序的列 (例如借助唯一性过滤器去重) 例外：它们的值还取决于作用域中此前按行序登记的值
+     *
+     * @param batch 目标批次
+     * @param startRow 批次首行行号
+     * @param rows 行数，不能超过批次容量
+     * @param context 基础上下文，提供种子与参数
+     */
+    public void fill(RecordBatch batch, long startRow, int rows, GenerationContext context) {
+        fillOrderDependent(batch, startRow, rows, context);
+        fillRemaining(batch, context);
+    }
+
+    /**
+     * 是否有列的生成器依赖生成顺序 (见 {@link DataGenerator#isOrderDependent})
+     */
+    public boolean hasOrderDependentColumns(GenerationContext context) {
+        return hasOrderDependentColumns(Arrays.asList(generators), context);
+    }
+
+    /**
+     * 给定的生成器中是否有依赖生成顺序的 (见 {@link DataGenerator#isOrderDependent})，空值忽略
+     */
+    public static boolean hasOrderDependentColumns(Collection<? extends DataGenerator<?>> generators,
+                                                   GenerationContext context) {
+        for (DataGenerator<?> generator : generators) {
+            if (generator != null && generator.isOrderDependent(context)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 分两步填充批次的第一步：重置批次并只填充依赖生成顺序的列。
+     * 并行生成时调用方按行序串行执行这一步，其余列再由 {@link #fillRemaining} 并行填充；
+     * 依赖顺序的列之间不受其他列影响，因此结果与一次调用 {@link #fill} 相同
+     *
+     * @param batch 目标批次
+     * @param startRow 批次首行行号
+     * @param rows 行数，不能超过批次容量
+     * @param context 基础上下文，提供种子与参数
+     */
+    public void fillOrderDependent(RecordBatch batch, long startRow, int rows, GenerationContext context) {
+        if (rows > batch.getCapacity()) {
+            throw new IllegalArgumentException("Rows " + rows + " exceed batch capacity " + batch.getCapacity());
+        }
+        long started = System.nanoTime();
+        // 生成开始后参数不再变化：冻结基础上下文，逐列拆分出的上下文共享其参数快照，不再逐批复制参数
+        context.freeze();
+        batch.reset(startRow);
+        batch.setSize(rows);
+        fillColumns(batch, context, true);
+        RunMetrics.getInstance().recordPhase(RunMetrics.Phase.GENERATE, System.nanoTime() - started);
+    }
+
+    /**
+     * 分两步填充批次的第二步：填充 {@link #fillOrderDependent} 之后其余的列
+     */
+    public void fillRemaining(RecordBatch batch, GenerationContext context) {
+        long started = System.nanoTime();
+        fillColumns(batch, context, false);
+        RunMetrics.getInstance().recordPhase(RunMetrics.Phase.GENERATE, System.nanoTime() - started);
+    }
+
+    private void fillColumns(RecordBatch batch, GenerationContext context, boolean orderDependent) {
+        int rows = batch.size();
+        boolean recording = RunMetrics.getInstance().isRecording();
+        for (int column = 0; column < generators.length; column++) {
+            DataGenerator<?> generator = generators[column];
+            if ((generator != null && generator.isOrderDependent(context)) != orderDependent) {
+                continue;
+            }
+            fillColumn(batch.getColumn(column), generator, batch.getStartRow(), rows,
+                    context.split(columnKeys[column], rows));
+            if (recording) {
+                columnRows[column].add(rows);
+            }
+        }
+    }
+
+    /**
+     * 只重新生成已填充批次中的某一列，其他列保持不变
+     * 对确定性生成器，结果与整批填充时该列的值一致
+     */
+    public void refillColumn(RecordBatch batch, int column, GenerationContext context) {
+        context.freeze();
+        ColumnVector vector = batch.getColumn(column);
+        vector.reset();
+        fillColumn(vector, generators[column], batch.getStartRow(), batch.size(),
+                context.split(columnKeys[column], batch.size()));
+    }
+
+    private static void fillColumn(ColumnVector vector, DataGenerator<?> generator, long startRow, int rows,
+                                   GenerationContext context) {
+        if (generator == null) {
+            for (int i = 0; i < rows; i++) {
+                vector.appendNull();
+            }
+            return;
+        }
+
+        switch (vector.getType()) {
+            case INT: {
+                IntValueGenerator intGenerator = (IntValueGenerator) generator;
+                IntColumnVector intVector = (IntColumnVector) vector;
+                for (int i = 0; i < rows; i++) {
+                    context.seekRow(startRow + i);
+                    intVector.append(intGenerator.generateInt(context));
+                }
+                break;
+            }
+            case LONG: {
+                LongValueGenerator longGenerator = (LongValueGenerator) generator;
+                LongColumnVector longVector = (LongColumnVector) vector;
+                for (int i = 0; i < rows; i++) {
+                    context.seekRow(startRow + i);
+                    longVector.append(longGenerator.generateLong(context));
+                }
+                break;
+            }
+            case DOUBLE: {
+                DoubleValueGenerator doubleGenerator = (DoubleValueGenerator) generator;
+                DoubleColumnVector doubleVector = (DoubleColumnVector) vector;
+                for (int i = 0; i < rows; i++) {
+                    context.seekRow(startRow + i);
+                    doubleVector.append(doubleGenerator.generateDouble(context));
+                }
+                break;
+            }
+            default:
+                if (generator instanceof MonitoredDataGenerator
+                        && PerformanceMonitor.getInstance().getSampleInterval() > 1) {
+                    // 低开销监控模式下整列一批只计时一次
+                    ((MonitoredDataGenerator<?>) generator).generateBatch(context, startRow, rows, vector::appendObject);
+                    break;
+                }
+                for (int i = 0; i < rows; i++) {
+                    context.seekRow(startRow + i);
+                    vector.appendObject(generator.generate(context));
+                }
+                break;
+        }
+    }
+
+    public List<String> getFieldNames() {
+        return new ArrayList<>(fieldNames);
+    }
+
+    public List<ColumnType> getColumnTypes() {
+        return new ArrayList<>(columnTypes);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.dataforge.core.columnar;
+
+/**
+ * double 列向量，值保存在原始 double 数组中
+ */
+public class DoubleColumnVector extends ColumnVector {
+
+    private final double[] values;
+
+    public DoubleColumnVector(String name, int capacity) {
+        super(name, capacity);
+        this.values = new double[capacity];
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.DOUBLE;
+    }
+
+    public void append(double value) {
+        ensureWritable();
+        values[size++] = value;
+    }
+
+    public double get(int row) {
+        return values[row];
+    }
+
+    @Override
+    public Object getObject(int row) {
+        return nulls[row] ? null : values[row];
+    }
+
+    @Override
+    public void appendObject(Object value) {
+        if (value == null) {
+            appendNull();
+        } else {
+            append(((Number) value).doubleValue());
+        }
+    }
+
+    @Override
+    public void appendTo(StringBuilder builder, int row) {
+        if (!nulls[row]) {
+            builder.append(values[row]);
+        }
+    }
+
+    @Override
+    protected void appendDefault() {
+        values[size] = 0.0;
+    }
+}
\ No newline at end of file
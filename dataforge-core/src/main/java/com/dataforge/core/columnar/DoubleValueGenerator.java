@@ -0,0 +1,18 @@
+package com.dataforge.core.columnar;
+
+import com.dataforge.core.GenerationContext;
+
+/**
+ * 可直接产出 double 值的生成器
+ * 列式引擎通过该接口填充 double 列，避免逐值装箱
+ */
+public interface DoubleValueGenerator {
+
+    /**
+     * 生成单个 double 值
+     *
+     * @param context 生成上下文
+     * @return 生成的值
+     */
+    double generateDouble(GenerationContext context);
+}
\ No newline at end of file
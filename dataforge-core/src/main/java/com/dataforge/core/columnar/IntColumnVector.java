@@ -0,0 +1,54 @@
+package com.dataforge.core.columnar;
+
+/**
+ * int 列向量，值保存在原始 int 数组中
+ */
+public class IntColumnVector extends ColumnVector {
+
+    private final int[] values;
+
+    public IntColumnVector(String name, int capacity) {
+        super(name, capacity);
+        this.values = new int[capacity];
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.INT;
+    }
+
+    public void append(int value) {
+        ensureWritable();
+        values[size++] = value;
+    }
+
+    public int get(int row) {
+        return values[row];
+    }
+
+    @Override
+    public Object getObject(int row) {
+        return nulls[row] ? null : values[row];
+    }
+
+    @Override
+    public void appendObject(Object value) {
+        if (value == null) {
+            appendNull();
+        } else {
+            append(((Number) value).intValue());
+        }
+    }
+
+    @Override
+    public void appendTo(StringBuilder builder, int row) {
+        if (!nulls[row]) {
+            builder.append(values[row]);
+        }
+    }
+
+    @Override
+    protected void appendDefault() {
+        values[size] = 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.dataforge.core.columnar;
+
+/**
+ * long 列向量，值保存在原始 long 数组中
+ */
+public class LongColumnVector extends ColumnVector {
+
+    private final long[] values;
+
+    public LongColumnVector(String name, int capacity) {
+        super(name, capacity);
+        this.values = new long[capacity];
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.LONG;
+    }
+
+    public void append(long value) {
+        ensureWritable();
+        values[size++] = value;
+    }
+
+    public long get(int row) {
+        return values[row];
+    }
+
+    @Override
+    public Object getObject(int row) {
+        return nulls[row] ? null : values[row];
+    }
+
+    @Override
+    public void appendObject(Object value) {
+        if (value == null) {
+            appendNull();
+        } else {
+            append(((Number) value).longValue());
+        }
+    }
+
+    @Override
+    public void appendTo(StringBuilder builder, int row) {
+        if (!nulls[row]) {
+            builder.append(values[row]);
+        }
+    }
+
+    @Override
+    protected void appendDefault() {
+        values[size] = 0L;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.dataforge.core.columnar;
+
+import java.util.Arrays;
+
+/**
+ * 对象列向量，用于无法映射到原始类型或字符串的值（BigDecimal、Map 等）
+ */
+public class ObjectColumnVector extends ColumnVector {
+
+    private final Object[] values;
+
+    public ObjectColumnVector(String name, int capacity) {
+        super(name, capacity);
+        this.values = new Object[capacity];
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.OBJECT;
+    }
+
+    @Override
+    public Object getObject(int row) {
+        return values[row];
+    }
+
+    @Override
+    public void appendObject(Object value) {
+        ensureWritable();
+        nulls[size] = value == null;
+        values[size++] = value;
+    }
+
+    @Override
+    public void appendTo(StringBuilder builder, int row) {
+        if (!nulls[row]) {
+            builder.append(values[row]);
+        }
+    }
+
+    @Override
+    protected void appendDefault() {
+        values[size] = null;
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(values, 0, size, null);
+        super.reset();
+    }
+}
\ No newline at end of file
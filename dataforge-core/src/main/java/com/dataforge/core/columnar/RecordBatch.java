@@ -0,0 +1,88 @@
+package com.dataforge.core.columnar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 固定容量的记录批次
+ * 按列保存一段连续行的数据，startRow 为批次首行在整个数据集中的行号
+ */
+public class RecordBatch {
+
+    private final ColumnVector[] columns;
+    private final List<String> columnNames;
+    private final int capacity;
+    private long startRow;
+    private int size;
+
+    public RecordBatch(List<String> columnNames, List<ColumnType> columnTypes, int capacity) {
+        if (columnNames.size() != columnTypes.size()) {
+            throw new IllegalArgumentException("Column names and types must have the same size");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Batch capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.columnNames = Collections.unmodifiableList(new ArrayList<>(columnNames));
+        this.columns = new ColumnVector[columnNames.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = createVector(columnTypes.get(i), columnNames.get(i), capacity);
+        }
+    }
+
+    private static ColumnVector createVector(ColumnType type, String name, int capacity) {
+        switch (type) {
+            case INT:
+                return new IntColumnVector(name, capacity);
+            case LONG:
+                return new LongColumnVector(name, capacity);
+            case DOUBLE:
+                return new DoubleColumnVector(name, capacity);
+            case STRING:
+                return new StringColumnVector(name, capacity);
+            case OBJECT:
+            default:
+                return new ObjectColumnVector(name, capacity);
+        }
+    }
+
+    /**
+     * 清空所有列并设置新的起始行号
+     */
+    public void reset(long startRow) {
+        this.startRow = startRow;
+        this.size = 0;
+        for (ColumnVector column : columns) {
+            column.reset();
+        }
+    }
+
+    public ColumnVector getColumn(int index) {
+        return columns[index];
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getStartRow() {
+        return startRow;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    void setSize(int size) {
+        this.size = size;
+    }
+}
\ No newline at end of file
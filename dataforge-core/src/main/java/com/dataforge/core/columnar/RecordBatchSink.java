@@ -0,0 +1,19 @@
+package com.dataforge.core.columnar;
+
+import java.io.IOException;
+
+/**
+ * 记录批次的消费者
+ * 引擎在一个批次填充完成后调用 accept，方法返回后批次会被复用，实现不得持有批次引用
+ */
+@FunctionalInterface
+public interface RecordBatchSink {
+
+    /**
+     * 消费一个已填充的批次
+     *
+     * @param batch 记录批次
+     * @throws IOException 写出失败时抛出
+     */
+    void accept(RecordBatch batch) throws IOException;
+}
\ No newline at end of file
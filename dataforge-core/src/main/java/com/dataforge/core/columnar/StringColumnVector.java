@@ -0,0 +1,100 @@
+package com.dataforge.core.columnar;
+
+import java.util.Arrays;
+
+/**
+ * 紧凑字符串列向量
+ * 一个批次内的所有字符串连续存放在同一个 char 数组中，通过偏移量数组定位，复用时不再分配
+ */
+public class StringColumnVector extends ColumnVector {
+
+    private static final int INITIAL_CHARS_PER_VALUE = 16;
+
+    private final int[] offsets;
+    private char[] chars;
+
+    public StringColumnVector(String name, int capacity) {
+        super(name, capacity);
+        this.offsets = new int[capacity + 1];
+        this.chars = new char[Math.max(INITIAL_CHARS_PER_VALUE, capacity * INITIAL_CHARS_PER_VALUE)];
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.STRING;
+    }
+
+    public void append(CharSequence value) {
+        ensureWritable();
+        int start = offsets[size];
+        int length = value.length();
+        ensureCharCapacity(start + length);
+        if (value instanceof String) {
+            ((String) value).getChars(0, length, chars, start);
+        } else {
+            for (int i = 0; i < length; i++) {
+                chars[start + i] = value.charAt(i);
+            }
+        }
+        offsets[++size] = start + length;
+    }
+
+    /**
+     * 获取底层字符缓冲，配合 getOffset/getLength 做零拷贝读取
+     */
+    public char[] getChars() {
+        return chars;
+    }
+
+    public int getOffset(int row) {
+        return offsets[row];
+    }
+
+    public int getLength(int row) {
+        return offsets[row + 1] - offsets[row];
+    }
+
+    public String getString(int row) {
+        return nulls[row] ? null : new String(chars, offsets[row], getLength(row));
+    }
+
+    @Override
+    public Object getObject(int row) {
+        return getString(row);
+    }
+
+    @Override
+    public void appendObject(Object value) {
+        if (value == null) {
+            appendNull();
+        } else if (value instanceof CharSequence) {
+            append((CharSequence) value);
+        } else {
+            append(value.toString());
+        }
+    }
+
+    @Override
+    public void appendTo(StringBuilder builder, int row) {
+        if (!nulls[row]) {
+            builder.append(chars, offsets[row], getLength(row));
+        }
+    }
+
+    @Override
+    protected void appendDefault() {
+        offsets[size + 1] = offsets[size];
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        offsets[0] = 0;
+    }
+
+    private void ensureCharCapacity(int required) {
+        if (required > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(required, chars.length * 2));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.dataforge.core.uniqueness;
+
+import com.dataforge.core.GenerationContext;
+import com.dataforge.core.SplitMix64Random;
+
+/**
+ * 双射唯一模式
+ * 编码类生成器把上下文参数 uniqueMode 设为 bijective 时，不再随机抽取并去重，而是把第 n 行
+ * 通过 {@link FeistelPermutation} 映射为取值空间中的第 π(n) 个取值，再补齐校验位。
+ * 不同行得到的取值必然不同，既不占用内存也没有重试循环。
+ * <p>
+ * 行下标取自 {@link GenerationContext#getRowIndex()}；行号在各分片之间互不重叠，所以分片生成同样唯一。
+ * 上下文未按行定位时退回到唯一性作用域中按生成器名称与盐值登记的计数器。置换密钥取自参数 uniqueKey
+ * (整数或整数字符串)，未指定时取运行的根种子 ({@link GenerationContext#getRootSeed()})，
+ * 所以不同的 --seed 得到不同的排列；未设种子时密钥为 0。
+ * 同一数据集的各分片和各线程必须使用相同的密钥
+ */
+public final class BijectiveUniqueness {
+
+    /** 唯一模式参数名 */
+    public static final String MODE_PARAMETER = "uniqueMode";
+
+    /** 双射唯一模式的参数值 */
+    public static final String BIJECTIVE = "bijective";
+
+    /** 置换密钥参数名 (整数或整数字符串) */
+    public static final String KEY_PARAMETER = "uniqueKey";
+
+    private BijectiveUniqueness() {
+    }
+
+    /**
+     * 上下文是否启用了双射唯一模式
+     */
+    public static boolean isEnabled(GenerationContext context) {
+        return BIJECTIVE.equalsIgnoreCase(String.valueOf(context.getParameter(MODE_PARAMETER, "")));
+    }
+
+    /**
+     * 取当前行在取值空间 [0, domainSize) 中对应的位置
+     *
+     * @param salt 区分生成器及其配置的盐值
+     * @param generatorName 生成器名称，用于命名计数器及空间耗尽时报错
+     */
+    public static long nextValue(GenerationContext context, long domainSize, long salt, String generatorName) {
+        return map(permutation(context, domainSize, salt), nextIndex(context, generatorName + "#" + salt), generatorName);
+    }
+
+    /**
+     * 当前行的下标：按行定位时取行号，否则从作用域中指定名称的计数器领取
+     */
+    public static long nextIndex(GenerationContext context, String counterName) {
+        long row = context.getRowIndex();
+        return row >= 0 ? row : context.getUniquenessScope().sequence(counterName).getAndIncrement();
+    }
+
+    /**
+     * 为指定生成器构造置换，salt 区分不同生成器及其配置，使它们的排列互不相关
+     */
+    public static FeistelPermutation permutation(GenerationContext context, long domainSize, long salt) {
+        return new FeistelPermutation(domainSize, SplitMix64Random.deriveSeed(key(context), salt));
+    }
+
+    /**
+     * 置换密钥：参数 uniqueKey，未指定时取运行的根种子，两者都没有时为 0
+     *
+     * @throws IllegalArgumentException uniqueKey 既不是整数也不是整数字符串
+     */
+    public static long key(GenerationContext context) {
+        Object key = context.getParameter(KEY_PARAMETER, null);
+        if (key == null) {
+            Long seed = context.getRootSeed();
+            return seed != null ? seed : 0L;
+        }
+        if (key instanceof Number) {
+            return ((Number) key).longValue();
+        }
+        try {
+            return Long.parseLong(key.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + KEY_PARAMETER + " must be an integer: " + key, e);
+        }
+    }
+
+    /**
+     * 把下标映射到取值空间，空间耗尽时抛出 {@link IllegalStateException}
+     */
+    public static long map(FeistelPermutation permutation, long index, String generatorName) {
+        if (index >= permutation.getDomainSize()) {
+            throw new IllegalStateException("Unique value space of " + generatorName + " exhausted: "
+                    + permutation.getDomainSize() + " values");
+        }
+        return permutation.permute(index);
+    }
+}
@@ -0,0 +1,146 @@
+package com.dataforge.core.uniqueness;
+
+import com.dataforge.core.SplitMix64Random;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 分块布隆过滤器
+ * 每个取值的全部探测位都落在同一个 512 位 (一条缓存行) 的块内，一次登记或查询只访问一条缓存行。
+ * 按期望取值数和误判率确定位数，1% 误判率时每个取值约 1.2 字节。
+ * 误判只会让新值被当作重复值重新生成，不会放过真正的重复值
+ */
+public class BlockedBloomFilter implements UniquenessFilter {
+
+    private static final int BLOCK_BITS = 512;
+    private static final int WORDS_PER_BLOCK = BLOCK_BITS / 64;
+    private static final int MAX_HASH_FUNCTIONS = 7;
+    private static final int LOCK_STRIPES = 64;
+
+    private final long[] words;
+    private final int blockCount;
+    private final int hashFunctions;
+    private final long expectedInsertions;
+    private final Object[] locks;
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * @param expectedInsertions 期望登记的取值数
+     * @param falsePositiveRate 达到期望取值数时的目标误判率，取值范围 (0, 1)
+     */
+    public BlockedBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive: " + expectedInsertions);
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        double bits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long blocks = Math.max(1L, (long) Math.ceil(bits / BLOCK_BITS));
+        if (blocks * WORDS_PER_BLOCK > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Bloom filter too large for " + expectedInsertions + " values");
+        }
+        this.blockCount = (int) blocks;
+        this.words = new long[blockCount * WORDS_PER_BLOCK];
+        this.expectedInsertions = expectedInsertions;
+        double bitsPerValue = (double) blockCount * BLOCK_BITS / expectedInsertions;
+        this.hashFunctions = (int) Math.max(1, Math.min(MAX_HASH_FUNCTIONS, Math.round(bitsPerValue * Math.log(2))));
+        this.locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public boolean add(CharSequence value) {
+        return addFingerprint(Fingerprints.of(value));
+    }
+
+    @Override
+    public boolean mightContain(CharSequence value) {
+        return mightContainFingerprint(Fingerprints.of(value));
+    }
+
+    public boolean addFingerprint(long fingerprint) {
+        int block = blockOf(fingerprint);
+        int base = block * WORDS_PER_BLOCK;
+        long probes = SplitMix64Random.mix64(fingerprint);
+        synchronized (locks[block & (LOCK_STRIPES - 1)]) {
+            boolean changed = false;
+            for (int i = 0; i < hashFunctions; i++) {
+                int bit = (int) (probes >>> (i * 9)) & (BLOCK_BITS - 1);
+                int word = base + (bit >>> 6);
+                long mask = 1L << bit;
+                if ((words[word] & mask) == 0) {
+                    words[word] |= mask;
+                    changed = true;
+                }
+            }
+            if (changed) {
+                size.increment();
+            }
+            return changed;
+        }
+    }
+
+    public boolean mightContainFingerprint(long fingerprint) {
+        int block = blockOf(fingerprint);
+        int base = block * WORDS_PER_BLOCK;
+        long probes = SplitMix64Random.mix64(fingerprint);
+        synchronized (locks[block & (LOCK_STRIPES - 1)]) {
+            for (int i = 0; i < hashFunctions; i++) {
+                int bit = (int) (probes >>> (i * 9)) & (BLOCK_BITS - 1);
+                if ((words[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private int blockOf(long fingerprint) {
+        // 用指纹高 32 位做乘法映射，避免取模
+        return (int) (((fingerprint >>> 32) * blockCount) >>> 32);
+    }
+
+    /**
+     * 按当前登记数估算的误判率
+     */
+    public double getExpectedFalsePositiveRate() {
+        double bits = (double) blockCount * BLOCK_BITS;
+        return Math.pow(1 - Math.exp(-hashFunctions * (double) size() / bits), hashFunctions);
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    @Override
+    public long size() {
+        return size.sum();
+    }
+
+    @Override
+    public long memoryBytes() {
+        return 16L + 8L * words.length;
+    }
+
+    @Override
+    public boolean isExact() {
+        return false;
+    }
+
+    /**
+     * 清空过滤器，不应与登记并发调用
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0L);
+        size.reset();
+    }
+}
@@ -0,0 +1,70 @@
+package com.dataforge.core.uniqueness;
+
+import com.dataforge.core.SplitMix64Random;
+
+/**
+ * 带密钥的 Feistel 置换
+ * 在 [0, domainSize) 上构造一个双射：把取值空间扩展到不小于它的最小偶数位宽 2^(2h)，
+ * 在其上做平衡 Feistel 加密，结果超出取值空间时继续加密 (cycle-walking) 直到落回空间内。
+ * 由于 2^(2h) &lt; 4 × domainSize，平均不超过 4 次加密。同一密钥下不同下标一定映射到不同取值，
+ * 因此无需记录已生成的取值即可保证唯一
+ */
+public final class FeistelPermutation {
+
+    /** 取值空间上限，保证加密结果作为 long 比较时不会溢出为负数 */
+    public static final long MAX_DOMAIN_SIZE = 1L << 62;
+
+    private static final int ROUNDS = 6;
+    private static final long ROUND_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long domainSize;
+    private final long key;
+    private final int halfBits;
+    private final long halfMask;
+
+    /**
+     * @param domainSize 取值空间大小，取值范围 [1, {@link #MAX_DOMAIN_SIZE}]
+     * @param key 置换密钥，不同密钥得到不同的排列
+     */
+    public FeistelPermutation(long domainSize, long key) {
+        if (domainSize <= 0 || domainSize > MAX_DOMAIN_SIZE) {
+            throw new IllegalArgumentException("Domain size must be in [1, 2^62]: " + domainSize);
+        }
+        this.domainSize = domainSize;
+        this.key = key;
+        int bits = Math.max(2, 64 - Long.numberOfLeadingZeros(domainSize - 1));
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+    }
+
+    /**
+     * 把下标映射到取值空间中的位置
+     *
+     * @param index 取值范围 [0, domainSize)
+     */
+    public long permute(long index) {
+        if (index < 0 || index >= domainSize) {
+            throw new IllegalArgumentException("Index out of domain [0, " + domainSize + "): " + index);
+        }
+        long value = index;
+        do {
+            value = encrypt(value);
+        } while (value >= domainSize);
+        return value;
+    }
+
+    private long encrypt(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (int round = 0; round < ROUNDS; round++) {
+            long next = left ^ (SplitMix64Random.mix64((key + round * ROUND_GAMMA) ^ right) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    public long getDomainSize() {
+        return domainSize;
+    }
+}
@@ -0,0 +1,172 @@
+package com.dataforge.core.uniqueness;
+
+import java.util.Arrays;
+
+/**
+ * 精确的 64 位指纹集合
+ * 开放寻址 + 线性探测的 long 数组哈希表，每个取值只占 8 字节槽位 (装载因子 0.75 时约 11-21 字节)，
+ * 而 ConcurrentHashMap 中的字符串条目通常在 100 字节以上。表按指纹高位分为多个段，
+ * 每段独立加锁和扩容，多线程登记时互不阻塞，扩容时的临时内存也只有一个段的大小
+ */
+public class FingerprintSet implements UniquenessFilter {
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENT_COUNT = 1 << SEGMENT_BITS;
+    private static final int INITIAL_SEGMENT_CAPACITY = 256;
+
+    private final Segment[] segments;
+
+    public FingerprintSet() {
+        segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    @Override
+    public boolean add(CharSequence value) {
+        return addFingerprint(Fingerprints.of(value));
+    }
+
+    @Override
+    public boolean mightContain(CharSequence value) {
+        return containsFingerprint(Fingerprints.of(value));
+    }
+
+    /**
+     * 登记一个指纹 (不能为 0)
+     *
+     * @return 指纹此前不存在时返回 true
+     */
+    public boolean addFingerprint(long fingerprint) {
+        return segmentFor(fingerprint).add(fingerprint);
+    }
+
+    public boolean containsFingerprint(long fingerprint) {
+        return segmentFor(fingerprint).contains(fingerprint);
+    }
+
+    private Segment segmentFor(long fingerprint) {
+        return segments[(int) (fingerprint >>> (64 - SEGMENT_BITS))];
+    }
+
+    /**
+     * 按有符号顺序排序后的全部指纹
+     */
+    public long[] toSortedArray() {
+        long[] result = new long[(int) size()];
+        int position = 0;
+        for (Segment segment : segments) {
+            position = segment.copyTo(result, position);
+        }
+        Arrays.sort(result, 0, position);
+        return position == result.length ? result : Arrays.copyOf(result, position);
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    @Override
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.memoryBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public boolean isExact() {
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * 一个独立加锁的开放寻址段，0 表示空槽
+     */
+    private static final class Segment {
+        private long[] slots = new long[INITIAL_SEGMENT_CAPACITY];
+        private volatile int size;
+
+        synchronized boolean add(long fingerprint) {
+            int mask = slots.length - 1;
+            int index = (int) fingerprint & mask;
+            while (true) {
+                long current = slots[index];
+                if (current == fingerprint) {
+                    return false;
+                }
+                if (current == 0) {
+                    slots[index] = fingerprint;
+                    size++;
+                    if (size > slots.length - (slots.length >>> 2)) {
+                        resize();
+                    }
+                    return true;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        synchronized boolean contains(long fingerprint) {
+            int mask = slots.length - 1;
+            int index = (int) fingerprint & mask;
+            while (true) {
+                long current = slots[index];
+                if (current == fingerprint) {
+                    return true;
+                }
+                if (current == 0) {
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        private void resize() {
+            long[] old = slots;
+            long[] resized = new long[old.length << 1];
+            int mask = resized.length - 1;
+            for (long fingerprint : old) {
+                if (fingerprint != 0) {
+                    int index = (int) fingerprint & mask;
+                    while (resized[index] != 0) {
+                        index = (index + 1) & mask;
+                    }
+                    resized[index] = fingerprint;
+                }
+            }
+            slots = resized;
+        }
+
+        synchronized int copyTo(long[] target, int position) {
+            for (long fingerprint : slots) {
+                if (fingerprint != 0 && position < target.length) {
+                    target[position++] = fingerprint;
+                }
+            }
+            return position;
+        }
+
+        synchronized long memoryBytes() {
+            return 16L + 8L * slots.length;
+        }
+
+        synchronized void clear() {
+            slots = new long[INITIAL_SEGMENT_CAPACITY];
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.dataforge.core.uniqueness;
+
+import com.dataforge.core.SplitMix64Random;
+
+/**
+ * 取值指纹工具
+ * 对字符序列计算 64 位指纹：逐字符 FNV-1a 累积后再经过 SplitMix64 混淆，保证高低位都分布均匀。
+ * 1 亿个取值中出现任意一次指纹碰撞的概率约为 n²/2⁶⁵ ≈ 3×10⁻⁴，碰撞只会导致一个新值被误判为重复
+ */
+public final class Fingerprints {
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private Fingerprints() {
+    }
+
+    /**
+     * 计算字符序列的 64 位指纹，结果永远不为 0 (0 在开放寻址表中表示空槽)
+     */
+    public static long of(CharSequence value) {
+        long hash = FNV_OFFSET_BASIS;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        long fingerprint = SplitMix64Random.mix64(hash ^ length);
+        return fingerprint != 0 ? fingerprint : 1;
+    }
+}
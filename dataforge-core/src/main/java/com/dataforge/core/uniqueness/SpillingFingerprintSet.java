@@ -0,0 +1,206 @@
+package com.dataforge.core.uniqueness;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 可溢出到磁盘的精确指纹集合
+ * 内存中的 {@link FingerprintSet} 达到阈值后，把其中的指纹排序写成一个只读的磁盘段并清空内存表。
+ * 每个磁盘段通过内存映射做二分查找，前面再放一个 1% 误判率的布隆过滤器，
+ * 绝大多数新值无需访问磁盘段。堆内存只包含内存表和各段的布隆过滤器 (每个溢出值约 1.2 字节)
+ */
+public class SpillingFingerprintSet implements UniquenessFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpillingFingerprintSet.class);
+
+    /** 单个磁盘段最多包含的指纹数，保证可以一次映射 */
+    private static final int MAX_RUN_LENGTH = Integer.MAX_VALUE / Long.BYTES;
+
+    private static final double RUN_FILTER_FALSE_POSITIVE_RATE = 0.01;
+
+    private final File directory;
+    private final int memoryThreshold;
+    private final FingerprintSet memory = new FingerprintSet();
+    private final List<Run> runs = new ArrayList<>();
+    private long size;
+
+    /**
+     * @param directory 磁盘段所在目录
+     * @param memoryThreshold 内存表中的指纹数达到该值时溢出到磁盘
+     */
+    public SpillingFingerprintSet(File directory, int memoryThreshold) {
+        if (memoryThreshold <= 0) {
+            throw new IllegalArgumentException("Memory threshold must be positive: " + memoryThreshold);
+        }
+        this.directory = directory;
+        this.memoryThreshold = Math.min(memoryThreshold, MAX_RUN_LENGTH);
+    }
+
+    @Override
+    public synchronized boolean add(CharSequence value) {
+        long fingerprint = Fingerprints.of(value);
+        if (inRuns(fingerprint) || !memory.addFingerprint(fingerprint)) {
+            return false;
+        }
+        size++;
+        if (memory.size() >= memoryThreshold) {
+            spill();
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized boolean mightContain(CharSequence value) {
+        long fingerprint = Fingerprints.of(value);
+        return memory.containsFingerprint(fingerprint) || inRuns(fingerprint);
+    }
+
+    private boolean inRuns(long fingerprint) {
+        for (Run run : runs) {
+            if (run.contains(fingerprint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void spill() {
+        long[] fingerprints = memory.toSortedArray();
+        try {
+            runs.add(Run.write(directory, fingerprints));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill uniqueness fingerprints to " + directory, e);
+        }
+        memory.clear();
+        logger.debug("Spilled {} fingerprints to disk, runs={}", fingerprints.length, runs.size());
+    }
+
+    @Override
+    public synchronized long size() {
+        return size;
+    }
+
+    @Override
+    public synchronized long memoryBytes() {
+        long bytes = memory.memoryBytes();
+        for (Run run : runs) {
+            bytes += run.filter.memoryBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * 磁盘段占用的字节数
+     */
+    public synchronized long diskBytes() {
+        long bytes = 0;
+        for (Run run : runs) {
+            bytes += (long) run.length * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    public synchronized int getRunCount() {
+        return runs.size();
+    }
+
+    @Override
+    public boolean isExact() {
+        return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+        memory.clear();
+        for (Run run : runs) {
+            run.delete();
+        }
+        runs.clear();
+        size = 0;
+    }
+
+    /**
+     * 一个已排序的只读磁盘段
+     */
+    private static final class Run {
+        private final Path path;
+        private final LongBuffer fingerprints;
+        private final int length;
+        private final BlockedBloomFilter filter;
+
+        private Run(Path path, LongBuffer fingerprints, int length, BlockedBloomFilter filter) {
+            this.path = path;
+            this.fingerprints = fingerprints;
+            this.length = length;
+            this.filter = filter;
+        }
+
+        static Run write(File directory, long[] sorted) throws IOException {
+            Path path = Files.createTempFile(directory.toPath(), "dataforge-unique-", ".run");
+            path.toFile().deleteOnExit();
+            BlockedBloomFilter filter = new BlockedBloomFilter(Math.max(1, sorted.length), RUN_FILTER_FALSE_POSITIVE_RATE);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+                for (long fingerprint : sorted) {
+                    if (!buffer.hasRemaining()) {
+                        writeFully(channel, buffer);
+                    }
+                    buffer.putLong(fingerprint);
+                    filter.addFingerprint(fingerprint);
+                }
+                writeFully(channel, buffer);
+                LongBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, (long) sorted.length * Long.BYTES)
+                        .asLongBuffer();
+                return new Run(path, mapped, sorted.length, filter);
+            }
+        }
+
+        private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        boolean contains(long fingerprint) {
+            if (!filter.mightContainFingerprint(fingerprint)) {
+                return false;
+            }
+            int low = 0;
+            int high = length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long value = fingerprints.get(mid);
+                if (value < fingerprint) {
+                    low = mid + 1;
+                } else if (value > fingerprint) {
+                    high = mid - 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void delete() {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                logger.warn("Failed to delete uniqueness run {}: {}", path, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.dataforge.core.uniqueness;
+
+/**
+ * 唯一性过滤器
+ * 记录已经生成过的取值，用于保证唯一性约束。实现只保存取值的 64 位指纹或位图而不保存字符串本身，
+ * 因此内存占用与取值长度无关。任何实现都不会把重复值判定为新值；
+ * 近似实现可能把少量新值误判为已存在，调用方据此重新生成即可
+ */
+public interface UniquenessFilter {
+
+    /**
+     * 尝试登记一个取值
+     *
+     * @param value 取值
+     * @return 取值此前未出现过并已登记时返回 true；已存在 (或被判定为可能存在) 时返回 false
+     */
+    boolean add(CharSequence value);
+
+    /**
+     * 判断取值是否可能已经登记过
+     */
+    boolean mightContain(CharSequence value);
+
+    /**
+     * 已登记的取值数量
+     */
+    long size();
+
+    /**
+     * 当前占用的堆内存字节数 (估算值)
+     */
+    long memoryBytes();
+
+    /**
+     * 是否为精确实现 (仅存在 64 位指纹碰撞这一可忽略的误判)
+     */
+    boolean isExact();
+
+    /**
+     * 清空已登记的取值并释放占用的资源
+     */
+    void clear();
+}
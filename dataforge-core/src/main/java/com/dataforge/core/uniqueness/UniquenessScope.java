@@ -0,0 +1,159 @@
+package com.dataforge.core.uniqueness;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 唯一性作用域
+ * 持有一次生成任务 (或其中一张表、一个字段) 的去重过滤器与序列计数器，
+ * 生成器通过 {@link com.dataforge.core.GenerationContext#getUniquenessScope()} 按名称取用。
+ * 任务结束时调用 {@link #close()} 释放全部状态，长期运行的进程中各任务之间互不影响，内存也不会累积。
+ * <p>
+ * 未显式设置作用域的上下文使用进程级的 {@link #global()} 作用域，它只能通过各生成器的 clearCache 清理
+ */
+public class UniquenessScope implements AutoCloseable {
+
+    private static final UniquenessScope GLOBAL = new UniquenessScope("global");
+
+    private final String name;
+    private final UniquenessService service;
+    private final ConcurrentMap<String, UniquenessFilter> filters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, UniquenessScope> children = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    public UniquenessScope(String name) {
+        this(name, UniquenessService.global());
+    }
+
+    /**
+     * @param name 作用域名称，用于统计报告
+     * @param service 创建过滤器的服务，决定过滤器后端
+     */
+    public UniquenessScope(String name, UniquenessService service) {
+        this.name = name;
+        this.service = service;
+    }
+
+    /**
+     * 进程级默认作用域
+     */
+    public static UniquenessScope global() {
+        return GLOBAL;
+    }
+
+    /**
+     * 获取指定名称的去重过滤器，首次访问时创建
+     */
+    public UniquenessFilter filter(String key) {
+        ensureOpen();
+        return filters.computeIfAbsent(key, k -> service.createFilter());
+    }
+
+    /**
+     * 获取指定名称的序列计数器，首次访问时从 0 开始
+     */
+    public AtomicLong sequence(String key) {
+        ensureOpen();
+        return sequences.computeIfAbsent(key, k -> new AtomicLong());
+    }
+
+    /**
+     * 获取子作用域 (例如按表或按字段划分)，子作用域随本作用域一起释放
+     */
+    public UniquenessScope child(String childName) {
+        ensureOpen();
+        return children.computeIfAbsent(childName, k -> new UniquenessScope(name + "/" + k, service));
+    }
+
+    /**
+     * 清空并移除指定名称的过滤器与序列
+     */
+    public void release(String key) {
+        UniquenessFilter filter = filters.remove(key);
+        if (filter != null) {
+            filter.clear();
+        }
+        sequences.remove(key);
+    }
+
+    /**
+     * 关闭并移除指定名称的子作用域
+     */
+    public void releaseChild(String childName) {
+        UniquenessScope child = children.remove(childName);
+        if (child != null) {
+            child.close();
+        }
+    }
+
+    /**
+     * 释放全部过滤器、序列与子作用域，之后不能再使用本作用域。全局作用域只清空、不关闭
+     */
+    @Override
+    public void close() {
+        for (UniquenessScope child : children.values()) {
+            child.close();
+        }
+        children.clear();
+        for (String key : filters.keySet()) {
+            release(key);
+        }
+        sequences.clear();
+        if (this != GLOBAL) {
+            closed = true;
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Uniqueness scope already closed: " + name);
+        }
+    }
+
+    /**
+     * 各过滤器已登记的取值数与各序列的当前值，子作用域的条目以子作用域名称为前缀
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new TreeMap<>();
+        filters.forEach((key, filter) -> statistics.put(key, filter.size()));
+        sequences.forEach((key, sequence) -> statistics.put(key + "#sequence", sequence.get()));
+        children.forEach((childName, child) ->
+                child.getStatistics().forEach((key, value) -> statistics.put(childName + "/" + key, value)));
+        return statistics;
+    }
+
+    /**
+     * 本作用域及子作用域的过滤器占用的堆内存字节数
+     */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (UniquenessFilter filter : filters.values()) {
+            bytes += filter.memoryBytes();
+        }
+        for (UniquenessScope child : children.values()) {
+            bytes += child.memoryBytes();
+        }
+        return bytes;
+    }
+
+    public String generateReport() {
+        StringBuilder report = new StringBuilder();
+        report.append("=== Uniqueness Report (").append(name).append(") ===\n");
+        report.append(String.format("Backend: %s, memory: %.2f MB%n",
+                service.getBackend(), memoryBytes() / (1024.0 * 1024.0)));
+        getStatistics().forEach((key, value) -> report.append(String.format("  %s: %d%n", key, value)));
+        return report.toString();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+}
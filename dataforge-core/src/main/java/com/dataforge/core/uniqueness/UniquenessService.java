@@ -0,0 +1,98 @@
+package com.dataforge.core.uniqueness;
+
+import java.io.File;
+
+/**
+ * 唯一性服务
+ * 按配置的后端创建唯一性过滤器；过滤器由 {@link UniquenessScope} 按任务持有与释放。
+ * 全局实例的后端通过系统属性选择:
+ * <ul>
+ *   <li>dataforge.uniqueness.backend: exact (默认，64 位指纹开放寻址表)、bloom (分块布隆过滤器)、spill (可溢出到磁盘的精确集合)</li>
+ *   <li>dataforge.uniqueness.expected: 布隆过滤器的期望取值数 (默认 1000 万)</li>
+ *   <li>dataforge.uniqueness.fpp: 布隆过滤器的误判率 (默认 0.001)</li>
+ *   <li>dataforge.uniqueness.spill.threshold: 溢出前内存表可容纳的指纹数 (默认 800 万)</li>
+ *   <li>dataforge.uniqueness.spill.dir: 溢出目录 (默认 java.io.tmpdir)</li>
+ * </ul>
+ */
+public class UniquenessService {
+
+    public static final String BACKEND_PROPERTY = "dataforge.uniqueness.backend";
+    public static final String EXPECTED_INSERTIONS_PROPERTY = "dataforge.uniqueness.expected";
+    public static final String FALSE_POSITIVE_RATE_PROPERTY = "dataforge.uniqueness.fpp";
+    public static final String SPILL_THRESHOLD_PROPERTY = "dataforge.uniqueness.spill.threshold";
+    public static final String SPILL_DIRECTORY_PROPERTY = "dataforge.uniqueness.spill.dir";
+
+    private static final long DEFAULT_EXPECTED_INSERTIONS = 10_000_000L;
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+    private static final int DEFAULT_SPILL_THRESHOLD = 8_000_000;
+
+    private static final UniquenessService GLOBAL = fromSystemProperties();
+
+    /**
+     * 过滤器后端
+     */
+    public enum Backend {
+        EXACT,
+        BLOOM,
+        SPILL
+    }
+
+    private final Backend backend;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final int spillThreshold;
+    private final File spillDirectory;
+
+    public UniquenessService(Backend backend) {
+        this(backend, DEFAULT_EXPECTED_INSERTIONS, DEFAULT_FALSE_POSITIVE_RATE,
+                DEFAULT_SPILL_THRESHOLD, new File(System.getProperty("java.io.tmpdir")));
+    }
+
+    public UniquenessService(Backend backend, long expectedInsertions, double falsePositiveRate,
+                             int spillThreshold, File spillDirectory) {
+        this.backend = backend;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.spillThreshold = spillThreshold;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * 按系统属性创建服务
+     */
+    public static UniquenessService fromSystemProperties() {
+        Backend backend = Backend.valueOf(System.getProperty(BACKEND_PROPERTY, "exact").trim().toUpperCase());
+        long expected = Long.getLong(EXPECTED_INSERTIONS_PROPERTY, DEFAULT_EXPECTED_INSERTIONS);
+        double fpp = Double.parseDouble(System.getProperty(FALSE_POSITIVE_RATE_PROPERTY,
+                String.valueOf(DEFAULT_FALSE_POSITIVE_RATE)));
+        int threshold = Integer.getInteger(SPILL_THRESHOLD_PROPERTY, DEFAULT_SPILL_THRESHOLD);
+        File directory = new File(System.getProperty(SPILL_DIRECTORY_PROPERTY, System.getProperty("java.io.tmpdir")));
+        return new UniquenessService(backend, expected, fpp, threshold, directory);
+    }
+
+    /**
+     * 全局服务实例
+     */
+    public static UniquenessService global() {
+        return GLOBAL;
+    }
+
+    /**
+     * 按配置的后端创建一个新过滤器
+     */
+    public UniquenessFilter createFilter() {
+        switch (backend) {
+            case BLOOM:
+                return new BlockedBloomFilter(expectedInsertions, falsePositiveRate);
+            case SPILL:
+                return new SpillingFingerprintSet(spillDirectory, spillThreshold);
+            case EXACT:
+            default:
+                return new FingerprintSet();
+        }
+    }
+
+    public Backend getBackend() {
+        return backend;
+    }
+}
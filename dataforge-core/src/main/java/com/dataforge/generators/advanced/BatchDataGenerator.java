@@ -13,6 +13,9 @@ import java.util.stream.Collectors;
  */
 public class BatchDataGenerator<T> implements EnhancedDataGenerator<T> {
     
+    /** 按行号随机访问时使用的流编号 */
+    private static final long ROW_STREAM_ID = 0L;
+    
     private final EnhancedDataGenerator<T> baseGenerator;
     private final ExecutorService executorService;
     private final boolean useParallelProcessing;
@@ -97,11 +100,13 @@ public class BatchDataGenerator<T> implements EnhancedDataGenerator<T> {
             final int batchStart = i * batchSize;
             final int batchEnd = Math.min(batchStart + batchSize, count);
             final int batchCount = batchEnd - batchStart;
+            // 每个批次使用独立派生的随机流，避免工作线程争用同一个 Random
+            final GenerationContext batchContext = context.split(i, batchCount);
             
             Future<List<T>> future = executorService.submit(() -> {
                 List<T> batchResult = new ArrayList<>(batchCount);
                 for (int j = 0; j < batchCount; j++) {
-                    batchResult.add(baseGenerator.generate(context));
+                    batchResult.add(baseGenerator.generate(batchContext));
                 }
                 return batchResult;
             });
@@ -163,12 +168,13 @@ public class BatchDataGenerator<T> implements EnhancedDataGenerator<T> {
         List<Future<Set<T>>> futures = new ArrayList<>();
         
         for (int i = 0; i < 4; i++) {
+            final GenerationContext workerContext = context.split(i);
             Future<Set<T>> future = executorService.submit(() -> {
                 Set<T> batchResult = new HashSet<>();
                 int attempts = 0;
                 
                 while (result.size() + batchResult.size() < count && attempts < batchAttempts) {
-                    T item = baseGenerator.generate(context);
+                    T item = baseGenerator.generate(workerContext);
                     if (!result.contains(item)) {
                         batchResult.add(item);
                     }
@@ -213,18 +219,34 @@ public class BatchDataGenerator<T> implements EnhancedDataGenerator<T> {
     
     /**
      * 分页生成数据
+     * 每一行的随机流按 (种子, 行号) 定位，直接生成目标页而无需生成之前的页；
+     * 对固定种子，同一页的数据总是相同
      */
     public PagedResult<T> generatePaged(GenerationContext context, int pageSize, int pageNumber) {
         if (pageSize <= 0 || pageNumber < 0) {
             throw new IllegalArgumentException("Invalid page parameters");
         }
         
-        int startIndex = pageNumber * pageSize;
-        List<T> pageData = generateBatch(context, pageSize);
+        long startIndex = (long) pageNumber * pageSize;
+        List<T> pageData = generateRange(context, startIndex, pageSize);
         
         return new PagedResult<>(pageData, pageNumber, pageSize, startIndex);
     }
     
+    /**
+     * 生成 [startRow, startRow + count) 范围内的数据
+     * 结果只取决于种子和行号，可用于按区间分片或补生成某一段数据
+     */
+    public List<T> generateRange(GenerationContext context, long startRow, int count) {
+        GenerationContext rowContext = context.split(ROW_STREAM_ID, count);
+        List<T> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rowContext.seekRow(startRow + i);
+            result.add(baseGenerator.generate(rowContext));
+        }
+        return result;
+    }
+    
     /**
      * 流式生成数据
      */
@@ -299,9 +321,9 @@ public class BatchDataGenerator<T> implements EnhancedDataGenerator<T> {
         public final List<T> data;
         public final int pageNumber;
         public final int pageSize;
-        public final int startIndex;
+        public final long startIndex;
         
-        public PagedResult(List<T> data, int pageNumber, int pageSize, int startIndex) {
+        public PagedResult(List<T> data, int pageNumber, int pageSize, long startIndex) {
             this.data = data;
             this.pageNumber = pageNumber;
             this.pageSize = pageSize;
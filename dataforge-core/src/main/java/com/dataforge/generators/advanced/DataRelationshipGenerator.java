@@ -66,6 +66,7 @@ public class DataRelationshipGenerator implements EnhancedDataGenerator<Map<Stri
             
             // 将相关数据添加到上下文中
             GenerationContext enhancedContext = new GenerationContext(context.getCount(), context.getSeed());
+            enhancedContext.setUniquenessScope(context.getUniquenessScope());
             for (Map.Entry<String, Object> relatedEntry : relatedData.entrySet()) {
                 enhancedContext.setParameter(relatedEntry.getKey(), relatedEntry.getValue());
             }
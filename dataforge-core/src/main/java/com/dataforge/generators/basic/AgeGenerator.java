@@ -2,13 +2,14 @@ package com.dataforge.generators.basic;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.columnar.IntValueGenerator;
 
 import java.util.Random;
 
 /**
  * 年龄生成器，用于在指定范围内生成年龄。
  */
-public class AgeGenerator implements DataGenerator<Integer> {
+public class AgeGenerator implements DataGenerator<Integer>, IntValueGenerator {
     
     private static final int DEFAULT_MIN_AGE = 18;
     private static final int DEFAULT_MAX_AGE = 65;
@@ -33,6 +34,11 @@ public class AgeGenerator implements DataGenerator<Integer> {
     
     @Override
     public Integer generate(GenerationContext context) {
+        return generateInt(context);
+    }
+    
+    @Override
+    public int generateInt(GenerationContext context) {
         Random random = context.getRandom();
         return minAge + random.nextInt(maxAge - minAge + 1);
     }
@@ -2,11 +2,16 @@ package com.dataforge.generators.basic;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.uniqueness.BijectiveUniqueness;
 
 import java.util.Random;
 
 /**
  * Bank Card Number generator for generating bank card numbers with Luhn algorithm validation.
+ * 
+ * In bijective unique mode (uniqueMode=bijective) the digits between the BIN and the check digit
+ * are the row index permuted over the account number space of the issuer's BINs, followed by the
+ * Luhn check digit, so card numbers never repeat.
  */
 public class BankCardNumberGenerator implements DataGenerator<String> {
     
@@ -52,18 +57,23 @@ public class BankCardNumberGenerator implements DataGenerator<String> {
     public String generate(GenerationContext context) {
         Random random = context.getRandom();
         
-        // Select a random BIN code based on issuer
-        String[] selectedBin = selectBin(random);
-        String binPrefix = selectedBin[0];
-        int totalLength = Integer.parseInt(selectedBin[1]);
-        
-        // Generate the main part of the card number (excluding the check digit)
-        StringBuilder cardNumber = new StringBuilder(binPrefix);
-        
-        // Generate the remaining digits (excluding the check digit)
-        int remainingLength = totalLength - binPrefix.length() - 1;
-        for (int i = 0; i < remainingLength; i++) {
-            cardNumber.append(random.nextInt(10));
+        StringBuilder cardNumber;
+        if (BijectiveUniqueness.isEnabled(context)) {
+            cardNumber = generateBijectiveNumber(context);
+        } else {
+            // Select a random BIN code based on issuer
+            String[] selectedBin = selectBin(random);
+            String binPrefix = selectedBin[0];
+            int totalLength = Integer.parseInt(selectedBin[1]);
+            
+            // Generate the main part of the card number (excluding the check digit)
+            cardNumber = new StringBuilder(binPrefix);
+            
+            // Generate the remaining digits (excluding the check digit)
+            int remainingLength = totalLength - binPrefix.length() - 1;
+            for (int i = 0; i < remainingLength; i++) {
+                cardNumber.append(random.nextInt(10));
+            }
         }
         
         // Calculate and append the check digit using the Luhn algorithm
@@ -82,6 +92,52 @@ public class BankCardNumberGenerator implements DataGenerator<String> {
         return cardNumber.toString();
     }
     
+    /**
+     * Map the row index to a card number without the check digit. The value space lists the
+     * account numbers of every BIN the issuer may use, one BIN after another.
+     */
+    private StringBuilder generateBijectiveNumber(GenerationContext context) {
+        int[] bins = candidateBins();
+        long domainSize = 0;
+        for (int bin : bins) {
+            domainSize += accountNumberCount(BIN_CODES[bin]);
+        }
+        long value = BijectiveUniqueness.nextValue(context, domainSize,
+                getName().hashCode() * 31L + issuer.ordinal(), getName());
+        for (int bin : bins) {
+            long count = accountNumberCount(BIN_CODES[bin]);
+            if (value < count) {
+                int digits = Integer.parseInt(BIN_CODES[bin][1]) - BIN_CODES[bin][0].length() - 1;
+                return new StringBuilder(BIN_CODES[bin][0]).append(String.format("%0" + digits + "d", value));
+            }
+            value -= count;
+        }
+        throw new IllegalStateException("Permuted value outside card number space: " + value);
+    }
+    
+    private int[] candidateBins() {
+        if (issuer == Issuer.VISA) {
+            return new int[] {0};
+        } else if (issuer == Issuer.MASTERCARD) {
+            return new int[] {1};
+        } else if (issuer == Issuer.UNIONPAY) {
+            return new int[] {2, 3, 4, 5};
+        } else if (issuer == Issuer.AMEX) {
+            return new int[] {6, 7};
+        } else {
+            return new int[] {0, 1, 2, 3, 4, 5, 6, 7};
+        }
+    }
+    
+    private static long accountNumberCount(String[] bin) {
+        int digits = Integer.parseInt(bin[1]) - bin[0].length() - 1;
+        long count = 1;
+        for (int i = 0; i < digits; i++) {
+            count *= 10;
+        }
+        return count;
+    }
+    
     private String[] selectBin(Random random) {
         if (issuer == Issuer.VISA) {
             return BIN_CODES[0]; // Visa
@@ -2,23 +2,26 @@ package com.dataforge.generators.basic;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.ShardSpec;
+import com.dataforge.core.uniqueness.UniquenessFilter;
+import com.dataforge.core.uniqueness.UniquenessScope;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * 高级邮箱生成器，支持5000万不重复邮箱地址
+ * 高级邮箱生成器，唯一模式下的邮箱数只受唯一性服务 (指纹过滤器) 的内存限制
  * 支持配置文件加载邮箱域名和用户名模式
  */
 public class EmailGenerator implements DataGenerator<String> {
     
     private static final String CONFIG_PATH = "/config/email/";
-    private static final int MAX_UNIQUE_EMAILS = 50_000_000;
+    // 随机重抽的次数上限，超过后改为在用户名后追加序号，避免取值空间接近饱和时反复重抽
+    private static final int MAX_RANDOM_ATTEMPTS = 32;
     
     // 邮箱域名
     private final List<String> domains = new ArrayList<>();
@@ -36,8 +39,8 @@ public class EmailGenerator implements DataGenerator<String> {
     // 用户名分隔符
     private final List<String> separators = Arrays.asList("", ".", "_", "-");
     
-    // 用于确保唯一性的集合
-    private final Set<String> generatedEmails = ConcurrentHashMap.newKeySet();
+    // 唯一性作用域中记录已生成邮箱的过滤器名称
+    private static final String UNIQUENESS_KEY = "email";
     private final AtomicLong uniqueCounter = new AtomicLong(0);
     
     // 默认数据
@@ -105,27 +108,45 @@ public class EmailGenerator implements DataGenerator<String> {
         int length = (Integer) context.getParameter("length", 8);
         boolean unique = (Boolean) context.getParameter("unique", false);
         
-        String email;
-        int attempts = 0;
+        String email = generateEmail(context, type, domainType, length);
+        if (!unique) {
+            return email;
+        }
+        UniquenessFilter generatedEmails = context.getUniquenessScope().filter(UNIQUENESS_KEY);
         
-        do {
-            email = generateEmail(context, type, domainType, length);
-            attempts++;
-            
-            if (!unique || attempts > 100) {
-                break;
+        // 分片生成时只接受归属当前分片的邮箱，保证跨分片唯一
+        ShardSpec shard = ShardSpec.of(context);
+        int randomAttempts = MAX_RANDOM_ATTEMPTS * shard.getCount();
+        String base = email;
+        for (long attempt = 1; !shard.owns(email) || !generatedEmails.add(email); attempt++) {
+            if (attempt < randomAttempts) {
+                email = generateEmail(context, type, domainType, length);
+                base = email;
+            } else {
+                // 随机重抽多次仍重复，说明取值空间已接近饱和：追加序号直到得到新邮箱，不放过重复值
+                email = withSequence(base, generatedEmails.size() + attempt);
             }
-            
-        } while (generatedEmails.contains(email) && generatedEmails.size() < MAX_UNIQUE_EMAILS);
-        
-        if (unique && generatedEmails.size() < MAX_UNIQUE_EMAILS) {
-            generatedEmails.add(email);
-            uniqueCounter.incrementAndGet();
         }
-        
+        uniqueCounter.incrementAndGet();
         return email;
     }
     
+    /**
+     * 借助唯一性过滤器去重时，结果依赖此前各行登记的值
+     */
+    @Override
+    public boolean isOrderDependent(GenerationContext context) {
+        return (Boolean) context.getParameter("unique", false);
+    }
+    
+    private static String withSequence(String email, long sequence) {
+        int at = email.indexOf('@');
+        if (at < 0) {
+            return email + sequence;
+        }
+        return email.substring(0, at) + sequence + email.substring(at);
+    }
+    
     private String generateEmail(GenerationContext context, String type, String domainType, int length) {
         Random random = context.getRandom();
         
@@ -270,16 +291,41 @@ public class EmailGenerator implements DataGenerator<String> {
         return uniqueCounter.intValue();
     }
     
+    /**
+     * 上下文所属的唯一性作用域中已登记的邮箱数
+     */
+    public long getUniqueEmailCount(GenerationContext context) {
+        return context.getUniquenessScope().filter(UNIQUENESS_KEY).size();
+    }
+    
+    /**
+     * 可生成的不重复邮箱数，超过 int 范围时取 Integer.MAX_VALUE
+     *
+     * @deprecated 唯一邮箱不再有固定上限，请使用 {@link #calculateMaxUniqueEmails()}
+     */
+    @Deprecated
     public int getMaxUniqueEmails() {
-        return MAX_UNIQUE_EMAILS;
+        return (int) Math.min(Integer.MAX_VALUE, calculateMaxUniqueEmails());
     }
     
+    /**
+     * @deprecated 唯一邮箱不再有数量上限，始终返回 false；已登记的数量见 {@link #getUniqueEmailCount}
+     */
+    @Deprecated
     public boolean isFull() {
-        return generatedEmails.size() >= MAX_UNIQUE_EMAILS;
+        return false;
     }
     
     public void resetUniqueEmails() {
-        generatedEmails.clear();
+        UniquenessScope.global().release(UNIQUENESS_KEY);
+        uniqueCounter.set(0);
+    }
+    
+    /**
+     * 清空上下文所属的唯一性作用域中已登记的邮箱
+     */
+    public void resetUniqueEmails(GenerationContext context) {
+        context.getUniquenessScope().release(UNIQUENESS_KEY);
         uniqueCounter.set(0);
     }
     
@@ -2,9 +2,15 @@ package com.dataforge.generators.basic;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.ShardSpec;
+import com.dataforge.core.uniqueness.BijectiveUniqueness;
+import com.dataforge.core.uniqueness.UniquenessFilter;
+import com.dataforge.core.uniqueness.UniquenessScope;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 
 /**
@@ -15,6 +21,14 @@ import java.util.Random;
  * - 8 digits for birth date (YYYYMMDD)
  * - 3 digits for sequence code
  * - 1 digit for check code
+ * 
+ * With unique=true (default false) numbers are registered in the context's uniqueness scope,
+ * so a run never repeats one. When generating a shard, only numbers owned by the current
+ * shard are returned, so shards never produce the same number either.
+ * 
+ * In bijective unique mode (uniqueMode=bijective) the row index is permuted over the
+ * (region, birth date, sequence) space and the check code is computed afterwards,
+ * so numbers are unique without tracking the ones already produced.
  */
 public class IdCardNumberGenerator implements DataGenerator<String> {
     
@@ -29,6 +43,12 @@ public class IdCardNumberGenerator implements DataGenerator<String> {
         "610100", "620100", "630100", "640100", "650100"
     };
     
+    // Upper bound of random draws (per shard) before scanning the number space
+    private static final int MAX_RANDOM_ATTEMPTS = 1000;
+    
+    // Name of the filter holding the generated numbers in the uniqueness scope
+    private static final String UNIQUENESS_KEY = "id_card_number";
+    
     // Birth date range
     private final LocalDate minDate;
     private final LocalDate maxDate;
@@ -52,8 +72,90 @@ public class IdCardNumberGenerator implements DataGenerator<String> {
     
     @Override
     public String generate(GenerationContext context) {
+        if (BijectiveUniqueness.isEnabled(context)) {
+            return generateBijective(context);
+        }
         Random random = context.getRandom();
+        boolean unique = (Boolean) context.getParameter("unique", false);
+        if (!unique) {
+            return generateNumber(random);
+        }
+        ShardSpec shard = ShardSpec.of(context);
+        UniquenessFilter generatedNumbers = context.getUniquenessScope().filter(UNIQUENESS_KEY);
+        // Only about 1/N of the draws are owned by a shard, so scale the budget by the shard count
+        for (int attempt = 0; attempt < MAX_RANDOM_ATTEMPTS * shard.getCount(); attempt++) {
+            String idCardNumber = generateNumber(random);
+            if (shard.owns(idCardNumber) && generatedNumbers.add(idCardNumber)) {
+                return idCardNumber;
+            }
+        }
         
+        // The space is close to saturation: scan it from a random position for the next free owned number
+        long domainSize = domainSize();
+        long start = Math.floorMod(random.nextLong(), domainSize);
+        for (long offset = 0; offset < domainSize; offset++) {
+            String idCardNumber = numberAt((start + offset) % domainSize);
+            if (shard.owns(idCardNumber) && generatedNumbers.add(idCardNumber)) {
+                return idCardNumber;
+            }
+        }
+        throw new IllegalStateException("Unique ID card number space exhausted in shard " + shard + ": "
+                + domainSize + " numbers");
+    }
+    
+    /**
+     * Unique draws outside bijective mode are de-duplicated against the uniqueness filter,
+     * so each value depends on the rows before it.
+     */
+    @Override
+    public boolean isOrderDependent(GenerationContext context) {
+        return (Boolean) context.getParameter("unique", false) && !BijectiveUniqueness.isEnabled(context);
+    }
+    
+    @Override
+    public List<String> getSupportedParameters() {
+        return Arrays.asList("unique", BijectiveUniqueness.MODE_PARAMETER, BijectiveUniqueness.KEY_PARAMETER);
+    }
+    
+    private String generateBijective(GenerationContext context) {
+        long salt = getName().hashCode() * 31L + minDate.toEpochDay() * 7L + gender.ordinal();
+        return numberAt(BijectiveUniqueness.nextValue(context, domainSize(), salt, getName()));
+    }
+    
+    private long days() {
+        return maxDate.toEpochDay() - minDate.toEpochDay() + 1;
+    }
+    
+    private int sequences() {
+        return gender == Gender.ANY ? 1000 : 500;
+    }
+    
+    /**
+     * Size of the (region, birth date, sequence) space.
+     */
+    private long domainSize() {
+        return REGION_CODES.length * days() * sequences();
+    }
+    
+    /**
+     * The number at the given position of the (region, birth date, sequence) space.
+     */
+    private String numberAt(long value) {
+        long days = days();
+        int sequences = sequences();
+        int sequence = (int) (value % sequences);
+        value /= sequences;
+        if (gender == Gender.MALE) {
+            sequence = sequence * 2 + 1;
+        } else if (gender == Gender.FEMALE) {
+            sequence = sequence * 2;
+        }
+        LocalDate birthDate = LocalDate.ofEpochDay(minDate.toEpochDay() + value % days);
+        String regionCode = REGION_CODES[(int) (value / days)];
+        return formatNumber(regionCode, birthDate, sequence);
+    }
+    
+    private String generateNumber(Random random) {
         // 1. Generate region code
         String regionCode = REGION_CODES[random.nextInt(REGION_CODES.length)];
         
@@ -62,7 +164,6 @@ public class IdCardNumberGenerator implements DataGenerator<String> {
         long maxDay = maxDate.toEpochDay();
         long randomDay = minDay + random.nextInt((int) (maxDay - minDay + 1));
         LocalDate birthDate = LocalDate.ofEpochDay(randomDay);
-        String birthDateStr = birthDate.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
         
         // 3. Generate sequence code (3 digits)
         // The second to last digit indicates gender (odd for male, even for female)
@@ -78,6 +179,12 @@ public class IdCardNumberGenerator implements DataGenerator<String> {
             sequence = random.nextInt(1000);
         }
         
+        return formatNumber(regionCode, birthDate, sequence);
+    }
+    
+    private String formatNumber(String regionCode, LocalDate birthDate, int sequence) {
+        String birthDateStr = birthDate.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+        
         // Format sequence code as 3 digits
         String sequenceCode = String.format("%03d", sequence);
         
@@ -111,4 +218,11 @@ public class IdCardNumberGenerator implements DataGenerator<String> {
         int remainder = sum % 11;
         return checkCodes[remainder];
     }
-}
\ No newline at end of file
+    
+    /**
+     * Clears the generated ID card numbers of the global uniqueness scope (for testing purposes).
+     */
+    public static void clearCache() {
+        UniquenessScope.global().release(UNIQUENESS_KEY);
+    }
+}
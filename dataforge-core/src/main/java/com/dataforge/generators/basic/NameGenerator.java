@@ -2,23 +2,25 @@ package com.dataforge.generators.basic;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.uniqueness.UniquenessFilter;
+import com.dataforge.core.uniqueness.UniquenessScope;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * 高级姓名生成器，支持中英文姓名，支持5000万不重复姓名生成
+ * 高级姓名生成器，支持中英文姓名，唯一模式下的姓名数只受唯一性服务 (指纹过滤器) 的内存限制
  * 支持配置文件加载姓氏和名字库
  */
 public class NameGenerator implements DataGenerator<String> {
     
     private static final String CONFIG_PATH = "/config/names/";
-    private static final int MAX_UNIQUE_NAMES = 50_000_000;
+    // 随机重抽的次数上限，超过后改为在姓名后追加序号，避免取值空间接近饱和时反复重抽
+    private static final int MAX_RANDOM_ATTEMPTS = 32;
     
     // 姓氏和名字库
     private final List<String> chineseSurnames = new ArrayList<>();
@@ -29,8 +31,8 @@ public class NameGenerator implements DataGenerator<String> {
     private final List<String> englishFirstNames = new ArrayList<>();
     private final List<String> englishLastNames = new ArrayList<>();
     
-    // 用于确保唯一性的集合
-    private final Set<String> generatedNames = ConcurrentHashMap.newKeySet();
+    // 唯一性作用域中记录已生成姓名的过滤器名称
+    private static final String UNIQUENESS_KEY = "name";
     private final AtomicLong uniqueCounter = new AtomicLong(0);
     
     // 百家姓（完整版）
@@ -120,33 +122,44 @@ public class NameGenerator implements DataGenerator<String> {
         boolean unique = (Boolean) context.getParameter("unique", false);
         boolean compoundSurname = (Boolean) context.getParameter("compoundSurname", false);
         
-        String name;
-        int attempts = 0;
+        String name = generateName(context, culture, length, gender, compoundSurname);
         
-        do {
-            if ("english".equalsIgnoreCase(culture)) {
-                name = generateEnglishName(context, length, gender);
+        // 不需要唯一性时直接返回结果
+        if (!unique) {
+            return name;
+        }
+        UniquenessFilter generatedNames = context.getUniquenessScope().filter(UNIQUENESS_KEY);
+        
+        String base = name;
+        for (long attempt = 1; !generatedNames.add(name); attempt++) {
+            if (attempt < MAX_RANDOM_ATTEMPTS) {
+                name = generateName(context, culture, length, gender, compoundSurname);
+                base = name;
             } else {
-                name = generateChineseName(context, length, gender, compoundSurname);
-            }
-            
-            attempts++;
-            
-            // 如果不需要唯一性或已达到最大尝试次数，返回结果
-            if (!unique || attempts > 100) {
-                break;
+                // 随机重抽多次仍重复，说明取值空间已接近饱和：追加序号直到得到新姓名，不放过重复值
+                name = base + (generatedNames.size() + attempt);
             }
-            
-        } while (generatedNames.contains(name) && generatedNames.size() < MAX_UNIQUE_NAMES);
-        
-        if (unique && generatedNames.size() < MAX_UNIQUE_NAMES) {
-            generatedNames.add(name);
-            uniqueCounter.incrementAndGet();
         }
-        
+        uniqueCounter.incrementAndGet();
         return name;
     }
     
+    /**
+     * 借助唯一性过滤器去重时，结果依赖此前各行登记的值
+     */
+    @Override
+    public boolean isOrderDependent(GenerationContext context) {
+        return (Boolean) context.getParameter("unique", false);
+    }
+    
+    private String generateName(GenerationContext context, String culture, int length, String gender,
+                                boolean compoundSurname) {
+        if ("english".equalsIgnoreCase(culture)) {
+            return generateEnglishName(context, length, gender);
+        }
+        return generateChineseName(context, length, gender, compoundSurname);
+    }
+    
     private String generateChineseName(GenerationContext context, int length, String gender, boolean compoundSurname) {
         Random random = context.getRandom();
         
@@ -243,16 +256,41 @@ public class NameGenerator implements DataGenerator<String> {
         return uniqueCounter.intValue();
     }
     
+    /**
+     * 上下文所属的唯一性作用域中已登记的姓名数
+     */
+    public long getUniqueNameCount(GenerationContext context) {
+        return context.getUniquenessScope().filter(UNIQUENESS_KEY).size();
+    }
+    
+    /**
+     * 可生成的不重复姓名数，超过 int 范围时取 Integer.MAX_VALUE
+     *
+     * @deprecated 唯一姓名不再有固定上限，请使用 {@link #calculateMaxUniqueNames()}
+     */
+    @Deprecated
     public int getMaxUniqueNames() {
-        return MAX_UNIQUE_NAMES;
+        return (int) Math.min(Integer.MAX_VALUE, calculateMaxUniqueNames());
     }
     
+    /**
+     * @deprecated 唯一姓名不再有数量上限，始终返回 false；已登记的数量见 {@link #getUniqueNameCount}
+     */
+    @Deprecated
     public boolean isFull() {
-        return generatedNames.size() >= MAX_UNIQUE_NAMES;
+        return false;
     }
     
     public void resetUniqueNames() {
-        generatedNames.clear();
+        UniquenessScope.global().release(UNIQUENESS_KEY);
+        uniqueCounter.set(0);
+    }
+    
+    /**
+     * 清空上下文所属的唯一性作用域中已登记的姓名
+     */
+    public void resetUniqueNames(GenerationContext context) {
+        context.getUniquenessScope().release(UNIQUENESS_KEY);
         uniqueCounter.set(0);
     }
     
@@ -2,19 +2,23 @@ package com.dataforge.generators.basic;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.ShardSpec;
+import com.dataforge.core.uniqueness.BijectiveUniqueness;
+import com.dataforge.core.uniqueness.UniquenessFilter;
+import com.dataforge.core.uniqueness.UniquenessScope;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 /**
  * 增强手机号码生成器
  * 支持按运营商区分号段，配置文件加载运营商号段信息
  * 支持生成5000万唯一手机号码
+ * 分片生成时只接受归属当前分片的号码，各分片之间无需协调即不会重复
+ * 双射唯一模式 (uniqueMode=bijective) 下按行号置换到全部号段的号码空间，不记录已生成号码
  */
 public class PhoneNumberGenerator implements DataGenerator<String> {
     
@@ -24,7 +28,8 @@ public class PhoneNumberGenerator implements DataGenerator<String> {
     private static final String VIRTUAL_OPERATORS_FILE = "/config/phone/virtual_operators.txt";
     
     private static final Map<String, List<String>> operatorPrefixes = new HashMap<>();
-    private static final ConcurrentMap<String, Boolean> generatedNumbers = new ConcurrentHashMap<>();
+    // 唯一性作用域中记录已生成号码的过滤器名称
+    private static final String UNIQUENESS_KEY = "phone_number";
     
     /**
      * 运营商枚举
@@ -162,18 +167,81 @@ public class PhoneNumberGenerator implements DataGenerator<String> {
             prefixes = getDefaultChinaMobilePrefixes();
         }
         
-        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+        if (BijectiveUniqueness.isEnabled(context)) {
+            return generateBijective(context, prefixes);
+        }
+        
+        // 分片时只有约 1/N 的随机号码归属本分片，重抽次数按分片数放大
+        ShardSpec shard = ShardSpec.of(context);
+        UniquenessFilter generatedNumbers = context.getUniquenessScope().filter(UNIQUENESS_KEY);
+        int randomAttempts = maxAttempts * shard.getCount();
+        for (int attempt = 0; attempt < randomAttempts; attempt++) {
             String prefix = prefixes.get(random.nextInt(prefixes.size()));
             String phoneNumber = generatePhoneNumber(prefix, random);
             
-            if (generatedNumbers.putIfAbsent(phoneNumber, Boolean.TRUE) == null) {
+            if (shard.owns(phoneNumber) && generatedNumbers.add(phoneNumber)) {
                 return phoneNumber;
             }
         }
         
-        // Fallback with timestamp if max attempts exceeded
-        String prefix = prefixes.get(random.nextInt(prefixes.size()));
-        return prefix + String.format("%08d", System.nanoTime() % 100000000);
+        // 随机重抽多次仍未成功，说明号码空间已接近饱和：从随机位置起顺序查找下一个归属本分片且未生成过的号码
+        long domainSize = domainSize(prefixes);
+        long start = Math.floorMod(random.nextLong(), domainSize);
+        for (long offset = 0; offset < domainSize; offset++) {
+            String phoneNumber = numberAt(prefixes, (start + offset) % domainSize);
+            if (shard.owns(phoneNumber) && generatedNumbers.add(phoneNumber)) {
+                return phoneNumber;
+            }
+        }
+        throw new IllegalStateException("Unique phone number space exhausted for operator " + operator
+                + " in shard " + shard + ": " + domainSize + " numbers");
+    }
+    
+    /**
+     * 非双射模式下借助唯一性过滤器去重，结果依赖此前各行登记的值
+     */
+    @Override
+    public boolean isOrderDependent(GenerationContext context) {
+        return !BijectiveUniqueness.isEnabled(context);
+    }
+    
+    /**
+     * 双射唯一模式：号码空间按号段依次排列，每个号段占 10^(11-号段长度) 个号码
+     */
+    private String generateBijective(GenerationContext context, List<String> prefixes) {
+        long value = BijectiveUniqueness.nextValue(context, domainSize(prefixes),
+                getName().hashCode() * 31L + operator.ordinal(), getName());
+        return numberAt(prefixes, value);
+    }
+    
+    private static long domainSize(List<String> prefixes) {
+        long domainSize = 0;
+        for (String prefix : prefixes) {
+            domainSize += pow10(11 - prefix.length());
+        }
+        return domainSize;
+    }
+    
+    /**
+     * 号码空间中的第 value 个号码，号段依次排列
+     */
+    private static String numberAt(List<String> prefixes, long value) {
+        for (String prefix : prefixes) {
+            long bucketSize = pow10(11 - prefix.length());
+            if (value < bucketSize) {
+                return prefix + String.format("%0" + (11 - prefix.length()) + "d", value);
+            }
+            value -= bucketSize;
+        }
+        throw new IllegalStateException("Value outside phone number space: " + value);
+    }
+    
+    private static long pow10(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
     }
     
     private String generatePhoneNumber(String prefix, Random random) {
@@ -188,19 +256,23 @@ public class PhoneNumberGenerator implements DataGenerator<String> {
     }
     
     /**
-     * Gets the total number of unique phone numbers generated.
+     * Gets the total number of unique phone numbers generated in the global uniqueness scope.
      * 
      * @return the count of unique phone numbers
      */
     public static int getUniquePhoneNumberCount() {
-        return generatedNumbers.size();
+        return (int) generatedNumbers().size();
     }
     
     /**
-     * Clears the generated phone numbers cache (for testing purposes).
+     * Clears the generated phone numbers of the global uniqueness scope (for testing purposes).
      */
     public static void clearCache() {
-        generatedNumbers.clear();
+        UniquenessScope.global().release(UNIQUENESS_KEY);
+    }
+    
+    private static UniquenessFilter generatedNumbers() {
+        return UniquenessScope.global().filter(UNIQUENESS_KEY);
     }
     
     /**
@@ -228,7 +300,7 @@ public class PhoneNumberGenerator implements DataGenerator<String> {
     
     @Override
     public List<String> getSupportedParameters() {
-        return Arrays.asList("operator");
+        return Arrays.asList("operator", BijectiveUniqueness.MODE_PARAMETER, BijectiveUniqueness.KEY_PARAMETER);
     }
     
     /**
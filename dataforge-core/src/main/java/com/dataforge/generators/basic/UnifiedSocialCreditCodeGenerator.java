@@ -2,6 +2,7 @@ package com.dataforge.generators.basic;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.uniqueness.BijectiveUniqueness;
 
 import java.util.Random;
 
@@ -14,6 +15,10 @@ import java.util.Random;
  * - 6 digits for administrative division code
  * - 9 digits for entity identifier
  * - 1 digit for check code
+ * 
+ * In bijective unique mode (uniqueMode=bijective) the first 17 characters are the row index
+ * permuted over all department/category/division/identifier combinations, followed by the
+ * check code, so codes never repeat.
  */
 public class UnifiedSocialCreditCodeGenerator implements DataGenerator<String> {
     
@@ -56,27 +61,33 @@ public class UnifiedSocialCreditCodeGenerator implements DataGenerator<String> {
     public String generate(GenerationContext context) {
         Random random = context.getRandom();
         
-        // 1. Generate registration department code
-        String registrationDepartmentCode = REGISTRATION_DEPARTMENT_CODES[
-            random.nextInt(REGISTRATION_DEPARTMENT_CODES.length)];
-        
-        // 2. Generate institution category code
-        String institutionCategoryCode = INSTITUTION_CATEGORY_CODES[
-            random.nextInt(INSTITUTION_CATEGORY_CODES.length)];
-        
-        // 3. Generate administrative division code
-        String administrativeDivisionCode = ADMINISTRATIVE_DIVISION_CODES[
-            random.nextInt(ADMINISTRATIVE_DIVISION_CODES.length)];
-        
-        // 4. Generate entity identifier (9 digits)
-        StringBuilder entityIdentifier = new StringBuilder();
-        for (int i = 0; i < 9; i++) {
-            entityIdentifier.append(random.nextInt(10));
+        String codeWithoutCheck;
+        if (BijectiveUniqueness.isEnabled(context)) {
+            codeWithoutCheck = generateBijectiveCode(context);
+        } else {
+            // 1. Generate registration department code
+            String registrationDepartmentCode = REGISTRATION_DEPARTMENT_CODES[
+                random.nextInt(REGISTRATION_DEPARTMENT_CODES.length)];
+            
+            // 2. Generate institution category code
+            String institutionCategoryCode = INSTITUTION_CATEGORY_CODES[
+                random.nextInt(INSTITUTION_CATEGORY_CODES.length)];
+            
+            // 3. Generate administrative division code
+            String administrativeDivisionCode = ADMINISTRATIVE_DIVISION_CODES[
+                random.nextInt(ADMINISTRATIVE_DIVISION_CODES.length)];
+            
+            // 4. Generate entity identifier (9 digits)
+            StringBuilder entityIdentifier = new StringBuilder();
+            for (int i = 0; i < 9; i++) {
+                entityIdentifier.append(random.nextInt(10));
+            }
+            
+            codeWithoutCheck = registrationDepartmentCode + institutionCategoryCode + 
+                               administrativeDivisionCode + entityIdentifier.toString();
         }
         
         // 5. Generate check code
-        String codeWithoutCheck = registrationDepartmentCode + institutionCategoryCode + 
-                                 administrativeDivisionCode + entityIdentifier.toString();
         
         String checkCode;
         if (valid) {
@@ -91,6 +102,27 @@ public class UnifiedSocialCreditCodeGenerator implements DataGenerator<String> {
         return codeWithoutCheck + checkCode;
     }
     
+    /**
+     * Map the row index to the 17-character code without the check digit.
+     */
+    private String generateBijectiveCode(GenerationContext context) {
+        long identifiers = 1_000_000_000L;
+        long domainSize = (long) REGISTRATION_DEPARTMENT_CODES.length * INSTITUTION_CATEGORY_CODES.length
+                * ADMINISTRATIVE_DIVISION_CODES.length * identifiers;
+        long value = BijectiveUniqueness.nextValue(context, domainSize,
+                getName().hashCode(), getName());
+        
+        String entityIdentifier = String.format("%09d", value % identifiers);
+        value /= identifiers;
+        String administrativeDivisionCode = ADMINISTRATIVE_DIVISION_CODES[(int) (value % ADMINISTRATIVE_DIVISION_CODES.length)];
+        value /= ADMINISTRATIVE_DIVISION_CODES.length;
+        String institutionCategoryCode = INSTITUTION_CATEGORY_CODES[(int) (value % INSTITUTION_CATEGORY_CODES.length)];
+        value /= INSTITUTION_CATEGORY_CODES.length;
+        String registrationDepartmentCode = REGISTRATION_DEPARTMENT_CODES[(int) value];
+        
+        return registrationDepartmentCode + institutionCategoryCode + administrativeDivisionCode + entityIdentifier;
+    }
+    
     /**
      * Calculate the check code according to the GB32100-2015 standard.
      * 
@@ -2,16 +2,19 @@ package com.dataforge.generators.business;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.ShardSpec;
+import com.dataforge.core.uniqueness.UniquenessFilter;
+import com.dataforge.core.uniqueness.UniquenessScope;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 业务单据号生成器
  * 支持多种单据类型的编号生成，包括订单号、发票号、合同号等
+ * 按行号定位生成时，序列类格式直接使用全局行号作为序列号，分片之间无需协调即不会重复
  */
 public class BusinessDocumentNumberGenerator implements DataGenerator<String> {
     
@@ -80,11 +83,12 @@ public class BusinessDocumentNumberGenerator implements DataGenerator<String> {
     private final String customPrefix;
     private final int numberLength;
     
-    // 用于生成连续递增号码的计数器
-    private static final ConcurrentMap<String, Integer> sequenceCounters = new ConcurrentHashMap<>();
-    
-    // 用于确保唯一性的集合
-    private static final ConcurrentMap<String, Boolean> generatedNumbers = new ConcurrentHashMap<>();
+    // 唯一性作用域中存放单据号过滤器与序列计数器的子作用域名称
+    private static final String UNIQUENESS_KEY = "business_document_number";
+    private static final String NUMBERS_KEY = "numbers";
+    private static final String FALLBACK_KEY = "fallback";
+    // 随机重抽的次数上限 (未分片时)，超过后改为追加序号
+    private static final int MAX_RANDOM_ATTEMPTS = 1000;
     
     public BusinessDocumentNumberGenerator() {
         this(DocumentType.ORDER, NumberFormat.DATE_SEQUENCE, null, 0);
@@ -110,27 +114,58 @@ public class BusinessDocumentNumberGenerator implements DataGenerator<String> {
     public String generate(GenerationContext context) {
         Random random = context.getRandom();
         String prefix = customPrefix != null ? customPrefix : documentType.getPrefix();
+        UniquenessScope scope = context.getUniquenessScope().child(UNIQUENESS_KEY);
+        
+        // 行号在整个数据集内唯一，由它派生的序列号无需再做去重
+        long rowIndex = context.getRowIndex();
+        if (rowIndex >= 0 && isSequenceFormat()) {
+            return generateDocumentNumber(scope, prefix, random, rowIndex + 1);
+        }
         
-        for (int attempt = 0; attempt < 1000; attempt++) {
-            String documentNumber = generateDocumentNumber(prefix, random);
+        // 分片时只有约 1/N 的单据号归属本分片，重抽次数按分片数放大
+        ShardSpec shard = ShardSpec.of(context);
+        UniquenessFilter generatedNumbers = scope.filter(NUMBERS_KEY);
+        String documentNumber = null;
+        for (int attempt = 0; attempt < MAX_RANDOM_ATTEMPTS * shard.getCount(); attempt++) {
+            documentNumber = generateDocumentNumber(scope, prefix, random, 0);
             
-            if (generatedNumbers.putIfAbsent(documentNumber, Boolean.TRUE) == null) {
+            if (shard.owns(documentNumber) && generatedNumbers.add(documentNumber)) {
                 return documentNumber;
             }
         }
         
-        // 如果尝试1000次仍有重复，添加时间戳后缀确保唯一性
-        String fallbackNumber = generateDocumentNumber(prefix, random) + System.nanoTime() % 1000;
-        generatedNumbers.put(fallbackNumber, Boolean.TRUE);
-        return fallbackNumber;
+        // 重抽多次仍重复：在最后一个单据号后追加作用域内递增的序号，直到得到归属本分片且未生成过的单据号
+        AtomicLong fallbackSequence = scope.sequence(FALLBACK_KEY);
+        String base = documentNumber;
+        do {
+            documentNumber = base + "-" + fallbackSequence.incrementAndGet();
+        } while (!shard.owns(documentNumber) || !generatedNumbers.add(documentNumber));
+        return documentNumber;
+    }
+    
+    /**
+     * 按行号派生的序列号与顺序无关；其余格式借助唯一性过滤器去重，结果依赖此前各行登记的值
+     */
+    @Override
+    public boolean isOrderDependent(GenerationContext context) {
+        return !isSequenceFormat();
     }
     
-    private String generateDocumentNumber(String prefix, Random random) {
+    private boolean isSequenceFormat() {
+        return numberFormat == NumberFormat.SEQUENTIAL
+                || numberFormat == NumberFormat.DATE_SEQUENCE
+                || numberFormat == NumberFormat.YEAR_MONTH_SEQ;
+    }
+    
+    /**
+     * @param sequence 序列号，小于等于 0 时使用唯一性作用域中的计数器
+     */
+    private String generateDocumentNumber(UniquenessScope scope, String prefix, Random random, long sequence) {
         LocalDate now = LocalDate.now();
         
         switch (numberFormat) {
             case SEQUENTIAL:
-                return generateSequentialNumber(prefix, now);
+                return generateSequentialNumber(scope, prefix, now, sequence);
                 
             case TIMESTAMP:
                 return generateTimestampNumber(prefix);
@@ -139,21 +174,28 @@ public class BusinessDocumentNumberGenerator implements DataGenerator<String> {
                 return generateRandomNumber(prefix, random);
                 
             case DATE_SEQUENCE:
-                return generateDateSequenceNumber(prefix, now);
+                return generateDateSequenceNumber(scope, prefix, now, sequence);
                 
             case YEAR_MONTH_SEQ:
-                return generateYearMonthSequenceNumber(prefix, now);
+                return generateYearMonthSequenceNumber(scope, prefix, now, sequence);
                 
             default:
-                return generateDateSequenceNumber(prefix, now);
+                return generateDateSequenceNumber(scope, prefix, now, sequence);
+        }
+    }
+    
+    private long nextSequence(UniquenessScope scope, String key, long sequence) {
+        if (sequence > 0) {
+            return sequence;
         }
+        return scope.sequence(key).incrementAndGet();
     }
     
-    private String generateSequentialNumber(String prefix, LocalDate date) {
+    private String generateSequentialNumber(UniquenessScope scope, String prefix, LocalDate date, long requestedSequence) {
         String dateStr = date.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
         String key = prefix + dateStr;
         
-        int sequence = sequenceCounters.compute(key, (k, v) -> (v == null) ? 1 : v + 1);
+        long sequence = nextSequence(scope, key, requestedSequence);
         
         // 确保序列号有足够的位数
         int seqDigits = Math.max(3, numberLength - prefix.length() - 8);
@@ -192,11 +234,11 @@ public class BusinessDocumentNumberGenerator implements DataGenerator<String> {
         return number.toString();
     }
     
-    private String generateDateSequenceNumber(String prefix, LocalDate date) {
+    private String generateDateSequenceNumber(UniquenessScope scope, String prefix, LocalDate date, long requestedSequence) {
         String dateStr = date.format(DateTimeFormatter.ofPattern("yyMMdd"));
         String key = prefix + dateStr;
         
-        int sequence = sequenceCounters.compute(key, (k, v) -> (v == null) ? 1 : v + 1);
+        long sequence = nextSequence(scope, key, requestedSequence);
         
         // 序列号位数
         int seqDigits = Math.max(3, numberLength - prefix.length() - 6);
@@ -205,11 +247,11 @@ public class BusinessDocumentNumberGenerator implements DataGenerator<String> {
         return String.format(format, prefix, dateStr, sequence);
     }
     
-    private String generateYearMonthSequenceNumber(String prefix, LocalDate date) {
+    private String generateYearMonthSequenceNumber(UniquenessScope scope, String prefix, LocalDate date, long requestedSequence) {
         String yearMonthStr = date.format(DateTimeFormatter.ofPattern("yyMM"));
         String key = prefix + yearMonthStr;
         
-        int sequence = sequenceCounters.compute(key, (k, v) -> (v == null) ? 1 : v + 1);
+        long sequence = nextSequence(scope, key, requestedSequence);
         
         // 序列号位数
         int seqDigits = Math.max(3, numberLength - prefix.length() - 4);
@@ -258,19 +300,18 @@ public class BusinessDocumentNumberGenerator implements DataGenerator<String> {
     }
     
     /**
-     * 获取生成的单据号总数
+     * 获取全局唯一性作用域中生成的单据号总数
      * @return 单据号总数
      */
     public static int getGeneratedCount() {
-        return generatedNumbers.size();
+        return (int) UniquenessScope.global().child(UNIQUENESS_KEY).filter(NUMBERS_KEY).size();
     }
     
     /**
-     * 清除生成的单据号缓存（用于测试）
+     * 清除全局唯一性作用域中的单据号与序列计数器（用于测试）
      */
     public static void clearCache() {
-        generatedNumbers.clear();
-        sequenceCounters.clear();
+        UniquenessScope.global().releaseChild(UNIQUENESS_KEY);
     }
     
     /**
@@ -102,6 +102,14 @@ public class CompanyGenerator implements DataGenerator<String> {
         return company;
     }
     
+    /**
+     * 需要唯一时借助已生成公司名的集合去重，结果依赖此前各行生成的值
+     */
+    @Override
+    public boolean isOrderDependent(GenerationContext context) {
+        return (Boolean) context.getParameter("unique", true);
+    }
+    
     private String generateCompanyName(GenerationContext context, boolean prefixRegion, String industry, String type) {
         Random random = context.getRandom();
         
@@ -2,15 +2,21 @@ package com.dataforge.generators.business;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.uniqueness.BijectiveUniqueness;
 
 import java.util.Random;
 
 /**
  * Generates a promotional coupon code.
+ * <p>
+ * In bijective unique mode (uniqueMode=bijective) the last characters of the code are
+ * the row index permuted over 36^k values (k = min(length, 11)), so codes never repeat.
  */
 public class CouponCodeGenerator implements DataGenerator<String> {
 
     private static final String ALPHANUMERIC_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    // Longest suffix whose value space (36^11) fits the Feistel permutation domain
+    private static final int MAX_UNIQUE_CHARS = 11;
     private final int length;
     private final String prefix;
 
@@ -39,9 +45,32 @@ public class CouponCodeGenerator implements DataGenerator<String> {
     public String generate(GenerationContext context) {
         Random random = context.getRandom();
         StringBuilder sb = new StringBuilder(length);
-        for (int i = 0; i < length; i++) {
+        int randomChars = length;
+        if (BijectiveUniqueness.isEnabled(context)) {
+            randomChars = length - Math.min(length, MAX_UNIQUE_CHARS);
+        }
+        for (int i = 0; i < randomChars; i++) {
             sb.append(ALPHANUMERIC_CHARS.charAt(random.nextInt(ALPHANUMERIC_CHARS.length())));
         }
+        if (randomChars < length) {
+            appendUniqueSuffix(context, sb, length - randomChars);
+        }
         return prefix + sb.toString();
     }
+
+    private void appendUniqueSuffix(GenerationContext context, StringBuilder sb, int chars) {
+        int radix = ALPHANUMERIC_CHARS.length();
+        long domainSize = 1;
+        for (int i = 0; i < chars; i++) {
+            domainSize *= radix;
+        }
+        long value = BijectiveUniqueness.nextValue(context, domainSize,
+                (getName().hashCode() * 31L + prefix.hashCode()) * 31L + length, getName());
+        char[] suffix = new char[chars];
+        for (int i = chars - 1; i >= 0; i--) {
+            suffix[i] = ALPHANUMERIC_CHARS.charAt((int) (value % radix));
+            value /= radix;
+        }
+        sb.append(suffix);
+    }
 }
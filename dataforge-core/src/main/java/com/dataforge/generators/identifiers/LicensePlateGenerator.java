@@ -2,12 +2,14 @@ package com.dataforge.generators.identifiers;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.uniqueness.BijectiveUniqueness;
 
 import java.util.Random;
 
 /**
  * 车牌号生成器
  * 生成符合中国标准的车牌号码
+ * 双射唯一模式 (uniqueMode=bijective) 下把行号置换到该车牌类型全部可能的号码上，保证不重复
  */
 public class LicensePlateGenerator implements DataGenerator<String> {
     
@@ -61,6 +63,18 @@ public class LicensePlateGenerator implements DataGenerator<String> {
         "W", "X", "Y", "Z"
     };
     
+    // 军车前缀
+    private static final String[] MILITARY_PREFIXES = {"军", "海", "空", "火", "武"};
+    
+    // 特殊车牌后缀
+    private static final String[] SPECIAL_SUFFIXES = {"学", "试", "临", "挂"};
+    
+    // 新能源标识
+    private static final String[] ENERGY_FLAGS = {"D", "F"};
+    
+    // 领事馆车牌首字
+    private static final String[] CONSULATE_FLAGS = {"使", "领"};
+    
     public LicensePlateGenerator() {
         this(PlateType.REGULAR, null);
     }
@@ -76,6 +90,9 @@ public class LicensePlateGenerator implements DataGenerator<String> {
     
     @Override
     public String generate(GenerationContext context) {
+        if (BijectiveUniqueness.isEnabled(context)) {
+            return generateBijectivePlate(context);
+        }
         switch (plateType) {
             case REGULAR:
                 return generateRegularPlate();
@@ -187,8 +204,7 @@ public class LicensePlateGenerator implements DataGenerator<String> {
      * 例如: 军A12345, 空B23456
      */
     private String generateMilitaryPlate() {
-        String[] militaryPrefixes = {"军", "海", "空", "火", "武"};
-        String prefix = militaryPrefixes[random.nextInt(militaryPrefixes.length)];
+        String prefix = MILITARY_PREFIXES[random.nextInt(MILITARY_PREFIXES.length)];
         String code = getRandomLetter();
         
         StringBuilder suffix = new StringBuilder();
@@ -225,8 +241,7 @@ public class LicensePlateGenerator implements DataGenerator<String> {
         String province = getRandomProvince();
         String cityCode = getRandomCityCode();
         
-        String[] specialSuffixes = {"学", "试", "临", "挂"};
-        String specialSuffix = specialSuffixes[random.nextInt(specialSuffixes.length)];
+        String specialSuffix = SPECIAL_SUFFIXES[random.nextInt(SPECIAL_SUFFIXES.length)];
         
         StringBuilder middle = new StringBuilder();
         for (int i = 0; i < 4; i++) {
@@ -236,6 +251,61 @@ public class LicensePlateGenerator implements DataGenerator<String> {
         return province + cityCode + middle.toString() + specialSuffix;
     }
     
+    /**
+     * 双射唯一模式：按车牌类型的字符布局做混合进制展开，把置换后的行号逐位解码为车牌
+     */
+    private String generateBijectivePlate(GenerationContext context) {
+        String[][] layout = plateLayout();
+        long domainSize = 1;
+        for (String[] symbols : layout) {
+            domainSize *= symbols.length;
+        }
+        long salt = getName().hashCode() * 31L + plateType.ordinal() * 17L
+                + (specificProvince != null ? specificProvince.hashCode() : 0);
+        long value = BijectiveUniqueness.nextValue(context, domainSize, salt, getName());
+        
+        String[] chars = new String[layout.length];
+        for (int i = layout.length - 1; i >= 0; i--) {
+            chars[i] = layout[i][(int) (value % layout[i].length)];
+            value /= layout[i].length;
+        }
+        String plate = String.join("", chars);
+        if (plateType == PlateType.CONSULATE) {
+            // 使...领 或 领...使
+            return plate + ("使".equals(chars[0]) ? "领" : "使");
+        }
+        return plate;
+    }
+    
+    /**
+     * 各车牌类型每一位的可选字符，与对应的随机生成方法保持一致
+     */
+    private String[][] plateLayout() {
+        String[] provinces = specificProvince != null && !specificProvince.isEmpty()
+                ? new String[] {specificProvince} : PROVINCES;
+        switch (plateType) {
+            case NEW_ENERGY:
+                return new String[][] {provinces, CITY_CODES, ENERGY_FLAGS,
+                        ALPHANUMERIC, ALPHANUMERIC, ALPHANUMERIC, ALPHANUMERIC, ALPHANUMERIC};
+            case TRUCK:
+                return new String[][] {provinces, CITY_CODES,
+                        ALPHANUMERIC, ALPHANUMERIC, ALPHANUMERIC, ALPHANUMERIC, ALPHANUMERIC};
+            case POLICE:
+                return new String[][] {provinces, CITY_CODES, NUMBERS, NUMBERS, NUMBERS, NUMBERS, {"警"}};
+            case MILITARY:
+                return new String[][] {MILITARY_PREFIXES, LETTERS, NUMBERS, NUMBERS, NUMBERS, NUMBERS, NUMBERS};
+            case CONSULATE:
+                return new String[][] {CONSULATE_FLAGS, NUMBERS, NUMBERS, NUMBERS};
+            case SPECIAL:
+                return new String[][] {provinces, CITY_CODES,
+                        ALPHANUMERIC, ALPHANUMERIC, ALPHANUMERIC, ALPHANUMERIC, SPECIAL_SUFFIXES};
+            case REGULAR:
+            default:
+                return new String[][] {provinces, CITY_CODES,
+                        NUMBERS, ALPHANUMERIC, ALPHANUMERIC, ALPHANUMERIC, ALPHANUMERIC};
+        }
+    }
+    
     /**
      * 获取随机省份
      */
@@ -2,6 +2,8 @@ package com.dataforge.generators.location;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.uniqueness.UniquenessFilter;
+import com.dataforge.core.uniqueness.UniquenessScope;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -10,8 +12,6 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 /**
  * 地区数据生成器
@@ -30,7 +30,8 @@ public class LocationDataGenerator implements DataGenerator<String> {
     private static final List<String> chinaDistricts = new ArrayList<>();
     private static final List<String> worldCountries = new ArrayList<>();
     
-    private static final ConcurrentMap<String, Boolean> generatedLocations = new ConcurrentHashMap<>();
+    // 唯一性作用域中记录已生成地区的过滤器名称
+    private static final String UNIQUENESS_KEY = "location";
     
     static {
         loadConfiguration();
@@ -107,30 +108,35 @@ public class LocationDataGenerator implements DataGenerator<String> {
     }
     
     /**
-     * Gets the total number of unique locations generated.
+     * Gets the total number of unique locations generated in the global uniqueness scope.
      * 
      * @return the count of unique locations
      */
     public static int getUniqueLocationCount() {
-        return generatedLocations.size();
+        return (int) generatedLocations().size();
     }
     
     /**
-     * Clears the generated locations cache (for testing purposes).
+     * Clears the generated locations of the global uniqueness scope (for testing purposes).
      */
     public static void clearCache() {
-        generatedLocations.clear();
+        UniquenessScope.global().release(UNIQUENESS_KEY);
+    }
+    
+    private static UniquenessFilter generatedLocations() {
+        return UniquenessScope.global().filter(UNIQUENESS_KEY);
     }
     
     @Override
     public String generate(GenerationContext context) {
         Random random = context.getRandom();
+        UniquenessFilter generatedLocations = context.getUniquenessScope().filter(UNIQUENESS_KEY);
         
         for (int attempt = 0; attempt < maxAttempts; attempt++) {
             String location = generateLocation(random);
             
             // Ensure uniqueness
-            if (generatedLocations.putIfAbsent(location, Boolean.TRUE) == null) {
+            if (generatedLocations.add(location)) {
                 return location;
             }
         }
@@ -139,6 +145,14 @@ public class LocationDataGenerator implements DataGenerator<String> {
         return generateUniqueWithSuffix(random);
     }
     
+    /**
+     * Draws are de-duplicated against the uniqueness filter, so each value depends on the rows before it.
+     */
+    @Override
+    public boolean isOrderDependent(GenerationContext context) {
+        return true;
+    }
+    
     private String generateLocation(Random random) {
         switch (locationType) {
             case COUNTRY:
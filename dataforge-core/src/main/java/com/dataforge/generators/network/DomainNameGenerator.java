@@ -2,6 +2,8 @@ package com.dataforge.generators.network;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.uniqueness.UniquenessFilter;
+import com.dataforge.core.uniqueness.UniquenessScope;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -10,8 +12,6 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 /**
  * Domain name generator for generating random domain names with configuration support.
@@ -23,7 +23,8 @@ public class DomainNameGenerator implements DataGenerator<String> {
     private static final String PREFIX_CONFIG_FILE = "/config/domain/domain_prefixes.txt";
     private static final String SUBDOMAIN_CONFIG_FILE = "/config/domain/subdomains.txt";
     
-    private static final ConcurrentMap<String, Boolean> generatedDomains = new ConcurrentHashMap<>();
+    // Name of the filter in the uniqueness scope that tracks emitted domains
+    private static final String UNIQUENESS_KEY = "domain";
     private static final List<String> topLevelDomains = new ArrayList<>();
     private static final List<String> domainPrefixes = new ArrayList<>();
     private static final List<String> subdomainPrefixes = new ArrayList<>();
@@ -89,30 +90,35 @@ public class DomainNameGenerator implements DataGenerator<String> {
     }
     
     /**
-     * Gets the total number of unique domains generated.
+     * Gets the total number of unique domains generated in the global uniqueness scope.
      * 
      * @return the count of unique domains
      */
     public static int getUniqueDomainCount() {
-        return generatedDomains.size();
+        return (int) generatedDomains().size();
     }
     
     /**
-     * Clears the generated domains cache (for testing purposes).
+     * Clears the generated domains of the global uniqueness scope (for testing purposes).
      */
     public static void clearCache() {
-        generatedDomains.clear();
+        UniquenessScope.global().release(UNIQUENESS_KEY);
+    }
+    
+    private static UniquenessFilter generatedDomains() {
+        return UniquenessScope.global().filter(UNIQUENESS_KEY);
     }
     
     @Override
     public String generate(GenerationContext context) {
         Random random = context.getRandom();
+        UniquenessFilter generatedDomains = context.getUniquenessScope().filter(UNIQUENESS_KEY);
         
         for (int attempt = 0; attempt < maxAttempts; attempt++) {
             String domain = generateDomain(random);
             
             // Ensure uniqueness
-            if (generatedDomains.putIfAbsent(domain, Boolean.TRUE) == null) {
+            if (generatedDomains.add(domain)) {
                 return domain;
             }
         }
@@ -121,6 +127,14 @@ public class DomainNameGenerator implements DataGenerator<String> {
         return generateUniqueWithSuffix(random);
     }
     
+    /**
+     * Draws are de-duplicated against the uniqueness filter, so each value depends on the rows before it.
+     */
+    @Override
+    public boolean isOrderDependent(GenerationContext context) {
+        return true;
+    }
+    
     private String generateDomain(Random random) {
         StringBuilder domain = new StringBuilder();
         
@@ -2,13 +2,14 @@ package com.dataforge.generators.network;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.columnar.IntValueGenerator;
 
 import java.util.Random;
 
 /**
  * Port number generator for generating network port numbers.
  */
-public class PortNumberGenerator implements DataGenerator<Integer> {
+public class PortNumberGenerator implements DataGenerator<Integer>, IntValueGenerator {
     
     // Common service ports
     public static final int[] COMMON_PORTS = {
@@ -37,6 +38,11 @@ public class PortNumberGenerator implements DataGenerator<Integer> {
     
     @Override
     public Integer generate(GenerationContext context) {
+        return generateInt(context);
+    }
+    
+    @Override
+    public int generateInt(GenerationContext context) {
         Random random = context.getRandom();
         
         // Generate a port number (0-65535)
@@ -2,13 +2,14 @@ package com.dataforge.generators.numeric;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.columnar.IntValueGenerator;
 
 import java.util.Random;
 
 /**
  * Integer generator for generating integers within a specified range.
  */
-public class IntegerGenerator implements DataGenerator<Integer> {
+public class IntegerGenerator implements DataGenerator<Integer>, IntValueGenerator {
     
     private final int min;
     private final int max;
@@ -27,6 +28,11 @@ public class IntegerGenerator implements DataGenerator<Integer> {
     
     @Override
     public Integer generate(GenerationContext context) {
+        return generateInt(context);
+    }
+    
+    @Override
+    public int generateInt(GenerationContext context) {
         Random random = context.getRandom();
         return min + random.nextInt(max - min + 1);
     }
@@ -2,6 +2,7 @@ package com.dataforge.generators.numeric;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.columnar.DoubleValueGenerator;
 
 import java.util.Random;
 
@@ -9,7 +10,7 @@ import java.util.Random;
  * 统计分布数值生成器
  * 生成符合各种统计分布的数值数据
  */
-public class StatisticalDistributionGenerator implements DataGenerator<Double> {
+public class StatisticalDistributionGenerator implements DataGenerator<Double>, DoubleValueGenerator {
     
     private static final Random random = new Random();
     
@@ -55,6 +56,11 @@ public class StatisticalDistributionGenerator implements DataGenerator<Double> {
     
     @Override
     public Double generate(GenerationContext context) {
+        return generateDouble(context);
+    }
+    
+    @Override
+    public double generateDouble(GenerationContext context) {
         double value = generateDistributionValue();
         return roundToPrecision(value, precision);
     }
@@ -0,0 +1,34 @@
+package com.dataforge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 数据缓存因容量限制或过期淘汰一个条目
+ */
+@Name("com.dataforge.CacheEviction")
+@Label("Cache Eviction")
+@Category({"DataForge", "Cache"})
+@Description("Removal of a data cache entry to stay within capacity, or because it expired")
+@StackTrace(false)
+public final class CacheEvictionEvent extends Event {
+
+    @Label("Generator")
+    public String generator;
+
+    @Label("Key")
+    public String key;
+
+    @Label("Bytes")
+    @Description("Estimated heap size of the entry")
+    @DataAmount
+    public long bytes;
+
+    @Label("Expired")
+    public boolean expired;
+}
@@ -0,0 +1,33 @@
+package com.dataforge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 把一个批次编码为输出格式的字节
+ */
+@Name("com.dataforge.ChunkEncode")
+@Label("Chunk Encode")
+@Category({"DataForge", "Output"})
+@Description("Encoding of a generated batch into the output format")
+@StackTrace(false)
+public final class ChunkEncodeEvent extends Event {
+
+    @Label("Writer")
+    public String writer;
+
+    @Label("Start Row")
+    public long startRow;
+
+    @Label("Row Count")
+    public long rowCount;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,33 @@
+package com.dataforge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 把编码好的字节写入输出通道 (含压缩)
+ */
+@Name("com.dataforge.ChunkFlush")
+@Label("Chunk Flush")
+@Category({"DataForge", "Output"})
+@Description("Write of encoded bytes to the output channel, including compression")
+@StackTrace(false)
+public final class ChunkFlushEvent extends Event {
+
+    @Label("Writer")
+    public String writer;
+
+    @Label("Start Row")
+    public long startRow;
+
+    @Label("Row Count")
+    public long rowCount;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
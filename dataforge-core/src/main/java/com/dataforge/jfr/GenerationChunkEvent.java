@@ -0,0 +1,29 @@
+package com.dataforge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 生成一段连续行的数据
+ */
+@Name("com.dataforge.GenerationChunk")
+@Label("Generation Chunk")
+@Category({"DataForge", "Generation"})
+@Description("Generation of a contiguous range of rows")
+@StackTrace(false)
+public final class GenerationChunkEvent extends Event {
+
+    @Label("Generator")
+    @Description("Generator name, or the writer for columnar batches")
+    public String generator;
+
+    @Label("Start Row")
+    public long startRow;
+
+    @Label("Row Count")
+    public long rowCount;
+}
@@ -0,0 +1,34 @@
+package com.dataforge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 数据库直接写入时的一次 executeBatch 或 commit
+ */
+@Name("com.dataforge.JdbcBatch")
+@Label("JDBC Batch")
+@Category({"DataForge", "JDBC"})
+@Description("executeBatch or commit of rows loaded into a table")
+@StackTrace(false)
+public final class JdbcBatchEvent extends Event {
+
+    public static final String EXECUTE_BATCH = "executeBatch";
+    public static final String COMMIT = "commit";
+
+    @Label("Table")
+    public String table;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Start Row")
+    public long startRow;
+
+    @Label("Row Count")
+    public long rowCount;
+}
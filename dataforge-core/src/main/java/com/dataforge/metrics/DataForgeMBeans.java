@@ -0,0 +1,275 @@
+package com.dataforge.metrics;
+
+import com.dataforge.core.GeneratorCacheManager;
+import com.dataforge.core.MemoryOptimizedGenerator;
+import com.dataforge.core.PerformanceMonitor;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 把进程内的性能、缓存、内存与运行指标注册为平台 MBeanServer 中的 MXBean，
+ * 可用 JConsole、VisualVM 或 JMX exporter 在运行期间读取。
+ * 各 MXBean 在读取时才计算属性，注册后没有额外的记录开销
+ */
+public final class DataForgeMBeans {
+
+    public static final String DOMAIN = "com.dataforge";
+
+    public static final ObjectName PERFORMANCE_MONITOR = objectName("PerformanceMonitor");
+    public static final ObjectName GENERATOR_CACHE = objectName("GeneratorCache");
+    public static final ObjectName MEMORY = objectName("Memory");
+    public static final ObjectName RUN_METRICS = objectName("RunMetrics");
+
+    private DataForgeMBeans() {}
+
+    private static ObjectName objectName(String type) {
+        try {
+            return new ObjectName(DOMAIN + ":type=" + type);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 注册全部 MXBean，已注册的跳过，可重复调用
+     */
+    public static synchronized void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        register(server, new PerformanceMonitorView(PerformanceMonitor.getInstance()), PERFORMANCE_MONITOR);
+        register(server, new GeneratorCacheView(GeneratorCacheManager.getInstance()), GENERATOR_CACHE);
+        register(server, new MemoryStatsView(new MemoryOptimizedGenerator()), MEMORY);
+        register(server, new RunMetricsView(RunMetrics.getInstance()), RUN_METRICS);
+    }
+
+    /**
+     * 注销全部 MXBean，未注册的跳过
+     */
+    public static synchronized void unregister() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : new ObjectName[] {PERFORMANCE_MONITOR, GENERATOR_CACHE, MEMORY, RUN_METRICS}) {
+            try {
+                server.unregisterMBean(name);
+            } catch (InstanceNotFoundException e) {
+                // 未注册
+            } catch (JMException e) {
+                throw new IllegalStateException("Failed to unregister MBean " + name, e);
+            }
+        }
+    }
+
+    private static void register(MBeanServer server, Object mbean, ObjectName name) {
+        try {
+            server.registerMBean(mbean, name);
+        } catch (InstanceAlreadyExistsException e) {
+            // 已注册
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register MBean " + name, e);
+        }
+    }
+
+    private static final class PerformanceMonitorView implements PerformanceMonitorMXBean {
+
+        private final PerformanceMonitor monitor;
+
+        PerformanceMonitorView(PerformanceMonitor monitor) {
+            this.monitor = monitor;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return monitor.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            monitor.setEnabled(enabled);
+        }
+
+        @Override
+        public int getSampleInterval() {
+            return monitor.getSampleInterval();
+        }
+
+        @Override
+        public void setSampleInterval(int sampleInterval) {
+            monitor.setSampleInterval(sampleInterval);
+        }
+
+        @Override
+        public long getTotalOperations() {
+            return monitor.getOverallReport().totalOperations;
+        }
+
+        @Override
+        public double getOperationsPerSecond() {
+            return monitor.getOverallReport().getOperationsPerSecond();
+        }
+
+        @Override
+        public double getOverallThroughput() {
+            return monitor.getOverallReport().overallThroughput;
+        }
+
+        @Override
+        public double getAverageLatencyMillis() {
+            return monitor.getOverallReport().getAverageLatency();
+        }
+
+        @Override
+        public int getActiveGenerators() {
+            return monitor.getOverallReport().activeGenerators;
+        }
+
+        @Override
+        public Map<String, GeneratorStatistics> getGenerators() {
+            Map<String, GeneratorStatistics> generators = new TreeMap<>();
+            monitor.getAllMetrics().forEach((name, metrics) -> generators.put(name, new GeneratorStatistics(metrics)));
+            return generators;
+        }
+
+        @Override
+        public void reset() {
+            monitor.reset();
+        }
+    }
+
+    private static final class GeneratorCacheView implements GeneratorCacheMXBean {
+
+        private final GeneratorCacheManager cacheManager;
+
+        GeneratorCacheView(GeneratorCacheManager cacheManager) {
+            this.cacheManager = cacheManager;
+        }
+
+        @Override
+        public long getCacheHits() {
+            return cacheManager.getStatistics().cacheHits;
+        }
+
+        @Override
+        public long getCacheMisses() {
+            return cacheManager.getStatistics().cacheMisses;
+        }
+
+        @Override
+        public double getHitRatio() {
+            return cacheManager.getStatistics().hitRatio;
+        }
+
+        @Override
+        public int getGeneratorCacheSize() {
+            return cacheManager.getStatistics().generatorCacheSize;
+        }
+
+        @Override
+        public int getDataCacheSize() {
+            return cacheManager.getStatistics().dataCacheSize;
+        }
+
+        @Override
+        public long getDataCacheBytes() {
+            return cacheManager.getStatistics().dataCacheBytes;
+        }
+
+        @Override
+        public long getTotalGenerations() {
+            return cacheManager.getStatistics().totalGenerations;
+        }
+
+        @Override
+        public long getEvictions() {
+            return cacheManager.getStatistics().evictions;
+        }
+
+        @Override
+        public long getExpirations() {
+            return cacheManager.getStatistics().expirations;
+        }
+
+        @Override
+        public void clearAll() {
+            cacheManager.clearAll();
+        }
+    }
+
+    private static final class MemoryStatsView implements MemoryStatsMXBean {
+
+        private final MemoryOptimizedGenerator memory;
+
+        MemoryStatsView(MemoryOptimizedGenerator memory) {
+            this.memory = memory;
+        }
+
+        @Override
+        public long getTotalMemory() {
+            return memory.getMemoryStats().getTotalMemory();
+        }
+
+        @Override
+        public long getFreeMemory() {
+            return memory.getMemoryStats().getFreeMemory();
+        }
+
+        @Override
+        public long getMaxMemory() {
+            return memory.getMemoryStats().getMaxMemory();
+        }
+
+        @Override
+        public long getUsedMemory() {
+            return memory.getMemoryStats().getUsedMemory();
+        }
+    }
+
+    private static final class RunMetricsView implements RunMetricsMXBean {
+
+        private final RunMetrics metrics;
+
+        RunMetricsView(RunMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Map<String, Long> getFieldRows() {
+            return metrics.getFieldRows();
+        }
+
+        @Override
+        public Map<String, Long> getWriterRows() {
+            return metrics.getWriterRows();
+        }
+
+        @Override
+        public Map<String, Long> getWriterBytes() {
+            return metrics.getWriterBytes();
+        }
+
+        @Override
+        public Map<String, Integer> getQueueDepths() {
+            return metrics.getQueueDepths();
+        }
+
+        @Override
+        public Map<String, Long> getPhaseNanos() {
+            return metrics.getPhaseNanos();
+        }
+
+        @Override
+        public Map<String, Long> getUniquenessSetSizes() {
+            return metrics.getUniquenessSetSizes();
+        }
+
+        @Override
+        public void reset() {
+            metrics.reset();
+        }
+    }
+}
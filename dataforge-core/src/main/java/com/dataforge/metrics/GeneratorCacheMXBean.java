@@ -0,0 +1,30 @@
+package com.dataforge.metrics;
+
+/**
+ * {@link com.dataforge.core.GeneratorCacheManager.CacheStatistics} 的 JMX 视图
+ */
+public interface GeneratorCacheMXBean {
+
+    long getCacheHits();
+
+    long getCacheMisses();
+
+    double getHitRatio();
+
+    int getGeneratorCacheSize();
+
+    int getDataCacheSize();
+
+    long getDataCacheBytes();
+
+    long getTotalGenerations();
+
+    long getEvictions();
+
+    long getExpirations();
+
+    /**
+     * 清空生成器缓存与数据缓存，并清零命中统计
+     */
+    void clearAll();
+}
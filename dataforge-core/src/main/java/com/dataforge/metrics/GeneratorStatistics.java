@@ -0,0 +1,72 @@
+package com.dataforge.metrics;
+
+import com.dataforge.core.LatencyHistogram;
+import com.dataforge.core.PerformanceMonitor;
+
+/**
+ * 单个生成器在某一时刻的指标，延迟单位为毫秒
+ */
+public final class GeneratorStatistics {
+
+    private final String name;
+    private final long operations;
+    private final long items;
+    private final double throughput;
+    private final double averageLatencyMillis;
+    private final double p50LatencyMillis;
+    private final double p99LatencyMillis;
+    private final double p999LatencyMillis;
+    private final double maxLatencyMillis;
+
+    GeneratorStatistics(PerformanceMonitor.GeneratorMetrics metrics) {
+        LatencyHistogram.Snapshot snapshot = metrics.getLatencyHistogram().snapshot();
+        this.name = metrics.getGeneratorName();
+        this.operations = metrics.getTotalOperations();
+        this.items = metrics.getTotalItemsGenerated();
+        this.throughput = metrics.getThroughput();
+        this.averageLatencyMillis = metrics.getAverageLatency();
+        this.p50LatencyMillis = snapshot.getValueAtPercentile(0.50) / 1_000_000.0;
+        this.p99LatencyMillis = snapshot.getValueAtPercentile(0.99) / 1_000_000.0;
+        this.p999LatencyMillis = snapshot.getValueAtPercentile(0.999) / 1_000_000.0;
+        this.maxLatencyMillis = snapshot.getMax() / 1_000_000.0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    public long getItems() {
+        return items;
+    }
+
+    /**
+     * 每秒生成项数
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public double getAverageLatencyMillis() {
+        return averageLatencyMillis;
+    }
+
+    public double getP50LatencyMillis() {
+        return p50LatencyMillis;
+    }
+
+    public double getP99LatencyMillis() {
+        return p99LatencyMillis;
+    }
+
+    public double getP999LatencyMillis() {
+        return p999LatencyMillis;
+    }
+
+    public double getMaxLatencyMillis() {
+        return maxLatencyMillis;
+    }
+}
@@ -0,0 +1,15 @@
+package com.dataforge.metrics;
+
+/**
+ * {@link com.dataforge.core.MemoryOptimizedGenerator.MemoryStats} 的 JMX 视图，单位为字节
+ */
+public interface MemoryStatsMXBean {
+
+    long getTotalMemory();
+
+    long getFreeMemory();
+
+    long getMaxMemory();
+
+    long getUsedMemory();
+}
@@ -0,0 +1,38 @@
+package com.dataforge.metrics;
+
+import java.util.Map;
+
+/**
+ * {@link com.dataforge.core.PerformanceMonitor} 的 JMX 视图
+ * 监控开关与采样间隔可在运行期间通过 JMX 修改
+ */
+public interface PerformanceMonitorMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    int getSampleInterval();
+
+    void setSampleInterval(int sampleInterval);
+
+    long getTotalOperations();
+
+    double getOperationsPerSecond();
+
+    /**
+     * 全部生成器合计的每秒生成项数
+     */
+    double getOverallThroughput();
+
+    double getAverageLatencyMillis();
+
+    int getActiveGenerators();
+
+    /**
+     * 各生成器的指标，键为生成器名称
+     */
+    Map<String, GeneratorStatistics> getGenerators();
+
+    void reset();
+}
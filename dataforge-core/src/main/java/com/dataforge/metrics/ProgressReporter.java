@@ -0,0 +1,222 @@
+package com.dataforge.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 运行进度报告
+ * 创建时记录 {@link RunMetrics} 的基准值，此后的行数、字节数与阶段耗时都按与基准的差值计算。
+ * {@link #start(PrintStream)} 后由一个守护线程每秒读取一次计数器的合计，输出行速率、字节速率与预计剩余时间；
+ * 生成与写出线程只做各自的 LongAdder 自增，不参与格式化与输出。
+ * 运行结束时 {@link #writeReport} 以 JSON 写出运行报告，包括各阶段的累计耗时 (多个线程的耗时相加)
+ */
+public class ProgressReporter implements AutoCloseable {
+
+    private static final long INTERVAL_MILLIS = 1000;
+
+    private final RunMetrics metrics = RunMetrics.getInstance();
+    private final long totalRows;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos;
+    private final long startRows;
+    private final long startBytes;
+    private final Map<String, Long> startPhases;
+    private final Map<String, Long> startWriterRows;
+    private final Map<String, Long> startWriterBytes;
+    private final Map<String, Long> startFieldRows;
+
+    private ScheduledExecutorService scheduler;
+    private PrintStream out;
+    private boolean inPlace;
+    private int lastLength;
+    private long lastNanos;
+    private long lastRows;
+    private long lastBytes;
+    private long finishedNanos;
+
+    /**
+     * @param totalRows 本次运行计划生成的行数，未知时传 0 (不显示百分比与剩余时间)
+     */
+    public ProgressReporter(long totalRows) {
+        this(totalRows, System.nanoTime());
+    }
+
+    ProgressReporter(long totalRows, long startNanos) {
+        this.totalRows = totalRows;
+        this.startNanos = startNanos;
+        this.startRows = metrics.getTotalWriterRows();
+        this.startBytes = metrics.getTotalWriterBytes();
+        this.startPhases = metrics.getPhaseNanos();
+        this.startWriterRows = metrics.getWriterRows();
+        this.startWriterBytes = metrics.getWriterBytes();
+        this.startFieldRows = metrics.getFieldRows();
+        this.lastNanos = startNanos;
+        this.lastRows = startRows;
+        this.lastBytes = startBytes;
+    }
+
+    /**
+     * 开始每秒输出一行进度；out 为交互终端时原地刷新同一行，否则每次输出新的一行
+     */
+    public synchronized ProgressReporter start(PrintStream out) {
+        if (scheduler != null) {
+            return this;
+        }
+        this.out = out;
+        this.inPlace = System.console() != null;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dataforge-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::tick, INTERVAL_MILLIS, INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    private synchronized void tick() {
+        // close() 之后仍可能有一次已经触发、正在等待锁的输出
+        if (scheduler != null) {
+            print();
+        }
+    }
+
+    private void print() {
+        String line = render(System.nanoTime());
+        if (inPlace) {
+            StringBuilder padded = new StringBuilder(line);
+            for (int i = line.length(); i < lastLength; i++) {
+                padded.append(' ');
+            }
+            out.print('\r');
+            out.print(padded);
+            lastLength = line.length();
+        } else {
+            out.println(line);
+        }
+        out.flush();
+    }
+
+    /**
+     * 渲染一行进度：速率按与上一次渲染之间的增量计算，剩余时间按开始以来的平均速率估算
+     */
+    synchronized String render(long nowNanos) {
+        long totalWritten = metrics.getTotalWriterRows();
+        long totalBytes = metrics.getTotalWriterBytes();
+        double interval = Math.max(1e-9, (nowNanos - lastNanos) / 1e9);
+        double rowRate = (totalWritten - lastRows) / interval;
+        double byteRate = (totalBytes - lastBytes) / interval;
+        lastNanos = nowNanos;
+        lastRows = totalWritten;
+        lastBytes = totalBytes;
+        long rows = totalWritten - startRows;
+        long bytes = totalBytes - startBytes;
+
+        double elapsed = (nowNanos - startNanos) / 1e9;
+        StringBuilder line = new StringBuilder("进度 ").append(rows);
+        if (totalRows > 0) {
+            line.append('/').append(totalRows).append(" 行 (")
+                    .append(String.format(Locale.ROOT, "%.1f%%", 100.0 * rows / totalRows)).append(')');
+        } else {
+            line.append(" 行");
+        }
+        line.append(String.format(Locale.ROOT, " | %,.0f 行/秒", rowRate));
+        if (bytes > 0) {
+            line.append(String.format(Locale.ROOT, " | %.1f MB/秒", byteRate / (1024 * 1024)));
+        }
+        line.append(" | 已用 ").append(formatDuration(elapsed));
+        if (totalRows > 0 && rows > 0 && rows < totalRows) {
+            line.append(" | 剩余 ").append(formatDuration((totalRows - rows) * elapsed / rows));
+        }
+        return line.toString();
+    }
+
+    static String formatDuration(double seconds) {
+        long total = Math.round(seconds);
+        return String.format(Locale.ROOT, "%d:%02d:%02d", total / 3600, total / 60 % 60, total % 60);
+    }
+
+    /**
+     * 停止输出进度，并在已输出过进度时输出最后一行；可重复调用
+     */
+    @Override
+    public synchronized void close() {
+        if (finishedNanos == 0) {
+            finishedNanos = System.nanoTime();
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            print();
+            if (inPlace) {
+                out.println();
+            }
+        }
+    }
+
+    /**
+     * 本次运行的报告：开始与结束时间、行数与字节数、平均速率、各阶段耗时 (秒)，
+     * 以及各写出器与各字段的行数；未调用 {@link #close()} 时以当前时刻为结束时间
+     */
+    public synchronized Map<String, Object> buildReport(String status) {
+        long endNanos = finishedNanos != 0 ? finishedNanos : System.nanoTime();
+        double elapsed = Math.max(1e-9, (endNanos - startNanos) / 1e9);
+        long rows = metrics.getTotalWriterRows() - startRows;
+        long bytes = metrics.getTotalWriterBytes() - startBytes;
+
+        Map<String, Object> phases = new LinkedHashMap<>();
+        metrics.getPhaseNanos().forEach((phase, nanos) ->
+                phases.put(phase, (nanos - startPhases.getOrDefault(phase, 0L)) / 1e9));
+        Map<String, Object> writers = new LinkedHashMap<>();
+        Map<String, Long> writerBytes = metrics.getWriterBytes();
+        metrics.getWriterRows().forEach((writer, writerRows) -> {
+            long written = writerRows - startWriterRows.getOrDefault(writer, 0L);
+            if (written > 0) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("rows", written);
+                entry.put("bytes", writerBytes.getOrDefault(writer, 0L) - startWriterBytes.getOrDefault(writer, 0L));
+                writers.put(writer, entry);
+            }
+        });
+        Map<String, Object> fields = new LinkedHashMap<>();
+        metrics.getFieldRows().forEach((field, fieldRows) -> {
+            long generated = fieldRows - startFieldRows.getOrDefault(field, 0L);
+            if (generated > 0) {
+                fields.put(field, generated);
+            }
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("status", status);
+        report.put("startedAt", startedAt.toString());
+        report.put("finishedAt", startedAt.plusNanos(endNanos - startNanos).toString());
+        report.put("elapsedSeconds", elapsed);
+        report.put("targetRows", totalRows);
+        report.put("rows", rows);
+        report.put("bytes", bytes);
+        report.put("rowsPerSecond", rows / elapsed);
+        report.put("bytesPerSecond", bytes / elapsed);
+        report.put("phaseSeconds", phases);
+        report.put("writers", writers);
+        report.put("fields", fields);
+        report.put("uniquenessSetSizes", metrics.getUniquenessSetSizes());
+        return report;
+    }
+
+    /**
+     * 以 JSON 写出运行报告
+     */
+    public void writeReport(File file, String status) throws IOException {
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, buildReport(status));
+    }
+}
@@ -0,0 +1,213 @@
+package com.dataforge.metrics;
+
+import com.dataforge.core.GeneratorCacheManager;
+import com.dataforge.core.LatencyHistogram;
+import com.dataforge.core.MemoryOptimizedGenerator;
+import com.dataforge.core.PerformanceMonitor;
+import com.dataforge.core.uniqueness.UniquenessScope;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 以 Prometheus 文本格式 (0.0.4) 在 /metrics 提供运行指标的内嵌 HTTP 端点
+ * 基于 JDK 自带的 com.sun.net.httpserver，只在被抓取时读取各指标，不增加生成路径上的开销。
+ * 行数、字节数与各阶段耗时以累计计数器 (_total) 导出，每秒速率由 Prometheus 的 rate() 计算；
+ * 队列深度、缓存命中率、唯一性集合大小与内存占用以瞬时值 (gauge) 导出
+ */
+public class PrometheusEndpoint implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrometheusEndpoint.class);
+
+    public static final String PATH = "/metrics";
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+    private final HttpServer server;
+
+    private PrometheusEndpoint(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * 在指定地址启动端点，端口为 0 时使用任一空闲端口
+     */
+    public static PrometheusEndpoint start(InetSocketAddress address) throws IOException {
+        HttpServer server = HttpServer.create(address, 0);
+        server.createContext(PATH, PrometheusEndpoint::handle);
+        server.start();
+        PrometheusEndpoint endpoint = new PrometheusEndpoint(server);
+        logger.info("Prometheus metrics endpoint listening on {}{}", server.getAddress(), PATH);
+        return endpoint;
+    }
+
+    /**
+     * 实际监听的端口
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!PATH.equals(exchange.getRequestURI().getPath())) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if ("HEAD".equals(method)) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * 当前全部指标的 Prometheus 文本表示
+     */
+    public static String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        RunMetrics run = RunMetrics.getInstance();
+
+        family(out, "dataforge_field_rows_total", "counter", "Rows generated per field by the columnar engine.");
+        run.getFieldRows().forEach((field, rows) -> sample(out, "dataforge_field_rows_total", labels("field", field), rows));
+        family(out, "dataforge_writer_rows_total", "counter", "Rows written per output writer.");
+        run.getWriterRows().forEach((writer, rows) -> sample(out, "dataforge_writer_rows_total", labels("writer", writer), rows));
+        family(out, "dataforge_writer_bytes_total", "counter", "Bytes written per output writer, before compression.");
+        run.getWriterBytes().forEach((writer, bytes) -> sample(out, "dataforge_writer_bytes_total", labels("writer", writer), bytes));
+        family(out, "dataforge_phase_seconds_total", "counter",
+                "Time spent per phase (generate, encode, write, commit), summed over threads.");
+        run.getPhaseNanos().forEach((phase, nanos) -> sample(out, "dataforge_phase_seconds_total", labels("phase", phase),
+                nanos / 1e9));
+        family(out, "dataforge_queue_depth", "gauge", "Chunks or batches generated but not yet written, per writer.");
+        run.getQueueDepths().forEach((queue, depth) -> sample(out, "dataforge_queue_depth", labels("queue", queue), depth));
+
+        family(out, "dataforge_generator_items_total", "counter", "Items generated per monitored generator.");
+        Map<String, PerformanceMonitor.GeneratorMetrics> generators =
+                new TreeMap<>(PerformanceMonitor.getInstance().getAllMetrics());
+        generators.forEach((name, metrics) -> sample(out, "dataforge_generator_items_total", labels("generator", name),
+                metrics.getTotalItemsGenerated()));
+        family(out, "dataforge_generator_latency_seconds", "summary", "Latency per monitored generator call.");
+        generators.forEach((name, metrics) -> {
+            LatencyHistogram.Snapshot snapshot = metrics.getLatencyHistogram().snapshot();
+            for (double quantile : QUANTILES) {
+                sample(out, "dataforge_generator_latency_seconds",
+                        labels("generator", name) + ",quantile=\"" + quantile + "\"",
+                        snapshot.getValueAtPercentile(quantile) / 1e9);
+            }
+            long operations = metrics.getTotalOperations();
+            sample(out, "dataforge_generator_latency_seconds_sum", labels("generator", name),
+                    metrics.getAverageLatency() * operations / 1e3);
+            sample(out, "dataforge_generator_latency_seconds_count", labels("generator", name), operations);
+        });
+
+        GeneratorCacheManager.CacheStatistics cache = GeneratorCacheManager.getInstance().getStatistics();
+        family(out, "dataforge_cache_hits_total", "counter", "Generator and data cache hits.");
+        sample(out, "dataforge_cache_hits_total", "", cache.cacheHits);
+        family(out, "dataforge_cache_misses_total", "counter", "Generator and data cache misses.");
+        sample(out, "dataforge_cache_misses_total", "", cache.cacheMisses);
+        family(out, "dataforge_cache_hit_ratio", "gauge", "Cache hit ratio since the last reset.");
+        sample(out, "dataforge_cache_hit_ratio", "", cache.hitRatio);
+        family(out, "dataforge_cache_evictions_total", "counter", "Data cache entries evicted to stay within capacity.");
+        sample(out, "dataforge_cache_evictions_total", "", cache.evictions);
+        family(out, "dataforge_cache_expirations_total", "counter", "Data cache entries removed after expiring.");
+        sample(out, "dataforge_cache_expirations_total", "", cache.expirations);
+        family(out, "dataforge_cache_entries", "gauge", "Entries in the data cache.");
+        sample(out, "dataforge_cache_entries", "", cache.dataCacheSize);
+        family(out, "dataforge_cache_bytes", "gauge", "Estimated heap bytes held by the data cache.");
+        sample(out, "dataforge_cache_bytes", "", cache.dataCacheBytes);
+
+        family(out, "dataforge_uniqueness_set_size", "gauge", "Distinct values registered per uniqueness filter.");
+        for (UniquenessScope scope : run.getUniquenessScopes()) {
+            scope.getStatistics().forEach((key, size) -> {
+                if (!RunMetrics.isSequence(key)) {
+                    sample(out, "dataforge_uniqueness_set_size",
+                            labels("scope", scope.getName()) + "," + labels("key", key), size);
+                }
+            });
+        }
+
+        MemoryOptimizedGenerator.MemoryStats memory = new MemoryOptimizedGenerator().getMemoryStats();
+        family(out, "dataforge_memory_used_bytes", "gauge", "Used JVM heap bytes.");
+        sample(out, "dataforge_memory_used_bytes", "", memory.getUsedMemory());
+        family(out, "dataforge_memory_max_bytes", "gauge", "Maximum JVM heap bytes.");
+        sample(out, "dataforge_memory_max_bytes", "", memory.getMaxMemory());
+        return out.toString();
+    }
+
+    private static void family(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        appendName(out, name, labels).append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        appendName(out, name, labels).append(formatDouble(value)).append('\n');
+    }
+
+    private static StringBuilder appendName(StringBuilder out, String name, String labels) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        return out.append(' ');
+    }
+
+    static String formatDouble(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return Double.toString(value);
+    }
+
+    /**
+     * 单个标签，值按文本格式转义反斜杠、双引号与换行
+     */
+    static String labels(String name, String value) {
+        StringBuilder label = new StringBuilder(name.length() + value.length() + 3).append(name).append("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                label.append('\\').append(c);
+            } else if (c == '\n') {
+                label.append("\\n");
+            } else {
+                label.append(c);
+            }
+        }
+        return label.append('"').toString();
+    }
+}
@@ -0,0 +1,245 @@
+package com.dataforge.metrics;
+
+import com.dataforge.core.uniqueness.UniquenessScope;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * 进程级的运行指标
+ * 累计各字段生成的行数、各写出器写出的行数与字节数以及各阶段 (生成、编码、写出、提交) 的耗时，
+ * 并登记运行中的队列与唯一性作用域，供 JMX、Prometheus 端点与进度报告在运行期间读取。
+ * 计数器只增不减，速率由读取方按时间差计算 (Prometheus 中为 rate())；
+ * 记录路径只有一次 LongAdder 自增，生成引擎与写出器按批次而非按行记录
+ */
+public final class RunMetrics {
+
+    private static final RunMetrics INSTANCE = new RunMetrics();
+
+    private final ConcurrentMap<String, LongAdder> fieldRows = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> writerRows = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> writerBytes = new ConcurrentHashMap<>();
+    private final LongAdder[] phaseNanos = new LongAdder[Phase.values().length];
+    private final List<QueueRegistration> queues = new CopyOnWriteArrayList<>();
+    private final List<UniquenessScope> uniquenessScopes = new CopyOnWriteArrayList<>();
+    private final AtomicInteger suppressions = new AtomicInteger();
+
+    private RunMetrics() {
+        for (int i = 0; i < phaseNanos.length; i++) {
+            phaseNanos[i] = new LongAdder();
+        }
+    }
+
+    public static RunMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 字段的行计数器，调用方可以保存返回值以免每次记录都查找
+     */
+    public LongAdder fieldRowCounter(String field) {
+        return fieldRows.computeIfAbsent(field, k -> new LongAdder());
+    }
+
+    /**
+     * 记录写出器写出的一段数据，bytes 未知时 (例如 JDBC) 传 0
+     */
+    public void recordWrite(String writer, long rows, long bytes) {
+        if (!isRecording()) {
+            return;
+        }
+        writerRows.computeIfAbsent(writer, k -> new LongAdder()).add(rows);
+        if (bytes > 0) {
+            writerBytes.computeIfAbsent(writer, k -> new LongAdder()).add(bytes);
+        }
+    }
+
+    /**
+     * 记录一段阶段耗时；多个线程的耗时相加，因此并行运行时合计可以超过墙钟时间
+     */
+    public void recordPhase(Phase phase, long nanos) {
+        if (!isRecording()) {
+            return;
+        }
+        phaseNanos[phase.ordinal()].add(nanos);
+    }
+
+    /**
+     * 暂停记录字段行数、写出量与阶段耗时，直到关闭返回的登记；对全部线程生效，可以嵌套。
+     * 用于不属于本次产出的试写，例如滚动输出估算每行字节数时写出的样本
+     */
+    public Registration suppress() {
+        suppressions.incrementAndGet();
+        AtomicBoolean closed = new AtomicBoolean();
+        return () -> {
+            if (closed.compareAndSet(false, true)) {
+                suppressions.decrementAndGet();
+            }
+        };
+    }
+
+    /**
+     * 当前是否记录计数；字段行计数器由调用方直接累加，累加前应先检查
+     */
+    public boolean isRecording() {
+        return suppressions.get() == 0;
+    }
+
+    /**
+     * 登记一个队列的深度，读取时调用 depth；同名的多个队列合计。关闭返回的登记即移除
+     */
+    public Registration registerQueue(String queue, IntSupplier depth) {
+        QueueRegistration registration = new QueueRegistration(queue, depth);
+        queues.add(registration);
+        return () -> queues.remove(registration);
+    }
+
+    /**
+     * 登记一个唯一性作用域，读取时报告其中各过滤器的取值数；进程级默认作用域始终报告
+     */
+    public Registration registerUniquenessScope(UniquenessScope scope) {
+        uniquenessScopes.add(scope);
+        return () -> uniquenessScopes.remove(scope);
+    }
+
+    public Map<String, Long> getFieldRows() {
+        return sums(fieldRows);
+    }
+
+    public Map<String, Long> getWriterRows() {
+        return sums(writerRows);
+    }
+
+    public Map<String, Long> getWriterBytes() {
+        return sums(writerBytes);
+    }
+
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()].sum();
+    }
+
+    /**
+     * 各阶段的累计耗时 (纳秒)，键为阶段的小写名称，按阶段顺序排列
+     */
+    public Map<String, Long> getPhaseNanos() {
+        Map<String, Long> phases = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            phases.put(phase.label(), getPhaseNanos(phase));
+        }
+        return phases;
+    }
+
+    /**
+     * 全部写出器写出的行数合计
+     */
+    public long getTotalWriterRows() {
+        return writerRows.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * 全部写出器写出的字节数合计
+     */
+    public long getTotalWriterBytes() {
+        return writerBytes.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public Map<String, Integer> getQueueDepths() {
+        Map<String, Integer> depths = new TreeMap<>();
+        for (QueueRegistration queue : queues) {
+            depths.merge(queue.name, queue.depth.getAsInt(), Integer::sum);
+        }
+        return depths;
+    }
+
+    /**
+     * 当前报告的唯一性作用域：进程级默认作用域与已登记且未关闭的作用域
+     */
+    public List<UniquenessScope> getUniquenessScopes() {
+        List<UniquenessScope> scopes = new ArrayList<>();
+        scopes.add(UniquenessScope.global());
+        for (UniquenessScope scope : uniquenessScopes) {
+            if (!scope.isClosed()) {
+                scopes.add(scope);
+            }
+        }
+        return scopes;
+    }
+
+    /**
+     * 各作用域中去重过滤器的取值数，键为 "作用域名/过滤器名"，不含序列计数器
+     */
+    public Map<String, Long> getUniquenessSetSizes() {
+        Map<String, Long> sizes = new TreeMap<>();
+        for (UniquenessScope scope : getUniquenessScopes()) {
+            scope.getStatistics().forEach((key, size) -> {
+                if (!isSequence(key)) {
+                    sizes.put(scope.getName() + "/" + key, size);
+                }
+            });
+        }
+        return sizes;
+    }
+
+    static boolean isSequence(String statisticsKey) {
+        return statisticsKey.endsWith("#sequence");
+    }
+
+    /**
+     * 清零全部计数器，已登记的队列与作用域保留
+     */
+    public void reset() {
+        fieldRows.values().forEach(LongAdder::reset);
+        writerRows.values().forEach(LongAdder::reset);
+        writerBytes.values().forEach(LongAdder::reset);
+        for (LongAdder nanos : phaseNanos) {
+            nanos.reset();
+        }
+    }
+
+    private static Map<String, Long> sums(Map<String, LongAdder> counters) {
+        Map<String, Long> sums = new TreeMap<>();
+        counters.forEach((key, counter) -> sums.put(key, counter.sum()));
+        return sums;
+    }
+
+    /**
+     * 计时的阶段：生成 (列式引擎填充批次)、编码 (批次编码为输出字节)、
+     * 写出 (字节写入通道或 JDBC executeBatch) 与提交 (JDBC commit)
+     */
+    public enum Phase {
+        GENERATE, ENCODE, WRITE, COMMIT;
+
+        public String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * 队列或作用域的登记，关闭后不再报告
+     */
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final class QueueRegistration {
+        final String name;
+        final IntSupplier depth;
+
+        QueueRegistration(String name, IntSupplier depth) {
+            this.name = name;
+            this.depth = depth;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.dataforge.metrics;
+
+import java.util.Map;
+
+/**
+ * {@link RunMetrics} 的 JMX 视图，计数器为进程启动以来的累计值
+ */
+public interface RunMetricsMXBean {
+
+    Map<String, Long> getFieldRows();
+
+    Map<String, Long> getWriterRows();
+
+    Map<String, Long> getWriterBytes();
+
+    Map<String, Integer> getQueueDepths();
+
+    /**
+     * 各阶段 (generate、encode、write、commit) 的累计耗时，纳秒
+     */
+    Map<String, Long> getPhaseNanos();
+
+    /**
+     * 各唯一性作用域中去重过滤器的取值数，键为 "作用域名/过滤器名"
+     */
+    Map<String, Long> getUniquenessSetSizes();
+
+    void reset();
+}
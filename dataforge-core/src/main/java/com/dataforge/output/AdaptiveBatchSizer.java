@@ -0,0 +1,91 @@
+package com.dataforge.output;
+
+/**
+ * 按执行延迟自适应调整 JDBC 批大小的 AIMD 控制器
+ * 一批 (executeBatch 加 commit) 的耗时低于目标延迟时批大小线性增加，高于目标时减半；
+ * 遇到锁等待超时、死锁等可重试错误时同样减半 (退避)。
+ * 不同数据库与驱动 (例如开启 rewriteBatchedStatements 的 MySQL 与 PostgreSQL) 的最佳批大小差别很大，
+ * 控制器使批大小围绕目标延迟附近的最佳值上下浮动，不需要逐个目标手工调参。
+ * 每个连接使用一个实例，非线程安全
+ */
+final class AdaptiveBatchSizer {
+
+    private final long targetNanos;
+    private final int minSize;
+    private final int maxSize;
+    private final int increaseStep;
+    private int size;
+
+    private long batches;
+    private long rows;
+    private int smallestUsed = Integer.MAX_VALUE;
+    private int largestUsed;
+    private long backOffs;
+
+    /**
+     * @param initialSize 初始批大小，同时作为线性增加的步长基准
+     * @param targetLatencyMillis 一批执行并提交的目标耗时
+     * @param maxSize 批大小上限
+     */
+    AdaptiveBatchSizer(int initialSize, long targetLatencyMillis, int maxSize) {
+        this.targetNanos = targetLatencyMillis * 1_000_000;
+        this.minSize = 1;
+        this.maxSize = Math.max(1, maxSize);
+        this.size = Math.max(minSize, Math.min(this.maxSize, initialSize));
+        this.increaseStep = Math.max(1, this.size / 2);
+    }
+
+    /**
+     * 下一批使用的大小
+     */
+    int current() {
+        return size;
+    }
+
+    /**
+     * 记录一批成功执行的耗时并调整批大小；不足当前大小的尾批只计入统计
+     */
+    void onSuccess(int batchRows, long elapsedNanos) {
+        batches++;
+        rows += batchRows;
+        smallestUsed = Math.min(smallestUsed, batchRows);
+        largestUsed = Math.max(largestUsed, batchRows);
+        if (elapsedNanos > targetNanos) {
+            size = Math.max(minSize, size / 2);
+        } else if (batchRows >= size) {
+            size = Math.min(maxSize, size + increaseStep);
+        }
+    }
+
+    /**
+     * 可重试错误后退避：批大小减半
+     */
+    void backOff() {
+        backOffs++;
+        size = Math.max(minSize, size / 2);
+    }
+
+    long getBatches() {
+        return batches;
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    int getSmallestUsed() {
+        return batches == 0 ? 0 : smallestUsed;
+    }
+
+    int getLargestUsed() {
+        return largestUsed;
+    }
+
+    long getBackOffs() {
+        return backOffs;
+    }
+
+    double getAverageSize() {
+        return batches == 0 ? 0 : (double) rows / batches;
+    }
+}
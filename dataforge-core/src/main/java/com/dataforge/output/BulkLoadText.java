@@ -0,0 +1,96 @@
+package com.dataforge.output;
+
+import com.dataforge.core.columnar.ColumnVector;
+import com.dataforge.core.columnar.DoubleColumnVector;
+import com.dataforge.core.columnar.IntColumnVector;
+import com.dataforge.core.columnar.LongColumnVector;
+import com.dataforge.core.columnar.StringColumnVector;
+
+/**
+ * 批量装载文本格式的公共编码
+ * PostgreSQL COPY 文本格式与 MySQL LOAD DATA 默认格式使用相同的约定：字段以制表符分隔、
+ * 记录以换行结束，NULL 写为 \N，值中的反斜杠、制表符、换行、回车和 NUL 用反斜杠转义。
+ * 两者只在布尔值的写法上不同
+ */
+final class BulkLoadText {
+
+    private static final byte[] NULL_MARKER = {'\\', 'N'};
+
+    private BulkLoadText() {
+    }
+
+    /**
+     * 写入一个字段值
+     *
+     * @param booleanAsDigit 布尔值写为 1/0 (MySQL)，否则写为 t/f (PostgreSQL)
+     */
+    static void putValue(Utf8Buffer out, ColumnVector column, int row, boolean booleanAsDigit) {
+        if (column.isNull(row)) {
+            out.put(NULL_MARKER);
+            return;
+        }
+        switch (column.getType()) {
+            case INT:
+                out.putLong(((IntColumnVector) column).get(row));
+                break;
+            case LONG:
+                out.putLong(((LongColumnVector) column).get(row));
+                break;
+            case DOUBLE:
+                out.putDouble(((DoubleColumnVector) column).get(row));
+                break;
+            case STRING:
+                StringColumnVector strings = (StringColumnVector) column;
+                putEscaped(out, strings.getChars(), strings.getOffset(row), strings.getLength(row));
+                break;
+            default:
+                Object value = column.getObject(row);
+                if (value instanceof Boolean) {
+                    boolean flag = (Boolean) value;
+                    out.putAscii(booleanAsDigit ? (flag ? '1' : '0') : (flag ? 't' : 'f'));
+                } else {
+                    String text = value.toString();
+                    putEscaped(out, text.toCharArray(), 0, text.length());
+                }
+                break;
+        }
+    }
+
+    /**
+     * 转义并写入一段字符，连续的普通字符整段编码
+     */
+    static void putEscaped(Utf8Buffer out, char[] chars, int offset, int length) {
+        int end = offset + length;
+        int segmentStart = offset;
+        for (int i = offset; i < end; i++) {
+            char escape = escapeOf(chars[i]);
+            if (escape != 0) {
+                out.putUtf8(chars, segmentStart, i - segmentStart);
+                out.putAscii('\\');
+                out.putAscii(escape);
+                segmentStart = i + 1;
+            }
+        }
+        out.putUtf8(chars, segmentStart, end - segmentStart);
+    }
+
+    /**
+     * 需要转义的字符返回转义序列中反斜杠之后的字符，否则返回 0
+     */
+    private static char escapeOf(char c) {
+        switch (c) {
+            case '\\':
+                return '\\';
+            case '\t':
+                return 't';
+            case '\n':
+                return 'n';
+            case '\r':
+                return 'r';
+            case '\0':
+                return '0';
+            default:
+                return 0;
+        }
+    }
+}
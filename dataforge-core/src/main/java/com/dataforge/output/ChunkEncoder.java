@@ -0,0 +1,20 @@
+package com.dataforge.output;
+
+import com.dataforge.core.columnar.RecordBatch;
+
+/**
+ * 批次编码器
+ * 把一个记录批次直接编码为目标格式的 UTF-8 字节。实现必须是无状态的，
+ * 因为并行模式下多个工作线程会同时调用同一个编码器
+ */
+@FunctionalInterface
+public interface ChunkEncoder {
+
+    /**
+     * 把批次内的全部行编码后追加到 out
+     *
+     * @param batch 已填充的记录批次
+     * @param out 输出缓冲
+     */
+    void encode(RecordBatch batch, Utf8Buffer out);
+}
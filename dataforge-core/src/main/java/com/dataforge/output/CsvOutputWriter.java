@@ -2,51 +2,237 @@ package com.dataforge.output;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.columnar.ColumnVector;
+import com.dataforge.core.columnar.ColumnarGenerationEngine;
+import com.dataforge.core.columnar.DoubleColumnVector;
+import com.dataforge.core.columnar.IntColumnVector;
+import com.dataforge.core.columnar.LongColumnVector;
+import com.dataforge.core.columnar.RecordBatch;
+import com.dataforge.core.columnar.StringColumnVector;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 /**
  * CSV output writer for writing generated data to a CSV file.
+ * Rows are produced column by column by the {@link ColumnarGenerationEngine}, encoded straight to
+ * UTF-8 bytes and written to a file channel batch by batch, optionally through a parallel gzip compressor.
+ * <p>
+ * Fields are quoted following RFC 4180: a field containing the delimiter, the quote character,
+ * CR or LF is enclosed in quotes and embedded quotes are doubled. The scan for those characters
+ * is a single table lookup per char, and plain values are then encoded without any copying.
  */
 public class CsvOutputWriter {
-    
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
     private final String filePath;
     private final List<String> fieldNames;
     private final Map<String, DataGenerator<?>> generators;
-    
+    private int threadCount = 1;
+    private OutputCompression compression = OutputCompression.NONE;
+    private long startRow;
+    private boolean standalone;
+    private char delimiter = ',';
+    private char quote = '"';
+    private String lineSeparator = LINE_SEPARATOR;
+
     public CsvOutputWriter(String filePath, List<String> fieldNames, Map<String, DataGenerator<?>> generators) {
         this.filePath = filePath;
         this.fieldNames = new ArrayList<>(fieldNames);
         this.generators = generators;
     }
-    
+
+    /**
+     * Sets the number of worker threads used to generate and encode rows.
+     * Output is identical to the single-threaded output for a fixed seed.
+     */
+    public CsvOutputWriter withThreads(int threadCount) {
+        this.threadCount = threadCount;
+        return this;
+    }
+
+    /**
+     * Sets the output compression; gzip output is compressed on multiple threads
+     * and a .gzi block index is written next to the file.
+     */
+    public CsvOutputWriter withCompression(OutputCompression compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    /**
+     * Restricts output to the slice of a larger dataset that starts at startRow; the slice
+     * length is context.getCount(). Only the slice starting at row 0 carries the header, so
+     * the parts of a sharded run can be concatenated in order into one valid file.
+     */
+    public CsvOutputWriter withStartRow(long startRow) {
+        this.startRow = startRow;
+        return this;
+    }
+
+    /**
+     * Writes the header even when the slice does not start at row 0, so that each part
+     * of a rolled output is a complete file on its own.
+     */
+    public CsvOutputWriter withStandalone(boolean standalone) {
+        this.standalone = standalone;
+        return this;
+    }
+
+    /**
+     * Sets the field delimiter, ',' by default.
+     */
+    public CsvOutputWriter withDelimiter(char delimiter) {
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    /**
+     * Sets the quote character, '"' by default.
+     */
+    public CsvOutputWriter withQuote(char quote) {
+        this.quote = quote;
+        return this;
+    }
+
+    /**
+     * Sets the record separator, the platform line separator by default.
+     * RFC 4180 strictly asks for CRLF.
+     */
+    public CsvOutputWriter withLineSeparator(String lineSeparator) {
+        this.lineSeparator = lineSeparator;
+        return this;
+    }
+
     public void write(GenerationContext context) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
+        CsvEncoder encoder = new CsvEncoder(delimiter, quote, lineSeparator);
+        ColumnarGenerationEngine engine = new ColumnarGenerationEngine(fieldNames, generators);
+
+        try (WritableByteChannel channel = OutputChannels.create(filePath, compression)) {
             // Write header
-            writer.println(String.join(",", fieldNames));
-            
+            if (startRow == 0 || standalone) {
+                Utf8Buffer header = new Utf8Buffer(256);
+                encoder.encodeHeader(fieldNames, header);
+                header.writeTo(channel);
+            }
+
             // Generate and write data rows
-            for (int i = 0; i < context.getCount(); i++) {
-                GenerationContext rowContext = new GenerationContext(1);
-                List<String> values = new ArrayList<>();
-                
-                for (String fieldName : fieldNames) {
-                    DataGenerator<?> generator = generators.get(fieldName);
-                    if (generator != null) {
-                        Object value = generator.generate(rowContext);
-                        values.add(value != null ? value.toString() : "");
-                    } else {
-                        values.add("");
+            new OrderedChunkPipeline(engine, threadCount)
+                    .withName("csv")
+                    .run(context, startRow, context.getCount(), encoder, channel);
+        }
+    }
+
+    /**
+     * RFC 4180 batch encoder; immutable once built, so one instance can serve all worker threads.
+     */
+    static final class CsvEncoder implements ChunkEncoder {
+
+        private final char delimiter;
+        private final char quote;
+        private final byte[] lineSeparator;
+        private final boolean[] special;
+
+        CsvEncoder(char delimiter, char quote, String lineSeparator) {
+            if (delimiter == quote || isLineBreak(delimiter) || isLineBreak(quote)) {
+                throw new IllegalArgumentException("Invalid CSV delimiter/quote: '" + delimiter + "', '" + quote + "'");
+            }
+            this.delimiter = delimiter;
+            this.quote = quote;
+            Utf8Buffer separator = new Utf8Buffer(4);
+            separator.putUtf8(lineSeparator);
+            this.lineSeparator = separator.toByteArray();
+            this.special = new boolean[Math.max(Math.max(delimiter, quote), '\r') + 1];
+            special[delimiter] = true;
+            special[quote] = true;
+            special['\r'] = true;
+            special['\n'] = true;
+        }
+
+        private static boolean isLineBreak(char c) {
+            return c == '\r' || c == '\n';
+        }
+
+        void encodeHeader(List<String> names, Utf8Buffer out) {
+            for (int i = 0; i < names.size(); i++) {
+                if (i > 0) {
+                    out.putUtf8(delimiter);
+                }
+                encodeField(names.get(i), out);
+            }
+            out.put(lineSeparator);
+        }
+
+        @Override
+        public void encode(RecordBatch batch, Utf8Buffer out) {
+            int columnCount = batch.getColumnCount();
+            for (int row = 0; row < batch.size(); row++) {
+                for (int column = 0; column < columnCount; column++) {
+                    if (column > 0) {
+                        out.putUtf8(delimiter);
                     }
+                    encodeValue(batch.getColumn(column), row, out);
+                }
+                out.put(lineSeparator);
+            }
+        }
+
+        private void encodeValue(ColumnVector column, int row, Utf8Buffer out) {
+            if (column.isNull(row)) {
+                return;
+            }
+            switch (column.getType()) {
+                case INT:
+                    out.putLong(((IntColumnVector) column).get(row));
+                    break;
+                case LONG:
+                    out.putLong(((LongColumnVector) column).get(row));
+                    break;
+                case DOUBLE:
+                    encodeField(Double.toString(((DoubleColumnVector) column).get(row)), out);
+                    break;
+                case STRING:
+                    StringColumnVector strings = (StringColumnVector) column;
+                    encodeField(strings.getChars(), strings.getOffset(row), strings.getLength(row), out);
+                    break;
+                default:
+                    encodeField(String.valueOf(column.getObject(row)), out);
+                    break;
+            }
+        }
+
+        private void encodeField(String value, Utf8Buffer out) {
+            encodeField(value.toCharArray(), 0, value.length(), out);
+        }
+
+        private void encodeField(char[] chars, int offset, int length, Utf8Buffer out) {
+            int end = offset + length;
+            for (int i = offset; i < end; i++) {
+                char c = chars[i];
+                if (c < special.length && special[c]) {
+                    encodeQuoted(chars, offset, end, out);
+                    return;
+                }
+            }
+            out.putUtf8(chars, offset, length);
+        }
+
+        private void encodeQuoted(char[] chars, int offset, int end, Utf8Buffer out) {
+            out.putUtf8(quote);
+            int runStart = offset;
+            for (int i = offset; i < end; i++) {
+                if (chars[i] == quote) {
+                    out.putUtf8(chars, runStart, i + 1 - runStart);
+                    out.putUtf8(quote);
+                    runStart = i + 1;
                 }
-                
-                writer.println(String.join(",", values));
             }
+            out.putUtf8(chars, runStart, end - runStart);
+            out.putUtf8(quote);
         }
     }
 }
\ No newline at end of file
@@ -2,18 +2,63 @@ package com.dataforge.output;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.columnar.ColumnarGenerationEngine;
+import com.dataforge.core.columnar.RecordBatch;
+import com.dataforge.jfr.JdbcBatchEvent;
+import com.dataforge.metrics.RunMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.sql.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 数据库直接写入器
- * 直接将生成的数据插入到数据库表中
+ * 直接将生成的数据插入到数据库表中。
+ * <p>
+ * 行区间按连接数切分为连续的子区间，每个连接由一个生成线程和一个写入线程组成流水线：
+ * 生成线程把参数批次预先生成到有界队列中，写入线程取出批次绑定参数、按 batchSize 执行 executeBatch，
+ * 并按提交间隔提交事务。批次对象循环复用，内存占用受队列深度限制。
+ * 引擎按 (种子, 列, 行号) 定位随机流，因此不依赖生成顺序的列写入的数据与连接数无关；
+ * 依赖生成顺序的列 (见 {@link DataGenerator#isOrderDependent}，例如唯一性去重) 在多个连接下仍然唯一，
+ * 但各连接的生成线程同时登记取值，这些列的具体取值随线程调度变化，只有单连接写入才可复现。
+ * 已提交的行数以 "jdbc:表名" 计入 {@link RunMetrics}，executeBatch 与 commit 的耗时分别计入写出与提交阶段，
+ * 各连接待写入的批次数合计为同名队列的深度
  */
 public class DatabaseOutputWriter {
     
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseOutputWriter.class);
+    
+    /** 生成线程每次预先生成的行数 */
+    private static final int GENERATION_BATCH_SIZE = 1024;
+    
+    /** 每个连接的队列中最多排队的已生成批次数 */
+    private static final int QUEUE_DEPTH = 4;
+    
+    /** 自适应模式下批大小的上限 */
+    private static final int MAX_ADAPTIVE_BATCH_SIZE = 10_000;
+    
+    /** 自适应模式下同一批连续遇到可重试错误的最多重试次数 */
+    private static final int MAX_RETRIES = 8;
+    
     private final String jdbcUrl;
     private final String username;
     private final String password;
@@ -22,6 +67,12 @@ public class DatabaseOutputWriter {
     private final Map<String, DataGenerator<?>> generators;
     private final int batchSize;
     private final Properties connectionProperties;
+    private long startRow;
+    private int connectionCount = 1;
+    private long commitInterval;
+    private boolean constraintsDisabled;
+    private long targetBatchLatencyMillis;
+    private final List<AdaptiveBatchSizer> batchSizers = new ArrayList<>();
     
     public DatabaseOutputWriter(String jdbcUrl, String username, String password, 
                                String tableName, List<String> fieldNames, 
@@ -57,47 +108,411 @@ public class DatabaseOutputWriter {
         return this;
     }
     
+    /**
+     * 从数据集的 startRow 行开始写入 context.getCount() 行，用于分片写入
+     */
+    public DatabaseOutputWriter withStartRow(long startRow) {
+        this.startRow = startRow;
+        return this;
+    }
+    
+    /**
+     * 并行写入使用的连接数，每个连接负责一段连续的行区间 (默认: 1)
+     */
+    public DatabaseOutputWriter withConnections(int connectionCount) {
+        this.connectionCount = Math.max(1, connectionCount);
+        return this;
+    }
+    
+    /**
+     * 每个连接每写入多少行提交一次事务，0 表示每个批次提交一次 (默认)
+     */
+    public DatabaseOutputWriter withCommitInterval(long commitInterval) {
+        this.commitInterval = commitInterval;
+        return this;
+    }
+    
+    /**
+     * 装载期间关闭外键/唯一性检查和索引维护 (按数据库方言，没有权限时只记录警告)，装载结束后恢复
+     */
+    public DatabaseOutputWriter withConstraintsDisabled(boolean constraintsDisabled) {
+        this.constraintsDisabled = constraintsDisabled;
+        return this;
+    }
+    
+    /**
+     * 启用自适应批大小：以 batchSize 为初始值，按每批 executeBatch 加 commit 的耗时用 AIMD 调整批大小，
+     * 使其保持在目标延迟附近；遇到锁等待超时、死锁等可重试错误时回滚、减半批大小并重试该批。
+     * 自适应模式下每批单独提交，忽略提交间隔。0 表示使用固定批大小 (默认)
+     */
+    public DatabaseOutputWriter withAdaptiveBatchSize(long targetLatencyMillis) {
+        this.targetBatchLatencyMillis = Math.max(0, targetLatencyMillis);
+        return this;
+    }
+    
     /**
      * 生成数据并直接写入数据库
+     * 任一连接失败时停止全部连接并抛出异常，各连接已提交的事务不会回滚
      */
     public void write(GenerationContext context) throws SQLException {
+        long totalRecords = context.getCount();
+        int connections = (int) Math.max(1, Math.min(connectionCount, totalRecords));
+        long effectiveCommitInterval = commitInterval > 0 ? commitInterval : batchSize;
+        JdbcDialect dialect = JdbcDialect.of(jdbcUrl);
+        ColumnarGenerationEngine engine = new ColumnarGenerationEngine(fieldNames, generators, GENERATION_BATCH_SIZE);
+        String insertSql = buildInsertSql();
+        List<JdbcColumnBinder> binders = resolveBinders();
+        boolean adaptive = targetBatchLatencyMillis > 0;
+        // 自适应模式下写入线程要保留当前批的全部行以便重试，批次池需要额外容纳一个最大批
+        int poolSize = QUEUE_DEPTH + 2 + (adaptive ? MAX_ADAPTIVE_BATCH_SIZE / GENERATION_BATCH_SIZE + 1 : 0);
+        logger.info("Loading {} rows into {}: connections={}, batchSize={}, commitInterval={}, constraintsDisabled={}",
+                totalRecords, tableName, connections, adaptive ? "adaptive(" + targetBatchLatencyMillis + "ms)" : batchSize,
+                adaptive ? "per batch" : effectiveCommitInterval, constraintsDisabled);
+        if (connections > 1 && engine.hasOrderDependentColumns(context)) {
+            logger.info("Order-dependent columns are generated concurrently by {} connections, "
+                    + "their values are unique but not reproducible; use a single connection to reproduce them",
+                    connections);
+        }
+        if (adaptive && commitInterval > 0) {
+            logger.warn("Commit interval {} is ignored with adaptive batch size, every batch is committed", commitInterval);
+        }
+        batchSizers.clear();
+        
+        long started = System.nanoTime();
+        if (constraintsDisabled) {
+            executeTableStatements(dialect.disableTableChecks(tableName));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(connections * 2, new LoaderThreadFactory());
+        List<BlockingQueue<RecordBatch>> filledQueues = new CopyOnWriteArrayList<>();
+        try (RunMetrics.Registration queue = RunMetrics.getInstance().registerQueue(metricsName(),
+                () -> filledQueues.stream().mapToInt(BlockingQueue::size).sum())) {
+            CompletionService<Long> completion = new ExecutorCompletionService<>(executor);
+            for (int i = 0; i < connections; i++) {
+                long rangeStart = startRow + totalRecords * i / connections;
+                long rangeRows = startRow + totalRecords * (i + 1) / connections - rangeStart;
+                BlockingQueue<RecordBatch> free = new ArrayBlockingQueue<>(poolSize);
+                BlockingQueue<RecordBatch> filled = new ArrayBlockingQueue<>(poolSize);
+                filledQueues.add(filled);
+                for (int j = 0; j < poolSize; j++) {
+                    free.add(engine.createBatch());
+                }
+                AdaptiveBatchSizer sizer = adaptive
+                        ? new AdaptiveBatchSizer(batchSize, targetBatchLatencyMillis, MAX_ADAPTIVE_BATCH_SIZE) : null;
+                if (sizer != null) {
+                    batchSizers.add(sizer);
+                }
+                completion.submit(() -> produce(engine, context, rangeStart, rangeRows, free, filled));
+                completion.submit(() -> load(insertSql, binders, dialect, effectiveCommitInterval, sizer, rangeStart,
+                        rangeRows, free, filled));
+            }
+            for (int i = 0; i < connections * 2; i++) {
+                await(completion);
+            }
+        } finally {
+            executor.shutdownNow();
+            if (constraintsDisabled) {
+                executeTableStatements(dialect.enableTableChecks(tableName));
+            }
+        }
+        
+        double seconds = (System.nanoTime() - started) / 1e9;
+        logger.info("Loaded {} rows into {} in {} s ({} rows/s)", totalRecords, tableName,
+                String.format("%.2f", seconds), String.format("%.0f", totalRecords / Math.max(seconds, 1e-9)));
+        if (adaptive) {
+            logger.info("Adaptive batch sizes: {}", batchSizeSummary());
+        }
+    }
+    
+    /**
+     * 最近一次 {@link #write} 的自适应批大小摘要：各连接实际使用的平均批大小、范围、最终批大小和退避次数；
+     * 未启用自适应批大小时批次数为 0
+     */
+    public String batchSizeSummary() {
+        long batches = 0;
+        long rows = 0;
+        long backOffs = 0;
+        int smallest = Integer.MAX_VALUE;
+        int largest = 0;
+        List<Integer> finalSizes = new ArrayList<>();
+        for (AdaptiveBatchSizer sizer : batchSizers) {
+            batches += sizer.getBatches();
+            rows += sizer.getRows();
+            backOffs += sizer.getBackOffs();
+            if (sizer.getBatches() > 0) {
+                smallest = Math.min(smallest, sizer.getSmallestUsed());
+            }
+            largest = Math.max(largest, sizer.getLargestUsed());
+            finalSizes.add(sizer.current());
+        }
+        return String.format("batches=%d, average=%.0f, range=[%d, %d], final=%s, backOffs=%d",
+                batches, batches == 0 ? 0.0 : (double) rows / batches, batches == 0 ? 0 : smallest, largest,
+                finalSizes, backOffs);
+    }
+    
+    List<AdaptiveBatchSizer> getBatchSizers() {
+        return batchSizers;
+    }
+    
+    /**
+     * 生成线程：按顺序生成一个连接负责的行区间，批次对象从 free 取出、放入 filled
+     */
+    private Long produce(ColumnarGenerationEngine engine, GenerationContext context, long rangeStart, long rangeRows,
+                         BlockingQueue<RecordBatch> free, BlockingQueue<RecordBatch> filled)
+            throws InterruptedException {
+        long end = rangeStart + rangeRows;
+        for (long row = rangeStart; row < end; row += GENERATION_BATCH_SIZE) {
+            RecordBatch batch = free.take();
+            engine.fill(batch, row, (int) Math.min(GENERATION_BATCH_SIZE, end - row), context);
+            filled.put(batch);
+        }
+        return 0L;
+    }
+    
+    /**
+     * 写入线程：在独立连接上绑定并执行一个行区间的全部批次，返回写入的行数
+     */
+    private Long load(String insertSql, List<JdbcColumnBinder> binders, JdbcDialect dialect, long commitEvery,
+                      AdaptiveBatchSizer sizer, long rangeStart, long rangeRows, BlockingQueue<RecordBatch> free,
+                      BlockingQueue<RecordBatch> filled) throws SQLException, InterruptedException {
         try (Connection connection = createConnection()) {
             connection.setAutoCommit(false);
-            
-            String insertSql = buildInsertSql();
-            
+            if (constraintsDisabled) {
+                executeQuietly(connection, dialect.disableSessionChecks(tableName));
+            }
             try (PreparedStatement statement = connection.prepareStatement(insertSql)) {
-                int totalRecords = context.getCount();
-                int processedRecords = 0;
-                
-                for (int i = 0; i < totalRecords; i++) {
-                    // 创建单条记录的上下文
-                    GenerationContext recordContext = new GenerationContext(1);
-                    if (context.getSeed() != null) {
-                        recordContext.setSeed(context.getSeed() + i);
-                    }
-                    
-                    // 设置参数值
-                    setStatementParameters(statement, recordContext);
+                long loaded = sizer != null
+                        ? loadAdaptive(connection, statement, binders, sizer, rangeStart, rangeRows, free, filled)
+                        : loadFixed(connection, statement, binders, commitEvery, rangeStart, rangeRows, free, filled);
+                logger.debug("Loaded rows [{}, {})", rangeStart, rangeStart + rangeRows);
+                return loaded;
+            } catch (SQLException e) {
+                rollbackQuietly(connection);
+                throw new SQLException("写入行区间 [" + rangeStart + ", " + (rangeStart + rangeRows) + ") 失败: "
+                        + e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+            }
+        }
+    }
+    
+    /**
+     * 固定批大小：每 batchSize 行执行一次，每 commitEvery 行提交一次
+     */
+    private long loadFixed(Connection connection, PreparedStatement statement, List<JdbcColumnBinder> binders,
+                           long commitEvery, long rangeStart, long rangeRows, BlockingQueue<RecordBatch> free,
+                           BlockingQueue<RecordBatch> filled) throws SQLException, InterruptedException {
+        long loaded = 0;
+        int pending = 0;
+        long uncommitted = 0;
+        while (loaded < rangeRows) {
+            RecordBatch batch = filled.take();
+            for (int row = 0; row < batch.size(); row++) {
+                setStatementParameters(statement, binders, batch, row);
+                statement.addBatch();
+                pending++;
+                uncommitted++;
+                long end = rangeStart + loaded + row + 1;
+                if (pending >= batchSize || uncommitted >= commitEvery) {
+                    executeBatch(statement, end - pending, pending);
+                    pending = 0;
+                }
+                if (uncommitted >= commitEvery) {
+                    commit(connection, end - uncommitted, uncommitted);
+                    uncommitted = 0;
+                }
+            }
+            loaded += batch.size();
+            free.put(batch);
+        }
+        long end = rangeStart + loaded;
+        if (pending > 0) {
+            executeBatch(statement, end - pending, pending);
+        }
+        commit(connection, end - uncommitted, uncommitted);
+        return loaded;
+    }
+    
+    /**
+     * 自适应批大小：每批执行后立即提交并把耗时反馈给控制器。
+     * 当前批的行所在的批次对象在提交前不归还，可重试错误回滚后用同样的行按减半的批大小重试
+     */
+    private long loadAdaptive(Connection connection, PreparedStatement statement, List<JdbcColumnBinder> binders,
+                              AdaptiveBatchSizer sizer, long rangeStart, long rangeRows, BlockingQueue<RecordBatch> free,
+                              BlockingQueue<RecordBatch> filled) throws SQLException, InterruptedException {
+        Deque<RecordBatch> held = new ArrayDeque<>();
+        int firstRow = 0; // held 中首个批次里第一条未提交的行
+        long heldRows = 0;
+        long received = 0;
+        long loaded = 0;
+        int retries = 0;
+        while (loaded < rangeRows) {
+            int size = sizer.current();
+            while (heldRows < size && received < rangeRows) {
+                RecordBatch batch = filled.take();
+                held.add(batch);
+                heldRows += batch.size();
+                received += batch.size();
+            }
+            int rows = (int) Math.min(size, heldRows);
+            
+            int bound = 0;
+            int row = firstRow;
+            for (RecordBatch batch : held) {
+                for (; row < batch.size() && bound < rows; row++, bound++) {
+                    setStatementParameters(statement, binders, batch, row);
                     statement.addBatch();
-                    
-                    processedRecords++;
-                    
-                    // 批量执行
-                    if (processedRecords % batchSize == 0 || processedRecords == totalRecords) {
-                        statement.executeBatch();
-                        connection.commit();
-                        
-                        System.out.printf("已写入 %d/%d 条记录到数据库%n", processedRecords, totalRecords);
-                    }
                 }
-                
+                if (bound == rows) {
+                    break;
+                }
+                row = 0;
+            }
+            
+            long started = System.nanoTime();
+            try {
+                executeBatch(statement, rangeStart + loaded, rows);
+                commit(connection, rangeStart + loaded, rows);
+            } catch (SQLException e) {
+                statement.clearBatch();
+                rollbackQuietly(connection);
+                if (!isRetryable(e) || ++retries > MAX_RETRIES) {
+                    throw e;
+                }
+                sizer.backOff();
+                logger.warn("Retryable error, retrying {} rows with batch size {}: {}", rows, sizer.current(),
+                        e.getMessage());
+                continue;
+            }
+            sizer.onSuccess(rows, System.nanoTime() - started);
+            retries = 0;
+            loaded += rows;
+            heldRows -= rows;
+            
+            // 归还已全部提交的批次对象
+            int consumed = firstRow + rows;
+            while (!held.isEmpty() && consumed >= held.peekFirst().size()) {
+                consumed -= held.peekFirst().size();
+                free.put(held.pollFirst());
+            }
+            firstRow = consumed;
+        }
+        return loaded;
+    }
+    
+    private void executeBatch(PreparedStatement statement, long firstRow, long rows) throws SQLException {
+        JdbcBatchEvent event = new JdbcBatchEvent();
+        event.begin();
+        long started = System.nanoTime();
+        statement.executeBatch();
+        RunMetrics.getInstance().recordPhase(RunMetrics.Phase.WRITE, System.nanoTime() - started);
+        commitEvent(event, JdbcBatchEvent.EXECUTE_BATCH, firstRow, rows);
+    }
+    
+    private void commit(Connection connection, long firstRow, long rows) throws SQLException {
+        JdbcBatchEvent event = new JdbcBatchEvent();
+        event.begin();
+        long started = System.nanoTime();
+        connection.commit();
+        RunMetrics metrics = RunMetrics.getInstance();
+        metrics.recordPhase(RunMetrics.Phase.COMMIT, System.nanoTime() - started);
+        commitEvent(event, JdbcBatchEvent.COMMIT, firstRow, rows);
+        metrics.recordWrite(metricsName(), rows, 0);
+    }
+    
+    private String metricsName() {
+        return "jdbc:" + tableName;
+    }
+    
+    private void commitEvent(JdbcBatchEvent event, String operation, long firstRow, long rows) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.table = tableName;
+            event.operation = operation;
+            event.startRow = firstRow;
+            event.rowCount = rows;
+            event.commit();
+        }
+    }
+    
+    /**
+     * 锁等待超时、死锁、序列化失败等可以通过重试解决的错误
+     */
+    static boolean isRetryable(SQLException e) {
+        // 驱动把真正的错误放在 getNextException (批量执行) 或 getCause 中，限制深度以防循环引用
+        Throwable current = e;
+        for (int depth = 0; current != null && depth < 16; depth++) {
+            if (current instanceof SQLTransientException) {
+                return true;
+            }
+            if (current instanceof SQLException) {
+                SQLException sqlException = (SQLException) current;
+                String state = sqlException.getSQLState();
+                if ((state != null && (state.startsWith("40") || state.equals("55P03") || state.equals("HYT00")))
+                        || sqlException.getErrorCode() == 1205 || sqlException.getErrorCode() == 1213) {
+                    return true;
+                }
+                if (sqlException.getNextException() != null) {
+                    current = sqlException.getNextException();
+                    continue;
+                }
+            }
+            current = current.getCause();
+        }
+        return false;
+    }
+    
+    private static void await(CompletionService<Long> completion) throws SQLException {
+        try {
+            completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("数据库写入被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SQLException("数据库写入失败", cause);
+        }
+    }
+    
+    /**
+     * 在单独的连接上执行表级语句
+     */
+    private void executeTableStatements(List<String> statements) throws SQLException {
+        if (statements.isEmpty()) {
+            return;
+        }
+        try (Connection connection = createConnection()) {
+            executeQuietly(connection, statements);
+            if (!connection.getAutoCommit()) {
                 connection.commit();
-                System.out.printf("成功写入 %d 条记录到表 %s%n", totalRecords, tableName);
             }
         }
     }
     
+    /**
+     * 执行约束开关语句，失败时 (通常是缺少权限) 只记录警告
+     */
+    private static void executeQuietly(Connection connection, List<String> statements) {
+        for (String sql : statements) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(sql);
+            } catch (SQLException e) {
+                logger.warn("Could not execute '{}': {}", sql, e.getMessage());
+            }
+        }
+    }
+    
+    private static void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.debug("Rollback failed: {}", e.getMessage());
+        }
+    }
+    
     /**
      * 创建数据库连接
      */
@@ -183,46 +598,46 @@ public class DatabaseOutputWriter {
     }
     
     /**
-     * 设置PreparedStatement参数
+     * 按列绑定一行参数
      */
-    private void setStatementParameters(PreparedStatement statement, GenerationContext context) throws SQLException {
-        for (int i = 0; i < fieldNames.size(); i++) {
-            String fieldName = fieldNames.get(i);
-            DataGenerator<?> generator = generators.get(fieldName);
-            Object value = generator.generate(context);
-            
-            if (value == null) {
-                statement.setNull(i + 1, Types.VARCHAR);
-            } else {
-                setParameterValue(statement, i + 1, value);
-            }
+    private static void setStatementParameters(PreparedStatement statement, List<JdbcColumnBinder> binders,
+                                               RecordBatch batch, int row) throws SQLException {
+        for (int i = 0; i < batch.getColumnCount(); i++) {
+            binders.get(i).bind(statement, i + 1, batch.getColumn(i), row);
         }
     }
     
     /**
-     * 根据值类型设置参数
+     * 从 DatabaseMetaData 读取一次目标表的列类型，为每个字段选定绑定器；
+     * 找不到的列按值的 Java 类型绑定
      */
-    private void setParameterValue(PreparedStatement statement, int parameterIndex, Object value) throws SQLException {
-        if (value instanceof String) {
-            statement.setString(parameterIndex, (String) value);
-        } else if (value instanceof Integer) {
-            statement.setInt(parameterIndex, (Integer) value);
-        } else if (value instanceof Long) {
-            statement.setLong(parameterIndex, (Long) value);
-        } else if (value instanceof Double) {
-            statement.setDouble(parameterIndex, (Double) value);
-        } else if (value instanceof Float) {
-            statement.setFloat(parameterIndex, (Float) value);
-        } else if (value instanceof Boolean) {
-            statement.setBoolean(parameterIndex, (Boolean) value);
-        } else if (value instanceof Date) {
-            statement.setDate(parameterIndex, (Date) value);
-        } else if (value instanceof Timestamp) {
-            statement.setTimestamp(parameterIndex, (Timestamp) value);
-        } else {
-            // 默认转换为字符串
-            statement.setString(parameterIndex, value.toString());
+    List<JdbcColumnBinder> resolveBinders() throws SQLException {
+        Map<String, JdbcColumnBinder> byColumn = new HashMap<>();
+        try (Connection connection = createConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // 未加引号的表名在不同数据库中以原样、大写或小写保存
+            for (String name : new LinkedHashSet<>(Arrays.asList(tableName, tableName.toUpperCase(), tableName.toLowerCase()))) {
+                try (ResultSet columns = metaData.getColumns(null, null, name, null)) {
+                    while (columns.next()) {
+                        byColumn.putIfAbsent(columns.getString("COLUMN_NAME").toLowerCase(),
+                                JdbcColumnBinder.forColumn(columns.getInt("DATA_TYPE"), columns.getString("TYPE_NAME")));
+                    }
+                }
+                if (!byColumn.isEmpty()) {
+                    break;
+                }
+            }
+        }
+        List<JdbcColumnBinder> binders = new ArrayList<>(fieldNames.size());
+        for (String field : fieldNames) {
+            JdbcColumnBinder binder = byColumn.get(field.toLowerCase());
+            if (binder == null) {
+                logger.debug("No metadata for column {}.{}, binding by value type", tableName, field);
+                binder = JdbcColumnBinder.untyped();
+            }
+            binders.add(binder);
         }
+        return binders;
     }
     
     /**
@@ -277,4 +692,18 @@ public class DatabaseOutputWriter {
             System.err.println("获取表结构失败: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * 装载线程工厂，使用守护线程避免阻止 JVM 退出
+     */
+    private static class LoaderThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "dataforge-jdbc-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
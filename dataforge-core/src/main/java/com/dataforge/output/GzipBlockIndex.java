@@ -0,0 +1,178 @@
+package com.dataforge.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 多成员 gzip 文件的块索引
+ * 记录每个 gzip 成员在压缩文件中的起始偏移及其对应的解压后偏移，
+ * 读取方可以二分查找到目标位置所在的成员，从该成员开始解压而不必从头读起。
+ * <p>
+ * 文件格式与 bgzip 的 .gzi 索引相同：小端 uint64 的条目数，随后是每个条目的
+ * (压缩偏移, 解压偏移) 两个小端 uint64；第一个成员固定从 (0, 0) 开始，不写入文件
+ */
+public final class GzipBlockIndex {
+
+    /** 索引文件的扩展名 */
+    public static final String FILE_SUFFIX = ".gzi";
+
+    private long[] compressedOffsets = new long[16];
+    private long[] uncompressedOffsets = new long[16];
+    private int size;
+
+    /**
+     * 索引文件路径：在 gzip 文件名后追加 .gzi
+     */
+    public static Path indexPathFor(Path gzipFile) {
+        return Paths.get(gzipFile.toString() + FILE_SUFFIX);
+    }
+
+    /**
+     * 追加一个成员的起始位置，偏移必须单调不减
+     */
+    public void add(long compressedOffset, long uncompressedOffset) {
+        if (size > 0 && (compressedOffset < compressedOffsets[size - 1]
+                || uncompressedOffset < uncompressedOffsets[size - 1])) {
+            throw new IllegalArgumentException("Block offsets must not decrease: "
+                    + compressedOffset + ", " + uncompressedOffset);
+        }
+        if (size == compressedOffsets.length) {
+            compressedOffsets = Arrays.copyOf(compressedOffsets, size * 2);
+            uncompressedOffsets = Arrays.copyOf(uncompressedOffsets, size * 2);
+        }
+        compressedOffsets[size] = compressedOffset;
+        uncompressedOffsets[size] = uncompressedOffset;
+        size++;
+    }
+
+    /**
+     * 把另一个索引的全部条目平移后追加到本索引，用于按顺序拼接多个 gzip 文件
+     */
+    public void append(GzipBlockIndex other, long compressedBase, long uncompressedBase) {
+        for (int i = 0; i < other.size; i++) {
+            add(compressedBase + other.compressedOffsets[i], uncompressedBase + other.uncompressedOffsets[i]);
+        }
+    }
+
+    /**
+     * 成员数
+     */
+    public int size() {
+        return size;
+    }
+
+    public long getCompressedOffset(int block) {
+        checkBlock(block);
+        return compressedOffsets[block];
+    }
+
+    public long getUncompressedOffset(int block) {
+        checkBlock(block);
+        return uncompressedOffsets[block];
+    }
+
+    /**
+     * 查找包含指定解压偏移的成员序号；空索引返回 -1
+     */
+    public int findBlock(long uncompressedOffset) {
+        int low = 0;
+        int high = size - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (uncompressedOffsets[mid] <= uncompressedOffset) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 以 .gzi 格式写出索引
+     */
+    public void writeTo(Path path) throws IOException {
+        int entries = Math.max(0, size - 1);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + entries * 16).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(entries);
+        for (int i = 1; i < size; i++) {
+            buffer.putLong(compressedOffsets[i]);
+            buffer.putLong(uncompressedOffsets[i]);
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * 读取 .gzi 格式的索引，结果包含隐含的首个成员 (0, 0)
+     */
+    public static GzipBlockIndex readFrom(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < 8) {
+            throw new IOException("Truncated gzip index: " + path);
+        }
+        long entries = buffer.getLong();
+        if (entries < 0 || entries * 16 != buffer.remaining()) {
+            throw new IOException("Corrupt gzip index: " + path);
+        }
+        GzipBlockIndex index = new GzipBlockIndex();
+        index.add(0, 0);
+        for (long i = 0; i < entries; i++) {
+            index.add(buffer.getLong(), buffer.getLong());
+        }
+        return index;
+    }
+
+    /**
+     * 合并按顺序拼接在一起的多个 gzip 文件的索引，每个文件都必须有对应的 .gzi 索引。
+     * 文件的解压长度由最后一个成员的起始偏移加上该成员尾部的 ISIZE 得到，因此要求单个成员小于 4GB
+     */
+    public static GzipBlockIndex concat(List<Path> gzipFiles) throws IOException {
+        GzipBlockIndex merged = new GzipBlockIndex();
+        long compressedBase = 0;
+        long uncompressedBase = 0;
+        for (Path file : gzipFiles) {
+            GzipBlockIndex index = readFrom(indexPathFor(file));
+            merged.append(index, compressedBase, uncompressedBase);
+            compressedBase += Files.size(file);
+            uncompressedBase += index.uncompressedOffsets[index.size - 1] + readLastMemberSize(file);
+        }
+        return merged;
+    }
+
+    private static long readLastMemberSize(Path gzipFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(gzipFile, StandardOpenOption.READ)) {
+            if (channel.size() < 18) {
+                throw new IOException("Not a gzip file: " + gzipFile);
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (trailer.hasRemaining()) {
+                if (channel.read(trailer, channel.size() - 4 + trailer.position()) < 0) {
+                    throw new IOException("Truncated gzip file: " + gzipFile);
+                }
+            }
+            return trailer.getInt(0) & 0xFFFFFFFFL;
+        }
+    }
+
+    private void checkBlock(int block) {
+        if (block < 0 || block >= size) {
+            throw new IndexOutOfBoundsException("Block " + block + " out of range [0, " + size + ")");
+        }
+    }
+}
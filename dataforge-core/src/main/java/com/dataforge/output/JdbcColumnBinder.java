@@ -0,0 +1,375 @@
+package com.dataforge.output;
+
+import com.dataforge.core.columnar.ColumnType;
+import com.dataforge.core.columnar.ColumnVector;
+import com.dataforge.core.columnar.DoubleColumnVector;
+import com.dataforge.core.columnar.IntColumnVector;
+import com.dataforge.core.columnar.LongColumnVector;
+import com.dataforge.core.columnar.StringColumnVector;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * 按目标列类型绑定参数的绑定器
+ * 根据 DatabaseMetaData 报告的 java.sql.Types 为每一列选定一次绑定方式 (setLong、setBigDecimal、
+ * 带类型的 setObject、setBytes 等)，把生成器输出直接转换为列类型后绑定，
+ * 避免以文本发送再由数据库隐式转换。没有元数据的列按值的 Java 类型绑定
+ */
+final class JdbcColumnBinder {
+
+    /**
+     * 绑定一个非 null 值
+     */
+    @FunctionalInterface
+    private interface ValueBinder {
+        void bind(PreparedStatement statement, int index, ColumnVector column, int row) throws SQLException;
+    }
+
+    private final int sqlType;
+    private final ValueBinder binder;
+
+    private JdbcColumnBinder(int sqlType, ValueBinder binder) {
+        this.sqlType = sqlType;
+        this.binder = binder;
+    }
+
+    void bind(PreparedStatement statement, int index, ColumnVector column, int row) throws SQLException {
+        if (column.isNull(row)) {
+            statement.setNull(index, sqlType);
+        } else {
+            binder.bind(statement, index, column, row);
+        }
+    }
+
+    int getSqlType() {
+        return sqlType;
+    }
+
+    /**
+     * 没有目标列元数据时使用的绑定器，按值的 Java 类型绑定
+     */
+    static JdbcColumnBinder untyped() {
+        return new JdbcColumnBinder(Types.VARCHAR, (statement, index, column, row) -> {
+            switch (column.getType()) {
+                case INT:
+                    statement.setInt(index, ((IntColumnVector) column).get(row));
+                    break;
+                case LONG:
+                    statement.setLong(index, ((LongColumnVector) column).get(row));
+                    break;
+                case DOUBLE:
+                    statement.setDouble(index, ((DoubleColumnVector) column).get(row));
+                    break;
+                case STRING:
+                    statement.setString(index, ((StringColumnVector) column).getString(row));
+                    break;
+                default:
+                    bindByValueType(statement, index, column.getObject(row));
+                    break;
+            }
+        });
+    }
+
+    /**
+     * 为 java.sql.Types 类型的目标列选定绑定器
+     *
+     * @param sqlType 目标列的 java.sql.Types 类型
+     * @param typeName 数据库类型名，用于识别以 OTHER 报告的类型 (如 PostgreSQL 的 uuid)
+     */
+    static JdbcColumnBinder forColumn(int sqlType, String typeName) {
+        switch (sqlType) {
+            case Types.BIGINT:
+                return new JdbcColumnBinder(sqlType, (s, i, c, r) -> s.setLong(i, longValue(c, r)));
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return new JdbcColumnBinder(sqlType, (s, i, c, r) -> s.setInt(i, Math.toIntExact(longValue(c, r))));
+            case Types.DOUBLE:
+            case Types.FLOAT:
+                return new JdbcColumnBinder(sqlType, (s, i, c, r) -> s.setDouble(i, doubleValue(c, r)));
+            case Types.REAL:
+                return new JdbcColumnBinder(sqlType, (s, i, c, r) -> s.setFloat(i, (float) doubleValue(c, r)));
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return new JdbcColumnBinder(sqlType, (s, i, c, r) -> s.setBigDecimal(i, decimalValue(c, r)));
+            case Types.BOOLEAN:
+            case Types.BIT:
+                return new JdbcColumnBinder(sqlType, (s, i, c, r) -> s.setBoolean(i, booleanValue(c, r)));
+            case Types.DATE:
+                return new JdbcColumnBinder(sqlType, (s, i, c, r) -> s.setObject(i, dateValue(c, r), Types.DATE));
+            case Types.TIME:
+                return new JdbcColumnBinder(sqlType, (s, i, c, r) -> s.setObject(i, timeValue(c, r), Types.TIME));
+            case Types.TIMESTAMP:
+                return new JdbcColumnBinder(sqlType,
+                        (s, i, c, r) -> s.setObject(i, timestampValue(c, r), Types.TIMESTAMP));
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return new JdbcColumnBinder(sqlType,
+                        (s, i, c, r) -> s.setObject(i, offsetTimestampValue(c, r), Types.TIMESTAMP_WITH_TIMEZONE));
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                if ("uuid".equalsIgnoreCase(typeName)) {
+                    return new JdbcColumnBinder(sqlType, (s, i, c, r) -> s.setObject(i, uuidValue(c, r)));
+                }
+                return new JdbcColumnBinder(sqlType, (s, i, c, r) -> s.setBytes(i, bytesValue(c, r)));
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.CLOB:
+            case Types.NCLOB:
+                return new JdbcColumnBinder(sqlType, (s, i, c, r) -> s.setString(i, stringValue(c, r)));
+            default:
+                if ("uuid".equalsIgnoreCase(typeName)) {
+                    return new JdbcColumnBinder(sqlType, (s, i, c, r) -> s.setObject(i, uuidValue(c, r), Types.OTHER));
+                }
+                JdbcColumnBinder untyped = untyped();
+                return new JdbcColumnBinder(sqlType, untyped.binder);
+        }
+    }
+
+    private static long longValue(ColumnVector column, int row) {
+        switch (column.getType()) {
+            case INT:
+                return ((IntColumnVector) column).get(row);
+            case LONG:
+                return ((LongColumnVector) column).get(row);
+            case DOUBLE:
+                return (long) ((DoubleColumnVector) column).get(row);
+            default:
+                Object value = column.getObject(row);
+                if (value instanceof BigDecimal) {
+                    return ((BigDecimal) value).longValueExact();
+                }
+                if (value instanceof Number) {
+                    return ((Number) value).longValue();
+                }
+                if (value instanceof Boolean) {
+                    return (Boolean) value ? 1 : 0;
+                }
+                return Long.parseLong(value.toString().trim());
+        }
+    }
+
+    private static double doubleValue(ColumnVector column, int row) {
+        switch (column.getType()) {
+            case INT:
+                return ((IntColumnVector) column).get(row);
+            case LONG:
+                return ((LongColumnVector) column).get(row);
+            case DOUBLE:
+                return ((DoubleColumnVector) column).get(row);
+            default:
+                Object value = column.getObject(row);
+                if (value instanceof Number) {
+                    return ((Number) value).doubleValue();
+                }
+                return Double.parseDouble(value.toString().trim());
+        }
+    }
+
+    private static BigDecimal decimalValue(ColumnVector column, int row) {
+        switch (column.getType()) {
+            case INT:
+                return BigDecimal.valueOf(((IntColumnVector) column).get(row));
+            case LONG:
+                return BigDecimal.valueOf(((LongColumnVector) column).get(row));
+            case DOUBLE:
+                return BigDecimal.valueOf(((DoubleColumnVector) column).get(row));
+            default:
+                Object value = column.getObject(row);
+                if (value instanceof BigDecimal) {
+                    return (BigDecimal) value;
+                }
+                if (value instanceof BigInteger) {
+                    return new BigDecimal((BigInteger) value);
+                }
+                if (value instanceof Double || value instanceof Float) {
+                    return BigDecimal.valueOf(((Number) value).doubleValue());
+                }
+                if (value instanceof Number) {
+                    return BigDecimal.valueOf(((Number) value).longValue());
+                }
+                return new BigDecimal(value.toString().trim());
+        }
+    }
+
+    private static boolean booleanValue(ColumnVector column, int row) {
+        switch (column.getType()) {
+            case INT:
+            case LONG:
+            case DOUBLE:
+                return doubleValue(column, row) != 0;
+            default:
+                Object value = column.getObject(row);
+                if (value instanceof Boolean) {
+                    return (Boolean) value;
+                }
+                if (value instanceof Number) {
+                    return ((Number) value).doubleValue() != 0;
+                }
+                String text = value.toString().trim();
+                return "true".equalsIgnoreCase(text) || "t".equalsIgnoreCase(text) || "1".equals(text)
+                        || "yes".equalsIgnoreCase(text) || "y".equalsIgnoreCase(text);
+        }
+    }
+
+    private static LocalDate dateValue(ColumnVector column, int row) {
+        Object value = column.getObject(row);
+        if (value instanceof LocalDate) {
+            return (LocalDate) value;
+        }
+        if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toLocalDate();
+        }
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        }
+        if (value instanceof java.util.Date) {
+            return Instant.ofEpochMilli(((java.util.Date) value).getTime()).atZone(ZoneOffset.UTC).toLocalDate();
+        }
+        return LocalDate.parse(value.toString().trim());
+    }
+
+    private static LocalTime timeValue(ColumnVector column, int row) {
+        Object value = column.getObject(row);
+        if (value instanceof LocalTime) {
+            return (LocalTime) value;
+        }
+        if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toLocalTime();
+        }
+        return LocalTime.parse(value.toString().trim());
+    }
+
+    private static LocalDateTime timestampValue(ColumnVector column, int row) {
+        Object value = column.getObject(row);
+        if (value instanceof LocalDateTime) {
+            return (LocalDateTime) value;
+        }
+        if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay();
+        }
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime();
+        }
+        if (value instanceof Instant) {
+            return LocalDateTime.ofInstant((Instant) value, ZoneOffset.UTC);
+        }
+        if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).toLocalDateTime();
+        }
+        if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toLocalDateTime();
+        }
+        if (value instanceof java.util.Date) {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(((java.util.Date) value).getTime()), ZoneOffset.UTC);
+        }
+        return LocalDateTime.parse(value.toString().trim().replace(' ', 'T'));
+    }
+
+    private static OffsetDateTime offsetTimestampValue(ColumnVector column, int row) {
+        Object value = column.getObject(row);
+        if (value instanceof OffsetDateTime) {
+            return (OffsetDateTime) value;
+        }
+        if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toOffsetDateTime();
+        }
+        if (value instanceof Instant) {
+            return ((Instant) value).atOffset(ZoneOffset.UTC);
+        }
+        if (value instanceof LocalDateTime || value instanceof LocalDate || value instanceof java.util.Date) {
+            return timestampValue(column, row).atOffset(ZoneOffset.UTC);
+        }
+        return OffsetDateTime.parse(value.toString().trim());
+    }
+
+    private static UUID uuidValue(ColumnVector column, int row) {
+        Object value = column.getObject(row);
+        return value instanceof UUID ? (UUID) value : UUID.fromString(value.toString().trim());
+    }
+
+    private static byte[] bytesValue(ColumnVector column, int row) {
+        Object value = column.getObject(row);
+        if (value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        if (value instanceof UUID) {
+            UUID uuid = (UUID) value;
+            byte[] bytes = new byte[16];
+            for (int i = 0; i < 8; i++) {
+                bytes[i] = (byte) (uuid.getMostSignificantBits() >>> (56 - 8 * i));
+                bytes[8 + i] = (byte) (uuid.getLeastSignificantBits() >>> (56 - 8 * i));
+            }
+            return bytes;
+        }
+        return value.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String stringValue(ColumnVector column, int row) {
+        if (column.getType() == ColumnType.STRING) {
+            return ((StringColumnVector) column).getString(row);
+        }
+        return column.getObject(row).toString();
+    }
+
+    /**
+     * 按值的 Java 类型绑定，时间类型和 BigDecimal、UUID 使用带类型的绑定而不是字符串
+     */
+    private static void bindByValueType(PreparedStatement statement, int index, Object value) throws SQLException {
+        if (value instanceof String) {
+            statement.setString(index, (String) value);
+        } else if (value instanceof Integer) {
+            statement.setInt(index, (Integer) value);
+        } else if (value instanceof Long) {
+            statement.setLong(index, (Long) value);
+        } else if (value instanceof Double) {
+            statement.setDouble(index, (Double) value);
+        } else if (value instanceof Float) {
+            statement.setFloat(index, (Float) value);
+        } else if (value instanceof Boolean) {
+            statement.setBoolean(index, (Boolean) value);
+        } else if (value instanceof BigDecimal) {
+            statement.setBigDecimal(index, (BigDecimal) value);
+        } else if (value instanceof BigInteger) {
+            statement.setBigDecimal(index, new BigDecimal((BigInteger) value));
+        } else if (value instanceof java.sql.Date) {
+            statement.setDate(index, (java.sql.Date) value);
+        } else if (value instanceof Timestamp) {
+            statement.setTimestamp(index, (Timestamp) value);
+        } else if (value instanceof LocalDate) {
+            statement.setObject(index, value, Types.DATE);
+        } else if (value instanceof LocalDateTime) {
+            statement.setObject(index, value, Types.TIMESTAMP);
+        } else if (value instanceof LocalTime) {
+            statement.setObject(index, value, Types.TIME);
+        } else if (value instanceof OffsetDateTime) {
+            statement.setObject(index, value, Types.TIMESTAMP_WITH_TIMEZONE);
+        } else if (value instanceof byte[]) {
+            statement.setBytes(index, (byte[]) value);
+        } else if (value instanceof UUID) {
+            statement.setObject(index, value);
+        } else {
+            // 默认转换为字符串
+            statement.setString(index, value.toString());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.dataforge.output;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 按 JDBC URL 识别的数据库方言
+ * 提供批量装载期间关闭、恢复约束检查和索引维护所需的语句。
+ * 会话级语句在每个装载连接上执行，表级语句在装载开始前和结束后各执行一次
+ */
+enum JdbcDialect {
+
+    MYSQL {
+        @Override
+        List<String> disableSessionChecks(String table) {
+            return Arrays.asList("SET FOREIGN_KEY_CHECKS = 0", "SET UNIQUE_CHECKS = 0");
+        }
+
+        @Override
+        List<String> disableTableChecks(String table) {
+            // 只对 MyISAM 的非唯一索引生效，InnoDB 上仅产生一条警告
+            return Collections.singletonList("ALTER TABLE " + table + " DISABLE KEYS");
+        }
+
+        @Override
+        List<String> enableTableChecks(String table) {
+            return Collections.singletonList("ALTER TABLE " + table + " ENABLE KEYS");
+        }
+    },
+
+    POSTGRESQL {
+        @Override
+        List<String> disableSessionChecks(String table) {
+            // 跳过外键等系统触发器，需要超级用户权限
+            return Collections.singletonList("SET session_replication_role = replica");
+        }
+    },
+
+    SQLSERVER {
+        @Override
+        List<String> disableTableChecks(String table) {
+            return Collections.singletonList("ALTER TABLE " + table + " NOCHECK CONSTRAINT ALL");
+        }
+
+        @Override
+        List<String> enableTableChecks(String table) {
+            return Collections.singletonList("ALTER TABLE " + table + " WITH CHECK CHECK CONSTRAINT ALL");
+        }
+    },
+
+    H2 {
+        @Override
+        List<String> disableTableChecks(String table) {
+            return Collections.singletonList("ALTER TABLE " + table + " SET REFERENTIAL_INTEGRITY FALSE");
+        }
+
+        @Override
+        List<String> enableTableChecks(String table) {
+            return Collections.singletonList("ALTER TABLE " + table + " SET REFERENTIAL_INTEGRITY TRUE");
+        }
+    },
+
+    OTHER;
+
+    static JdbcDialect of(String jdbcUrl) {
+        if (jdbcUrl.startsWith("jdbc:mysql:") || jdbcUrl.startsWith("jdbc:mariadb:")) {
+            return MYSQL;
+        } else if (jdbcUrl.startsWith("jdbc:postgresql:")) {
+            return POSTGRESQL;
+        } else if (jdbcUrl.startsWith("jdbc:sqlserver:")) {
+            return SQLSERVER;
+        } else if (jdbcUrl.startsWith("jdbc:h2:")) {
+            return H2;
+        }
+        return OTHER;
+    }
+
+    /**
+     * 在每个装载连接上关闭约束检查的语句
+     */
+    List<String> disableSessionChecks(String table) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * 装载开始前关闭表的约束检查或索引维护的语句
+     */
+    List<String> disableTableChecks(String table) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * 装载结束后恢复表的约束检查或索引维护的语句
+     */
+    List<String> enableTableChecks(String table) {
+        return Collections.emptyList();
+    }
+}
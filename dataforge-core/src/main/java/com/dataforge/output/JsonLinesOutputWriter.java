@@ -0,0 +1,268 @@
+package com.dataforge.output;
+
+import com.dataforge.core.DataGenerator;
+import com.dataforge.core.GenerationContext;
+import com.dataforge.core.columnar.ColumnVector;
+import com.dataforge.core.columnar.ColumnarGenerationEngine;
+import com.dataforge.core.columnar.DoubleColumnVector;
+import com.dataforge.core.columnar.IntColumnVector;
+import com.dataforge.core.columnar.LongColumnVector;
+import com.dataforge.core.columnar.RecordBatch;
+import com.dataforge.core.columnar.StringColumnVector;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JSON Lines (NDJSON) output writer: one compact JSON object per line, no enclosing array,
+ * so consumers can start reading before the run ends and files can be split or concatenated
+ * at any line boundary.
+ * <p>
+ * Records are written through a Jackson {@link JsonGenerator}, one per worker thread, which
+ * encodes straight into the chunk's {@link Utf8Buffer} via Jackson's own recycled byte buffer.
+ * Values keep their JSON types: integral numbers, BigDecimal and BigInteger are written as
+ * numbers, booleans as booleans, Maps as nested objects and collections or arrays as JSON
+ * arrays. Anything else, such as dates or UUIDs, is written as its string form.
+ */
+public class JsonLinesOutputWriter {
+
+    /** 记录之间由换行分隔，不使用 Jackson 默认的空格根值分隔符 */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory().setRootValueSeparator(null);
+
+    private final String filePath;
+    private final List<String> fieldNames;
+    private final Map<String, DataGenerator<?>> generators;
+    private int threadCount = 1;
+    private OutputCompression compression = OutputCompression.NONE;
+    private long startRow;
+
+    public JsonLinesOutputWriter(String filePath, List<String> fieldNames, Map<String, DataGenerator<?>> generators) {
+        this.filePath = filePath;
+        this.fieldNames = new ArrayList<>(fieldNames);
+        this.generators = generators;
+    }
+
+    /**
+     * Sets the number of worker threads used to generate and encode records.
+     * Output is identical to the single-threaded output for a fixed seed.
+     */
+    public JsonLinesOutputWriter withThreads(int threadCount) {
+        this.threadCount = threadCount;
+        return this;
+    }
+
+    /**
+     * Sets the output compression; gzip output is compressed on multiple threads
+     * and a .gzi block index is written next to the file.
+     */
+    public JsonLinesOutputWriter withCompression(OutputCompression compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    /**
+     * Restricts output to the slice of a larger dataset that starts at startRow; the slice
+     * length is context.getCount(). JSON Lines has no header or footer, so slices can always
+     * be concatenated and every slice is a complete file on its own.
+     */
+    public JsonLinesOutputWriter withStartRow(long startRow) {
+        this.startRow = startRow;
+        return this;
+    }
+
+    public void write(GenerationContext context) throws IOException {
+        ColumnarGenerationEngine engine = new ColumnarGenerationEngine(fieldNames, generators);
+        try (JsonLinesEncoder encoder = new JsonLinesEncoder(fieldNames);
+             WritableByteChannel channel = OutputChannels.create(filePath, compression)) {
+            new OrderedChunkPipeline(engine, threadCount)
+                    .withName("ndjson")
+                    .run(context, startRow, context.getCount(), encoder, channel);
+        }
+    }
+
+    /**
+     * Batch encoder; each worker thread lazily gets its own generator bound to a stream
+     * whose target buffer is switched per batch.
+     */
+    static final class JsonLinesEncoder implements ChunkEncoder, AutoCloseable {
+
+        private final SerializableString[] names;
+        private final ThreadLocal<ThreadState> states = new ThreadLocal<>();
+        private final List<ThreadState> allStates = new ArrayList<>();
+
+        JsonLinesEncoder(List<String> fieldNames) {
+            this.names = new SerializableString[fieldNames.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = new SerializedString(fieldNames.get(i));
+            }
+        }
+
+        @Override
+        public void encode(RecordBatch batch, Utf8Buffer out) {
+            ThreadState state = state();
+            state.stream.target = out;
+            JsonGenerator generator = state.generator;
+            try {
+                for (int row = 0; row < batch.size(); row++) {
+                    generator.writeStartObject();
+                    for (int column = 0; column < names.length; column++) {
+                        generator.writeFieldName(names[column]);
+                        writeValue(generator, batch.getColumn(column), row);
+                    }
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                }
+                generator.flush();
+            } catch (IOException e) {
+                // 目标是内存缓冲，只有生成器状态异常时才会出现
+                throw new UncheckedIOException(e);
+            } finally {
+                state.stream.target = null;
+            }
+        }
+
+        private ThreadState state() {
+            ThreadState state = states.get();
+            if (state == null) {
+                state = new ThreadState();
+                states.set(state);
+                synchronized (allStates) {
+                    allStates.add(state);
+                }
+            }
+            return state;
+        }
+
+        private static void writeValue(JsonGenerator generator, ColumnVector column, int row) throws IOException {
+            if (column.isNull(row)) {
+                generator.writeNull();
+                return;
+            }
+            switch (column.getType()) {
+                case INT:
+                    generator.writeNumber(((IntColumnVector) column).get(row));
+                    break;
+                case LONG:
+                    generator.writeNumber(((LongColumnVector) column).get(row));
+                    break;
+                case DOUBLE:
+                    generator.writeNumber(((DoubleColumnVector) column).get(row));
+                    break;
+                case STRING:
+                    StringColumnVector strings = (StringColumnVector) column;
+                    generator.writeString(strings.getChars(), strings.getOffset(row), strings.getLength(row));
+                    break;
+                default:
+                    writeObject(generator, column.getObject(row));
+                    break;
+            }
+        }
+
+        /**
+         * Writes an arbitrary generator value with its natural JSON type.
+         */
+        static void writeObject(JsonGenerator generator, Object value) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof CharSequence) {
+                generator.writeString(value.toString());
+            } else if (value instanceof Integer || value instanceof Long
+                    || value instanceof Short || value instanceof Byte
+                    || value instanceof AtomicInteger || value instanceof AtomicLong) {
+                generator.writeNumber(((Number) value).longValue());
+            } else if (value instanceof Double || value instanceof Float) {
+                generator.writeNumber(((Number) value).doubleValue());
+            } else if (value instanceof BigDecimal) {
+                generator.writeNumber((BigDecimal) value);
+            } else if (value instanceof BigInteger) {
+                generator.writeNumber((BigInteger) value);
+            } else if (value instanceof Boolean) {
+                generator.writeBoolean((Boolean) value);
+            } else if (value instanceof Map) {
+                generator.writeStartObject();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    generator.writeFieldName(String.valueOf(entry.getKey()));
+                    writeObject(generator, entry.getValue());
+                }
+                generator.writeEndObject();
+            } else if (value instanceof Iterable) {
+                generator.writeStartArray();
+                for (Object element : (Iterable<?>) value) {
+                    writeObject(generator, element);
+                }
+                generator.writeEndArray();
+            } else if (value instanceof byte[]) {
+                generator.writeBinary((byte[]) value);
+            } else if (value instanceof Object[]) {
+                generator.writeStartArray();
+                for (Object element : (Object[]) value) {
+                    writeObject(generator, element);
+                }
+                generator.writeEndArray();
+            } else if (value instanceof Optional) {
+                writeObject(generator, ((Optional<?>) value).orElse(null));
+            } else {
+                // 日期时间、UUID、枚举等使用其标准字符串形式
+                generator.writeString(value.toString());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (allStates) {
+                for (ThreadState state : allStates) {
+                    state.generator.close();
+                }
+                allStates.clear();
+            }
+        }
+
+        /**
+         * Per-thread generator and the stream it writes to.
+         */
+        private static final class ThreadState {
+            final BufferStream stream = new BufferStream();
+            final JsonGenerator generator;
+
+            ThreadState() {
+                try {
+                    generator = JSON_FACTORY.createGenerator(stream, JsonEncoding.UTF8);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * OutputStream over the Utf8Buffer of the chunk being encoded.
+     */
+    private static final class BufferStream extends OutputStream {
+        Utf8Buffer target;
+
+        @Override
+        public void write(int b) {
+            target.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            target.put(bytes, offset, length);
+        }
+    }
+}
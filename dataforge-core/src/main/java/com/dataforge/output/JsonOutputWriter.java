@@ -2,20 +2,34 @@ package com.dataforge.output;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.columnar.ColumnVector;
+import com.dataforge.core.columnar.ColumnarGenerationEngine;
+import com.dataforge.core.columnar.DoubleColumnVector;
+import com.dataforge.core.columnar.IntColumnVector;
+import com.dataforge.core.columnar.LongColumnVector;
+import com.dataforge.core.columnar.RecordBatch;
+import com.dataforge.core.columnar.StringColumnVector;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 import java.util.Map;
 
 /**
  * JSON output writer for writing generated data to a JSON file.
+ * Rows are produced column by column by the {@link ColumnarGenerationEngine}, encoded straight to
+ * UTF-8 bytes by an {@link OrderedChunkPipeline} chunk encoder and written to a file channel.
  */
 public class JsonOutputWriter {
     
     private final String filePath;
     private final List<String> fieldNames;
     private final Map<String, DataGenerator<?>> generators;
+    private int threadCount = 1;
+    private OutputCompression compression = OutputCompression.NONE;
+    private long startRow;
+    private long totalRows = -1;
+    private boolean standalone;
     
     public JsonOutputWriter(String filePath, List<String> fieldNames, Map<String, DataGenerator<?>> generators) {
         this.filePath = filePath;
@@ -23,124 +37,218 @@ public class JsonOutputWriter {
         this.generators = generators;
     }
     
+    /**
+     * Sets the number of worker threads used to generate and encode records.
+     * Output is identical to the single-threaded output for a fixed seed.
+     */
+    public JsonOutputWriter withThreads(int threadCount) {
+        this.threadCount = threadCount;
+        return this;
+    }
+    
+    /**
+     * Sets the output compression; gzip output is compressed on multiple threads
+     * and a .gzi block index is written next to the file.
+     */
+    public JsonOutputWriter withCompression(OutputCompression compression) {
+        this.compression = compression;
+        return this;
+    }
+    
+    /**
+     * Restricts output to the slice [startRow, startRow + context.getCount()) of a dataset
+     * with totalRows records. The array brackets are written only by the first and last
+     * slice, so the parts of a sharded run can be concatenated in order into one valid file.
+     */
+    public JsonOutputWriter withRowRange(long startRow, long totalRows) {
+        this.startRow = startRow;
+        this.totalRows = totalRows;
+        return this;
+    }
+    
+    /**
+     * Writes both array brackets regardless of where the slice lies in the dataset, so that
+     * each part of a rolled output is a complete JSON document on its own.
+     */
+    public JsonOutputWriter withStandalone(boolean standalone) {
+        this.standalone = standalone;
+        return this;
+    }
+    
     public void write(GenerationContext context) throws IOException {
-        try (FileWriter writer = new FileWriter(filePath)) {
+        ColumnarGenerationEngine engine = new ColumnarGenerationEngine(fieldNames, generators);
+        long totalRecords = totalRows >= 0 && !standalone ? totalRows : startRow + context.getCount();
+        
+        try (WritableByteChannel channel = OutputChannels.create(filePath, compression)) {
             // Start JSON array
-            writer.write("[\n");
+            if (startRow == 0 || standalone) {
+                OutputChannels.write(channel, "[\n");
+            }
             
-            // Generate data records
-            for (int i = 0; i < context.getCount(); i++) {
-                GenerationContext rowContext = new GenerationContext(1);
-                
+            // Generate data records batch by batch
+            new OrderedChunkPipeline(engine, threadCount)
+                    .withName("json")
+                    .run(context, startRow, context.getCount(), new JsonEncoder(fieldNames, totalRecords), channel);
+            
+            // End JSON array
+            if (startRow + context.getCount() >= totalRecords) {
+                OutputChannels.write(channel, "]\n");
+            }
+        }
+    }
+    
+    /**
+     * Pretty-printed JSON array encoder; the field name prefixes are encoded once up front.
+     */
+    static final class JsonEncoder implements ChunkEncoder {
+        
+        private static final byte[] HEX = "0123456789abcdef".getBytes();
+        
+        private final byte[][] fieldPrefixes;
+        private final long totalRecords;
+        
+        JsonEncoder(List<String> fieldNames, long totalRecords) {
+            this.totalRecords = totalRecords;
+            this.fieldPrefixes = new byte[fieldNames.size()][];
+            for (int i = 0; i < fieldPrefixes.length; i++) {
+                Utf8Buffer prefix = new Utf8Buffer(32);
+                prefix.put(new byte[] {' ', ' ', ' ', ' ', '"'});
+                appendEscaped(prefix, fieldNames.get(i));
+                prefix.put(new byte[] {'"', ':', ' '});
+                fieldPrefixes[i] = prefix.toByteArray();
+            }
+        }
+        
+        @Override
+        public void encode(RecordBatch batch, Utf8Buffer record) {
+            for (int row = 0; row < batch.size(); row++) {
                 // Start JSON object for this record
-                writer.write("  {\n");
+                record.putAscii(' ');
+                record.putAscii(' ');
+                record.putAscii('{');
+                record.putAscii('\n');
                 
                 // Add fields to the JSON object
-                for (int j = 0; j < fieldNames.size(); j++) {
-                    String fieldName = fieldNames.get(j);
-                    DataGenerator<?> generator = generators.get(fieldName);
-                    
-                    // Add field name
-                    writer.write("    \"");
-                    writer.write(escapeJsonString(fieldName));
-                    writer.write("\": ");
-                    
-                    if (generator != null) {
-                        Object value = generator.generate(rowContext);
-                        if (value != null) {
-                            // Add value based on its type
-                            if (value instanceof String) {
-                                writer.write("\"");
-                                writer.write(escapeJsonString((String) value));
-                                writer.write("\"");
-                            } else if (value instanceof Integer || value instanceof Long || 
-                                       value instanceof Double || value instanceof Boolean) {
-                                writer.write(value.toString());
-                            } else {
-                                // Default to string representation
-                                writer.write("\"");
-                                writer.write(escapeJsonString(value.toString()));
-                                writer.write("\"");
-                            }
-                        } else {
-                            writer.write("null");
-                        }
-                    } else {
-                        writer.write("null");
-                    }
+                for (int column = 0; column < batch.getColumnCount(); column++) {
+                    record.put(fieldPrefixes[column]);
+                    appendValue(record, batch.getColumn(column), row);
                     
                     // Add comma if not the last field
-                    if (j < fieldNames.size() - 1) {
-                        writer.write(",");
+                    if (column < batch.getColumnCount() - 1) {
+                        record.putAscii(',');
                     }
                     
-                    writer.write("\n");
+                    record.putAscii('\n');
                 }
                 
                 // End JSON object for this record
-                writer.write("  }");
+                record.putAscii(' ');
+                record.putAscii(' ');
+                record.putAscii('}');
                 
                 // Add comma if not the last record
-                if (i < context.getCount() - 1) {
-                    writer.write(",");
+                if (batch.getStartRow() + row < totalRecords - 1) {
+                    record.putAscii(',');
                 }
                 
-                writer.write("\n");
+                record.putAscii('\n');
             }
-            
-            // End JSON array
-            writer.write("]\n");
-        }
-    }
-    
-    /**
-     * Escapes special characters in a string for JSON output.
-     */
-    private String escapeJsonString(String str) {
-        if (str == null) {
-            return null;
         }
         
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < str.length(); i++) {
-            char c = str.charAt(i);
-            switch (c) {
-                case '"':
-                    sb.append("\\\"");
-                    break;
-                case '\\':
-                    sb.append("\\\\");
-                    break;
-                case '\b':
-                    sb.append("\\b");
-                    break;
-                case '\f':
-                    sb.append("\\f");
+        /**
+         * Appends a single column value based on the column type.
+         */
+        static void appendValue(Utf8Buffer record, ColumnVector column, int row) {
+            if (column.isNull(row)) {
+                record.putUtf8("null");
+                return;
+            }
+            
+            switch (column.getType()) {
+                case INT:
+                    record.putLong(((IntColumnVector) column).get(row));
                     break;
-                case '\n':
-                    sb.append("\\n");
+                case LONG:
+                    record.putLong(((LongColumnVector) column).get(row));
                     break;
-                case '\r':
-                    sb.append("\\r");
+                case DOUBLE:
+                    record.putDouble(((DoubleColumnVector) column).get(row));
                     break;
-                case '\t':
-                    sb.append("\\t");
+                case STRING:
+                    StringColumnVector strings = (StringColumnVector) column;
+                    record.putAscii('"');
+                    appendEscaped(record, strings.getChars(), strings.getOffset(row), strings.getLength(row));
+                    record.putAscii('"');
                     break;
                 default:
-                    if (c < ' ') {
-                        // Escape control characters
-                        String hex = Integer.toHexString(c);
-                        sb.append("\\u");
-                        for (int j = 0; j < 4 - hex.length(); j++) {
-                            sb.append('0');
-                        }
-                        sb.append(hex);
+                    Object value = column.getObject(row);
+                    if (value instanceof Integer || value instanceof Long || 
+                        value instanceof Double || value instanceof Boolean) {
+                        record.putUtf8(value.toString());
                     } else {
-                        sb.append(c);
+                        // Default to string representation
+                        record.putAscii('"');
+                        appendEscaped(record, value.toString());
+                        record.putAscii('"');
                     }
                     break;
             }
         }
-        return sb.toString();
+        
+        /**
+         * Escapes special characters in a string for JSON output.
+         */
+        static void appendEscaped(Utf8Buffer out, String str) {
+            char[] chars = str.toCharArray();
+            appendEscaped(out, chars, 0, chars.length);
+        }
+        
+        /**
+         * Escapes special characters in a packed character range for JSON output.
+         * Runs of characters that need no escaping are encoded in one call.
+         */
+        static void appendEscaped(Utf8Buffer out, char[] chars, int offset, int length) {
+            int end = offset + length;
+            int runStart = offset;
+            for (int i = offset; i < end; i++) {
+                char c = chars[i];
+                if (c >= ' ' && c != '"' && c != '\\') {
+                    continue;
+                }
+                out.putUtf8(chars, runStart, i - runStart);
+                runStart = i + 1;
+                out.putAscii('\\');
+                switch (c) {
+                    case '"':
+                    case '\\':
+                        out.putAscii(c);
+                        break;
+                    case '\b':
+                        out.putAscii('b');
+                        break;
+                    case '\f':
+                        out.putAscii('f');
+                        break;
+                    case '\n':
+                        out.putAscii('n');
+                        break;
+                    case '\r':
+                        out.putAscii('r');
+                        break;
+                    case '\t':
+                        out.putAscii('t');
+                        break;
+                    default:
+                        // Escape control characters
+                        out.putAscii('u');
+                        out.putAscii('0');
+                        out.putAscii('0');
+                        out.put(HEX[c >> 4]);
+                        out.put(HEX[c & 0xF]);
+                        break;
+                }
+            }
+            out.putUtf8(chars, runStart, end - runStart);
+        }
     }
 }
\ No newline at end of file
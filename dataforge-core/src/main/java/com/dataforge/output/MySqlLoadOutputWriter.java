@@ -0,0 +1,150 @@
+package com.dataforge.output;
+
+import com.dataforge.core.DataGenerator;
+import com.dataforge.core.GenerationContext;
+import com.dataforge.core.columnar.ColumnarGenerationEngine;
+import com.dataforge.core.columnar.RecordBatch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * MySQL LOAD DATA output writer.
+ * Writes a data file in the LOAD DATA default text layout: tab separated fields, one record per
+ * line, NULL as \N and backslash escapes for backslash, tab, newline, carriage return and NUL.
+ * Booleans are written as 1/0. The file has no header, so slices of a sharded run can be
+ * concatenated and every rolled part is a complete file.
+ * <p>
+ * {@link #writeControlFile} writes the matching LOAD DATA LOCAL INFILE statements, which are
+ * typically an order of magnitude faster to load than multi-row INSERT scripts.
+ */
+public class MySqlLoadOutputWriter {
+
+    private static final String CONTROL_SUFFIX = ".load.sql";
+
+    private final String filePath;
+    private final List<String> fieldNames;
+    private final Map<String, DataGenerator<?>> generators;
+    private int threadCount = 1;
+    private OutputCompression compression = OutputCompression.NONE;
+    private long startRow;
+
+    public MySqlLoadOutputWriter(String filePath, List<String> fieldNames, Map<String, DataGenerator<?>> generators) {
+        this.filePath = filePath;
+        this.fieldNames = new ArrayList<>(fieldNames);
+        this.generators = generators;
+    }
+
+    /**
+     * Sets the number of worker threads used to generate and encode rows.
+     * Output is identical to the single-threaded output for a fixed seed.
+     */
+    public MySqlLoadOutputWriter withThreads(int threadCount) {
+        this.threadCount = threadCount;
+        return this;
+    }
+
+    /**
+     * Sets the output compression; gzip output is compressed on multiple threads
+     * and a .gzi block index is written next to the file.
+     */
+    public MySqlLoadOutputWriter withCompression(OutputCompression compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    /**
+     * Restricts output to the slice of a larger dataset that starts at startRow; the slice
+     * length is context.getCount().
+     */
+    public MySqlLoadOutputWriter withStartRow(long startRow) {
+        this.startRow = startRow;
+        return this;
+    }
+
+    public void write(GenerationContext context) throws IOException {
+        ColumnarGenerationEngine engine = new ColumnarGenerationEngine(fieldNames, generators);
+        try (WritableByteChannel channel = OutputChannels.create(filePath, compression)) {
+            new OrderedChunkPipeline(engine, threadCount)
+                    .withName("mysql-load")
+                    .run(context, startRow, context.getCount(), MySqlLoadOutputWriter::encodeBatch, channel);
+        }
+    }
+
+    private static void encodeBatch(RecordBatch batch, Utf8Buffer out) {
+        int columns = batch.getColumnCount();
+        for (int row = 0; row < batch.size(); row++) {
+            for (int column = 0; column < columns; column++) {
+                if (column > 0) {
+                    out.putAscii('\t');
+                }
+                BulkLoadText.putValue(out, batch.getColumn(column), row, true);
+            }
+            out.putAscii('\n');
+        }
+    }
+
+    /**
+     * Builds the LOAD DATA statement that loads one data file into the table.
+     * The file path is made absolute because LOCAL INFILE resolves it against the client's working directory.
+     */
+    public static String loadStatement(String tableName, List<String> fieldNames, String dataPath) {
+        String columns = fieldNames.stream()
+                .map(MySqlLoadOutputWriter::quoteIdentifier)
+                .collect(Collectors.joining(", "));
+        StringBuilder statement = new StringBuilder();
+        if (dataPath.toLowerCase().endsWith(".gz")) {
+            statement.append("-- LOAD DATA cannot read gzip input; decompress first: gzip -dk ")
+                    .append(new File(dataPath).getAbsolutePath()).append('\n');
+            dataPath = dataPath.substring(0, dataPath.length() - 3);
+        }
+        String path = new File(dataPath).getAbsolutePath().replace("\\", "\\\\").replace("'", "\\'");
+        statement.append("LOAD DATA LOCAL INFILE '").append(path).append("'\n")
+                .append("INTO TABLE ").append(quoteIdentifier(tableName)).append('\n')
+                .append("CHARACTER SET utf8mb4\n")
+                .append("FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\'\n")
+                .append("LINES TERMINATED BY '\\n'\n")
+                .append('(').append(columns).append(");\n");
+        return statement.toString();
+    }
+
+    /**
+     * Writes the LOAD DATA statements for the given data files next to basePath
+     * (users.tsv → users.load.sql) and returns the path of the control file.
+     */
+    public static String writeControlFile(String basePath, String tableName, List<String> fieldNames,
+                                          List<String> dataPaths) throws IOException {
+        StringBuilder control = new StringBuilder();
+        control.append("-- DataForge generated LOAD DATA statements\n");
+        control.append("-- Run with: mysql --local-infile=1 <database> < ")
+                .append(new File(controlPath(basePath)).getName()).append("\n\n");
+        control.append("SET FOREIGN_KEY_CHECKS = 0;\n");
+        control.append("SET UNIQUE_CHECKS = 0;\n\n");
+        for (String dataPath : dataPaths) {
+            control.append(loadStatement(tableName, fieldNames, dataPath)).append('\n');
+        }
+        control.append("SET UNIQUE_CHECKS = 1;\n");
+        control.append("SET FOREIGN_KEY_CHECKS = 1;\n");
+        String controlPath = controlPath(basePath);
+        try (WritableByteChannel channel = OutputChannels.create(controlPath)) {
+            OutputChannels.write(channel, control);
+        }
+        return controlPath;
+    }
+
+    /**
+     * Control file path: the data path without its extension plus .load.sql
+     */
+    public static String controlPath(String basePath) {
+        return OutputChannels.splitExtension(basePath)[0] + CONTROL_SUFFIX;
+    }
+
+    private static String quoteIdentifier(String identifier) {
+        return "`" + identifier.replace("`", "``") + "`";
+    }
+}
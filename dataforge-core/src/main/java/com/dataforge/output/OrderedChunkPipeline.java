@@ -0,0 +1,421 @@
+package com.dataforge.output;
+
+import com.dataforge.core.GenerationContext;
+import com.dataforge.core.columnar.ColumnarGenerationEngine;
+import com.dataforge.core.columnar.RecordBatch;
+import com.dataforge.jfr.ChunkEncodeEvent;
+import com.dataforge.jfr.ChunkFlushEvent;
+import com.dataforge.jfr.GenerationChunkEvent;
+import com.dataforge.metrics.RunMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 分区、保序的生成与编码流水线
+ * 把行区间切分为固定大小的分片，由工作线程生成并用 {@link ChunkEncoder} 编码为 UTF-8 字节，
+ * 再复制到池化的堆外缓冲中；调用线程作为唯一的写线程，按分片序号把缓冲聚集写入通道后归还缓冲池。
+ * 编码与写出因此互不阻塞。在途分片数同时受线程数和堆外字节预算限制：
+ * 写线程按已写出分片中最大的字节数估算每个分片占用的堆外缓冲，超出预算时先写出最早的分片再提交新分片，
+ * 因此行很宽时在途分片自动减少，堆外内存不会随分片大小无限增长。
+ * <p>
+ * 引擎按 (种子, 列, 行号) 定位随机流，因此对固定种子和无状态生成器，
+ * 任意线程数下的输出与单线程逐字节一致，也可以只生成中间的某个行区间。
+ * 依赖生成顺序的列 (见 {@link com.dataforge.core.DataGenerator#isOrderDependent}) 由各分片按分片序号依次生成，
+ * 其余列与编码仍然并行，因此这类列在任意线程数下同样与单线程一致。
+ * 每个批次的生成与编码、每次写出都发出 JFR 事件，事件中的写出器名称由 {@link #withName} 指定；
+ * 写出的行数与字节数同时按该名称计入 {@link RunMetrics}，编码与写出耗时计入相应阶段，
+ * 并行运行期间在途分片数登记为同名队列的深度
+ */
+public class OrderedChunkPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderedChunkPipeline.class);
+
+    /** 每个分片包含的引擎批次数 */
+    private static final int BATCHES_PER_CHUNK = 16;
+
+    /** 每个工作线程允许同时在途的分片数，用于限制内存占用 */
+    private static final int IN_FLIGHT_CHUNKS_PER_THREAD = 2;
+
+    /** 顺序写出时，缓冲累积到该大小后写入通道；也是堆外缓冲的大小 */
+    private static final int FLUSH_BYTES = 1 << 20;
+
+    /**
+     * 默认的在途堆外字节预算：最大堆的 1/4。未设置 -XX:MaxDirectMemorySize 时堆外内存上限与最大堆相同
+     */
+    private static final long DEFAULT_MAX_IN_FLIGHT_BYTES =
+            Math.max(4L * FLUSH_BYTES, Runtime.getRuntime().maxMemory() / 4);
+
+    private final ColumnarGenerationEngine engine;
+    private final int threadCount;
+    private final DirectBufferPool bufferPool;
+    private String name = "pipeline";
+    private long maxInFlightBytes = DEFAULT_MAX_IN_FLIGHT_BYTES;
+
+    public OrderedChunkPipeline(ColumnarGenerationEngine engine, int threadCount) {
+        this.engine = engine;
+        this.threadCount = Math.max(1, threadCount);
+        this.bufferPool = new DirectBufferPool(FLUSH_BYTES, this.threadCount * IN_FLIGHT_CHUNKS_PER_THREAD * 4);
+    }
+
+    /**
+     * 设置写出器名称 (例如输出格式)，用于 JFR 事件与运行指标
+     */
+    public OrderedChunkPipeline withName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * 设置并行运行时已编码未写出的分片最多占用的堆外字节数。
+     * 至少保留一个在途分片；首个分片写出前尚无估算，在途分片数以线程数为限
+     */
+    public OrderedChunkPipeline withMaxInFlightBytes(long maxInFlightBytes) {
+        if (maxInFlightBytes <= 0) {
+            throw new IllegalArgumentException("In-flight byte budget must be positive: " + maxInFlightBytes);
+        }
+        this.maxInFlightBytes = maxInFlightBytes;
+        return this;
+    }
+
+    /**
+     * 生成 context.getCount() 行数据，编码后按行序写入 out
+     */
+    public void run(GenerationContext context, ChunkEncoder encoder, WritableByteChannel out) throws IOException {
+        run(context, 0, context.getCount(), encoder, out);
+    }
+
+    /**
+     * 生成 [startRow, startRow + rowCount) 范围内的数据，编码后按行序写入 out
+     */
+    public void run(GenerationContext context, long startRow, long rowCount, ChunkEncoder encoder,
+                    WritableByteChannel out) throws IOException {
+        if (threadCount == 1) {
+            runSequential(context, startRow, rowCount, encoder, out);
+        } else {
+            runParallel(context, startRow, rowCount, encoder, out);
+        }
+    }
+
+    private void runSequential(GenerationContext context, long startRow, long rowCount, ChunkEncoder encoder,
+                               WritableByteChannel out) throws IOException {
+        Utf8Buffer buffer = new Utf8Buffer(FLUSH_BYTES + (FLUSH_BYTES >> 2));
+        RecordBatch batch = engine.createBatch();
+        long endRow = startRow + rowCount;
+        long flushStart = startRow;
+        for (long row = startRow; row < endRow; row += batch.getCapacity()) {
+            fillAndEncode(batch, row, (int) Math.min(batch.getCapacity(), endRow - row), context, encoder, buffer);
+            if (buffer.size() >= FLUSH_BYTES) {
+                flush(buffer, flushStart, row + batch.size() - flushStart, out);
+                buffer.clear();
+                flushStart = row + batch.size();
+            }
+        }
+        flush(buffer, flushStart, endRow - flushStart, out);
+    }
+
+    /**
+     * 生成一个批次并编码追加到 buffer
+     */
+    private void fillAndEncode(RecordBatch batch, long row, int rows, GenerationContext context, ChunkEncoder encoder,
+                               Utf8Buffer buffer) {
+        GenerationChunkEvent generation = new GenerationChunkEvent();
+        generation.begin();
+        engine.fill(batch, row, rows, context);
+        commitGeneration(generation, row, rows);
+        encode(batch, encoder, buffer);
+    }
+
+    private void commitGeneration(GenerationChunkEvent generation, long row, int rows) {
+        generation.end();
+        if (generation.shouldCommit()) {
+            generation.generator = name;
+            generation.startRow = row;
+            generation.rowCount = rows;
+            generation.commit();
+        }
+    }
+
+    /**
+     * 把已填充的批次编码追加到 buffer
+     */
+    private void encode(RecordBatch batch, ChunkEncoder encoder, Utf8Buffer buffer) {
+        long row = batch.getStartRow();
+        int rows = batch.size();
+        ChunkEncodeEvent encode = new ChunkEncodeEvent();
+        encode.begin();
+        int before = buffer.size();
+        long started = System.nanoTime();
+        encoder.encode(batch, buffer);
+        RunMetrics.getInstance().recordPhase(RunMetrics.Phase.ENCODE, System.nanoTime() - started);
+        encode.end();
+        if (encode.shouldCommit()) {
+            encode.writer = name;
+            encode.startRow = row;
+            encode.rowCount = rows;
+            encode.bytes = buffer.size() - before;
+            encode.commit();
+        }
+    }
+
+    private void flush(Utf8Buffer buffer, long flushStart, long rows, WritableByteChannel out) throws IOException {
+        ChunkFlushEvent event = new ChunkFlushEvent();
+        event.begin();
+        long started = System.nanoTime();
+        buffer.writeTo(out);
+        event.end();
+        recordWrite(rows, buffer.size(), System.nanoTime() - started);
+        if (event.shouldCommit()) {
+            event.writer = name;
+            event.startRow = flushStart;
+            event.rowCount = rows;
+            event.bytes = buffer.size();
+            event.commit();
+        }
+    }
+
+    private void runParallel(GenerationContext context, long startRow, long rowCount, ChunkEncoder encoder,
+                             WritableByteChannel out) throws IOException {
+        long chunkRows = (long) engine.getBatchSize() * BATCHES_PER_CHUNK;
+        int maxInFlight = threadCount * IN_FLIGHT_CHUNKS_PER_THREAD;
+
+        long endRow = startRow + rowCount;
+
+        logger.info("Starting parallel generation: rows=[{}, {}), chunkRows={}, threads={}", startRow, endRow, chunkRows, threadCount);
+
+        // 每个工作线程复用一个堆内编码缓冲，编码完成后整体复制到堆外缓冲
+        ThreadLocal<Utf8Buffer> stagingBuffers = ThreadLocal.withInitial(() -> new Utf8Buffer(FLUSH_BYTES));
+        // 有依赖生成顺序的列时，各分片先按分片序号依次生成这些列，工作线程为此复用一整个分片的批次
+        Turnstile turnstile = engine.hasOrderDependentColumns(context) ? new Turnstile() : null;
+        ThreadLocal<RecordBatch[]> chunkBatches = ThreadLocal.withInitial(() -> new RecordBatch[BATCHES_PER_CHUNK]);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, new WorkerThreadFactory());
+        Deque<Future<ByteBuffer[]>> inFlight = new ArrayDeque<>();
+        AtomicInteger inFlightCount = new AtomicInteger();
+        try (RunMetrics.Registration queue = RunMetrics.getInstance().registerQueue(name, inFlightCount::get)) {
+            long written = startRow;
+            long chunk = 0;
+            long largestChunkBytes = 0;
+            for (long start = startRow; start < endRow; start += chunkRows, chunk++) {
+                while (inFlight.size() >= allowedInFlight(maxInFlight, largestChunkBytes)) {
+                    long rows = Math.min(chunkRows, endRow - written);
+                    largestChunkBytes = Math.max(largestChunkBytes, write(await(inFlight.poll()), written, rows, out));
+                    inFlightCount.decrementAndGet();
+                    written += rows;
+                }
+                long chunkStart = start;
+                long rows = Math.min(chunkRows, endRow - start);
+                if (turnstile == null) {
+                    inFlight.add(executor.submit(() -> encodeChunk(context, chunkStart, rows, encoder,
+                            stagingBuffers.get())));
+                } else {
+                    long ticket = chunk;
+                    inFlight.add(executor.submit(() -> encodeOrderedChunk(context, ticket, chunkStart, rows, encoder,
+                            stagingBuffers.get(), chunkBatches.get(), turnstile)));
+                }
+                inFlightCount.incrementAndGet();
+            }
+            while (!inFlight.isEmpty()) {
+                long rows = Math.min(chunkRows, endRow - written);
+                write(await(inFlight.poll()), written, rows, out);
+                inFlightCount.decrementAndGet();
+                written += rows;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 允许同时在途的分片数：尚未写出过分片时以线程数为限，之后按最大分片字节数折算堆外字节预算
+     */
+    private int allowedInFlight(int maxInFlight, long largestChunkBytes) {
+        if (largestChunkBytes == 0) {
+            return threadCount;
+        }
+        return (int) Math.max(1, Math.min(maxInFlight, maxInFlightBytes / largestChunkBytes));
+    }
+
+    private ByteBuffer[] encodeChunk(GenerationContext context, long chunkStart, long rows, ChunkEncoder encoder,
+                                     Utf8Buffer staging) {
+        RecordBatch batch = engine.createBatch();
+        staging.clear();
+        long end = chunkStart + rows;
+        for (long row = chunkStart; row < end; row += batch.getCapacity()) {
+            fillAndEncode(batch, row, (int) Math.min(batch.getCapacity(), end - row), context, encoder, staging);
+        }
+        return toDirectSegments(staging);
+    }
+
+    /**
+     * 编码一个含依赖生成顺序列的分片：轮到本分片时依次生成各批次中依赖顺序的列，
+     * 放行下一个分片后再并行填充其余的列并编码
+     */
+    private ByteBuffer[] encodeOrderedChunk(GenerationContext context, long ticket, long chunkStart, long rows,
+                                            ChunkEncoder encoder, Utf8Buffer staging, RecordBatch[] batches,
+                                            Turnstile turnstile) throws InterruptedException {
+        int capacity = engine.getBatchSize();
+        int batchCount = (int) ((rows + capacity - 1) / capacity);
+        turnstile.await(ticket);
+        try {
+            for (int i = 0; i < batchCount; i++) {
+                if (batches[i] == null) {
+                    batches[i] = engine.createBatch();
+                }
+                long row = chunkStart + (long) i * capacity;
+                GenerationChunkEvent generation = new GenerationChunkEvent();
+                generation.begin();
+                engine.fillOrderDependent(batches[i], row, (int) Math.min(capacity, chunkStart + rows - row), context);
+                commitGeneration(generation, row, batches[i].size());
+            }
+        } finally {
+            turnstile.advance();
+        }
+
+        staging.clear();
+        for (int i = 0; i < batchCount; i++) {
+            GenerationChunkEvent generation = new GenerationChunkEvent();
+            generation.begin();
+            engine.fillRemaining(batches[i], context);
+            commitGeneration(generation, batches[i].getStartRow(), batches[i].size());
+            encode(batches[i], encoder, staging);
+        }
+        return toDirectSegments(staging);
+    }
+
+    /**
+     * 把编码结果复制到若干个池化的堆外缓冲中，每个缓冲已 flip 为可读状态
+     */
+    private ByteBuffer[] toDirectSegments(Utf8Buffer staging) {
+        ByteBuffer source = staging.asByteBuffer();
+        int segmentSize = bufferPool.getBufferSize();
+        ByteBuffer[] segments = new ByteBuffer[(source.remaining() + segmentSize - 1) / segmentSize];
+        for (int i = 0; i < segments.length; i++) {
+            ByteBuffer segment = bufferPool.acquire();
+            ByteBuffer part = source.duplicate();
+            part.limit(part.position() + Math.min(segmentSize, source.remaining()));
+            segment.put(part);
+            source.position(part.position());
+            segment.flip();
+            segments[i] = segment;
+        }
+        return segments;
+    }
+
+    /**
+     * 聚集写出一个分片的全部缓冲并归还缓冲池，返回写出的字节数
+     */
+    private long write(ByteBuffer[] segments, long chunkStart, long rows, WritableByteChannel out) throws IOException {
+        ChunkFlushEvent event = new ChunkFlushEvent();
+        event.begin();
+        long bytes = 0;
+        for (ByteBuffer segment : segments) {
+            bytes += segment.remaining();
+        }
+        long started = System.nanoTime();
+        try {
+            if (out instanceof GatheringByteChannel) {
+                long remaining = bytes;
+                while (remaining > 0) {
+                    remaining -= ((GatheringByteChannel) out).write(segments);
+                }
+            } else {
+                for (ByteBuffer segment : segments) {
+                    while (segment.hasRemaining()) {
+                        out.write(segment);
+                    }
+                }
+            }
+        } finally {
+            for (ByteBuffer segment : segments) {
+                bufferPool.release(segment);
+            }
+        }
+        event.end();
+        recordWrite(rows, bytes, System.nanoTime() - started);
+        if (event.shouldCommit()) {
+            event.writer = name;
+            event.startRow = chunkStart;
+            event.rowCount = rows;
+            event.bytes = bytes;
+            event.commit();
+        }
+        return bytes;
+    }
+
+    private void recordWrite(long rows, long bytes, long elapsedNanos) {
+        RunMetrics metrics = RunMetrics.getInstance();
+        metrics.recordWrite(name, rows, bytes);
+        metrics.recordPhase(RunMetrics.Phase.WRITE, elapsedNanos);
+    }
+
+    private static ByteBuffer[] await(Future<ByteBuffer[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Parallel generation interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Parallel generation failed", cause);
+        }
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * 流水线使用的堆外缓冲池，可用于观察缓冲分配情况
+     */
+    public DirectBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * 按分片序号依次放行：序号为 n 的分片等到前 n 个分片都放行后才能进入。
+     * 分片按序号提交到先进先出的线程池，等待中的分片之前的分片都已由其他线程执行，因此不会死锁
+     */
+    private static final class Turnstile {
+        private long next;
+
+        synchronized void await(long ticket) throws InterruptedException {
+            while (next != ticket) {
+                wait();
+            }
+        }
+
+        synchronized void advance() {
+            next++;
+            notifyAll();
+        }
+    }
+
+    /**
+     * 工作线程工厂，使用守护线程避免阻止 JVM 退出
+     */
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "dataforge-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
\ No newline at end of file
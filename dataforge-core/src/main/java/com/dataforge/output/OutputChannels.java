@@ -0,0 +1,110 @@
+package com.dataforge.output;
+
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 文件输出通道的打开与小段文本写出
+ */
+final class OutputChannels {
+
+    /** 表示标准输出的输出路径 */
+    static final String STDOUT = "-";
+
+    private OutputChannels() {
+    }
+
+    static boolean isStdout(String filePath) {
+        return STDOUT.equals(filePath);
+    }
+
+    /**
+     * 创建或截断文件并打开写通道
+     */
+    static FileChannel create(String filePath) throws IOException {
+        return FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * 创建或截断文件并打开写通道，按压缩设置包装；路径为 "-" 时写到标准输出 (gzip 时不写块索引)
+     */
+    static WritableByteChannel create(String filePath, OutputCompression compression) throws IOException {
+        if (isStdout(filePath)) {
+            System.out.flush();
+            return compression.wrap(new NonClosingChannel(new FileOutputStream(FileDescriptor.out).getChannel()), null);
+        }
+        Path path = Paths.get(filePath);
+        return compression.wrap(create(filePath), path);
+    }
+
+    /**
+     * 把文本编码为 UTF-8 后写入通道，用于文件头、文件尾等非热点内容
+     */
+    static void write(WritableByteChannel channel, CharSequence text) throws IOException {
+        Utf8Buffer buffer = new Utf8Buffer(text.length() * 3);
+        buffer.putUtf8(text);
+        buffer.writeTo(channel);
+    }
+
+    /**
+     * 把路径拆分为 {主干, 扩展名}，压缩后缀 .gz 视为扩展名的一部分。
+     * 例如 out/users.csv.gz → {out/users, .csv.gz}
+     */
+    static String[] splitExtension(String path) {
+        int nameStart = Math.max(path.lastIndexOf('/'), path.lastIndexOf(File.separatorChar)) + 1;
+        String suffix = "";
+        String stem = path;
+        if (stem.toLowerCase().endsWith(".gz") && stem.length() - 3 > nameStart) {
+            suffix = stem.substring(stem.length() - 3);
+            stem = stem.substring(0, stem.length() - 3);
+        }
+        int dot = stem.lastIndexOf('.');
+        if (dot > nameStart) {
+            suffix = stem.substring(dot) + suffix;
+            stem = stem.substring(0, dot);
+        }
+        return new String[] {stem, suffix};
+    }
+
+    /**
+     * 直接写文件描述符的通道，绕过 System.out 的同步与逐行刷新；
+     * 关闭时只关闭本通道而不关闭底层描述符，进程中后续的标准输出不受影响
+     */
+    static final class NonClosingChannel implements WritableByteChannel {
+
+        private final WritableByteChannel target;
+        private boolean open = true;
+
+        NonClosingChannel(WritableByteChannel target) {
+            this.target = target;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (!open) {
+                throw new ClosedChannelException();
+            }
+            return target.write(src);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
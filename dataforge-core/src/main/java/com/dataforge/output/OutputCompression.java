@@ -0,0 +1,99 @@
+package com.dataforge.output;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * 文件输出的压缩设置
+ * 目前支持不压缩和多线程 gzip ({@link ParallelGzipChannel})，各文件输出器通过 withCompression 使用
+ */
+public final class OutputCompression {
+
+    /** 不压缩 */
+    public static final OutputCompression NONE = new OutputCompression(false, 0, 1, 0);
+
+    /** 默认 gzip 压缩级别，与 gzip 命令行一致 */
+    public static final int DEFAULT_LEVEL = 6;
+
+    private final boolean gzip;
+    private final int level;
+    private final int threads;
+    private final int blockSize;
+
+    private OutputCompression(boolean gzip, int level, int threads, int blockSize) {
+        this.gzip = gzip;
+        this.level = level;
+        this.threads = threads;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * 多成员 gzip 压缩
+     *
+     * @param level 压缩级别 0-9
+     * @param threads 压缩线程数，&lt;= 0 时使用全部CPU核心
+     */
+    public static OutputCompression gzip(int level, int threads) {
+        return gzip(level, threads, ParallelGzipChannel.DEFAULT_BLOCK_SIZE);
+    }
+
+    public static OutputCompression gzip(int level, int threads, int blockSize) {
+        if (level < 0 || level > 9) {
+            throw new IllegalArgumentException("Compression level must be between 0 and 9: " + level);
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        int threadCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new OutputCompression(true, level, threadCount, blockSize);
+    }
+
+    /**
+     * 按名称解析压缩方式：none 或 gzip
+     */
+    public static OutputCompression parse(String name, int level, int threads) {
+        switch (name == null ? "none" : name.toLowerCase(Locale.ROOT)) {
+            case "none":
+                return NONE;
+            case "gzip":
+            case "gz":
+                return gzip(level, threads);
+            default:
+                throw new IllegalArgumentException("Unsupported compression: " + name);
+        }
+    }
+
+    /**
+     * 用压缩通道包装文件通道；gzip 时在文件旁写出 .gzi 块索引，file 为 null (例如标准输出) 时不写索引
+     */
+    WritableByteChannel wrap(WritableByteChannel channel, Path file) {
+        if (!gzip) {
+            return channel;
+        }
+        return new ParallelGzipChannel(channel, level, threads, blockSize,
+                file != null ? GzipBlockIndex.indexPathFor(file) : null);
+    }
+
+    public boolean isEnabled() {
+        return gzip;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    @Override
+    public String toString() {
+        return gzip ? "gzip(level=" + level + ", threads=" + threads + ")" : "none";
+    }
+}
@@ -0,0 +1,295 @@
+package com.dataforge.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 多线程 gzip 压缩通道 (类似 pigz)
+ * 写入的数据按固定大小切块，每块由工作线程用 {@link Deflater} 独立压缩为一个完整的 gzip 成员
+ * (头部 + deflate 数据 + CRC32/ISIZE 尾部)，再由调用线程按块序写入目标通道。
+ * 多个 gzip 成员首尾相接仍是合法的 gzip 流 (RFC 1952)，gzip/zcat 和 {@link java.util.zip.GZIPInputStream}
+ * 都能直接解压；每个成员的起始位置记录在 {@link GzipBlockIndex} 中，可在关闭时写出为 .gzi 索引。
+ * <p>
+ * 块缓冲和 Deflater 随块对象复用，在途块数受线程数限制；本类不是线程安全的，只能由一个线程写入
+ */
+public class ParallelGzipChannel implements WritableByteChannel {
+
+    /** 默认块大小；块越大压缩率越接近单流 gzip，可随机访问的粒度也越粗 */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    /** 每个压缩线程允许同时在途的块数 */
+    private static final int IN_FLIGHT_BLOCKS_PER_THREAD = 2;
+
+    private static final byte OS_UNKNOWN = (byte) 255;
+
+    private final WritableByteChannel target;
+    private final int level;
+    private final int blockSize;
+    private final Path indexFile;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final Deque<Future<Block>> inFlight = new ArrayDeque<>();
+    private final Deque<Block> freeBlocks = new ArrayDeque<>();
+    private final List<Block> allBlocks = new ArrayList<>();
+    private final GzipBlockIndex blockIndex = new GzipBlockIndex();
+
+    private Block current;
+    private long uncompressedBytes;
+    private long compressedBytes;
+    private boolean open = true;
+
+    /**
+     * @param target 写入压缩数据的目标通道，关闭本通道时一并关闭
+     * @param level 压缩级别 0-9 (参见 {@link Deflater})
+     * @param threads 压缩线程数；为 1 时在调用线程上直接压缩
+     */
+    public ParallelGzipChannel(WritableByteChannel target, int level, int threads) {
+        this(target, level, threads, DEFAULT_BLOCK_SIZE, null);
+    }
+
+    /**
+     * @param blockSize 每个 gzip 成员包含的未压缩字节数
+     * @param indexFile 关闭时写出块索引的路径，为 null 时不写
+     */
+    public ParallelGzipChannel(WritableByteChannel target, int level, int threads, int blockSize, Path indexFile) {
+        if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between 0 and 9: " + level);
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.target = target;
+        this.level = level;
+        this.blockSize = blockSize;
+        this.indexFile = indexFile;
+        int threadCount = Math.max(1, threads);
+        this.executor = threadCount > 1
+                ? Executors.newFixedThreadPool(threadCount, new CompressorThreadFactory())
+                : null;
+        this.maxInFlight = threadCount * IN_FLIGHT_BLOCKS_PER_THREAD;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+        int written = src.remaining();
+        while (src.hasRemaining()) {
+            if (current == null) {
+                current = acquireBlock();
+            }
+            int length = Math.min(src.remaining(), blockSize - current.length);
+            src.get(current.input, current.length, length);
+            current.length += length;
+            uncompressedBytes += length;
+            if (current.length == blockSize) {
+                submitCurrent();
+            }
+        }
+        return written;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * 压缩剩余数据、按序写出全部成员并关闭目标通道；指定了索引路径时写出块索引。
+     * 没有写入任何数据时也会写出一个空成员，保证结果是合法的 gzip 文件
+     */
+    @Override
+    public void close() throws IOException {
+        if (!open) {
+            return;
+        }
+        open = false;
+        try (WritableByteChannel out = target) {
+            if (current != null || blockIndex.size() == 0 && inFlight.isEmpty()) {
+                if (current == null) {
+                    current = acquireBlock();
+                }
+                submitCurrent();
+            }
+            while (!inFlight.isEmpty()) {
+                writeMember(await(inFlight.poll()));
+            }
+            if (indexFile != null) {
+                blockIndex.writeTo(indexFile);
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            for (Block block : allBlocks) {
+                block.deflater.end();
+            }
+        }
+    }
+
+    /**
+     * 已写出成员的块索引
+     */
+    public GzipBlockIndex getBlockIndex() {
+        return blockIndex;
+    }
+
+    /**
+     * 写入本通道的未压缩字节数
+     */
+    public long getUncompressedBytes() {
+        return uncompressedBytes;
+    }
+
+    /**
+     * 已写入目标通道的压缩字节数
+     */
+    public long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    private void submitCurrent() throws IOException {
+        Block block = current;
+        current = null;
+        if (executor == null) {
+            writeMember(block.compress());
+            return;
+        }
+        if (inFlight.size() >= maxInFlight) {
+            writeMember(await(inFlight.poll()));
+        }
+        inFlight.add(executor.submit(block::compress));
+    }
+
+    private void writeMember(Block block) throws IOException {
+        blockIndex.add(compressedBytes, block.uncompressedOffset);
+        ByteBuffer member = ByteBuffer.wrap(block.output, 0, block.outputLength);
+        while (member.hasRemaining()) {
+            target.write(member);
+        }
+        compressedBytes += block.outputLength;
+        block.length = 0;
+        freeBlocks.push(block);
+    }
+
+    private Block acquireBlock() {
+        Block block = freeBlocks.poll();
+        if (block == null) {
+            block = new Block(blockSize, level);
+            allBlocks.add(block);
+        }
+        block.uncompressedOffset = uncompressedBytes;
+        return block;
+    }
+
+    private static Block await(Future<Block> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Parallel compression interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Parallel compression failed", cause);
+        }
+    }
+
+    /**
+     * 一个压缩块：未压缩输入、压缩后的完整 gzip 成员，以及复用的 Deflater
+     */
+    private static final class Block {
+
+        private final byte[] input;
+        private final Deflater deflater;
+        private final CRC32 crc = new CRC32();
+        private final byte xfl;
+        private byte[] output;
+        private int length;
+        private int outputLength;
+        private long uncompressedOffset;
+
+        Block(int blockSize, int level) {
+            this.input = new byte[blockSize];
+            this.deflater = new Deflater(level, true);
+            this.xfl = (byte) (level == Deflater.BEST_COMPRESSION ? 2 : level == Deflater.BEST_SPEED ? 4 : 0);
+            // deflate 对不可压缩数据的最坏开销约为每 16KB 5 字节
+            this.output = new byte[blockSize + (blockSize >> 12) + 64];
+        }
+
+        Block compress() {
+            deflater.reset();
+            deflater.setInput(input, 0, length);
+            deflater.finish();
+            crc.reset();
+            crc.update(input, 0, length);
+
+            // 头部: ID1 ID2 CM FLG MTIME(4) XFL OS
+            int position = 0;
+            output[position++] = (byte) 0x1f;
+            output[position++] = (byte) 0x8b;
+            output[position++] = Deflater.DEFLATED;
+            output[position++] = 0;
+            output[position++] = 0;
+            output[position++] = 0;
+            output[position++] = 0;
+            output[position++] = 0;
+            output[position++] = xfl;
+            output[position++] = OS_UNKNOWN;
+
+            while (!deflater.finished()) {
+                if (position == output.length - 8) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                position += deflater.deflate(output, position, output.length - 8 - position);
+            }
+
+            // 尾部: CRC32 与 ISIZE，均为小端
+            position = putIntLE(output, position, (int) crc.getValue());
+            position = putIntLE(output, position, length);
+            outputLength = position;
+            return this;
+        }
+
+        private static int putIntLE(byte[] bytes, int position, int value) {
+            bytes[position] = (byte) value;
+            bytes[position + 1] = (byte) (value >>> 8);
+            bytes[position + 2] = (byte) (value >>> 16);
+            bytes[position + 3] = (byte) (value >>> 24);
+            return position + 4;
+        }
+    }
+
+    /**
+     * 压缩线程工厂，使用守护线程避免阻止 JVM 退出
+     */
+    private static class CompressorThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "dataforge-gzip-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
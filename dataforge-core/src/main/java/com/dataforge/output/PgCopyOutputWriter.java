@@ -0,0 +1,374 @@
+package com.dataforge.output;
+
+import com.dataforge.core.DataGenerator;
+import com.dataforge.core.GenerationContext;
+import com.dataforge.core.columnar.ColumnVector;
+import com.dataforge.core.columnar.ColumnarGenerationEngine;
+import com.dataforge.core.columnar.DoubleColumnVector;
+import com.dataforge.core.columnar.IntColumnVector;
+import com.dataforge.core.columnar.LongColumnVector;
+import com.dataforge.core.columnar.RecordBatch;
+import com.dataforge.core.columnar.StringColumnVector;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * PostgreSQL COPY output writer, in text or binary format.
+ * <p>
+ * The text format is plain COPY data: tab separated rows with NULL as \N and backslash escapes,
+ * with neither a {@code COPY} command nor a {@code \.} end marker, so the output is exactly what
+ * {@code COPY ... FROM STDIN} reads, e.g. {@code dataforge -o - --format pg-copy | psql -c "COPY t FROM STDIN"},
+ * and a file loads with {@code \copy t FROM 'file'}. The COPY command lives in the control file instead.
+ * <p>
+ * The binary format is the PGCOPY stream: signature header, one tuple per row with a field
+ * count and length-prefixed typed fields, and a -1 trailer. Field types follow the values:
+ * int columns as int4, long as int8, double as float8, strings as text, and for other values
+ * Short → int2, Float → float4, Boolean → bool, BigDecimal/BigInteger → numeric,
+ * LocalDate → date, LocalDateTime → timestamp, Instant/OffsetDateTime/ZonedDateTime → timestamptz,
+ * UUID → uuid, byte[] → bytea; anything else is sent as text. The target table columns must
+ * have those types.
+ * <p>
+ * {@link #writeControlFile} writes the \copy commands that load the files of either format.
+ * The binary header is written only by the slice starting at row 0 and the trailer only by the last
+ * slice, so the parts of a sharded run concatenate into one valid stream; text output has neither.
+ */
+public class PgCopyOutputWriter {
+
+    private static final byte[] BINARY_SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+
+    private static final String CONTROL_SUFFIX = ".load.sql";
+
+    /** PostgreSQL date/timestamp epoch, 2000-01-01, in days and seconds since 1970-01-01 */
+    private static final long PG_EPOCH_DAY = LocalDate.of(2000, 1, 1).toEpochDay();
+    private static final long PG_EPOCH_SECOND = PG_EPOCH_DAY * 86_400;
+
+    private static final int NUMERIC_NEGATIVE = 0x4000;
+
+    private final String filePath;
+    private final List<String> fieldNames;
+    private final Map<String, DataGenerator<?>> generators;
+    private boolean binary;
+    private int threadCount = 1;
+    private OutputCompression compression = OutputCompression.NONE;
+    private long startRow;
+    private long totalRows = -1;
+    private boolean standalone;
+
+    public PgCopyOutputWriter(String filePath, List<String> fieldNames, Map<String, DataGenerator<?>> generators) {
+        this.filePath = filePath;
+        this.fieldNames = new ArrayList<>(fieldNames);
+        this.generators = generators;
+    }
+
+    /**
+     * Writes the PGCOPY binary format instead of the text format.
+     */
+    public PgCopyOutputWriter withBinary(boolean binary) {
+        this.binary = binary;
+        return this;
+    }
+
+    /**
+     * Sets the number of worker threads used to generate and encode rows.
+     * Output is identical to the single-threaded output for a fixed seed.
+     */
+    public PgCopyOutputWriter withThreads(int threadCount) {
+        this.threadCount = threadCount;
+        return this;
+    }
+
+    /**
+     * Sets the output compression; gzip output is compressed on multiple threads
+     * and a .gzi block index is written next to the file.
+     */
+    public PgCopyOutputWriter withCompression(OutputCompression compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    /**
+     * Restricts output to [startRow, startRow + context.getCount()) of a dataset of totalRows rows.
+     * In binary format only the first slice writes the header and only the last one the trailer.
+     */
+    public PgCopyOutputWriter withRowRange(long startRow, long totalRows) {
+        this.startRow = startRow;
+        this.totalRows = totalRows;
+        return this;
+    }
+
+    /**
+     * Writes the binary header and trailer regardless of where the slice lies, so that each part
+     * of a rolled output is a complete file on its own.
+     */
+    public PgCopyOutputWriter withStandalone(boolean standalone) {
+        this.standalone = standalone;
+        return this;
+    }
+
+    public void write(GenerationContext context) throws IOException {
+        ColumnarGenerationEngine engine = new ColumnarGenerationEngine(fieldNames, generators);
+        long totalRecords = totalRows >= 0 && !standalone ? totalRows : startRow + context.getCount();
+        ChunkEncoder encoder = binary ? PgCopyOutputWriter::encodeBinary : PgCopyOutputWriter::encodeText;
+
+        try (WritableByteChannel channel = OutputChannels.create(filePath, compression)) {
+            if (binary && (startRow == 0 || standalone)) {
+                Utf8Buffer header = new Utf8Buffer(32);
+                header.put(BINARY_SIGNATURE);
+                header.putInt32(0); // flags
+                header.putInt32(0); // header extension length
+                header.writeTo(channel);
+            }
+
+            new OrderedChunkPipeline(engine, threadCount)
+                    .withName(binary ? "pg-copy-binary" : "pg-copy")
+                    .run(context, startRow, context.getCount(), encoder, channel);
+
+            if (binary && startRow + context.getCount() >= totalRecords) {
+                Utf8Buffer trailer = new Utf8Buffer(16);
+                trailer.putInt16(-1);
+                trailer.writeTo(channel);
+            }
+        }
+    }
+
+    private static void encodeText(RecordBatch batch, Utf8Buffer out) {
+        int columns = batch.getColumnCount();
+        for (int row = 0; row < batch.size(); row++) {
+            for (int column = 0; column < columns; column++) {
+                if (column > 0) {
+                    out.putAscii('\t');
+                }
+                BulkLoadText.putValue(out, batch.getColumn(column), row, false);
+            }
+            out.putAscii('\n');
+        }
+    }
+
+    private static void encodeBinary(RecordBatch batch, Utf8Buffer out) {
+        int columns = batch.getColumnCount();
+        for (int row = 0; row < batch.size(); row++) {
+            out.putInt16(columns);
+            for (int column = 0; column < columns; column++) {
+                putBinaryField(out, batch.getColumn(column), row);
+            }
+        }
+    }
+
+    private static void putBinaryField(Utf8Buffer out, ColumnVector column, int row) {
+        if (column.isNull(row)) {
+            out.putInt32(-1);
+            return;
+        }
+        switch (column.getType()) {
+            case INT:
+                out.putInt32(4);
+                out.putInt32(((IntColumnVector) column).get(row));
+                break;
+            case LONG:
+                out.putInt32(8);
+                out.putInt64(((LongColumnVector) column).get(row));
+                break;
+            case DOUBLE:
+                out.putInt32(8);
+                out.putInt64(Double.doubleToLongBits(((DoubleColumnVector) column).get(row)));
+                break;
+            case STRING:
+                StringColumnVector strings = (StringColumnVector) column;
+                int lengthAt = out.size();
+                out.putInt32(0);
+                out.putUtf8(strings.getChars(), strings.getOffset(row), strings.getLength(row));
+                out.setInt32(lengthAt, out.size() - lengthAt - 4);
+                break;
+            default:
+                putBinaryObject(out, column.getObject(row));
+                break;
+        }
+    }
+
+    /**
+     * Writes a length-prefixed field in the binary send format of the type that matches the value.
+     */
+    static void putBinaryObject(Utf8Buffer out, Object value) {
+        if (value instanceof Integer) {
+            out.putInt32(4);
+            out.putInt32((Integer) value);
+        } else if (value instanceof Long) {
+            out.putInt32(8);
+            out.putInt64((Long) value);
+        } else if (value instanceof Short || value instanceof Byte) {
+            out.putInt32(2);
+            out.putInt16(((Number) value).shortValue());
+        } else if (value instanceof Double) {
+            out.putInt32(8);
+            out.putInt64(Double.doubleToLongBits((Double) value));
+        } else if (value instanceof Float) {
+            out.putInt32(4);
+            out.putInt32(Float.floatToIntBits((Float) value));
+        } else if (value instanceof Boolean) {
+            out.putInt32(1);
+            out.put((byte) ((Boolean) value ? 1 : 0));
+        } else if (value instanceof BigDecimal) {
+            putNumeric(out, (BigDecimal) value);
+        } else if (value instanceof BigInteger) {
+            putNumeric(out, new BigDecimal((BigInteger) value));
+        } else if (value instanceof LocalDate) {
+            out.putInt32(4);
+            out.putInt32((int) (((LocalDate) value).toEpochDay() - PG_EPOCH_DAY));
+        } else if (value instanceof LocalDateTime) {
+            out.putInt32(8);
+            out.putInt64(micros(((LocalDateTime) value).toInstant(ZoneOffset.UTC)));
+        } else if (value instanceof Instant) {
+            out.putInt32(8);
+            out.putInt64(micros((Instant) value));
+        } else if (value instanceof OffsetDateTime) {
+            out.putInt32(8);
+            out.putInt64(micros(((OffsetDateTime) value).toInstant()));
+        } else if (value instanceof ZonedDateTime) {
+            out.putInt32(8);
+            out.putInt64(micros(((ZonedDateTime) value).toInstant()));
+        } else if (value instanceof UUID) {
+            out.putInt32(16);
+            out.putInt64(((UUID) value).getMostSignificantBits());
+            out.putInt64(((UUID) value).getLeastSignificantBits());
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            out.putInt32(bytes.length);
+            out.put(bytes);
+        } else {
+            byte[] text = value.toString().getBytes(StandardCharsets.UTF_8);
+            out.putInt32(text.length);
+            out.put(text);
+        }
+    }
+
+    /**
+     * Microseconds since the PostgreSQL epoch
+     */
+    private static long micros(Instant instant) {
+        return (instant.getEpochSecond() - PG_EPOCH_SECOND) * 1_000_000 + instant.getNano() / 1_000;
+    }
+
+    /**
+     * numeric send format: ndigits, weight, sign and dscale as int16, then the base-10000 digits
+     * with the first digit weighted 10000^weight. Leading and trailing zero digits are dropped.
+     */
+    static void putNumeric(Utf8Buffer out, BigDecimal value) {
+        int displayScale = Math.max(0, value.scale());
+        String plain = value.abs().toPlainString();
+        int point = plain.indexOf('.');
+        String integerPart = point < 0 ? plain : plain.substring(0, point);
+        String fractionPart = point < 0 ? "" : plain.substring(point + 1);
+
+        // 整数部分左侧、小数部分右侧补零到 4 的倍数，然后每 4 位十进制数字组成一个 base-10000 数位
+        int integerGroups = (integerPart.length() + 3) / 4;
+        int fractionGroups = (fractionPart.length() + 3) / 4;
+        StringBuilder digits = new StringBuilder((integerGroups + fractionGroups) * 4);
+        for (int i = integerPart.length(); i < integerGroups * 4; i++) {
+            digits.append('0');
+        }
+        digits.append(integerPart).append(fractionPart);
+        while (digits.length() < (integerGroups + fractionGroups) * 4) {
+            digits.append('0');
+        }
+
+        int first = 0;
+        int last = integerGroups + fractionGroups;
+        while (first < last && group(digits, first) == 0) {
+            first++;
+        }
+        while (last > first && group(digits, last - 1) == 0) {
+            last--;
+        }
+        int count = last - first;
+        int weight = count == 0 ? 0 : integerGroups - 1 - first;
+        int sign = value.signum() < 0 ? NUMERIC_NEGATIVE : 0;
+
+        out.putInt32(8 + count * 2);
+        out.putInt16(count);
+        out.putInt16(weight);
+        out.putInt16(sign);
+        out.putInt16(displayScale);
+        for (int i = first; i < last; i++) {
+            out.putInt16(group(digits, i));
+        }
+    }
+
+    private static int group(CharSequence digits, int index) {
+        int value = 0;
+        for (int i = index * 4; i < index * 4 + 4; i++) {
+            value = value * 10 + (digits.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    /**
+     * COPY command for the table's columns from the given source
+     */
+    static String copyCommand(String tableName, List<String> fieldNames, String source, boolean binary) {
+        String columns = fieldNames.stream()
+                .map(PgCopyOutputWriter::quoteIdentifier)
+                .collect(Collectors.joining(", "));
+        return "COPY " + quoteIdentifier(tableName) + " (" + columns + ") FROM " + source
+                + (binary ? " WITH (FORMAT binary)" : "");
+    }
+
+    /**
+     * Builds the psql \copy command that loads one data file of the given format; gzip files are
+     * streamed through gzip -dc.
+     */
+    public static String loadStatement(String tableName, List<String> fieldNames, String dataPath, boolean binary) {
+        String path = new File(dataPath).getAbsolutePath();
+        String source = dataPath.toLowerCase().endsWith(".gz")
+                ? "PROGRAM 'gzip -dc " + path.replace("'", "''") + "'"
+                : "'" + path.replace("'", "''") + "'";
+        // \copy 由 psql 在客户端读取文件，不需要数据库服务器能访问该路径
+        return "\\copy" + copyCommand(tableName, fieldNames, source, binary).substring("COPY".length()) + "\n";
+    }
+
+    /**
+     * Writes the \copy commands for the given data files next to basePath
+     * (users.pgcopy → users.load.sql) and returns the path of the control file.
+     */
+    public static String writeControlFile(String basePath, String tableName, List<String> fieldNames,
+                                          List<String> dataPaths, boolean binary) throws IOException {
+        StringBuilder control = new StringBuilder();
+        control.append("-- DataForge generated COPY commands\n");
+        control.append("-- Run with: psql -d <database> -f ")
+                .append(new File(controlPath(basePath)).getName()).append("\n\n");
+        for (String dataPath : dataPaths) {
+            control.append(loadStatement(tableName, fieldNames, dataPath, binary));
+        }
+        String controlPath = controlPath(basePath);
+        try (WritableByteChannel channel = OutputChannels.create(controlPath)) {
+            OutputChannels.write(channel, control);
+        }
+        return controlPath;
+    }
+
+    /**
+     * Control file path: the data path without its extension plus .load.sql
+     */
+    public static String controlPath(String basePath) {
+        return OutputChannels.splitExtension(basePath)[0] + CONTROL_SUFFIX;
+    }
+
+    private static String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,365 @@
+package com.dataforge.output;
+
+import com.dataforge.core.GenerationContext;
+import com.dataforge.core.uniqueness.UniquenessScope;
+import com.dataforge.metrics.RunMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 滚动文件输出器
+ * 把一次生成按行数或文件大小切分为多个分段文件 (users.csv → users-00001.csv、users-00002.csv …)，
+ * 每个分段由 {@link PartWriter} 写成独立完整的文件，并行时多个分段同时写出。
+ * 全部完成后写出 JSON 清单 (users.manifest.json)，列出每个分段的行区间、字节数和 SHA-256 校验和，
+ * 下游可以并行装载各分段，某个分段出错时也可以用 {@link #rewritePart} 单独重新生成。
+ * 有依赖生成顺序的列 (例如唯一性去重) 时，各分段按行序依次写出，每个分段使用全部线程，
+ * 使唯一性作用域按行序登记取值，分段内容和校验和因此与线程数无关。
+ * <p>
+ * 分段的行区间在开始写出前就已确定，因此按大小滚动时先写出一小段样本估算每行字节数，
+ * 再换算为每段行数；实际分段大小会在上限附近浮动
+ */
+public class RollingOutputWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollingOutputWriter.class);
+
+    /** 按大小滚动时用于估算每行字节数的样本行数 */
+    private static final int SAMPLE_ROWS = 10_000;
+
+    /** 按大小滚动时为行长波动预留的余量 */
+    private static final double SIZE_SAFETY_FACTOR = 0.95;
+
+    private static final String MANIFEST_SUFFIX = ".manifest.json";
+
+    /**
+     * 分段写出器：把数据集中 [startRow, startRow + context.getCount()) 这一段写成一个完整文件
+     */
+    @FunctionalInterface
+    public interface PartWriter {
+        void write(String partPath, GenerationContext context, long startRow, int threads) throws IOException;
+    }
+
+    private final String basePath;
+    private final PartWriter partWriter;
+    private long maxRows;
+    private long maxBytes;
+    private int threadCount = 1;
+    private boolean orderDependent;
+
+    /**
+     * @param basePath 输出路径，分段文件名由它加上段号得到
+     * @param partWriter 分段写出器
+     */
+    public RollingOutputWriter(String basePath, PartWriter partWriter) {
+        this.basePath = basePath;
+        this.partWriter = partWriter;
+    }
+
+    /**
+     * 每个分段最多包含的行数，0 表示不按行数滚动
+     */
+    public RollingOutputWriter withMaxRows(long maxRows) {
+        this.maxRows = maxRows;
+        return this;
+    }
+
+    /**
+     * 每个分段的目标字节数，0 表示不按大小滚动
+     */
+    public RollingOutputWriter withMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * 总线程数；分段数足够时多个分段同时写出，每个分段分到其余的线程
+     */
+    public RollingOutputWriter withThreads(int threadCount) {
+        this.threadCount = Math.max(1, threadCount);
+        return this;
+    }
+
+    /**
+     * 数据中是否有依赖生成顺序的列 (见 {@link com.dataforge.core.DataGenerator#isOrderDependent})。
+     * 为 true 时分段不再同时写出，单独重新生成分段前先按行序重放它之前的各行
+     */
+    public RollingOutputWriter withOrderDependentColumns(boolean orderDependent) {
+        this.orderDependent = orderDependent;
+        return this;
+    }
+
+    /**
+     * 生成 [startRow, startRow + context.getCount()) 范围内的数据并滚动写出，返回清单
+     */
+    public Manifest write(GenerationContext context, long startRow) throws IOException {
+        if (maxRows <= 0 && maxBytes <= 0) {
+            throw new IllegalStateException("Either a row limit or a byte limit is required for rolling output");
+        }
+        long rowCount = context.getCount();
+        long rowsPerPart = rowsPerPart(context, startRow);
+        int partCount = (int) Math.max(1, (rowCount + rowsPerPart - 1) / rowsPerPart);
+        int concurrentParts = orderDependent ? 1 : Math.min(threadCount, partCount);
+        int threadsPerPart = Math.max(1, threadCount / concurrentParts);
+        logger.info("Rolling output: rows={}, rowsPerPart={}, parts={}, concurrentParts={}",
+                rowCount, rowsPerPart, partCount, concurrentParts);
+
+        List<Part> parts = new ArrayList<>(partCount);
+        for (int i = 0; i < partCount; i++) {
+            long partStart = startRow + i * rowsPerPart;
+            long partRows = Math.min(rowsPerPart, startRow + rowCount - partStart);
+            parts.add(new Part(partPath(basePath, i + 1), partStart, partRows));
+        }
+
+        if (concurrentParts == 1) {
+            for (Part part : parts) {
+                writePart(part, context, threadCount);
+            }
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(concurrentParts);
+            try {
+                List<Future<?>> futures = new ArrayList<>(partCount);
+                for (Part part : parts) {
+                    futures.add(executor.submit(() -> {
+                        writePart(part, context, threadsPerPart);
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    await(future);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        Manifest manifest = new Manifest(startRow, rowCount, parts);
+        manifest.writeTo(manifestPath(basePath));
+        return manifest;
+    }
+
+    /**
+     * 按清单单独重新生成第 partNumber 个分段 (从 1 开始)，返回按新文件计算字节数和校验和的分段，
+     * 可与清单中的记录比较。context 应与原始写出时的种子和参数相同，并使用新的唯一性作用域；
+     * 有依赖生成顺序的列时，先把该分段之前的各行写到临时文件后丢弃，使作用域中登记的值与原始写出时一致
+     */
+    public Part rewritePart(GenerationContext context, Manifest manifest, int partNumber) throws IOException {
+        Part original = manifest.getParts().get(partNumber - 1);
+        long precedingRows = original.startRow - manifest.getStartRow();
+        if (orderDependent && precedingRows > 0) {
+            File replay = File.createTempFile("dataforge-replay", new File(basePath).getName());
+            // 重放的各行不属于本次产出，不计入运行指标
+            try (RunMetrics.Registration suppressed = RunMetrics.getInstance().suppress()) {
+                partWriter.write(replay.getPath(), context.withCount((int) precedingRows), manifest.getStartRow(),
+                        threadCount);
+            } finally {
+                Files.deleteIfExists(replay.toPath());
+                Files.deleteIfExists(GzipBlockIndex.indexPathFor(replay.toPath()));
+            }
+        }
+        Part part = new Part(original.path, original.startRow, original.rowCount);
+        writePart(part, context, threadCount);
+        return part;
+    }
+
+    private void writePart(Part part, GenerationContext context, int threads) throws IOException {
+        partWriter.write(part.path, context.withCount((int) part.rowCount), part.startRow, threads);
+        Path path = Paths.get(part.path);
+        part.bytes = Files.size(path);
+        part.sha256 = sha256(path);
+        logger.debug("Wrote part {}: rows=[{}, {}), bytes={}", part.path, part.startRow,
+                part.startRow + part.rowCount, part.bytes);
+    }
+
+    /**
+     * 每段行数取行数上限和按大小估算结果中的较小者
+     */
+    private long rowsPerPart(GenerationContext context, long startRow) throws IOException {
+        long rows = maxRows > 0 ? maxRows : Long.MAX_VALUE;
+        if (maxBytes > 0) {
+            int sampleRows = Math.min(SAMPLE_ROWS, context.getCount());
+            if (sampleRows > 0) {
+                File sample = File.createTempFile("dataforge-sample", new File(basePath).getName());
+                // 样本使用独立的唯一性作用域，避免正式写出时把样本中的值当作重复值
+                GenerationContext sampleContext = context.withCount(sampleRows);
+                UniquenessScope sampleScope = new UniquenessScope("rolling-sample");
+                sampleContext.setUniquenessScope(sampleScope);
+                // 样本不属于本次产出，不计入运行指标
+                try (RunMetrics.Registration suppressed = RunMetrics.getInstance().suppress()) {
+                    partWriter.write(sample.getPath(), sampleContext, startRow, threadCount);
+                    double bytesPerRow = (double) sample.length() / sampleRows;
+                    rows = Math.min(rows, (long) (maxBytes * SIZE_SAFETY_FACTOR / bytesPerRow));
+                } finally {
+                    sampleScope.close();
+                    Files.deleteIfExists(sample.toPath());
+                    Files.deleteIfExists(GzipBlockIndex.indexPathFor(sample.toPath()));
+                }
+            }
+        }
+        return Math.max(1, rows);
+    }
+
+    /**
+     * 分段文件路径：在扩展名前插入 5 位段号，压缩后缀 .gz 视为扩展名的一部分。
+     * 例如 users.csv → users-00001.csv，users.csv.gz → users-00001.csv.gz
+     */
+    public static String partPath(String basePath, int partNumber) {
+        String[] split = OutputChannels.splitExtension(basePath);
+        return split[0] + String.format("-%05d", partNumber) + split[1];
+    }
+
+    /**
+     * 清单路径：去掉扩展名后加 .manifest.json
+     */
+    public static String manifestPath(String basePath) {
+        return OutputChannels.splitExtension(basePath)[0] + MANIFEST_SUFFIX;
+    }
+
+    private static String sha256(Path path) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(path)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static void await(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Rolling output interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Rolling output failed", cause);
+        }
+    }
+
+    /**
+     * 一个分段文件
+     */
+    public static class Part {
+        private final String path;
+        private final long startRow;
+        private final long rowCount;
+        private volatile long bytes;
+        private volatile String sha256;
+
+        Part(String path, long startRow, long rowCount) {
+            this.path = path;
+            this.startRow = startRow;
+            this.rowCount = rowCount;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public long getStartRow() {
+            return startRow;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+    }
+
+    /**
+     * 滚动输出清单
+     */
+    public static class Manifest {
+        private final long startRow;
+        private final long rowCount;
+        private final List<Part> parts;
+
+        Manifest(long startRow, long rowCount, List<Part> parts) {
+            this.startRow = startRow;
+            this.rowCount = rowCount;
+            this.parts = parts;
+        }
+
+        public long getStartRow() {
+            return startRow;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public List<Part> getParts() {
+            return parts;
+        }
+
+        public long getTotalBytes() {
+            return parts.stream().mapToLong(Part::getBytes).sum();
+        }
+
+        /**
+         * 以 JSON 写出清单，分段文件以相对清单所在目录的文件名记录
+         */
+        void writeTo(String manifestPath) throws IOException {
+            List<Map<String, Object>> entries = new ArrayList<>(parts.size());
+            for (Part part : parts) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("file", new File(part.path).getName());
+                entry.put("startRow", part.startRow);
+                entry.put("endRow", part.startRow + part.rowCount);
+                entry.put("rowCount", part.rowCount);
+                entry.put("bytes", part.bytes);
+                entry.put("sha256", part.sha256);
+                entries.add(entry);
+            }
+            Map<String, Object> root = new LinkedHashMap<>();
+            root.put("startRow", startRow);
+            root.put("rowCount", rowCount);
+            root.put("partCount", parts.size());
+            root.put("totalBytes", getTotalBytes());
+            root.put("parts", entries);
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(manifestPath), root);
+        }
+    }
+}
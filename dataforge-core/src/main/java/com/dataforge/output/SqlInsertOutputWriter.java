@@ -2,16 +2,22 @@ package com.dataforge.output;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.columnar.ColumnVector;
+import com.dataforge.core.columnar.ColumnarGenerationEngine;
+import com.dataforge.core.columnar.DoubleColumnVector;
+import com.dataforge.core.columnar.IntColumnVector;
+import com.dataforge.core.columnar.LongColumnVector;
+import com.dataforge.core.columnar.RecordBatch;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
  * SQL INSERT语句输出器
- * 将生成的数据输出为SQL INSERT语句
+ * 将生成的数据输出为SQL INSERT语句，语句直接编码为 UTF-8 字节写入文件通道
  */
 public class SqlInsertOutputWriter {
     
@@ -21,6 +27,11 @@ public class SqlInsertOutputWriter {
     private final String tableName;
     private final int batchSize;
     private final String databaseType;
+    private int threadCount = 1;
+    private OutputCompression compression = OutputCompression.NONE;
+    private long startRow;
+    private long totalRows = -1;
+    private boolean standalone;
     
     public SqlInsertOutputWriter(String filePath, List<String> fieldNames, Map<String, DataGenerator<?>> generators, String tableName) {
         this(filePath, fieldNames, generators, tableName, 100, "mysql");
@@ -36,125 +47,186 @@ public class SqlInsertOutputWriter {
         this.databaseType = databaseType.toLowerCase();
     }
     
+    /**
+     * 设置生成与编码使用的工作线程数，固定种子下输出与单线程完全一致
+     */
+    public SqlInsertOutputWriter withThreads(int threadCount) {
+        this.threadCount = threadCount;
+        return this;
+    }
+    
+    /**
+     * 设置输出压缩方式，gzip 时多线程压缩并在文件旁写出 .gzi 块索引
+     */
+    public SqlInsertOutputWriter withCompression(OutputCompression compression) {
+        this.compression = compression;
+        return this;
+    }
+    
+    /**
+     * 只输出总数为 totalRows 的数据集中 [startRow, startRow + context.getCount()) 这一段
+     * 文件头只由首段写出、文件尾只由末段写出，分片输出按顺序拼接即为完整脚本
+     */
+    public SqlInsertOutputWriter withRowRange(long startRow, long totalRows) {
+        this.startRow = startRow;
+        this.totalRows = totalRows;
+        return this;
+    }
+    
+    /**
+     * 不论这一段位于数据集的什么位置都写出文件头和文件尾，使滚动输出的每个分段文件都是完整脚本
+     */
+    public SqlInsertOutputWriter withStandalone(boolean standalone) {
+        this.standalone = standalone;
+        return this;
+    }
+    
     /**
      * 生成数据并写入SQL文件
+     * 每个列式批次对应一条多行 INSERT 语句
      */
     public void write(GenerationContext context) throws IOException {
-        try (FileWriter writer = new FileWriter(filePath)) {
-            writeHeader(writer, context);
+        ColumnarGenerationEngine engine = new ColumnarGenerationEngine(fieldNames, generators, batchSize);
+        Utf8Buffer prefix = new Utf8Buffer(256);
+        prefix.putUtf8(buildInsertPrefix());
+        byte[] insertPrefix = prefix.toByteArray();
+        long totalRecords = totalRows >= 0 && !standalone ? totalRows : startRow + context.getCount();
+        
+        try (WritableByteChannel channel = OutputChannels.create(filePath, compression)) {
+            if (startRow == 0 || standalone) {
+                StringBuilder header = new StringBuilder();
+                writeHeader(header, standalone ? context.getCount() : totalRecords);
+                OutputChannels.write(channel, header);
+            }
             
-            int totalRecords = context.getCount();
-            int batchCount = (totalRecords + batchSize - 1) / batchSize;
+            new OrderedChunkPipeline(engine, threadCount)
+                    .withName("sql")
+                    .run(context, startRow, context.getCount(), (batch, out) -> encodeBatch(batch, insertPrefix, out), channel);
             
-            for (int batch = 0; batch < batchCount; batch++) {
-                int startRecord = batch * batchSize;
-                int endRecord = Math.min(startRecord + batchSize, totalRecords);
-                int currentBatchSize = endRecord - startRecord;
-                
-                writeBatch(writer, context, startRecord, currentBatchSize);
-                writer.write("\n");
+            if (startRow + context.getCount() >= totalRecords) {
+                StringBuilder footer = new StringBuilder();
+                writeFooter(footer);
+                OutputChannels.write(channel, footer);
             }
-            
-            writeFooter(writer);
         }
     }
     
-    private void writeHeader(FileWriter writer, GenerationContext context) throws IOException {
-        writer.write("-- DataForge Generated SQL INSERT Statements\n");
-        writer.write("-- Generated at: " + java.time.LocalDateTime.now() + "\n");
-        writer.write("-- Total records: " + context.getCount() + "\n");
-        writer.write("-- Table: " + tableName + "\n");
-        writer.write("-- Database: " + databaseType + "\n");
-        writer.write("\n");
+    private void writeHeader(StringBuilder writer, long totalRecords) {
+        writer.append("-- DataForge Generated SQL INSERT Statements\n");
+        writer.append("-- Generated at: " + java.time.LocalDateTime.now() + "\n");
+        writer.append("-- Total records: " + totalRecords + "\n");
+        writer.append("-- Table: " + tableName + "\n");
+        writer.append("-- Database: " + databaseType + "\n");
+        writer.append("\n");
         
         // Database-specific settings
         switch (databaseType) {
             case "mysql":
-                writer.write("SET FOREIGN_KEY_CHECKS = 0;\n");
-                writer.write("SET AUTOCOMMIT = 0;\n");
+                writer.append("SET FOREIGN_KEY_CHECKS = 0;\n");
+                writer.append("SET AUTOCOMMIT = 0;\n");
                 break;
             case "postgresql":
-                writer.write("BEGIN;\n");
+                writer.append("BEGIN;\n");
                 break;
             case "oracle":
-                writer.write("SET DEFINE OFF;\n");
+                writer.append("SET DEFINE OFF;\n");
                 break;
             case "sqlserver":
-                writer.write("SET IDENTITY_INSERT " + tableName + " OFF;\n");
+                writer.append("SET IDENTITY_INSERT " + tableName + " OFF;\n");
                 break;
         }
-        writer.write("\n");
+        writer.append("\n");
     }
     
-    private void writeBatch(FileWriter writer, GenerationContext context, int startRecord, int batchSize) throws IOException {
-        // Start INSERT statement
-        writer.write("INSERT INTO " + getQuotedTableName() + " (");
-        
-        // Write column names
+    private String buildInsertPrefix() {
         String columns = fieldNames.stream()
                 .map(this::getQuotedColumnName)
                 .collect(Collectors.joining(", "));
-        writer.write(columns);
-        writer.write(") VALUES\n");
+        return "INSERT INTO " + getQuotedTableName() + " (" + columns + ") VALUES\n";
+    }
+    
+    private void encodeBatch(RecordBatch batch, byte[] insertPrefix, Utf8Buffer row) {
+        // Start INSERT statement
+        row.put(insertPrefix);
         
-        // Generate and write values
-        for (int i = 0; i < batchSize; i++) {
-            int recordIndex = startRecord + i;
-            
-            // Create record context
-            GenerationContext recordContext = new GenerationContext(1);
-            if (context.getSeed() != null) {
-                recordContext.setSeed(context.getSeed() + recordIndex);
-            }
-            
-            writer.write("  (");
+        // Write values
+        for (int i = 0; i < batch.size(); i++) {
+            row.putAscii(' ');
+            row.putAscii(' ');
+            row.putAscii('(');
             
-            // Generate field values
-            for (int j = 0; j < fieldNames.size(); j++) {
-                String fieldName = fieldNames.get(j);
-                DataGenerator<?> generator = generators.get(fieldName);
-                Object value = generator.generate(recordContext);
-                
-                writer.write(formatSqlValue(value));
+            // Append field values
+            for (int j = 0; j < batch.getColumnCount(); j++) {
+                appendSqlValue(row, batch.getColumn(j), i);
                 
-                if (j < fieldNames.size() - 1) {
-                    writer.write(", ");
+                if (j < batch.getColumnCount() - 1) {
+                    row.putAscii(',');
+                    row.putAscii(' ');
                 }
             }
             
-            writer.write(")");
-            
-            if (i < batchSize - 1) {
-                writer.write(",\n");
-            } else {
-                writer.write(";\n");
-            }
+            row.putAscii(')');
+            row.putAscii(i < batch.size() - 1 ? ',' : ';');
+            row.putAscii('\n');
+        }
+        
+        row.putAscii('\n');
+    }
+    
+    private void appendSqlValue(Utf8Buffer row, ColumnVector column, int index) {
+        switch (column.getType()) {
+            case INT:
+            case LONG:
+            case DOUBLE:
+                if (column.isNull(index)) {
+                    row.putUtf8("NULL");
+                } else {
+                    appendNumber(row, column, index);
+                }
+                break;
+            default:
+                row.putUtf8(formatSqlValue(column.getObject(index)));
+                break;
+        }
+    }
+    
+    private static void appendNumber(Utf8Buffer row, ColumnVector column, int index) {
+        switch (column.getType()) {
+            case INT:
+                row.putLong(((IntColumnVector) column).get(index));
+                break;
+            case LONG:
+                row.putLong(((LongColumnVector) column).get(index));
+                break;
+            default:
+                row.putDouble(((DoubleColumnVector) column).get(index));
+                break;
         }
     }
     
-    private void writeFooter(FileWriter writer) throws IOException {
-        writer.write("\n");
+    private void writeFooter(StringBuilder writer) {
+        writer.append("\n");
         
         // Database-specific cleanup
         switch (databaseType) {
             case "mysql":
-                writer.write("COMMIT;\n");
-                writer.write("SET FOREIGN_KEY_CHECKS = 1;\n");
-                writer.write("SET AUTOCOMMIT = 1;\n");
+                writer.append("COMMIT;\n");
+                writer.append("SET FOREIGN_KEY_CHECKS = 1;\n");
+                writer.append("SET AUTOCOMMIT = 1;\n");
                 break;
             case "postgresql":
-                writer.write("COMMIT;\n");
+                writer.append("COMMIT;\n");
                 break;
             case "oracle":
-                writer.write("COMMIT;\n");
-                writer.write("SET DEFINE ON;\n");
+                writer.append("COMMIT;\n");
+                writer.append("SET DEFINE ON;\n");
                 break;
             case "sqlserver":
-                writer.write("SET IDENTITY_INSERT " + tableName + " ON;\n");
+                writer.append("SET IDENTITY_INSERT " + tableName + " ON;\n");
                 break;
         }
         
-        writer.write("\n-- End of generated SQL\n");
+        writer.append("\n-- End of generated SQL\n");
     }
     
     private String getQuotedTableName() {
@@ -0,0 +1,236 @@
+package com.dataforge.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * 可增长的 UTF-8 字节缓冲
+ * 字符直接编码为 UTF-8 字节写入底层字节数组，不经过 String/Writer 的中间拷贝；
+ * 整数直接按十进制数字写入，不分配临时字符串。缓冲写满时按两倍扩容。
+ * 非成对的代理字符按 {@link String#getBytes} 的约定编码为 '?'
+ */
+public final class Utf8Buffer {
+
+    private static final byte[] LONG_MIN_VALUE = "-9223372036854775808".getBytes();
+
+    private byte[] bytes;
+    private int size;
+
+    public Utf8Buffer(int initialCapacity) {
+        this.bytes = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public void put(byte value) {
+        ensureCapacity(1);
+        bytes[size++] = value;
+    }
+
+    /**
+     * 写入一个 ASCII 字符，调用方保证 c &lt; 0x80
+     */
+    public void putAscii(char c) {
+        ensureCapacity(1);
+        bytes[size++] = (byte) c;
+    }
+
+    /**
+     * 写入已编码的字节
+     */
+    public void put(byte[] encoded) {
+        ensureCapacity(encoded.length);
+        System.arraycopy(encoded, 0, bytes, size, encoded.length);
+        size += encoded.length;
+    }
+
+    /**
+     * 写入已编码字节数组中的一段
+     */
+    public void put(byte[] encoded, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(encoded, offset, bytes, size, length);
+        size += length;
+    }
+
+    public void putUtf8(CharSequence value) {
+        if (value instanceof String) {
+            String string = (String) value;
+            int length = string.length();
+            ensureCapacity(length * 3);
+            for (int i = 0; i < length; i++) {
+                char c = string.charAt(i);
+                if (c < 0x80) {
+                    bytes[size++] = (byte) c;
+                } else {
+                    i += encodeNonAscii(c, i + 1 < length ? string.charAt(i + 1) : '\0');
+                }
+            }
+        } else {
+            putUtf8(value.toString());
+        }
+    }
+
+    public void putUtf8(char[] chars, int offset, int length) {
+        ensureCapacity(length * 3);
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            char c = chars[i];
+            if (c < 0x80) {
+                bytes[size++] = (byte) c;
+            } else {
+                i += encodeNonAscii(c, i + 1 < end ? chars[i + 1] : '\0');
+            }
+        }
+    }
+
+    /**
+     * 写入单个字符 (代理字符写为 '?')
+     */
+    public void putUtf8(char c) {
+        ensureCapacity(3);
+        if (c < 0x80) {
+            bytes[size++] = (byte) c;
+        } else {
+            encodeNonAscii(c, '\0');
+        }
+    }
+
+    /**
+     * 编码一个非 ASCII 字符，next 为其后的字符 (没有时为 '\0')。
+     * c 与 next 组成代理对时一并编码，返回额外消费的字符数
+     */
+    private int encodeNonAscii(char c, char next) {
+        if (c < 0x800) {
+            bytes[size++] = (byte) (0xC0 | (c >> 6));
+            bytes[size++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            if (Character.isHighSurrogate(c) && Character.isLowSurrogate(next)) {
+                int codePoint = Character.toCodePoint(c, next);
+                bytes[size++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+                return 1;
+            }
+            bytes[size++] = (byte) '?';
+        } else {
+            bytes[size++] = (byte) (0xE0 | (c >> 12));
+            bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            bytes[size++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return 0;
+    }
+
+    public void putLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            put(LONG_MIN_VALUE);
+            return;
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            bytes[size++] = (byte) '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        int position = size + digits;
+        size = position;
+        do {
+            bytes[--position] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+    }
+
+    /**
+     * 按大端序写入 16 位二进制整数，用于二进制格式
+     */
+    public void putInt16(int value) {
+        ensureCapacity(2);
+        bytes[size++] = (byte) (value >>> 8);
+        bytes[size++] = (byte) value;
+    }
+
+    /**
+     * 按大端序写入 32 位二进制整数
+     */
+    public void putInt32(int value) {
+        ensureCapacity(4);
+        setInt32(size, value);
+        size += 4;
+    }
+
+    /**
+     * 按大端序写入 64 位二进制整数
+     */
+    public void putInt64(long value) {
+        putInt32((int) (value >>> 32));
+        putInt32((int) value);
+    }
+
+    /**
+     * 按大端序覆写 [index, index + 4) 处已写入的 4 个字节，用于回填先占位的长度字段
+     */
+    public void setInt32(int index, int value) {
+        bytes[index] = (byte) (value >>> 24);
+        bytes[index + 1] = (byte) (value >>> 16);
+        bytes[index + 2] = (byte) (value >>> 8);
+        bytes[index + 3] = (byte) value;
+    }
+
+    /**
+     * 写入与 {@link StringBuilder#append(double)} 相同的文本
+     */
+    public void putDouble(double value) {
+        putUtf8(Double.toString(value));
+    }
+
+    /**
+     * 已写入的字节数
+     */
+    public int size() {
+        return size;
+    }
+
+    public byte get(int index) {
+        return bytes[index];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int capacity() {
+        return bytes.length;
+    }
+
+    /**
+     * 以 ByteBuffer 形式查看 [0, size) 的内容，不复制
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(bytes, 0, size);
+    }
+
+    /**
+     * 把全部内容写入通道，不清空缓冲
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer view = asByteBuffer();
+        while (view.hasRemaining()) {
+            channel.write(view);
+        }
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    private void ensureCapacity(int additional) {
+        int required = size + additional;
+        if (required > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+        }
+    }
+}
\ No newline at end of file
@@ -2,31 +2,38 @@ package com.dataforge.output;
 
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.columnar.ColumnVector;
+import com.dataforge.core.columnar.ColumnarGenerationEngine;
+import com.dataforge.core.columnar.RecordBatch;
+import com.dataforge.core.columnar.StringColumnVector;
 
-import javax.xml.stream.XMLOutputFactory;
-import javax.xml.stream.XMLStreamWriter;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 import java.util.Map;
 
 /**
  * XML输出器
- * 将生成的数据输出为格式化的XML文档
+ * 将生成的数据输出为格式化的XML文档，记录直接编码为 UTF-8 字节写入文件通道
  */
 public class XmlOutputWriter {
-    
+
     private final String filePath;
     private final List<String> fieldNames;
     private final Map<String, DataGenerator<?>> generators;
     private final String rootElement;
     private final String recordElement;
-    
+    private int threadCount = 1;
+    private OutputCompression compression = OutputCompression.NONE;
+    private long startRow;
+    private long totalRows = -1;
+    private boolean standalone;
+
     public XmlOutputWriter(String filePath, List<String> fieldNames, Map<String, DataGenerator<?>> generators) {
         this(filePath, fieldNames, generators, "data", "record");
     }
-    
-    public XmlOutputWriter(String filePath, List<String> fieldNames, Map<String, DataGenerator<?>> generators, 
+
+    public XmlOutputWriter(String filePath, List<String> fieldNames, Map<String, DataGenerator<?>> generators,
                           String rootElement, String recordElement) {
         this.filePath = filePath;
         this.fieldNames = fieldNames;
@@ -34,87 +41,151 @@ public class XmlOutputWriter {
         this.rootElement = rootElement;
         this.recordElement = recordElement;
     }
-    
+
+    /**
+     * 设置生成与编码使用的工作线程数，固定种子下输出与单线程完全一致
+     */
+    public XmlOutputWriter withThreads(int threadCount) {
+        this.threadCount = threadCount;
+        return this;
+    }
+
+    /**
+     * 设置输出压缩方式，gzip 时多线程压缩并在文件旁写出 .gzi 块索引
+     */
+    public XmlOutputWriter withCompression(OutputCompression compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    /**
+     * 只输出总数为 totalRows 的数据集中 [startRow, startRow + context.getCount()) 这一段
+     * 文档头和根元素开始标签只由首段写出、根元素结束标签只由末段写出，分片输出按顺序拼接即为完整文档
+     */
+    public XmlOutputWriter withRowRange(long startRow, long totalRows) {
+        this.startRow = startRow;
+        this.totalRows = totalRows;
+        return this;
+    }
+
+    /**
+     * 不论这一段位于数据集的什么位置都写出文档头和根元素，使滚动输出的每个分段文件都是完整文档
+     */
+    public XmlOutputWriter withStandalone(boolean standalone) {
+        this.standalone = standalone;
+        return this;
+    }
+
     /**
      * 生成数据并写入XML文件
      */
-    public void write(GenerationContext context) throws Exception {
-        XMLOutputFactory factory = XMLOutputFactory.newInstance();
-        
-        try (FileWriter fileWriter = new FileWriter(filePath)) {
-            XMLStreamWriter writer = factory.createXMLStreamWriter(fileWriter);
-            
-            // 开始XML文档
-            writer.writeStartDocument("UTF-8", "1.0");
-            writer.writeCharacters("\n");
-            
-            // 根元素
-            writer.writeStartElement(rootElement);
-            writer.writeAttribute("count", String.valueOf(context.getCount()));
-            writer.writeAttribute("generated", java.time.LocalDateTime.now().toString());
-            writer.writeCharacters("\n");
-            
-            // 生成数据记录
-            for (int i = 0; i < context.getCount(); i++) {
-                generateRecord(writer, context, i);
+    public void write(GenerationContext context) throws IOException {
+        ColumnarGenerationEngine engine = new ColumnarGenerationEngine(fieldNames, generators);
+        long totalRecords = totalRows >= 0 && !standalone ? totalRows : startRow + context.getCount();
+        long endRow = startRow + context.getCount();
+
+        try (WritableByteChannel channel = OutputChannels.create(filePath, compression)) {
+            if (startRow == 0 || standalone) {
+                // XML声明与根元素开始标签
+                StringBuilder header = new StringBuilder();
+                header.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+                header.append('<').append(rootElement)
+                        .append(" count=\"").append(standalone ? context.getCount() : totalRecords).append('"')
+                        .append(" generated=\"").append(java.time.LocalDateTime.now()).append("\">\n");
+                OutputChannels.write(channel, header);
             }
-            
-            // 结束根元素
-            writer.writeEndElement();
-            writer.writeCharacters("\n");
-            writer.writeEndDocument();
-            
-            writer.flush();
-            writer.close();
-        }
-    }
-    
-    private void generateRecord(XMLStreamWriter writer, GenerationContext context, int recordIndex) throws Exception {
-        // 创建单条记录的上下文
-        GenerationContext recordContext = new GenerationContext(1);
-        if (context.getSeed() != null) {
-            recordContext.setSeed(context.getSeed() + recordIndex);
-        }
-        
-        writer.writeCharacters("  ");
-        writer.writeStartElement(recordElement);
-        writer.writeAttribute("id", String.valueOf(recordIndex + 1));
-        writer.writeCharacters("\n");
-        
-        // 生成字段数据
-        for (String fieldName : fieldNames) {
-            DataGenerator<?> generator = generators.get(fieldName);
-            Object value = generator.generate(recordContext);
-            
-            writer.writeCharacters("    ");
-            writer.writeStartElement(fieldName);
-            
-            if (value != null) {
-                String valueStr = escapeXmlContent(value.toString());
-                writer.writeCharacters(valueStr);
+
+            // 按分片生成并编码数据记录
+            new OrderedChunkPipeline(engine, threadCount)
+                    .withName("xml")
+                    .run(context, startRow, context.getCount(), new XmlEncoder(recordElement, fieldNames), channel);
+
+            // 结束根元素；开始标签可能由另一个分片写出，因此直接写出结束标签
+            if (endRow >= totalRecords) {
+                OutputChannels.write(channel, "</" + rootElement + ">\n");
             }
-            
-            writer.writeEndElement();
-            writer.writeCharacters("\n");
         }
-        
-        writer.writeCharacters("  ");
-        writer.writeEndElement();
-        writer.writeCharacters("\n");
     }
-    
+
     /**
-     * 转义XML内容中的特殊字符
+     * 记录编码器，字段的开始/结束标签预先编码为字节
      */
-    private String escapeXmlContent(String content) {
-        if (content == null) {
-            return "";
+    static final class XmlEncoder implements ChunkEncoder {
+
+        private final byte[] recordStart;
+        private final byte[] recordEnd;
+        private final byte[][] fieldStarts;
+        private final byte[][] fieldEnds;
+
+        XmlEncoder(String recordElement, List<String> fieldNames) {
+            this.recordStart = encode("  <" + recordElement + " id=\"");
+            this.recordEnd = encode("  </" + recordElement + ">\n");
+            this.fieldStarts = new byte[fieldNames.size()][];
+            this.fieldEnds = new byte[fieldNames.size()][];
+            for (int i = 0; i < fieldStarts.length; i++) {
+                fieldStarts[i] = encode("    <" + fieldNames.get(i) + ">");
+                fieldEnds[i] = encode("</" + fieldNames.get(i) + ">\n");
+            }
+        }
+
+        private static byte[] encode(String text) {
+            Utf8Buffer buffer = new Utf8Buffer(text.length() * 3);
+            buffer.putUtf8(text);
+            return buffer.toByteArray();
+        }
+
+        @Override
+        public void encode(RecordBatch batch, Utf8Buffer out) {
+            for (int row = 0; row < batch.size(); row++) {
+                out.put(recordStart);
+                out.putLong(batch.getStartRow() + row + 1);
+                out.putAscii('"');
+                out.putAscii('>');
+                out.putAscii('\n');
+
+                // 写出字段数据
+                for (int column = 0; column < batch.getColumnCount(); column++) {
+                    out.put(fieldStarts[column]);
+                    appendValue(out, batch.getColumn(column), row);
+                    out.put(fieldEnds[column]);
+                }
+
+                out.put(recordEnd);
+            }
+        }
+
+        private static void appendValue(Utf8Buffer out, ColumnVector column, int row) {
+            if (column.isNull(row)) {
+                return;
+            }
+            if (column instanceof StringColumnVector) {
+                StringColumnVector strings = (StringColumnVector) column;
+                appendEscaped(out, strings.getChars(), strings.getOffset(row), strings.getLength(row));
+            } else {
+                Object value = column.getObject(row);
+                if (value != null) {
+                    char[] chars = value.toString().toCharArray();
+                    appendEscaped(out, chars, 0, chars.length);
+                }
+            }
+        }
+
+        /**
+         * 转义XML文本内容中的特殊字符 (&amp;、&lt;、&gt;)，不含特殊字符的片段整体编码
+         */
+        static void appendEscaped(Utf8Buffer out, char[] chars, int offset, int length) {
+            int end = offset + length;
+            int runStart = offset;
+            for (int i = offset; i < end; i++) {
+                char c = chars[i];
+                if (c != '&' && c != '<' && c != '>') {
+                    continue;
+                }
+                out.putUtf8(chars, runStart, i - runStart);
+                runStart = i + 1;
+                out.putUtf8(c == '&' ? "&amp;" : c == '<' ? "&lt;" : "&gt;");
+            }
+            out.putUtf8(chars, runStart, end - runStart);
         }
-        
-        return content.replace("&", "&amp;")
-                     .replace("<", "&lt;")
-                     .replace(">", "&gt;")
-                     .replace("\"", "&quot;")
-                     .replace("'", "&apos;");
     }
-}
\ No newline at end of file
+}
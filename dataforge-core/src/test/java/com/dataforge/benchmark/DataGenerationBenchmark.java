@@ -1,7 +1,9 @@
 package com.dataforge.benchmark;
 
+import com.dataforge.core.CachedDataGenerator;
 import com.dataforge.core.DataGenerator;
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.GeneratorCacheManager;
 import com.dataforge.generators.basic.NameGenerator;
 import com.dataforge.examples.CachedNameGenerator;
 import org.openjdk.jmh.annotations.*;
@@ -11,33 +13,82 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * JMH benchmark for comparing cached vs non-cached data generation performance.
+ * <p>
+ * The CachedDataGenerator benchmarks contrast the precomputed key of a frozen context with
+ * the string key built by {@link GeneratorCacheManager#generateCacheKey}, which copies the
+ * parameter map on every call.
  */
 @BenchmarkMode(Mode.AverageTime)
 @OutputTimeUnit(TimeUnit.MICROSECONDS)
 @State(Scope.Benchmark)
 @Fork(value = 1, jvmArgs = {"-Xms2G", "-Xmx2G"})
 public class DataGenerationBenchmark {
-    
+
     private DataGenerator<String> nameGenerator;
     private CachedNameGenerator cachedNameGenerator;
     private GenerationContext context;
-    
+
+    private CachedDataGenerator<String> cachedDataGenerator;
+    private GenerationContext frozenContext;
+    private GenerationContext mutableContext;
+    private GeneratorCacheManager cacheManager;
+
     @Setup
     public void setup() {
         nameGenerator = new NameGenerator();
         cachedNameGenerator = new CachedNameGenerator();
         context = new GenerationContext(1);
+
+        cacheManager = GeneratorCacheManager.getInstance();
+        cacheManager.clearAll();
+        cachedDataGenerator = new CachedDataGenerator<>("name", context);
+        frozenContext = parameterizedContext().freeze();
+        mutableContext = parameterizedContext();
+        // 预热缓存，使缓存路径的基准只测命中
+        cachedDataGenerator.generate(frozenContext);
+        cacheManager.cacheData(cacheManager.generateCacheKey("name", mutableContext), "cached");
+    }
+
+    private static GenerationContext parameterizedContext() {
+        GenerationContext parameterized = new GenerationContext(1000, 42L);
+        parameterized.setParameter("gender", "ANY");
+        parameterized.setParameter("locale", "zh_CN");
+        parameterized.setParameter("minLength", 2);
+        parameterized.setParameter("maxLength", 4);
+        return parameterized;
     }
-    
+
     @Benchmark
     public void testNonCachedGeneration(Blackhole blackhole) {
         String result = nameGenerator.generate(context);
         blackhole.consume(result);
     }
-    
+
     @Benchmark
     public void testCachedGeneration(Blackhole blackhole) {
         String result = cachedNameGenerator.generate(context);
         blackhole.consume(result);
     }
+
+    @Benchmark
+    public void testUncachedParameterizedGeneration(Blackhole blackhole) {
+        blackhole.consume(nameGenerator.generate(frozenContext));
+    }
+
+    @Benchmark
+    public void testCachedDataGeneratorFrozenKey(Blackhole blackhole) {
+        blackhole.consume(cachedDataGenerator.generate(frozenContext));
+    }
+
+    @Benchmark
+    public void testCachedDataGeneratorUnfrozenKey(Blackhole blackhole) {
+        blackhole.consume(cachedDataGenerator.generate(mutableContext));
+    }
+
+    @Benchmark
+    public void testLegacyStringKeyLookup(Blackhole blackhole) {
+        String key = cacheManager.generateCacheKey("name", mutableContext);
+        String result = cacheManager.getCachedData(key);
+        blackhole.consume(result);
+    }
 }
\ No newline at end of file
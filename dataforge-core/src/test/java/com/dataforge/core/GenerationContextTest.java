@@ -0,0 +1,221 @@
+package com.dataforge.core;
+
+import com.dataforge.core.cache.CacheKey;
+import com.dataforge.generators.numeric.IntegerGenerator;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+class GenerationContextTest {
+
+    private static long[] draw(GenerationContext context, int n) {
+        long[] values = new long[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = context.getRandom().nextLong();
+        }
+        return values;
+    }
+
+    @Test
+    void testSplitIsDeterministicForSeededContext() {
+        GenerationContext first = new GenerationContext(10, 42L);
+        GenerationContext second = new GenerationContext(10, 42L);
+
+        assertEquals(draw(first.split(7), 16), draw(second.split(7), 16));
+        assertNotNull(first.split(7).getSeed());
+    }
+
+    @Test
+    void testSplitDoesNotDependOnParentConsumption() {
+        GenerationContext consumed = new GenerationContext(10, 42L);
+        draw(consumed, 100);
+
+        assertEquals(draw(consumed.split(3), 8), draw(new GenerationContext(10, 42L).split(3), 8));
+    }
+
+    @Test
+    void testDifferentStreamsDiffer() {
+        GenerationContext context = new GenerationContext(10, 42L);
+
+        assertNotEquals(draw(context.split(0), 8), draw(context.split(1), 8));
+        assertNotEquals(draw(context.split(0), 8), draw(new GenerationContext(10, 43L).split(0), 8));
+    }
+
+    @Test
+    void testSplitCopiesParametersAndCount() {
+        GenerationContext context = new GenerationContext(10, 42L);
+        context.setParameter("min", 5);
+
+        GenerationContext child = context.split(1, 3);
+        child.setParameter("max", 9);
+
+        assertEquals(child.getCount(), 3);
+        assertEquals(context.split(2).getCount(), 10);
+        assertEquals(child.getParameter("min", 0), Integer.valueOf(5));
+        assertNull(context.getParameter("max", null));
+    }
+
+    @Test
+    void testUnseededSplitStaysUnseeded() {
+        GenerationContext child = new GenerationContext(10).split(1);
+
+        assertNull(child.getSeed());
+        assertTrue(child.getRandom() instanceof SplitMix64Random);
+    }
+
+    @Test
+    void testSetSeedReseedsRandomAndStreams() {
+        GenerationContext context = new GenerationContext(10);
+        context.setSeed(42L);
+
+        GenerationContext seeded = new GenerationContext(10, 42L);
+        assertEquals(draw(context, 4), draw(seeded, 4));
+        assertEquals(draw(context.split(5), 4), draw(seeded.split(5), 4));
+    }
+
+    @Test
+    void testSeekRowIsRandomAccess() {
+        GenerationContext sequential = new GenerationContext(10, 42L).split(1);
+        long[] values = new long[100];
+        for (int row = 0; row < values.length; row++) {
+            sequential.seekRow(row);
+            // consume a varying number of values per row
+            for (int i = 0; i < row % 3; i++) {
+                sequential.getRandom().nextInt();
+            }
+            values[row] = sequential.getRandom().nextLong();
+        }
+
+        GenerationContext direct = new GenerationContext(10, 42L).split(1);
+        direct.seekRow(73);
+        for (int i = 0; i < 73 % 3; i++) {
+            direct.getRandom().nextInt();
+        }
+        assertEquals(direct.getRandom().nextLong(), values[73]);
+    }
+
+    @Test
+    void testSeekRowGaussianIgnoresEarlierRows() {
+        GenerationContext sequential = new GenerationContext(10, 42L).split(1);
+        sequential.seekRow(0);
+        sequential.getRandom().nextGaussian();
+        sequential.seekRow(1);
+        double afterRowZero = sequential.getRandom().nextGaussian();
+
+        GenerationContext direct = new GenerationContext(10, 42L).split(1);
+        direct.seekRow(1);
+        assertEquals(direct.getRandom().nextGaussian(), afterRowZero);
+
+        direct.seekRow(1);
+        direct.getRandom().nextGaussian();
+        direct.seekRow(1);
+        assertEquals(direct.getRandom().nextGaussian(), afterRowZero);
+    }
+
+    @Test
+    void testSplitMix64GaussianIsStandardNormal() {
+        SplitMix64Random random = new SplitMix64Random(7L);
+        int n = 200_000;
+        double sum = 0;
+        double sumSquares = 0;
+        for (int i = 0; i < n; i++) {
+            double value = random.nextGaussian();
+            assertFalse(Double.isNaN(value) || Double.isInfinite(value));
+            sum += value;
+            sumSquares += value * value;
+        }
+        double mean = sum / n;
+        assertEquals(mean, 0.0, 0.01);
+        assertEquals(sumSquares / n - mean * mean, 1.0, 0.02);
+    }
+
+    @Test
+    void testSeekRowOnRootContextSwitchesToCounterStream() {
+        GenerationContext first = new GenerationContext(10, 42L);
+        GenerationContext second = new GenerationContext(10, 42L);
+        draw(second, 5);
+
+        first.seekRow(4_100_000_000L);
+        second.seekRow(4_100_000_000L);
+
+        assertEquals(draw(first, 3), draw(second, 3));
+    }
+
+    @Test
+    void testSplitMix64NextIntRespectsBound() {
+        SplitMix64Random random = new SplitMix64Random(1L);
+        for (int i = 0; i < 1000; i++) {
+            int value = random.nextInt(7);
+            assertTrue(value >= 0 && value < 7);
+            double d = random.nextDouble();
+            assertTrue(d >= 0.0 && d < 1.0);
+        }
+    }
+
+    @Test
+    void testConcurrentGenerationIsReproducible() {
+        ConcurrentDataGenerator twoThreads = new ConcurrentDataGenerator(2);
+        ConcurrentDataGenerator fourThreads = new ConcurrentDataGenerator(4);
+        try {
+            IntegerGenerator generator = new IntegerGenerator();
+            List<Integer> first = twoThreads.generate(generator, new GenerationContext(5000, 42L), 5000, 100);
+            List<Integer> second = fourThreads.generate(generator, new GenerationContext(5000, 42L), 5000, 100);
+
+            assertEquals(first.size(), 5000);
+            assertEquals(first, second);
+        } finally {
+            twoThreads.shutdown();
+            fourThreads.shutdown();
+        }
+    }
+
+    @Test
+    void testFrozenContextReusesCacheKey() {
+        GenerationContext context = new GenerationContext(10, 42L);
+        context.setParameter("locale", "zh_CN");
+        CacheKey unfrozen = context.cacheKey("name");
+
+        context.freeze();
+        CacheKey first = context.cacheKey("name");
+
+        assertSame(context.cacheKey("name"), first);
+        assertEquals(first, unfrozen);
+        assertEquals(first.hashCode(), unfrozen.hashCode());
+        assertNotEquals(context.cacheKey("email"), first);
+        assertNotEquals(new GenerationContext(10, 43L).cacheKey("name"), first);
+    }
+
+    @Test
+    void testFrozenContextRejectsChanges() {
+        GenerationContext context = new GenerationContext(10, 42L).freeze();
+        assertTrue(context.isFrozen());
+        assertThrows(IllegalStateException.class, () -> context.setParameter("locale", "en_US"));
+        assertThrows(IllegalStateException.class, () -> context.setSeed(1L));
+
+        GenerationContext child = context.split(1);
+        assertTrue(child.isFrozen());
+        assertThrows(IllegalStateException.class, () -> child.setParameter("locale", "en_US"));
+
+        GenerationContext unfrozenChild = new GenerationContext(10, 42L).split(1);
+        assertFalse(unfrozenChild.isFrozen());
+        unfrozenChild.setParameter("locale", "en_US");
+    }
+
+    @Test
+    void testChildrenOfFrozenContextShareCacheKeys() {
+        GenerationContext context = new GenerationContext(10, 42L);
+        context.setParameter("locale", "zh_CN");
+        context.freeze();
+        CacheKey key = context.cacheKey("name");
+
+        GenerationContext column = context.split(7, 4096);
+        assertSame(column.cacheKey("name"), key);
+        assertSame(column.split(3).cacheKey("name"), key);
+        assertSame(context.withCount(5).cacheKey("name"), key);
+        assertEquals(column.getParameter("locale", null), "zh_CN");
+        // 共享键但各自的随机流仍按流标识区分
+        assertNotEquals(column.getRandom().nextLong(), context.split(8, 4096).getRandom().nextLong());
+    }
+}
\ No newline at end of file
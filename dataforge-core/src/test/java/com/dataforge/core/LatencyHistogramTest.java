@@ -0,0 +1,88 @@
+package com.dataforge.core;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testBucketsAreContiguous() {
+        // 相邻值落在同一个桶或下一个桶，桶上界与桶下标一一对应
+        int previous = LatencyHistogram.countsIndex(0);
+        for (long value = 1; value < 1 << 20; value++) {
+            int index = LatencyHistogram.countsIndex(value);
+            assertTrue(index == previous || index == previous + 1, "value " + value);
+            assertTrue(LatencyHistogram.highestEquivalentValue(index) >= value);
+            previous = index;
+        }
+    }
+
+    @Test
+    void testPercentilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(snapshot.getTotalCount(), 100_000);
+        assertEquals(snapshot.getMin(), 1000);
+        assertEquals(snapshot.getMax(), 100_000_000);
+        assertEquals(snapshot.getValueAtPercentile(0.5), 50_000_000, 50_000_000 / 64.0);
+        assertEquals(snapshot.getValueAtPercentile(0.99), 99_000_000, 99_000_000 / 64.0);
+        assertEquals(snapshot.getValueAtPercentile(0.999), 99_900_000, 99_900_000 / 64.0);
+        assertEquals(snapshot.getValueAtPercentile(1.0), 100_000_000);
+        assertEquals(snapshot.getMean(), 50_000_500, 50_000_500 / 64.0);
+    }
+
+    @Test
+    void testLargeValuesKeepExactMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(5);
+        histogram.record(Long.MAX_VALUE / 2);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(snapshot.getValueAtPercentile(0.5), 5);
+        assertEquals(snapshot.getMax(), Long.MAX_VALUE / 2);
+        assertTrue(snapshot.getValueAtPercentile(1.0) <= Long.MAX_VALUE / 2);
+    }
+
+    @Test
+    void testConcurrentRecordingIsNotLost() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(histogram.snapshot().getTotalCount(), 200_000);
+
+        histogram.reset();
+        assertEquals(histogram.snapshot().getTotalCount(), 0);
+        assertEquals(histogram.snapshot().getMax(), 0);
+    }
+
+    @Test
+    void testGeneratorMetricsCoverWholeRun() {
+        PerformanceMonitor.GeneratorMetrics metrics = new PerformanceMonitor.GeneratorMetrics("test");
+        for (int i = 1; i <= 10_000; i++) {
+            metrics.recordOperation(i * 1_000L, 1);
+        }
+        // 百分位数基于全部 10000 次记录，而不只是最近的样本
+        assertEquals(metrics.getPercentile(0.5), 5.0, 5.0 / 64);
+        assertEquals(metrics.getMaxLatency(), 10);
+        assertEquals(metrics.getTotalItemsGenerated(), 10_000);
+    }
+}
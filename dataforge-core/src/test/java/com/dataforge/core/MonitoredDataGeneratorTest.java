@@ -0,0 +1,88 @@
+package com.dataforge.core;
+
+import com.dataforge.core.columnar.ColumnarGenerationEngine;
+import com.dataforge.core.columnar.RecordBatch;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+class MonitoredDataGeneratorTest {
+
+    private final PerformanceMonitor monitor = PerformanceMonitor.getInstance();
+
+    @AfterMethod
+    void restoreMonitor() {
+        monitor.setSampleInterval(1);
+        monitor.setEnabled(true);
+    }
+
+    private static MonitoredDataGenerator<Long> monitored(String name) {
+        return new MonitoredDataGenerator<>(GenerationContext::getRowIndex, name);
+    }
+
+    @Test
+    void testSampledModeCountsEveryCall() {
+        MonitoredDataGenerator<Long> generator = monitored("sampled-test");
+        monitor.setSampleInterval(10);
+        GenerationContext context = new GenerationContext(1);
+        for (int i = 0; i < 1000; i++) {
+            generator.generate(context);
+        }
+
+        // 每 10 次调用计时一次，每次采样按 10 次操作计入
+        PerformanceMonitor.GeneratorMetrics metrics = monitor.getGeneratorMetrics("sampled-test");
+        assertEquals(metrics.getTotalOperations(), 1000);
+        assertEquals(metrics.getTotalItemsGenerated(), 1000);
+        assertEquals(metrics.getLatencyHistogram().snapshot().getTotalCount(), 1000);
+    }
+
+    @Test
+    void testModeCanBeSwitchedAtRuntime() {
+        MonitoredDataGenerator<Long> generator = monitored("switch-test");
+        GenerationContext context = new GenerationContext(1);
+        for (int i = 0; i < 5; i++) {
+            generator.generate(context);
+        }
+        assertEquals(monitor.getGeneratorMetrics("switch-test").getTotalOperations(), 5);
+
+        // 同一个生成器实例切换到采样模式，未到采样点前不记录
+        monitor.setSampleInterval(100);
+        for (int i = 0; i < 99; i++) {
+            generator.generate(context);
+        }
+        assertEquals(monitor.getGeneratorMetrics("switch-test").getTotalOperations(), 5);
+        generator.generate(context);
+        assertEquals(monitor.getGeneratorMetrics("switch-test").getTotalOperations(), 105);
+
+        monitor.setEnabled(false);
+        for (int i = 0; i < 1000; i++) {
+            generator.generate(context);
+        }
+        assertEquals(monitor.getGeneratorMetrics("switch-test").getTotalOperations(), 105);
+    }
+
+    @Test
+    void testColumnarEngineTimesWholeBatches() {
+        monitor.setSampleInterval(16);
+        List<String> fields = Collections.singletonList("id");
+        Map<String, DataGenerator<?>> generators = Collections.singletonMap("id", monitored("batch-test"));
+        ColumnarGenerationEngine engine = new ColumnarGenerationEngine(fields, generators, 500);
+        RecordBatch batch = engine.createBatch();
+        engine.fill(batch, 1000, 500, new GenerationContext(500, 1L));
+
+        // 值与逐行生成一致，整批按 500 次操作计入
+        assertEquals(batch.getColumn(0).getObject(0), 1000L);
+        assertEquals(batch.getColumn(0).getObject(499), 1499L);
+        assertEquals(monitor.getGeneratorMetrics("batch-test").getTotalOperations(), 500);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    void testRejectsNonPositiveInterval() {
+        monitor.setSampleInterval(0);
+    }
+}
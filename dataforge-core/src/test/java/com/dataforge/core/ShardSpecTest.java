@@ -0,0 +1,155 @@
+package com.dataforge.core;
+
+import com.dataforge.core.uniqueness.UniquenessScope;
+import com.dataforge.generators.basic.IdCardNumberGenerator;
+import com.dataforge.generators.basic.PhoneNumberGenerator;
+import com.dataforge.generators.business.BusinessDocumentNumberGenerator;
+import org.testng.annotations.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.testng.Assert.*;
+
+class ShardSpecTest {
+
+    @Test
+    void testParse() {
+        ShardSpec shard = ShardSpec.parse("2/8");
+
+        assertEquals(shard.getIndex(), 2);
+        assertEquals(shard.getCount(), 8);
+        assertEquals(shard.toString(), "2/8");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    void testParseRejectsIndexOutOfRange() {
+        ShardSpec.parse("8/8");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    void testParseRejectsMalformedValue() {
+        ShardSpec.parse("3");
+    }
+
+    @Test
+    void testRowRangesAreContiguousAndCoverDataset() {
+        long totalRows = 1_000_003L;
+        long expectedStart = 0;
+        for (int i = 0; i < 7; i++) {
+            ShardSpec shard = new ShardSpec(i, 7);
+            assertEquals(shard.startRow(totalRows), expectedStart);
+            expectedStart += shard.rowCount(totalRows);
+        }
+        assertEquals(expectedStart, totalRows);
+    }
+
+    @Test
+    void testEachValueHasExactlyOneOwner() {
+        for (int value = 0; value < 1000; value++) {
+            int owners = 0;
+            for (int i = 0; i < 5; i++) {
+                if (new ShardSpec(i, 5).owns("value-" + value)) {
+                    owners++;
+                }
+            }
+            assertEquals(owners, 1);
+        }
+    }
+
+    @Test
+    void testUnshardedContextOwnsEverything() {
+        ShardSpec shard = ShardSpec.of(new GenerationContext(1));
+
+        assertTrue(shard.isSingle());
+        assertTrue(shard.owns("anything"));
+    }
+
+    @Test
+    void testShardedPhoneNumbersAreOwnedByTheirShard() {
+        PhoneNumberGenerator generator = new PhoneNumberGenerator();
+        for (int i = 0; i < 3; i++) {
+            ShardSpec shard = new ShardSpec(i, 3);
+            GenerationContext context = new GenerationContext(100, 42L);
+            context.setParameter(ShardSpec.PARAMETER, shard);
+            for (int row = 0; row < 100; row++) {
+                assertTrue(shard.owns(generator.generate(context)));
+            }
+        }
+    }
+
+    @Test
+    void testRowAddressedSequencesAreGloballyUnique() {
+        BusinessDocumentNumberGenerator generator = new BusinessDocumentNumberGenerator();
+        Set<String> numbers = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            ShardSpec shard = new ShardSpec(i, 4);
+            GenerationContext context = new GenerationContext(250, 42L).split(0);
+            long start = shard.startRow(1000);
+            for (long row = start; row < start + shard.rowCount(1000); row++) {
+                context.seekRow(row);
+                assertTrue(numbers.add(generator.generate(context)));
+            }
+        }
+        assertEquals(numbers.size(), 1000);
+    }
+
+    @Test
+    void testShardedIdCardNumbersFillTheirSpaceReproducibly() {
+        // 31 regions x 1 day x 500 female sequences, split over 2 shards
+        IdCardNumberGenerator generator = new IdCardNumberGenerator(
+                LocalDate.of(1990, 1, 1), LocalDate.of(1990, 1, 1), IdCardNumberGenerator.Gender.FEMALE);
+        Set<String> all = new HashSet<>();
+        for (int i = 0; i < 2; i++) {
+            ShardSpec shard = new ShardSpec(i, 2);
+            List<String> first = generateIdCards(generator, shard);
+            assertEquals(generateIdCards(generator, shard), first);
+            for (String number : first) {
+                assertTrue(shard.owns(number));
+                assertTrue(all.add(number), "duplicate id card number: " + number);
+            }
+        }
+        assertEquals(all.size(), 31 * 500);
+    }
+
+    private static List<String> generateIdCards(IdCardNumberGenerator generator, ShardSpec shard) {
+        List<String> numbers = new ArrayList<>();
+        try (UniquenessScope scope = new UniquenessScope("shard-" + shard.getIndex())) {
+            GenerationContext context = new GenerationContext(1, 42L);
+            context.setUniquenessScope(scope);
+            context.setParameter(ShardSpec.PARAMETER, shard);
+            context.setParameter("unique", true);
+            while (true) {
+                try {
+                    numbers.add(generator.generate(context));
+                } catch (IllegalStateException exhausted) {
+                    assertTrue(exhausted.getMessage().contains("exhausted"));
+                    return numbers;
+                }
+            }
+        }
+    }
+
+    @Test
+    void testShardedDocumentNumberFallbackIsOwnedAndUnique() {
+        // 两位随机数只有 100 个取值，之后的单据号都来自追加序号的回退路径
+        BusinessDocumentNumberGenerator generator = new BusinessDocumentNumberGenerator(
+                BusinessDocumentNumberGenerator.DocumentType.ORDER, BusinessDocumentNumberGenerator.NumberFormat.RANDOM,
+                "ORD", 5);
+        ShardSpec shard = new ShardSpec(1, 3);
+        try (UniquenessScope scope = new UniquenessScope("documents")) {
+            GenerationContext context = new GenerationContext(1, 42L);
+            context.setUniquenessScope(scope);
+            context.setParameter(ShardSpec.PARAMETER, shard);
+            Set<String> numbers = new HashSet<>();
+            for (int i = 0; i < 200; i++) {
+                String number = generator.generate(context);
+                assertTrue(shard.owns(number));
+                assertTrue(numbers.add(number), "duplicate document number: " + number);
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.dataforge.core.cache;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+class ConcurrentBoundedCacheTest {
+
+    @Test
+    void testEntryBoundEvictsUnreferencedEntriesFirst() {
+        ConcurrentBoundedCache<String, String> cache = new ConcurrentBoundedCache<>(4);
+        for (int i = 0; i < 4; i++) {
+            cache.put("k" + i, "v" + i);
+        }
+        // k0 被访问过，CLOCK 指针会跳过它一次
+        assertEquals(cache.get("k0"), "v0");
+
+        cache.put("k4", "v4");
+
+        assertEquals(cache.size(), 4);
+        assertEquals(cache.getEvictionCount(), 1);
+        assertTrue(cache.containsKey("k0"));
+        assertFalse(cache.containsKey("k1"));
+        assertTrue(cache.containsKey("k4"));
+    }
+
+    @Test
+    void testWeightBound() {
+        ConcurrentBoundedCache<String, String> cache = new ConcurrentBoundedCache<>(
+                ConcurrentBoundedCache.UNBOUNDED, 100, 0, (key, value) -> value.length());
+        for (int i = 0; i < 50; i++) {
+            cache.put("k" + i, "0123456789");
+            assertTrue(cache.weight() <= 100);
+        }
+        assertEquals(cache.size(), 10);
+        assertEquals(cache.getEvictionCount(), 40);
+
+        // 单个条目超过容量时不缓存
+        cache.put("huge", new String(new char[101]));
+        assertFalse(cache.containsKey("huge"));
+    }
+
+    @Test
+    void testReplacingKeyKeepsWeightConsistent() {
+        ConcurrentBoundedCache<String, String> cache = new ConcurrentBoundedCache<>(
+                10, 1000, 0, (key, value) -> value.length());
+        cache.put("k", "abc");
+        cache.put("k", "abcdef");
+
+        assertEquals(cache.size(), 1);
+        assertEquals(cache.weight(), 6);
+        assertEquals(cache.get("k"), "abcdef");
+
+        cache.invalidate("k");
+        assertEquals(cache.size(), 0);
+        assertEquals(cache.weight(), 0);
+    }
+
+    @Test
+    void testOverweightReplacementDropsStaleValue() {
+        ConcurrentBoundedCache<String, String> cache = new ConcurrentBoundedCache<>(
+                10, 100, 0, (key, value) -> value.length());
+        cache.put("k", "abc");
+
+        // 新值超过容量不缓存，被它覆盖的旧值也不能再返回
+        cache.put("k", new String(new char[101]));
+
+        assertNull(cache.get("k"));
+        assertFalse(cache.containsKey("k"));
+        assertEquals(cache.size(), 0);
+        assertEquals(cache.weight(), 0);
+    }
+
+    @Test
+    void testLazyExpiry() throws InterruptedException {
+        ConcurrentBoundedCache<String, String> cache = new ConcurrentBoundedCache<>(
+                100, ConcurrentBoundedCache.UNBOUNDED, 20, (key, value) -> 1);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        assertEquals(cache.get("a"), "1");
+
+        Thread.sleep(50);
+
+        assertNull(cache.get("a"));
+        assertEquals(cache.getExpirationCount(), 1);
+        cache.cleanUp();
+        assertEquals(cache.size(), 0);
+        assertEquals(cache.getExpirationCount(), 2);
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getMissCount(), 1);
+    }
+
+    @Test
+    void testConcurrentPutsStayWithinBound() throws Exception {
+        ConcurrentBoundedCache<Integer, Integer> cache = new ConcurrentBoundedCache<>(1024);
+        assertTrue(cache.getStripeCount() > 1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t * 100_000;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 50_000; i++) {
+                        cache.put(offset + i, i);
+                        cache.get(offset + i / 2);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(cache.size() <= 1024 + cache.getStripeCount(), "size: " + cache.size());
+        assertEquals(cache.size() + cache.getEvictionCount(), 200_000);
+        assertEquals(cache.getHitCount() + cache.getMissCount(), 200_000);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,168 @@
+package com.dataforge.core.columnar;
+
+import com.dataforge.core.DataGenerator;
+import com.dataforge.core.GenerationContext;
+import com.dataforge.generators.basic.AgeGenerator;
+import com.dataforge.generators.numeric.DecimalGenerator;
+import com.dataforge.generators.numeric.StatisticalDistributionGenerator;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+class ColumnarGenerationEngineTest {
+
+    private static final List<String> FIELDS = Arrays.asList("label", "age", "score", "amount", "missing");
+
+    private Map<String, DataGenerator<?>> createGenerators() {
+        Map<String, DataGenerator<?>> generators = new LinkedHashMap<>();
+        generators.put("label", new LabelGenerator());
+        generators.put("age", new AgeGenerator());
+        generators.put("score", new StatisticalDistributionGenerator());
+        generators.put("amount", new DecimalGenerator());
+        return generators;
+    }
+
+    @Test
+    void testColumnTypesAreInferredFromGenerators() {
+        ColumnarGenerationEngine engine = new ColumnarGenerationEngine(FIELDS, createGenerators());
+
+        assertEquals(engine.getColumnTypes(), Arrays.asList(
+                ColumnType.STRING, ColumnType.INT, ColumnType.DOUBLE, ColumnType.OBJECT, ColumnType.OBJECT));
+    }
+
+    @Test
+    void testGenerateDeliversAllRowsInFixedSizeBatches() throws IOException {
+        ColumnarGenerationEngine engine = new ColumnarGenerationEngine(FIELDS, createGenerators(), 64);
+        List<Long> startRows = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+
+        engine.generate(new GenerationContext(150, 42L), batch -> {
+            startRows.add(batch.getStartRow());
+            sizes.add(batch.size());
+
+            IntColumnVector ages = (IntColumnVector) batch.getColumn(1);
+            StringColumnVector labels = (StringColumnVector) batch.getColumn(0);
+            for (int row = 0; row < batch.size(); row++) {
+                assertTrue(ages.get(row) >= 18 && ages.get(row) <= 65);
+                assertEquals(labels.getString(row), "label-" + row);
+                assertTrue(batch.getColumn(4).isNull(row));
+            }
+        });
+
+        assertEquals(startRows, Arrays.asList(0L, 64L, 128L));
+        assertEquals(sizes, Arrays.asList(64, 64, 22));
+    }
+
+    @Test
+    void testSeededFillIsRepeatable() {
+        // score is backed by a generator with its own Random, so only context-driven columns are compared
+        List<String> fields = Arrays.asList("label", "age", "amount");
+        ColumnarGenerationEngine engine = new ColumnarGenerationEngine(fields, createGenerators(), 32);
+        RecordBatch first = engine.createBatch();
+        RecordBatch second = engine.createBatch();
+
+        engine.fill(first, 96, 32, new GenerationContext(1000, 7L));
+        engine.fill(second, 96, 32, new GenerationContext(1000, 7L));
+
+        for (int column = 0; column < first.getColumnCount(); column++) {
+            for (int row = 0; row < first.size(); row++) {
+                assertEquals(first.getColumn(column).getObject(row), second.getColumn(column).getObject(row));
+            }
+        }
+    }
+
+    @Test
+    void testRowsDependOnlyOnSeedColumnAndRowIndex() {
+        List<String> fields = Arrays.asList("age", "amount");
+        RecordBatch whole = new ColumnarGenerationEngine(fields, createGenerators(), 100).createBatch();
+        new ColumnarGenerationEngine(fields, createGenerators(), 100).fill(whole, 0, 100, new GenerationContext(100, 7L));
+
+        // a different batch size and an unaligned start row must yield the same values
+        ColumnarGenerationEngine engine = new ColumnarGenerationEngine(fields, createGenerators(), 16);
+        RecordBatch slice = engine.createBatch();
+        engine.fill(slice, 37, 16, new GenerationContext(100, 7L));
+
+        for (int column = 0; column < slice.getColumnCount(); column++) {
+            for (int row = 0; row < slice.size(); row++) {
+                assertEquals(slice.getColumn(column).getObject(row), whole.getColumn(column).getObject(37 + row));
+            }
+        }
+    }
+
+    @Test
+    void testRefillColumnLeavesOtherColumnsUntouched() {
+        List<String> fields = Arrays.asList("age", "amount");
+        ColumnarGenerationEngine engine = new ColumnarGenerationEngine(fields, createGenerators(), 32);
+        RecordBatch batch = engine.createBatch();
+        engine.fill(batch, 64, 32, new GenerationContext(100, 7L));
+        List<Object> ages = new ArrayList<>();
+        List<Object> amounts = new ArrayList<>();
+        for (int row = 0; row < batch.size(); row++) {
+            ages.add(batch.getColumn(0).getObject(row));
+            amounts.add(batch.getColumn(1).getObject(row));
+        }
+
+        engine.refillColumn(batch, 1, new GenerationContext(100, 7L));
+
+        for (int row = 0; row < batch.size(); row++) {
+            assertEquals(batch.getColumn(0).getObject(row), ages.get(row));
+            assertEquals(batch.getColumn(1).getObject(row), amounts.get(row));
+        }
+        assertEquals(batch.getColumn(1).size(), 32);
+    }
+
+    @Test
+    void testStringColumnPacksValuesAndNulls() {
+        StringColumnVector vector = new StringColumnVector("text", 4);
+        vector.append("ab");
+        vector.appendNull();
+        vector.append("");
+        vector.append("cde");
+
+        StringBuilder builder = new StringBuilder();
+        for (int row = 0; row < vector.size(); row++) {
+            vector.appendTo(builder, row);
+            builder.append('|');
+        }
+
+        assertEquals(builder.toString(), "ab|||cde|");
+        assertNull(vector.getString(1));
+        assertEquals(vector.getString(2), "");
+
+        vector.reset();
+        vector.append("x");
+        assertEquals(vector.getString(0), "x");
+        assertFalse(vector.isNull(1));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    void testAppendBeyondCapacityFails() {
+        IntColumnVector vector = new IntColumnVector("n", 1);
+        vector.append(1);
+        vector.append(2);
+    }
+
+    /**
+     * Emits a label derived from the position inside the column so that batch boundaries are observable.
+     */
+    private static class LabelGenerator implements DataGenerator<String> {
+        private GenerationContext lastContext;
+        private int counter;
+
+        @Override
+        public String generate(GenerationContext context) {
+            if (context != lastContext) {
+                lastContext = context;
+                counter = 0;
+            }
+            return "label-" + counter++;
+        }
+    }
+}
\ No newline at end of file
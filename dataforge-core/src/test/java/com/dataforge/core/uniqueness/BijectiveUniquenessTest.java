@@ -0,0 +1,179 @@
+package com.dataforge.core.uniqueness;
+
+import com.dataforge.core.GenerationContext;
+import com.dataforge.core.ShardSpec;
+import com.dataforge.generators.basic.BankCardNumberGenerator;
+import com.dataforge.generators.basic.IdCardNumberGenerator;
+import com.dataforge.generators.basic.UnifiedSocialCreditCodeGenerator;
+import com.dataforge.generators.identifiers.LicensePlateGenerator;
+import org.testng.annotations.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.testng.Assert.*;
+
+class BijectiveUniquenessTest {
+
+    private static GenerationContext bijectiveContext(long key) {
+        GenerationContext context = new GenerationContext(1, 42L).split(0);
+        context.setUniquenessScope(new UniquenessScope("bijective"));
+        context.setParameter(BijectiveUniqueness.MODE_PARAMETER, BijectiveUniqueness.BIJECTIVE);
+        context.setParameter(BijectiveUniqueness.KEY_PARAMETER, key);
+        return context;
+    }
+
+    @Test
+    void testPermutationIsBijectiveOnOddSizedDomain() {
+        for (long domainSize : new long[] {1, 2, 3, 1000, 4097}) {
+            FeistelPermutation permutation = new FeistelPermutation(domainSize, 7L);
+            boolean[] seen = new boolean[(int) domainSize];
+            for (long i = 0; i < domainSize; i++) {
+                long value = permutation.permute(i);
+                assertTrue(value >= 0 && value < domainSize);
+                assertFalse(seen[(int) value], "value " + value + " produced twice");
+                seen[(int) value] = true;
+            }
+        }
+    }
+
+    @Test
+    void testDifferentKeysGiveDifferentOrders() {
+        long[] first = new long[16];
+        long[] second = new long[16];
+        for (int i = 0; i < first.length; i++) {
+            first[i] = new FeistelPermutation(1_000_000, 1L).permute(i);
+            second[i] = new FeistelPermutation(1_000_000, 2L).permute(i);
+        }
+        assertFalse(Arrays.equals(first, second));
+    }
+
+    @Test
+    void testKeyDefaultsToContextSeed() {
+        GenerationContext first = new GenerationContext(1, 42L).split(0);
+        GenerationContext second = new GenerationContext(1, 43L).split(0);
+        assertEquals(BijectiveUniqueness.key(first), 42L);
+        assertEquals(BijectiveUniqueness.key(second), 43L);
+        assertEquals(BijectiveUniqueness.key(new GenerationContext(1)), 0L);
+
+        UnifiedSocialCreditCodeGenerator generator = new UnifiedSocialCreditCodeGenerator();
+        for (GenerationContext context : Arrays.asList(first, second)) {
+            context.setUniquenessScope(new UniquenessScope("bijective"));
+            context.setParameter(BijectiveUniqueness.MODE_PARAMETER, BijectiveUniqueness.BIJECTIVE);
+        }
+        String[] firstCodes = new String[8];
+        String[] secondCodes = new String[8];
+        for (int row = 0; row < firstCodes.length; row++) {
+            first.seekRow(row);
+            second.seekRow(row);
+            firstCodes[row] = generator.generate(first);
+            secondCodes[row] = generator.generate(second);
+        }
+        assertFalse(Arrays.equals(firstCodes, secondCodes));
+    }
+
+    @Test
+    void testKeyAcceptsNumbersAndStrings() {
+        GenerationContext context = new GenerationContext(1, 42L);
+        context.setParameter(BijectiveUniqueness.KEY_PARAMETER, 7);
+        assertEquals(BijectiveUniqueness.key(context), 7L);
+        context.setParameter(BijectiveUniqueness.KEY_PARAMETER, " 123456789012 ");
+        assertEquals(BijectiveUniqueness.key(context), 123456789012L);
+        context.setParameter(BijectiveUniqueness.KEY_PARAMETER, "abc");
+        assertThrows(IllegalArgumentException.class, () -> BijectiveUniqueness.key(context));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    void testPermutationRejectsOversizedDomain() {
+        new FeistelPermutation(FeistelPermutation.MAX_DOMAIN_SIZE + 1, 0L);
+    }
+
+    @Test
+    void testIdCardNumbersAreUniqueWithValidCheckCode() {
+        IdCardNumberGenerator generator = new IdCardNumberGenerator(
+                LocalDate.of(1990, 1, 1), LocalDate.of(1990, 1, 10), IdCardNumberGenerator.Gender.FEMALE);
+        GenerationContext context = bijectiveContext(3L);
+        Set<String> numbers = new HashSet<>();
+        int[] weights = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+        String checkCodes = "10X98765432";
+        // 31 regions x 10 days x 500 female sequences
+        for (long row = 0; row < 155_000; row++) {
+            context.seekRow(row);
+            String number = generator.generate(context);
+            assertTrue(numbers.add(number), "duplicate id card number: " + number);
+
+            int sum = 0;
+            for (int i = 0; i < 17; i++) {
+                sum += (number.charAt(i) - '0') * weights[i];
+            }
+            assertEquals(number.charAt(17), checkCodes.charAt(sum % 11));
+            assertEquals((number.charAt(16) - '0') % 2, 0);
+        }
+    }
+
+    @Test
+    void testShardsShareOneUniqueSequence() {
+        UnifiedSocialCreditCodeGenerator generator = new UnifiedSocialCreditCodeGenerator();
+        Set<String> codes = new HashSet<>();
+        for (int shardIndex = 0; shardIndex < 3; shardIndex++) {
+            ShardSpec shard = new ShardSpec(shardIndex, 3);
+            GenerationContext context = bijectiveContext(5L);
+            long start = shard.startRow(3000);
+            for (long row = start; row < start + shard.rowCount(3000); row++) {
+                context.seekRow(row);
+                String code = generator.generate(context);
+                assertEquals(code.length(), 18);
+                assertTrue(codes.add(code));
+            }
+        }
+        assertEquals(codes.size(), 3000);
+    }
+
+    @Test
+    void testBankCardNumbersPassLuhnCheck() {
+        BankCardNumberGenerator generator = new BankCardNumberGenerator(
+                BankCardNumberGenerator.CardType.ANY, BankCardNumberGenerator.Issuer.AMEX, true);
+        GenerationContext context = bijectiveContext(9L);
+        Set<String> numbers = new HashSet<>();
+        for (int i = 0; i < 5000; i++) {
+            String number = generator.generate(context);
+            assertEquals(number.length(), 15);
+            assertTrue(number.startsWith("34") || number.startsWith("37"));
+            assertTrue(numbers.add(number));
+
+            int sum = 0;
+            for (int d = 0; d < number.length(); d++) {
+                int digit = number.charAt(number.length() - 1 - d) - '0';
+                if (d % 2 == 1) {
+                    digit *= 2;
+                    if (digit > 9) {
+                        digit -= 9;
+                    }
+                }
+                sum += digit;
+            }
+            assertEquals(sum % 10, 0, "Luhn check failed: " + number);
+        }
+    }
+
+    @Test
+    void testConsulatePlatesExhaustTheirSpace() {
+        LicensePlateGenerator generator = new LicensePlateGenerator(LicensePlateGenerator.PlateType.CONSULATE);
+        GenerationContext context = bijectiveContext(1L);
+        Set<String> plates = new HashSet<>();
+        for (int i = 0; i < 2000; i++) {
+            String plate = generator.generate(context);
+            assertTrue(plate.matches("使\\d{3}领|领\\d{3}使"), plate);
+            assertTrue(plates.add(plate));
+        }
+
+        try {
+            generator.generate(context);
+            fail("Expected the plate space to be exhausted");
+        } catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage().contains("exhausted"));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.dataforge.core.uniqueness;
+
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.testng.Assert.*;
+
+class UniquenessFilterTest {
+
+    @Test
+    void testFingerprintSetRejectsDuplicatesAcrossResize() {
+        FingerprintSet set = new FingerprintSet();
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(set.add("value-" + i));
+        }
+        for (int i = 0; i < 100_000; i += 7) {
+            assertFalse(set.add("value-" + i));
+            assertTrue(set.mightContain("value-" + i));
+        }
+
+        assertFalse(set.mightContain("value-100000"));
+        assertEquals(set.size(), 100_000);
+        assertTrue(set.isExact());
+        // 64 位指纹约 8 字节/值，留出负载因子与扩容余量
+        assertTrue(set.memoryBytes() < 100_000L * 8 * 4);
+
+        set.clear();
+        assertEquals(set.size(), 0);
+        assertTrue(set.add("value-1"));
+    }
+
+    @Test
+    void testFingerprintSetSortedArray() {
+        FingerprintSet set = new FingerprintSet();
+        for (int i = 0; i < 1000; i++) {
+            set.add("v" + i);
+        }
+        long[] sorted = set.toSortedArray();
+
+        assertEquals(sorted.length, 1000);
+        for (int i = 1; i < sorted.length; i++) {
+            assertTrue(sorted[i - 1] < sorted[i]);
+        }
+    }
+
+    @Test
+    void testBloomFilterHasNoFalseNegativesAndBoundedFalsePositives() {
+        BlockedBloomFilter filter = new BlockedBloomFilter(50_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filter.add("member-" + i);
+        }
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(filter.mightContain("member-" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 50_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertFalse(filter.isExact());
+        assertTrue(falsePositives < 50_000 * 0.03, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void testSpillingSetStaysExactAcrossRuns() throws Exception {
+        File directory = Files.createTempDirectory("uniqueness").toFile();
+        SpillingFingerprintSet set = new SpillingFingerprintSet(directory, 1000);
+        try {
+            for (int i = 0; i < 10_000; i++) {
+                assertTrue(set.add("value-" + i));
+            }
+            assertTrue(set.getRunCount() > 0);
+            assertTrue(set.diskBytes() > 0);
+            for (int i = 0; i < 10_000; i += 3) {
+                assertFalse(set.add("value-" + i));
+            }
+
+            assertEquals(set.size(), 10_000);
+            assertFalse(set.mightContain("value-10000"));
+        } finally {
+            set.clear();
+            directory.delete();
+        }
+    }
+
+    @Test
+    void testServiceCreatesConfiguredBackend() {
+        assertTrue(new UniquenessService(UniquenessService.Backend.EXACT).createFilter() instanceof FingerprintSet);
+        assertTrue(new UniquenessService(UniquenessService.Backend.BLOOM).createFilter() instanceof BlockedBloomFilter);
+    }
+}
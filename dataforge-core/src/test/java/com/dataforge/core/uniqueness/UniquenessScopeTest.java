@@ -0,0 +1,158 @@
+package com.dataforge.core.uniqueness;
+
+import com.dataforge.core.GenerationContext;
+import com.dataforge.generators.basic.EmailGenerator;
+import com.dataforge.generators.basic.IdCardNumberGenerator;
+import com.dataforge.generators.basic.NameGenerator;
+import com.dataforge.generators.basic.PhoneNumberGenerator;
+import com.dataforge.generators.business.BusinessDocumentNumberGenerator;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+class UniquenessScopeTest {
+
+    @Test
+    void testScopeSharesNamedFiltersAndSequences() {
+        UniquenessScope scope = new UniquenessScope("job");
+        scope.filter("phone").add("13800000000");
+        scope.sequence("order").incrementAndGet();
+
+        assertFalse(scope.filter("phone").add("13800000000"));
+        assertEquals(scope.sequence("order").get(), 1);
+
+        Map<String, Long> statistics = scope.getStatistics();
+        assertEquals(statistics.get("phone"), Long.valueOf(1));
+        assertEquals(statistics.get("order#sequence"), Long.valueOf(1));
+        assertTrue(scope.memoryBytes() > 0);
+        assertTrue(scope.generateReport().contains("phone"));
+
+        scope.release("phone");
+        assertTrue(scope.filter("phone").add("13800000000"));
+    }
+
+    @Test
+    void testChildScopesAreReportedAndReleasedWithParent() {
+        UniquenessScope scope = new UniquenessScope("job");
+        UniquenessScope table = scope.child("users");
+        table.filter("email").add("a@example.com");
+
+        assertSame(scope.child("users"), table);
+        assertEquals(scope.getStatistics().get("users/email"), Long.valueOf(1));
+
+        scope.close();
+        assertTrue(table.isClosed());
+        assertTrue(scope.isClosed());
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    void testClosedScopeRejectsUse() {
+        UniquenessScope scope = new UniquenessScope("job");
+        scope.close();
+        scope.filter("phone");
+    }
+
+    @Test
+    void testGlobalScopeIsClearedButStaysUsable() {
+        UniquenessScope.global().filter("scope-test").add("value");
+        UniquenessScope.global().release("scope-test");
+
+        assertFalse(UniquenessScope.global().isClosed());
+        assertTrue(UniquenessScope.global().filter("scope-test").add("value"));
+        UniquenessScope.global().release("scope-test");
+    }
+
+    @Test
+    void testContextsWithoutScopeUseGlobalAndChildrenInheritScope() {
+        GenerationContext context = new GenerationContext(10, 42L);
+        assertSame(context.getUniquenessScope(), UniquenessScope.global());
+
+        UniquenessScope scope = new UniquenessScope("job");
+        context.setUniquenessScope(scope);
+        assertSame(context.split(3).getUniquenessScope(), scope);
+    }
+
+    @Test
+    void testJobsWithSeparateScopesDoNotShareState() {
+        PhoneNumberGenerator.clearCache();
+        BusinessDocumentNumberGenerator.clearCache();
+        PhoneNumberGenerator phones = new PhoneNumberGenerator();
+        BusinessDocumentNumberGenerator orders = new BusinessDocumentNumberGenerator(
+                BusinessDocumentNumberGenerator.DocumentType.ORDER, BusinessDocumentNumberGenerator.NumberFormat.SEQUENTIAL, null, 0);
+
+        String firstOrder = null;
+        for (int job = 0; job < 2; job++) {
+            try (UniquenessScope scope = new UniquenessScope("job-" + job)) {
+                GenerationContext context = new GenerationContext(100);
+                context.setUniquenessScope(scope);
+                for (int i = 0; i < 100; i++) {
+                    phones.generate(context);
+                }
+                String order = orders.generate(context);
+
+                assertEquals(scope.getStatistics().get("phone_number"), Long.valueOf(100));
+                // 每个任务的序列都从 1 开始
+                if (firstOrder == null) {
+                    firstOrder = order;
+                } else {
+                    assertEquals(order, firstOrder);
+                }
+            }
+        }
+        assertEquals(PhoneNumberGenerator.getUniquePhoneNumberCount(), 0);
+        assertEquals(BusinessDocumentNumberGenerator.getGeneratedCount(), 0);
+    }
+
+    @Test
+    void testUniqueEmailsAndNamesAreCountedInTheRunScope() {
+        EmailGenerator emails = new EmailGenerator();
+        NameGenerator names = new NameGenerator();
+        try (UniquenessScope scope = new UniquenessScope("job")) {
+            GenerationContext context = new GenerationContext(1000, 42L);
+            context.setUniquenessScope(scope);
+            context.setParameter("unique", true);
+            for (int i = 0; i < 1000; i++) {
+                emails.generate(context);
+                names.generate(context);
+            }
+
+            assertEquals(emails.getUniqueEmailCount(context), 1000);
+            assertEquals(names.getUniqueNameCount(context), 1000);
+            assertEquals(emails.getUniqueEmailCount(new GenerationContext(1)), 0);
+
+            names.resetUniqueNames(context);
+            assertEquals(names.getUniqueNameCount(context), 0);
+
+            // 兼容旧接口：不再有上限，最大值取计算出的取值空间
+            assertFalse(emails.isFull());
+            assertFalse(names.isFull());
+            assertEquals(emails.getMaxUniqueEmails(),
+                    (int) Math.min(Integer.MAX_VALUE, emails.calculateMaxUniqueEmails()));
+            assertEquals(names.getMaxUniqueNames(),
+                    (int) Math.min(Integer.MAX_VALUE, names.calculateMaxUniqueNames()));
+        }
+    }
+
+    @Test
+    void testIdCardNumbersAreRegisteredOnlyWhenUnique() {
+        IdCardNumberGenerator generator = new IdCardNumberGenerator();
+        try (UniquenessScope scope = new UniquenessScope("job")) {
+            GenerationContext context = new GenerationContext(100, 42L);
+            context.setUniquenessScope(scope);
+            for (int i = 0; i < 100; i++) {
+                generator.generate(context);
+            }
+            assertFalse(generator.isOrderDependent(context));
+            assertEquals(scope.filter("id_card_number").size(), 0);
+
+            context.setParameter("unique", true);
+            for (int i = 0; i < 100; i++) {
+                generator.generate(context);
+            }
+            assertTrue(generator.isOrderDependent(context));
+            assertEquals(scope.filter("id_card_number").size(), 100);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.dataforge.generators.basic;
 
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.uniqueness.BijectiveUniqueness;
 import com.dataforge.generators.basic.PhoneNumberGenerator.Operator;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -190,4 +192,25 @@ class PhoneNumberGeneratorTest {
         PhoneNumberGenerator.clearCache();
         assertEquals(0, PhoneNumberGenerator.getUniquePhoneNumberCount());
     }
+    
+    @Test
+    void testBijectiveModeIsRowAddressedAndUnique() {
+        generator = new PhoneNumberGenerator(Operator.CHINA_TELECOM);
+        GenerationContext rows = new GenerationContext(1, 42L).split(0);
+        rows.setParameter(BijectiveUniqueness.MODE_PARAMETER, BijectiveUniqueness.BIJECTIVE);
+        
+        Set<String> numbers = new HashSet<>();
+        for (long row = 0; row < 10_000; row++) {
+            rows.seekRow(row);
+            String phoneNumber = generator.generate(rows);
+            assertTrue(phoneNumber.matches("\\d{11}"));
+            assertEquals(PhoneNumberGenerator.getOperator(phoneNumber), Operator.CHINA_TELECOM.getName());
+            assertTrue(numbers.add(phoneNumber));
+        }
+        
+        rows.seekRow(1234);
+        String again = generator.generate(rows);
+        assertTrue(numbers.contains(again));
+        assertEquals(PhoneNumberGenerator.getUniquePhoneNumberCount(), 0);
+    }
 }
\ No newline at end of file
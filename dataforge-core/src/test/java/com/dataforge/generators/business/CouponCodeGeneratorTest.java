@@ -1,8 +1,12 @@
 package com.dataforge.generators.business;
 
 import com.dataforge.core.GenerationContext;
+import com.dataforge.core.uniqueness.BijectiveUniqueness;
+import com.dataforge.core.uniqueness.UniquenessScope;
 import org.testng.annotations.Test;
+import java.util.HashSet;
 import java.util.Random;
+import java.util.Set;
 import static org.testng.Assert.*;
 
 @Test
@@ -29,6 +33,31 @@ public class CouponCodeGeneratorTest {
         assertTrue(code.matches("^SALE-[A-Z0-9]{10}$"));
     }
 
+    @Test(description = "Should never repeat codes in bijective unique mode, even for short codes")
+    public void testBijectiveModeIsUnique() {
+        CouponCodeGenerator generator = new CouponCodeGenerator(3, "C-");
+        GenerationContext context = new GenerationContext(1, 42L);
+        context.setUniquenessScope(new UniquenessScope("coupon"));
+        context.setParameter(BijectiveUniqueness.MODE_PARAMETER, BijectiveUniqueness.BIJECTIVE);
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 36 * 36 * 36; i++) {
+            String code = generator.generate(context);
+            assertTrue(code.matches("^C-[A-Z0-9]{3}$"));
+            assertTrue(codes.add(code), "duplicate code: " + code);
+        }
+    }
+
+    @Test(description = "Should fail once the unique value space is exhausted", expectedExceptions = IllegalStateException.class)
+    public void testBijectiveModeExhaustion() {
+        CouponCodeGenerator generator = new CouponCodeGenerator(1, "");
+        GenerationContext context = new GenerationContext(1);
+        context.setUniquenessScope(new UniquenessScope("coupon"));
+        context.setParameter(BijectiveUniqueness.MODE_PARAMETER, BijectiveUniqueness.BIJECTIVE);
+        for (int i = 0; i <= 36; i++) {
+            generator.generate(context);
+        }
+    }
+
     @Test(description = "Should throw exception for zero length", expectedExceptions = IllegalArgumentException.class)
     public void testConstructorZeroLength() {
         new CouponCodeGenerator(0, "");
@@ -0,0 +1,113 @@
+package com.dataforge.jfr;
+
+import com.dataforge.core.ConcurrentDataGenerator;
+import com.dataforge.core.DataGenerator;
+import com.dataforge.core.GenerationContext;
+import com.dataforge.core.cache.CacheKey;
+import com.dataforge.core.cache.ConcurrentBoundedCache;
+import com.dataforge.output.CsvOutputWriter;
+import com.dataforge.output.DatabaseOutputWriter;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.*;
+
+class JfrEventsTest {
+
+    private static final List<String> EVENTS = Arrays.asList("com.dataforge.GenerationChunk",
+            "com.dataforge.ChunkEncode", "com.dataforge.ChunkFlush", "com.dataforge.JdbcBatch",
+            "com.dataforge.CacheEviction");
+
+    private static Map<String, DataGenerator<?>> generators() {
+        Map<String, DataGenerator<?>> generators = new LinkedHashMap<>();
+        generators.put("id", context -> context.getRowIndex());
+        generators.put("name", context -> "row-" + context.getRowIndex());
+        return generators;
+    }
+
+    private static List<RecordedEvent> events(List<RecordedEvent> all, String name) {
+        return all.stream().filter(event -> event.getEventType().getName().equals(name)).collect(Collectors.toList());
+    }
+
+    private static long sum(List<RecordedEvent> events, String field) {
+        return events.stream().mapToLong(event -> event.getLong(field)).sum();
+    }
+
+    @Test
+    void testEventsCarryRowRangesAndBytes() throws Exception {
+        Path dir = Files.createTempDirectory("dataforge-jfr");
+        Path csv = dir.resolve("out.csv");
+        String url = "jdbc:h2:mem:jfr;DB_CLOSE_DELAY=-1";
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE loaded (id BIGINT, name VARCHAR(32))");
+        }
+
+        List<RecordedEvent> recorded;
+        try (Recording recording = new Recording()) {
+            for (String event : EVENTS) {
+                recording.enable(event);
+            }
+            recording.start();
+
+            new CsvOutputWriter(csv.toString(), Arrays.asList("id", "name"), generators())
+                    .withThreads(2)
+                    .write(new GenerationContext(150_000, 1L));
+            ConcurrentDataGenerator concurrent = new ConcurrentDataGenerator(2);
+            try {
+                concurrent.generate(context -> "x", new GenerationContext(2000, 1L), 2000, 500);
+            } finally {
+                concurrent.shutdown();
+            }
+            new DatabaseOutputWriter(url, null, null, "loaded", Arrays.asList("id", "name"), generators(), 300)
+                    .write(new GenerationContext(1000, 1L));
+            ConcurrentBoundedCache<Object, Object> cache = new ConcurrentBoundedCache<>(1);
+            cache.put(CacheKey.of("name", 1L, 1, Collections.emptyMap()), "a");
+            cache.put(CacheKey.of("name", 2L, 1, Collections.emptyMap()), "b");
+
+            recording.stop();
+            Path file = dir.resolve("recording.jfr");
+            recording.dump(file);
+            recorded = RecordingFile.readAllEvents(file);
+        }
+
+        // 编码与写出事件覆盖全部行，写出字节数等于文件中除表头外的内容
+        List<RecordedEvent> encodes = events(recorded, "com.dataforge.ChunkEncode");
+        List<RecordedEvent> flushes = events(recorded, "com.dataforge.ChunkFlush");
+        assertTrue(encodes.stream().allMatch(event -> "csv".equals(event.getString("writer"))));
+        assertEquals(sum(encodes, "rowCount"), 150_000);
+        assertEquals(sum(flushes, "rowCount"), 150_000);
+        assertEquals(sum(flushes, "bytes"), sum(encodes, "bytes"));
+        assertEquals(sum(flushes, "bytes"), Files.size(csv) - "id,name\n".length());
+
+        List<RecordedEvent> chunks = events(recorded, "com.dataforge.GenerationChunk").stream()
+                .filter(event -> !"csv".equals(event.getString("generator"))).collect(Collectors.toList());
+        assertEquals(chunks.size(), 4);
+        assertEquals(sum(chunks, "rowCount"), 2000);
+
+        List<RecordedEvent> jdbc = events(recorded, "com.dataforge.JdbcBatch");
+        assertTrue(jdbc.stream().allMatch(event -> "loaded".equals(event.getString("table"))));
+        assertEquals(sum(events(jdbc, "com.dataforge.JdbcBatch").stream()
+                .filter(event -> "executeBatch".equals(event.getString("operation")))
+                .collect(Collectors.toList()), "rowCount"), 1000);
+
+        List<RecordedEvent> evictions = events(recorded, "com.dataforge.CacheEviction");
+        assertEquals(evictions.size(), 1);
+        assertEquals(evictions.get(0).getString("generator"), "name");
+        assertFalse(evictions.get(0).getBoolean("expired"));
+    }
+}
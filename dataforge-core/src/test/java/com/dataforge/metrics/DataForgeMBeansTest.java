@@ -0,0 +1,59 @@
+package com.dataforge.metrics;
+
+import com.dataforge.core.GenerationContext;
+import com.dataforge.core.MonitoredDataGenerator;
+import com.dataforge.core.PerformanceMonitor;
+import org.testng.annotations.Test;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+
+import static org.testng.Assert.*;
+
+class DataForgeMBeansTest {
+
+    private static CompositeData entry(Object tabular, String key) {
+        CompositeData row = ((TabularData) tabular).get(new Object[] {key});
+        assertNotNull(row, "missing key " + key);
+        return row;
+    }
+
+    @Test
+    void testAttributesAreReadableAndMonitorIsConfigurable() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        PerformanceMonitor monitor = PerformanceMonitor.getInstance();
+        DataForgeMBeans.register();
+        // 重复注册不报错
+        DataForgeMBeans.register();
+        try {
+            MonitoredDataGenerator<Long> generator = new MonitoredDataGenerator<>(context -> 1L, "mbean-test");
+            GenerationContext context = new GenerationContext(10, 1L);
+            for (int i = 0; i < 10; i++) {
+                generator.generate(context);
+            }
+            RunMetrics.getInstance().fieldRowCounter("mbean_field").add(7);
+
+            CompositeData statistics = (CompositeData) entry(
+                    server.getAttribute(DataForgeMBeans.PERFORMANCE_MONITOR, "Generators"), "mbean-test").get("value");
+            assertEquals(statistics.get("operations"), 10L);
+            assertEquals(statistics.get("items"), 10L);
+            assertTrue((Double) statistics.get("p99LatencyMillis") >= (Double) statistics.get("p50LatencyMillis"));
+
+            server.setAttribute(DataForgeMBeans.PERFORMANCE_MONITOR, new Attribute("SampleInterval", 16));
+            assertEquals(monitor.getSampleInterval(), 16);
+
+            assertTrue((Long) entry(server.getAttribute(DataForgeMBeans.RUN_METRICS, "FieldRows"), "mbean_field")
+                    .get("value") >= 7);
+            double hitRatio = (Double) server.getAttribute(DataForgeMBeans.GENERATOR_CACHE, "HitRatio");
+            assertTrue(hitRatio >= 0 && hitRatio <= 1);
+            assertTrue((Long) server.getAttribute(DataForgeMBeans.MEMORY, "UsedMemory") > 0);
+        } finally {
+            monitor.setSampleInterval(1);
+            DataForgeMBeans.unregister();
+        }
+        assertFalse(server.isRegistered(DataForgeMBeans.PERFORMANCE_MONITOR));
+    }
+}
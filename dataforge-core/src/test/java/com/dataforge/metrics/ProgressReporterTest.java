@@ -0,0 +1,74 @@
+package com.dataforge.metrics;
+
+import com.dataforge.core.DataGenerator;
+import com.dataforge.core.GenerationContext;
+import com.dataforge.output.CsvOutputWriter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+class ProgressReporterTest {
+
+    @Test
+    void testRenderShowsRatesAndEta() {
+        long start = System.nanoTime();
+        ProgressReporter reporter = new ProgressReporter(1000, start);
+        RunMetrics.getInstance().recordWrite("progress-test", 250, 2 * 1024 * 1024);
+
+        String line = reporter.render(start + 1_000_000_000L);
+        assertTrue(line.startsWith("进度 250/1000 行 (25.0%) | 250 行/秒 | 2.0 MB/秒 | 已用 0:00:01"), line);
+        assertTrue(line.endsWith("剩余 0:00:03"), line);
+
+        // 速率按两次渲染之间的增量计算，剩余时间按开始以来的平均速率估算
+        RunMetrics.getInstance().recordWrite("progress-test", 250, 0);
+        line = reporter.render(start + 2_000_000_000L);
+        assertTrue(line.contains("| 250 行/秒 | 0.0 MB/秒 | 已用 0:00:02 | 剩余 0:00:02"), line);
+    }
+
+    @Test
+    void testFormatDuration() {
+        assertEquals(ProgressReporter.formatDuration(0.4), "0:00:00");
+        assertEquals(ProgressReporter.formatDuration(3725), "1:02:05");
+    }
+
+    @Test
+    void testReportContainsPhaseTimingsAndRunDeltas() throws Exception {
+        Path dir = Files.createTempDirectory("dataforge-report");
+        Path csv = dir.resolve("out.csv");
+        Map<String, DataGenerator<?>> generators = new LinkedHashMap<>();
+        generators.put("report_id", context -> context.getRowIndex());
+        generators.put("report_name", context -> "row-" + context.getRowIndex());
+
+        ProgressReporter reporter = new ProgressReporter(30_000);
+        new CsvOutputWriter(csv.toString(), Arrays.asList("report_id", "report_name"), generators)
+                .withThreads(2)
+                .write(new GenerationContext(30_000, 1L));
+        reporter.close();
+        File file = dir.resolve("report.json").toFile();
+        reporter.writeReport(file, "completed");
+
+        JsonNode report = new ObjectMapper().readTree(file);
+        assertEquals(report.get("status").asText(), "completed");
+        assertEquals(report.get("targetRows").asLong(), 30_000);
+        assertEquals(report.get("rows").asLong(), 30_000);
+        assertEquals(report.get("writers").get("csv").get("rows").asLong(), 30_000);
+        assertEquals(report.get("writers").get("csv").get("bytes").asLong(),
+                Files.size(csv) - "report_id,report_name\n".length());
+        assertEquals(report.get("fields").get("report_name").asLong(), 30_000);
+        JsonNode phases = report.get("phaseSeconds");
+        assertTrue(phases.get("generate").asDouble() > 0, phases.toString());
+        assertTrue(phases.get("encode").asDouble() > 0, phases.toString());
+        assertTrue(phases.get("write").asDouble() > 0, phases.toString());
+        assertEquals(phases.get("commit").asDouble(), 0.0);
+        assertTrue(report.get("rowsPerSecond").asDouble() > 0);
+    }
+}
@@ -0,0 +1,94 @@
+package com.dataforge.metrics;
+
+import com.dataforge.core.DataGenerator;
+import com.dataforge.core.GenerationContext;
+import com.dataforge.core.uniqueness.UniquenessScope;
+import com.dataforge.output.CsvOutputWriter;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+class PrometheusEndpointTest {
+
+    private static String get(HttpURLConnection connection) throws IOException {
+        try (InputStream in = connection.getInputStream()) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            in.transferTo(body);
+            return new String(body.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void testScrapeReportsRowsBytesQueuesAndUniquenessSets() throws Exception {
+        Path csv = Files.createTempDirectory("dataforge-metrics").resolve("out.csv");
+        Map<String, DataGenerator<?>> generators = new LinkedHashMap<>();
+        generators.put("metric_id", context -> context.getRowIndex());
+        generators.put("metric_name", context -> "row-" + context.getRowIndex());
+        long bytesBefore = RunMetrics.getInstance().getWriterBytes().getOrDefault("csv", 0L);
+
+        new CsvOutputWriter(csv.toString(), Arrays.asList("metric_id", "metric_name"), generators)
+                .withThreads(2)
+                .write(new GenerationContext(20_000, 1L));
+
+        // 表头不经过流水线，其余字节都计入 csv 写出器
+        long headerBytes = "metric_id,metric_name\n".length();
+        assertEquals(RunMetrics.getInstance().getWriterBytes().get("csv") - bytesBefore, Files.size(csv) - headerBytes);
+
+        UniquenessScope scope = new UniquenessScope("metrics-test");
+        scope.filter("email").add("a@example.com");
+        scope.filter("email").add("b@example.com");
+        scope.sequence("order").incrementAndGet();
+        try (RunMetrics.Registration scopeRegistration = RunMetrics.getInstance().registerUniquenessScope(scope);
+             RunMetrics.Registration queue = RunMetrics.getInstance().registerQueue("test-queue", () -> 5);
+             PrometheusEndpoint endpoint = PrometheusEndpoint.start(
+                     new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            URL url = new URL("http://127.0.0.1:" + endpoint.getPort() + PrometheusEndpoint.PATH);
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            String body = get(connection);
+
+            assertEquals(connection.getResponseCode(), 200);
+            assertEquals(connection.getContentType(), PrometheusEndpoint.CONTENT_TYPE);
+            assertTrue(body.contains("# TYPE dataforge_field_rows_total counter\n"), body);
+            assertTrue(body.contains("dataforge_field_rows_total{field=\"metric_id\"} 20000\n"), body);
+            assertTrue(body.contains("dataforge_field_rows_total{field=\"metric_name\"} 20000\n"), body);
+            assertTrue(body.contains("dataforge_writer_bytes_total{writer=\"csv\"} "
+                    + RunMetrics.getInstance().getWriterBytes().get("csv") + "\n"), body);
+            assertTrue(body.contains("dataforge_queue_depth{queue=\"test-queue\"} 5\n"), body);
+            assertTrue(body.contains("dataforge_uniqueness_set_size{scope=\"metrics-test\",key=\"email\"} 2\n"), body);
+            assertFalse(body.contains("order#sequence"), body);
+            assertTrue(body.contains("dataforge_cache_hit_ratio "), body);
+            assertTrue(body.contains("dataforge_memory_used_bytes "), body);
+
+            HttpURLConnection missing = (HttpURLConnection) new URL("http://127.0.0.1:" + endpoint.getPort()
+                    + "/other").openConnection();
+            assertEquals(missing.getResponseCode(), 404);
+        }
+
+        // 关闭登记后不再报告
+        String afterClose = PrometheusEndpoint.scrape();
+        assertFalse(afterClose.contains("metrics-test"), afterClose);
+        assertFalse(afterClose.contains("test-queue"), afterClose);
+    }
+
+    @Test
+    void testLabelValuesAreEscaped() {
+        assertEquals(PrometheusEndpoint.labels("writer", "a\"b\\c\nd"), "writer=\"a\\\"b\\\\c\\nd\"");
+        assertEquals(PrometheusEndpoint.formatDouble(Double.NaN), "NaN");
+        assertEquals(PrometheusEndpoint.formatDouble(Double.POSITIVE_INFINITY), "+Inf");
+        assertEquals(PrometheusEndpoint.formatDouble(0.25), "0.25");
+    }
+}
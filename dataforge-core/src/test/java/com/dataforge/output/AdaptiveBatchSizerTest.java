@@ -0,0 +1,54 @@
+package com.dataforge.output;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+class AdaptiveBatchSizerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void testGrowsLinearlyBelowTarget() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(100, 200, 1000);
+        sizer.onSuccess(100, FAST);
+        assertEquals(sizer.current(), 150);
+        sizer.onSuccess(150, FAST);
+        assertEquals(sizer.current(), 200);
+        // 不足当前大小的尾批不增加
+        sizer.onSuccess(20, FAST);
+        assertEquals(sizer.current(), 200);
+    }
+
+    @Test
+    void testHalvesAboveTargetAndStaysWithinBounds() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(800, 200, 1000);
+        sizer.onSuccess(800, FAST);
+        assertEquals(sizer.current(), 1000);
+        sizer.onSuccess(1000, SLOW);
+        assertEquals(sizer.current(), 500);
+        for (int i = 0; i < 20; i++) {
+            sizer.onSuccess(sizer.current(), SLOW);
+        }
+        assertEquals(sizer.current(), 1);
+    }
+
+    @Test
+    void testBackOffAndStatistics() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(64, 200, 1000);
+        sizer.backOff();
+        assertEquals(sizer.current(), 32);
+        sizer.onSuccess(32, FAST);
+        sizer.onSuccess(10, FAST);
+
+        assertEquals(sizer.getBackOffs(), 1);
+        assertEquals(sizer.getBatches(), 2);
+        assertEquals(sizer.getRows(), 42);
+        assertEquals(sizer.getSmallestUsed(), 10);
+        assertEquals(sizer.getLargestUsed(), 32);
+        assertEquals(sizer.getAverageSize(), 21.0);
+    }
+}
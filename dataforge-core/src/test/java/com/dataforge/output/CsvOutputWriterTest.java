@@ -0,0 +1,125 @@
+package com.dataforge.output;
+
+import com.dataforge.core.DataGenerator;
+import com.dataforge.core.GenerationContext;
+import com.dataforge.generators.numeric.IntegerGenerator;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+class CsvOutputWriterTest {
+
+    private static final String[] TEXTS = {
+            "plain", "北京市朝阳区, 建国路 88 号", "say \"hi\"", "line1\nline2", "", "emoji 😀", "a;b"
+    };
+
+    /**
+     * 依行号循环输出含特殊字符的文本
+     */
+    static class TextGenerator implements DataGenerator<String> {
+        @Override
+        public String generate(GenerationContext context) {
+            long row = Math.max(0, context.getRowIndex());
+            return TEXTS[(int) (row % TEXTS.length)];
+        }
+    }
+
+    private static Map<String, DataGenerator<?>> generators() {
+        Map<String, DataGenerator<?>> generators = new LinkedHashMap<>();
+        generators.put("text", new TextGenerator());
+        generators.put("score", new IntegerGenerator());
+        generators.put("note", context -> "x,y");
+        return generators;
+    }
+
+    private static String write(CsvOutputWriter writer, File file, GenerationContext context) throws IOException {
+        writer.write(context);
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testFieldsAreQuotedPerRfc4180() throws IOException {
+        File file = File.createTempFile("dataforge", ".csv");
+        file.deleteOnExit();
+        List<String> fields = Arrays.asList("text", "score", "note");
+
+        String csv = write(new CsvOutputWriter(file.getPath(), fields, generators()).withLineSeparator("\r\n"),
+                file, new GenerationContext(7, 42L));
+        String[] lines = csv.split("\r\n");
+
+        assertEquals(lines[0], "text,score,note");
+        assertTrue(lines[1].startsWith("plain,"));
+        assertTrue(lines[1].endsWith(",\"x,y\""));
+        assertTrue(lines[2].startsWith("\"北京市朝阳区, 建国路 88 号\","));
+        assertTrue(lines[3].startsWith("\"say \"\"hi\"\"\","));
+        assertTrue(lines[4].startsWith("\"line1\nline2\","));
+        assertTrue(lines[5].startsWith(","));
+        assertTrue(lines[6].startsWith("emoji 😀,"));
+        assertTrue(lines[7].startsWith("a;b,"));
+        assertEquals(lines.length, 8);
+    }
+
+    @Test
+    void testCustomDelimiterAndQuote() throws IOException {
+        File file = File.createTempFile("dataforge", ".csv");
+        file.deleteOnExit();
+        List<String> fields = Arrays.asList("text", "note");
+
+        String csv = write(new CsvOutputWriter(file.getPath(), fields, generators())
+                        .withDelimiter(';').withQuote('\'').withLineSeparator("\n"),
+                file, new GenerationContext(8, 42L));
+        String[] lines = csv.split("\n");
+
+        assertEquals(lines[0], "text;note");
+        assertEquals(lines[1], "plain;x,y");
+        assertEquals(lines[3], "say \"hi\";x,y");
+        assertEquals(lines[8], "'a;b';x,y");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    void testRejectsDelimiterEqualToQuote() throws IOException {
+        File file = File.createTempFile("dataforge", ".csv");
+        file.deleteOnExit();
+        new CsvOutputWriter(file.getPath(), Arrays.asList("text"), generators())
+                .withDelimiter('"').write(new GenerationContext(1, 1L));
+    }
+
+    @Test
+    void testParallelOutputMatchesSequentialBytes() throws IOException {
+        File sequentialFile = File.createTempFile("dataforge", ".csv");
+        File parallelFile = File.createTempFile("dataforge", ".csv");
+        sequentialFile.deleteOnExit();
+        parallelFile.deleteOnExit();
+        List<String> fields = Arrays.asList("text", "score", "note");
+
+        String sequential = write(new CsvOutputWriter(sequentialFile.getPath(), fields, generators()),
+                sequentialFile, new GenerationContext(150_000, 7L));
+        String parallel = write(new CsvOutputWriter(parallelFile.getPath(), fields, generators()).withThreads(4),
+                parallelFile, new GenerationContext(150_000, 7L));
+
+        assertEquals(parallel, sequential);
+    }
+
+    @Test
+    void testUtf8BufferMatchesJdkEncoder() {
+        String text = "ascii é 中文 😀 \uD800 tail\uDBFF";
+        Utf8Buffer buffer = new Utf8Buffer(4);
+        buffer.putUtf8(text);
+        buffer.putUtf8(text.toCharArray(), 0, text.length());
+        buffer.putLong(Long.MIN_VALUE);
+        buffer.putLong(-42);
+        buffer.putLong(0);
+
+        String expected = text + text + Long.MIN_VALUE + "-420";
+        assertEquals(buffer.toByteArray(), expected.getBytes(StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,207 @@
+package com.dataforge.output;
+
+import com.dataforge.core.DataGenerator;
+import com.dataforge.core.GenerationContext;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+class DatabaseOutputWriterTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    private static final List<String> FIELDS = Arrays.asList("id", "name", "parent_id");
+
+    private static Map<String, DataGenerator<?>> generators() {
+        Map<String, DataGenerator<?>> generators = new LinkedHashMap<>();
+        generators.put("id", context -> context.getRowIndex());
+        generators.put("name", context -> "row-" + context.getRowIndex());
+        generators.put("parent_id", context -> context.getRowIndex() % 7);
+        return generators;
+    }
+
+    /**
+     * 创建独立的内存数据库，child.parent_id 外键引用空的 parent 表
+     */
+    private static String createDatabase() throws SQLException {
+        String url = "jdbc:h2:mem:load" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1";
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE parent (id BIGINT PRIMARY KEY)");
+            statement.execute("CREATE TABLE child (id BIGINT PRIMARY KEY, name VARCHAR(64), "
+                    + "parent_id BIGINT REFERENCES parent(id))");
+        }
+        return url;
+    }
+
+    private static long queryLong(String url, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    @Test
+    void testParallelConnectionsLoadEveryRowOnce() throws SQLException {
+        String url = createDatabase();
+        new DatabaseOutputWriter(url, null, null, "child", FIELDS, generators(), 250)
+                .withConnections(4)
+                .withCommitInterval(1000)
+                .withConstraintsDisabled(true)
+                .withStartRow(100)
+                .write(new GenerationContext(10_000, 1L));
+
+        assertEquals(queryLong(url, "SELECT COUNT(*) FROM child"), 10_000);
+        assertEquals(queryLong(url, "SELECT MIN(id) FROM child"), 100);
+        assertEquals(queryLong(url, "SELECT MAX(id) FROM child"), 10_099);
+        assertEquals(queryLong(url, "SELECT COUNT(*) FROM child WHERE name <> CONCAT('row-', id)"), 0);
+    }
+
+    @Test
+    void testConstraintsAreRestoredAfterLoad() throws SQLException {
+        String url = createDatabase();
+        new DatabaseOutputWriter(url, null, null, "child", FIELDS, generators())
+                .withConstraintsDisabled(true)
+                .write(new GenerationContext(10, 1L));
+
+        // 装载结束后外键检查恢复
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            expectThrows(SQLException.class,
+                    () -> statement.execute("INSERT INTO child VALUES (999, 'x', 42)"));
+        }
+    }
+
+    @Test
+    void testFailureStopsAllConnections() throws SQLException {
+        String url = createDatabase();
+        // 外键检查未关闭，引用空 parent 表的行全部失败
+        SQLException error = expectThrows(SQLException.class, () ->
+                new DatabaseOutputWriter(url, null, null, "child", FIELDS, generators(), 100)
+                        .withConnections(3)
+                        .write(new GenerationContext(30_000, 1L)));
+
+        assertTrue(error.getMessage().contains("写入行区间"), error.getMessage());
+        assertEquals(queryLong(url, "SELECT COUNT(*) FROM child"), 0);
+    }
+
+    @Test
+    void testAdaptiveBatchSizeLoadsEveryRowOnce() throws SQLException {
+        String url = createDatabase();
+        DatabaseOutputWriter writer = new DatabaseOutputWriter(url, null, null, "child", FIELDS, generators(), 100)
+                .withConnections(2)
+                .withConstraintsDisabled(true)
+                .withAdaptiveBatchSize(1000);
+        writer.write(new GenerationContext(20_000, 1L));
+
+        assertEquals(queryLong(url, "SELECT COUNT(*) FROM child"), 20_000);
+        assertEquals(queryLong(url, "SELECT COUNT(DISTINCT id) FROM child"), 20_000);
+        assertEquals(writer.getBatchSizers().size(), 2);
+        long rows = 0;
+        for (AdaptiveBatchSizer sizer : writer.getBatchSizers()) {
+            rows += sizer.getRows();
+            // 内存数据库远低于目标延迟，批大小应增长到初始值以上
+            assertTrue(sizer.getLargestUsed() > 100, writer.batchSizeSummary());
+        }
+        assertEquals(rows, 20_000);
+    }
+
+    @Test
+    void testAdaptiveBatchRetriesAfterLockTimeout() throws Exception {
+        String url = "jdbc:h2:mem:locked" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1";
+        // 另一个事务持有 id=50 的未提交插入，写入该行的批次等待锁超时，回滚后应退避重试
+        try (Connection blocker = DriverManager.getConnection(url);
+             Statement statement = blocker.createStatement()) {
+            statement.execute("CREATE TABLE child (id BIGINT PRIMARY KEY, name VARCHAR(64), parent_id BIGINT)");
+            blocker.setAutoCommit(false);
+            statement.execute("INSERT INTO child VALUES (50, 'blocker', NULL)");
+            // 等到写入连接确实在等锁后再过一个锁超时才回滚，不依赖写入开始的早晚
+            Thread release = new Thread(() -> {
+                try {
+                    long deadline = System.nanoTime() + 30_000_000_000L;
+                    while (queryLong(url, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE BLOCKER_ID IS NOT NULL") == 0
+                            && System.nanoTime() < deadline) {
+                        Thread.sleep(10);
+                    }
+                    Thread.sleep(500);
+                    blocker.rollback();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            release.start();
+
+            DatabaseOutputWriter writer = new DatabaseOutputWriter(url + ";LOCK_TIMEOUT=200", null, null, "child", FIELDS,
+                    generators(), 64).withAdaptiveBatchSize(5000);
+            writer.write(new GenerationContext(1000, 1L));
+            release.join();
+
+            assertTrue(writer.getBatchSizers().get(0).getBackOffs() > 0, writer.batchSizeSummary());
+        }
+        assertEquals(queryLong(url, "SELECT COUNT(*) FROM child"), 1000);
+        assertEquals(queryLong(url, "SELECT COUNT(*) FROM child WHERE name = 'row-50'"), 1);
+    }
+
+    @Test
+    void testRetryableErrors() {
+        assertTrue(DatabaseOutputWriter.isRetryable(new SQLException("deadlock", "40001")));
+        assertTrue(DatabaseOutputWriter.isRetryable(new SQLException("lock wait timeout", "HY000", 1205)));
+        SQLException batch = new SQLException("batch failed", "HY000");
+        batch.setNextException(new SQLException("lock not available", "55P03"));
+        assertTrue(DatabaseOutputWriter.isRetryable(batch));
+        assertFalse(DatabaseOutputWriter.isRetryable(new SQLException("duplicate key", "23505")));
+    }
+
+    @Test
+    void testValuesAreBoundWithColumnTypes() throws SQLException {
+        String url = "jdbc:h2:mem:typed" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1";
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE typed (amount DECIMAL(20, 3), birthday DATE, created_at TIMESTAMP, uid UUID, "
+                    + "active BOOLEAN, raw VARBINARY(8), total BIGINT)");
+        }
+        UUID uid = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+        Map<String, DataGenerator<?>> generators = new LinkedHashMap<>();
+        generators.put("amount", context -> "12.345");
+        generators.put("birthday", context -> LocalDate.of(2024, 2, 29));
+        generators.put("created_at", context -> LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        generators.put("uid", context -> uid);
+        generators.put("active", context -> "true");
+        generators.put("raw", context -> new byte[] {1, 2, 3});
+        generators.put("total", context -> context.getRowIndex() % 2 == 0 ? (Object) 5 : null);
+
+        new DatabaseOutputWriter(url, null, null, "typed", Arrays.asList("amount", "birthday", "created_at", "uid", "active",
+                "raw", "total"), generators).write(new GenerationContext(2, 1L));
+
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT * FROM typed")) {
+            assertTrue(resultSet.next());
+            assertEquals(resultSet.getBigDecimal("amount"), new BigDecimal("12.345"));
+            assertEquals(resultSet.getObject("birthday", LocalDate.class), LocalDate.of(2024, 2, 29));
+            assertEquals(resultSet.getObject("created_at", LocalDateTime.class), LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+            assertEquals(resultSet.getObject("uid", UUID.class), uid);
+            assertTrue(resultSet.getBoolean("active"));
+            assertEquals(resultSet.getBytes("raw"), new byte[] {1, 2, 3});
+            assertEquals(resultSet.getLong("total"), 5);
+            assertTrue(resultSet.next());
+            assertNull(resultSet.getObject("total"));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.dataforge.output;
+
+import com.dataforge.core.columnar.IntColumnVector;
+import com.dataforge.core.columnar.ObjectColumnVector;
+import com.dataforge.core.columnar.StringColumnVector;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.testng.Assert.*;
+
+class JdbcColumnBinderTest {
+
+    /**
+     * 记录 setXxx 调用的 PreparedStatement 代理，每次调用记为 "方法名(参数...)"
+     */
+    private static PreparedStatement recorder(List<String> calls) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                    List<Object> arguments = new ArrayList<>(Arrays.asList(args).subList(1, args.length));
+                    calls.add(method.getName() + arguments);
+                    return null;
+                });
+    }
+
+    private static ObjectColumnVector objects(Object... values) {
+        ObjectColumnVector column = new ObjectColumnVector("value", values.length);
+        for (Object value : values) {
+            column.appendObject(value);
+        }
+        return column;
+    }
+
+    @Test
+    void testBindsWithColumnTypeInsteadOfText() throws SQLException {
+        List<String> calls = new ArrayList<>();
+        PreparedStatement statement = recorder(calls);
+        UUID uuid = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+        JdbcColumnBinder.forColumn(Types.DATE, "DATE").bind(statement, 1, objects(LocalDate.of(2024, 2, 29)), 0);
+        JdbcColumnBinder.forColumn(Types.NUMERIC, "numeric").bind(statement, 2, objects(new BigDecimal("1.50")), 0);
+        JdbcColumnBinder.forColumn(Types.OTHER, "uuid").bind(statement, 3, objects(uuid), 0);
+        JdbcColumnBinder.forColumn(Types.VARBINARY, "bytea").bind(statement, 4, objects((Object) new byte[] {1, 2}), 0);
+
+        assertEquals(calls.get(0), "setObject[2024-02-29, " + Types.DATE + "]");
+        assertEquals(calls.get(1), "setBigDecimal[1.50]");
+        assertEquals(calls.get(2), "setObject[" + uuid + ", " + Types.OTHER + "]");
+        assertTrue(calls.get(3).startsWith("setBytes[[B@"), calls.get(3));
+    }
+
+    @Test
+    void testConvertsGeneratorOutputToColumnType() throws SQLException {
+        List<String> calls = new ArrayList<>();
+        PreparedStatement statement = recorder(calls);
+        IntColumnVector ints = new IntColumnVector("value", 1);
+        ints.append(7);
+        StringColumnVector strings = new StringColumnVector("value", 1);
+        strings.append("2024-01-31");
+
+        JdbcColumnBinder.forColumn(Types.BIGINT, "int8").bind(statement, 1, objects("42"), 0);
+        JdbcColumnBinder.forColumn(Types.DECIMAL, "decimal").bind(statement, 2, ints, 0);
+        JdbcColumnBinder.forColumn(Types.BOOLEAN, "bool").bind(statement, 3, objects(1), 0);
+        JdbcColumnBinder.forColumn(Types.DATE, "date").bind(statement, 4, strings, 0);
+        JdbcColumnBinder.forColumn(Types.INTEGER, "int4").bind(statement, 5, objects((Object) null), 0);
+
+        assertEquals(calls, Arrays.asList("setLong[42]", "setBigDecimal[7]", "setBoolean[true]",
+                "setObject[2024-01-31, " + Types.DATE + "]", "setNull[" + Types.INTEGER + "]"));
+    }
+
+    @Test
+    void testUntypedBinderUsesValueType() throws SQLException {
+        List<String> calls = new ArrayList<>();
+        JdbcColumnBinder.untyped().bind(recorder(calls), 1, objects(LocalDate.of(2020, 1, 1)), 0);
+        assertEquals(calls, Arrays.asList("setObject[2020-01-01, " + Types.DATE + "]"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.dataforge.output;
+
+import com.dataforge.core.DataGenerator;
+import com.dataforge.core.GenerationContext;
+import com.dataforge.generators.numeric.IntegerGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+class JsonLinesOutputWriterTest {
+
+    private static Map<String, DataGenerator<?>> generators() {
+        Map<String, DataGenerator<?>> generators = new LinkedHashMap<>();
+        generators.put("id", new IntegerGenerator());
+        generators.put("text", context -> context.getRowIndex() % 2 == 0 ? "say \"hi\"\n中文 😀" : null);
+        generators.put("price", context -> new BigDecimal("12345678901234567890.125"));
+        generators.put("day", context -> LocalDate.of(2024, 2, 29));
+        generators.put("active", context -> context.getRowIndex() % 3 == 0);
+        generators.put("meta", context -> {
+            Map<String, Object> meta = new LinkedHashMap<>();
+            meta.put("version", 4);
+            meta.put("tags", Arrays.asList("a", "b"));
+            return meta;
+        });
+        return generators;
+    }
+
+    private static String write(int threads, int count) throws IOException {
+        File file = File.createTempFile("dataforge", ".ndjson");
+        file.deleteOnExit();
+        List<String> fields = Arrays.asList("id", "text", "price", "day", "active", "meta");
+        new JsonLinesOutputWriter(file.getPath(), fields, generators()).withThreads(threads)
+                .write(new GenerationContext(count, 21L));
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testEachLineIsTypedJsonObject() throws IOException {
+        String[] lines = write(1, 6).split("\n");
+        ObjectMapper mapper = new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+        assertEquals(lines.length, 6);
+        assertTrue(lines[0].contains("\"price\":12345678901234567890.125,"));
+        JsonNode first = mapper.readTree(lines[0]);
+        assertTrue(first.get("id").isIntegralNumber());
+        assertEquals(first.get("text").asText(), "say \"hi\"\n中文 😀");
+        assertTrue(first.get("price").isNumber());
+        assertEquals(first.get("price").decimalValue(), new BigDecimal("12345678901234567890.125"));
+        assertEquals(first.get("day").asText(), "2024-02-29");
+        assertTrue(first.get("active").isBoolean());
+        assertEquals(first.get("meta").get("version").asInt(), 4);
+        assertEquals(first.get("meta").get("tags").get(1).asText(), "b");
+
+        JsonNode second = mapper.readTree(lines[1]);
+        assertTrue(second.get("text").isNull());
+        assertFalse(second.get("active").asBoolean());
+    }
+
+    @Test
+    void testParallelOutputMatchesSequentialBytes() throws IOException {
+        assertEquals(write(4, 40_000), write(1, 40_000));
+    }
+}
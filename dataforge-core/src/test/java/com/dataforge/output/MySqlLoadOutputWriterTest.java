@@ -0,0 +1,66 @@
+package com.dataforge.output;
+
+import com.dataforge.core.DataGenerator;
+import com.dataforge.core.GenerationContext;
+import com.dataforge.generators.numeric.IntegerGenerator;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+class MySqlLoadOutputWriterTest {
+
+    private static final List<String> FIELDS = Arrays.asList("id", "note", "active");
+
+    private static Map<String, DataGenerator<?>> generators() {
+        Map<String, DataGenerator<?>> generators = new LinkedHashMap<>();
+        generators.put("id", new IntegerGenerator());
+        generators.put("note", context -> context.getRowIndex() == 0 ? "tab\there\\\r\n\0end" : null);
+        generators.put("active", context -> context.getRowIndex() == 0);
+        return generators;
+    }
+
+    @Test
+    void testDataFileUsesLoadDataEscapes() throws IOException {
+        File file = File.createTempFile("dataforge", ".tsv");
+        file.deleteOnExit();
+        new MySqlLoadOutputWriter(file.getPath(), FIELDS, generators()).write(new GenerationContext(2, 1L));
+
+        String[] lines = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(lines.length, 3);
+        String[] first = lines[0].split("\t", -1);
+        assertEquals(first[1], "tab\\there\\\\\\r\\n\\0end");
+        assertEquals(first[2], "1");
+        String[] second = lines[1].split("\t", -1);
+        assertEquals(second[1], "\\N");
+        assertEquals(second[2], "0");
+        assertEquals(lines[2], "");
+    }
+
+    @Test
+    void testControlFileHasLoadDataStatementPerFile() throws IOException {
+        File dir = Files.createTempDirectory("dataforge-mysql").toFile();
+        String base = new File(dir, "users.tsv").getPath();
+        List<String> parts = Arrays.asList(new File(dir, "users-00001.tsv").getPath(),
+                new File(dir, "users-00002.tsv").getPath());
+        String controlPath = MySqlLoadOutputWriter.writeControlFile(base, "users", FIELDS, parts);
+
+        assertEquals(controlPath, new File(dir, "users.load.sql").getPath());
+        String control = new String(Files.readAllBytes(new File(controlPath).toPath()), StandardCharsets.UTF_8);
+        assertEquals(control.split("LOAD DATA LOCAL INFILE", -1).length, 3);
+        assertTrue(control.contains("LOAD DATA LOCAL INFILE '" + parts.get(1) + "'\n"
+                + "INTO TABLE `users`\n"
+                + "CHARACTER SET utf8mb4\n"
+                + "FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\'\n"
+                + "LINES TERMINATED BY '\\n'\n"
+                + "(`id`, `note`, `active`);\n"), control);
+    }
+}
@@ -0,0 +1,175 @@
+package com.dataforge.output;
+
+import com.dataforge.core.DataGenerator;
+import com.dataforge.core.GenerationContext;
+import com.dataforge.core.columnar.ColumnarGenerationEngine;
+import com.dataforge.core.columnar.RecordBatch;
+import com.dataforge.core.uniqueness.UniquenessFilter;
+import com.dataforge.core.uniqueness.UniquenessScope;
+import com.dataforge.generators.basic.AgeGenerator;
+import com.dataforge.generators.numeric.DecimalGenerator;
+import com.dataforge.generators.numeric.IntegerGenerator;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.testng.Assert.*;
+
+class OrderedChunkPipelineTest {
+
+    private static final List<String> FIELDS = Arrays.asList("age", "score", "amount");
+
+    private ColumnarGenerationEngine createEngine() {
+        Map<String, DataGenerator<?>> generators = new LinkedHashMap<>();
+        generators.put("age", new AgeGenerator());
+        generators.put("score", new IntegerGenerator());
+        generators.put("amount", new DecimalGenerator());
+        return new ColumnarGenerationEngine(FIELDS, generators, 16);
+    }
+
+    private String run(int threads, GenerationContext context) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new OrderedChunkPipeline(createEngine(), threads)
+                .run(context, OrderedChunkPipelineTest::encode, Channels.newChannel(out));
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 从很小的取值空间中随机抽取并借助唯一性过滤器去重，重抽几次仍重复时顺序查找下一个未用过的值
+     */
+    private static final class SmallDomainUniqueGenerator implements DataGenerator<String> {
+        private static final int DOMAIN = 3000;
+
+        @Override
+        public String generate(GenerationContext context) {
+            UniquenessFilter seen = context.getUniquenessScope().filter("small-domain");
+            Random random = context.getRandom();
+            for (int attempt = 0; attempt < 3; attempt++) {
+                String value = "v" + random.nextInt(DOMAIN);
+                if (seen.add(value)) {
+                    return value;
+                }
+            }
+            for (long next = seen.size(); ; next++) {
+                if (seen.add("v" + next)) {
+                    return "v" + next;
+                }
+            }
+        }
+
+        @Override
+        public boolean isOrderDependent(GenerationContext context) {
+            return true;
+        }
+    }
+
+    private static String runUnique(int threads) throws IOException {
+        Map<String, DataGenerator<?>> generators = new LinkedHashMap<>();
+        generators.put("age", new AgeGenerator());
+        generators.put("code", new SmallDomainUniqueGenerator());
+        generators.put("amount", new DecimalGenerator());
+        ColumnarGenerationEngine engine = new ColumnarGenerationEngine(Arrays.asList("age", "code", "amount"), generators, 16);
+        GenerationContext context = new GenerationContext(5003, 42L);
+        try (UniquenessScope scope = new UniquenessScope("pipeline-test")) {
+            context.setUniquenessScope(scope);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new OrderedChunkPipeline(engine, threads)
+                    .run(context, OrderedChunkPipelineTest::encode, Channels.newChannel(out));
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void encode(RecordBatch batch, Utf8Buffer out) {
+        StringBuilder line = new StringBuilder();
+        for (int row = 0; row < batch.size(); row++) {
+            line.setLength(0);
+            line.append(batch.getStartRow() + row);
+            for (int column = 0; column < batch.getColumnCount(); column++) {
+                line.append(',');
+                batch.getColumn(column).appendTo(line, row);
+            }
+            line.append('\n');
+            out.putUtf8(line);
+        }
+    }
+
+    @Test
+    void testParallelOutputMatchesSequentialForFixedSeed() throws IOException {
+        String sequential = run(1, new GenerationContext(5003, 42L));
+        String parallel = run(4, new GenerationContext(5003, 42L));
+
+        assertEquals(parallel, sequential);
+    }
+
+    @Test
+    void testParallelOutputMatchesSequentialWithUniqueColumn() throws IOException {
+        String sequential = runUnique(1);
+
+        // 取值空间小于行数，大量行需要重抽或顺序查找，结果取决于此前各行登记的值
+        for (int attempt = 0; attempt < 3; attempt++) {
+            assertEquals(runUnique(4), sequential);
+        }
+        Set<String> codes = new HashSet<>();
+        for (String line : sequential.split("\n")) {
+            assertTrue(codes.add(line.split(",")[2]), "Duplicate value in " + line);
+        }
+        assertEquals(codes.size(), 5003);
+    }
+
+    @Test
+    void testParallelOutputPreservesRowOrder() throws IOException {
+        String[] lines = run(3, new GenerationContext(1000, 1L)).split("\n");
+
+        assertEquals(lines.length, 1000);
+        for (int i = 0; i < lines.length; i++) {
+            assertTrue(lines[i].startsWith(i + ","), "Unexpected row order at line " + i);
+        }
+    }
+
+    @Test
+    void testEmptyRangeWritesNothing() throws IOException {
+        assertEquals(run(4, new GenerationContext(0, 1L)), "");
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    void testWorkerFailureIsPropagated() throws IOException {
+        new OrderedChunkPipeline(createEngine(), 2).run(new GenerationContext(1000, 1L), (batch, out) -> {
+            throw new IllegalStateException("encoder failure");
+        }, Channels.newChannel(new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void testDirectBuffersAreReused() throws IOException {
+        OrderedChunkPipeline pipeline = new OrderedChunkPipeline(createEngine(), 2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pipeline.run(new GenerationContext(20_000, 3L), OrderedChunkPipelineTest::encode, Channels.newChannel(out));
+
+        // 在途分片数有上限，堆外缓冲应被复用而不是每个分片重新分配
+        int chunks = (20_000 + 16 * 16 - 1) / (16 * 16);
+        assertTrue(pipeline.getBufferPool().getAllocatedCount() < chunks);
+        assertEquals(out.toString("UTF-8").split("\n").length, 20_000);
+    }
+
+    @Test
+    void testInFlightChunksAreCappedByBytes() throws IOException {
+        String expected = run(1, new GenerationContext(20_000, 3L));
+        OrderedChunkPipeline pipeline = new OrderedChunkPipeline(createEngine(), 4).withMaxInFlightBytes(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pipeline.run(new GenerationContext(20_000, 3L), OrderedChunkPipelineTest::encode, Channels.newChannel(out));
+
+        // 预算小于一个分片时只保留一个在途分片，首个分片写出前最多每个线程一个
+        assertTrue(pipeline.getBufferPool().getAllocatedCount() <= 4,
+                "Allocated " + pipeline.getBufferPool().getAllocatedCount() + " direct buffers");
+        assertEquals(out.toString("UTF-8"), expected);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.dataforge.output;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+
+import static org.testng.Assert.*;
+
+class OutputChannelsTest {
+
+    @Test
+    void testNonClosingChannelLeavesTargetOpen() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        WritableByteChannel target = Channels.newChannel(bytes);
+        WritableByteChannel channel = new OutputChannels.NonClosingChannel(target);
+
+        OutputChannels.write(channel, "a,b\n");
+        channel.close();
+
+        // 关闭只影响包装通道，底层通道 (标准输出) 保持打开
+        assertEquals(bytes.toString("UTF-8"), "a,b\n");
+        assertFalse(channel.isOpen());
+        assertTrue(target.isOpen());
+        expectThrows(ClosedChannelException.class, () -> channel.write(ByteBuffer.allocate(1)));
+    }
+
+    @Test
+    void testDashMeansStdout() {
+        assertTrue(OutputChannels.isStdout("-"));
+        assertFalse(OutputChannels.isStdout("./-"));
+        assertFalse(OutputChannels.isStdout("out.csv"));
+    }
+}
@@ -0,0 +1,144 @@
+package com.dataforge.output;
+
+import com.dataforge.core.DataGenerator;
+import com.dataforge.core.GenerationContext;
+import com.dataforge.generators.numeric.IntegerGenerator;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.testng.Assert.*;
+
+class ParallelGzipChannelTest {
+
+    private static byte[] sampleData(int size) {
+        // 半随机内容，既可压缩又不会退化为全零
+        byte[] data = new byte[size];
+        Random random = new Random(11);
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return data;
+    }
+
+    private static byte[] gunzip(byte[] compressed, int offset) throws IOException {
+        try (InputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(compressed, offset, compressed.length - offset))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] compress(byte[] data, int threads, int blockSize, Path index) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ParallelGzipChannel channel = new ParallelGzipChannel(Channels.newChannel(out), 6, threads, blockSize, index)) {
+            // 按不规则的片段写入，覆盖跨块写入
+            int position = 0;
+            int step = 1;
+            while (position < data.length) {
+                int length = Math.min(step, data.length - position);
+                channel.write(ByteBuffer.wrap(data, position, length));
+                position += length;
+                step = step * 3 % 10007 + 1;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    void testMultiMemberStreamRoundTrips() throws IOException {
+        byte[] data = sampleData(300_000);
+
+        byte[] parallel = compress(data, 4, 16 * 1024, null);
+        byte[] sequential = compress(data, 1, 16 * 1024, null);
+
+        assertEquals(gunzip(parallel, 0), data);
+        // 每块独立压缩，线程数不影响输出
+        assertEquals(parallel, sequential);
+        assertTrue(parallel.length < data.length / 2);
+    }
+
+    @Test
+    void testBlockIndexAllowsSeeking() throws IOException {
+        byte[] data = sampleData(100_000);
+        Path index = Files.createTempFile("dataforge", ".gzi");
+        index.toFile().deleteOnExit();
+
+        byte[] compressed = compress(data, 3, 8 * 1024, index);
+        GzipBlockIndex blocks = GzipBlockIndex.readFrom(index);
+
+        assertEquals(blocks.size(), (data.length + 8 * 1024 - 1) / (8 * 1024));
+        int block = blocks.findBlock(50_000);
+        assertEquals(blocks.getUncompressedOffset(block), block * 8 * 1024L);
+
+        // 从成员起点解压得到该位置之后的全部内容
+        byte[] tail = gunzip(compressed, (int) blocks.getCompressedOffset(block));
+        assertEquals(tail, Arrays.copyOfRange(data, (int) blocks.getUncompressedOffset(block), data.length));
+    }
+
+    @Test
+    void testEmptyInputIsValidGzip() throws IOException {
+        byte[] compressed = compress(new byte[0], 2, 1024, null);
+
+        assertTrue(compressed.length > 0);
+        assertEquals(gunzip(compressed, 0).length, 0);
+    }
+
+    @Test
+    void testConcatenatedIndexesAreShifted() throws IOException {
+        byte[] first = sampleData(20_000);
+        byte[] second = sampleData(7_000);
+        Path firstFile = Files.createTempFile("dataforge", ".gz");
+        Path secondFile = Files.createTempFile("dataforge", ".gz");
+        for (Path file : Arrays.asList(firstFile, secondFile)) {
+            file.toFile().deleteOnExit();
+            GzipBlockIndex.indexPathFor(file).toFile().deleteOnExit();
+        }
+        Files.write(firstFile, compress(first, 2, 4096, GzipBlockIndex.indexPathFor(firstFile)));
+        Files.write(secondFile, compress(second, 2, 4096, GzipBlockIndex.indexPathFor(secondFile)));
+
+        GzipBlockIndex merged = GzipBlockIndex.concat(Arrays.asList(firstFile, secondFile));
+
+        assertEquals(merged.size(), 5 + 2);
+        assertEquals(merged.getCompressedOffset(5), Files.size(firstFile));
+        assertEquals(merged.getUncompressedOffset(5), first.length);
+    }
+
+    @Test
+    void testCompressedCsvMatchesPlainOutput() throws IOException {
+        File plainFile = File.createTempFile("dataforge", ".csv");
+        File gzipFile = File.createTempFile("dataforge", ".csv.gz");
+        plainFile.deleteOnExit();
+        gzipFile.deleteOnExit();
+        GzipBlockIndex.indexPathFor(gzipFile.toPath()).toFile().deleteOnExit();
+        Map<String, DataGenerator<?>> generators = new LinkedHashMap<>();
+        generators.put("id", new IntegerGenerator());
+        generators.put("name", context -> "row-" + context.getRowIndex());
+        List<String> fields = Arrays.asList("id", "name");
+
+        new CsvOutputWriter(plainFile.getPath(), fields, generators).withThreads(2)
+                .write(new GenerationContext(50_000, 5L));
+        new CsvOutputWriter(gzipFile.getPath(), fields, generators).withThreads(2)
+                .withCompression(OutputCompression.gzip(1, 3, 64 * 1024))
+                .write(new GenerationContext(50_000, 5L));
+
+        String plain = new String(Files.readAllBytes(plainFile.toPath()), StandardCharsets.UTF_8);
+        String unzipped = new String(gunzip(Files.readAllBytes(gzipFile.toPath()), 0), StandardCharsets.UTF_8);
+        assertEquals(unzipped, plain);
+        assertTrue(GzipBlockIndex.readFrom(GzipBlockIndex.indexPathFor(gzipFile.toPath())).size() > 1);
+    }
+}
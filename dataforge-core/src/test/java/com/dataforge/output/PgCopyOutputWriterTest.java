@@ -0,0 +1,172 @@
+package com.dataforge.output;
+
+import com.dataforge.core.DataGenerator;
+import com.dataforge.core.GenerationContext;
+import com.dataforge.generators.numeric.IntegerGenerator;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.testng.Assert.*;
+
+class PgCopyOutputWriterTest {
+
+    private static final List<String> FIELDS = Arrays.asList("id", "note", "price", "day", "flag", "uid");
+    private static final UUID UID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+    private static Map<String, DataGenerator<?>> generators() {
+        Map<String, DataGenerator<?>> generators = new LinkedHashMap<>();
+        generators.put("id", new IntegerGenerator());
+        generators.put("note", context -> context.getRowIndex() % 2 == 0 ? "a\tb\\c\nd 中文" : null);
+        generators.put("price", context -> new BigDecimal("-12345.0067"));
+        generators.put("day", context -> LocalDate.of(2000, 1, 3));
+        generators.put("flag", context -> Boolean.TRUE);
+        generators.put("uid", context -> UID);
+        return generators;
+    }
+
+    private static byte[] write(boolean binary, int threads, int count, long startRow, long totalRows)
+            throws IOException {
+        File file = File.createTempFile("dataforge", binary ? ".pgcopy" : ".copy");
+        file.deleteOnExit();
+        new PgCopyOutputWriter(file.getPath(), FIELDS, generators())
+                .withBinary(binary).withThreads(threads).withRowRange(startRow, totalRows)
+                .write(new GenerationContext(count, 5L));
+        return Files.readAllBytes(file.toPath());
+    }
+
+    @Test
+    void testTextFormatIsBareCopyDataWithEscapes() throws IOException {
+        String[] lines = new String(write(false, 1, 2, 0, 2), StandardCharsets.UTF_8).split("\n", -1);
+
+        // 只有数据行，没有 COPY 命令和 \. 结束标记，可以直接作为 COPY ... FROM STDIN 的输入
+        String[] first = lines[0].split("\t", -1);
+        assertEquals(first.length, 6);
+        assertEquals(first[1], "a\\tb\\\\c\\nd 中文");
+        assertEquals(first[2], "-12345.0067");
+        assertEquals(first[3], "2000-01-03");
+        assertEquals(first[4], "t");
+        assertEquals(lines[1].split("\t")[1], "\\N");
+        assertEquals(lines[2], "");
+        assertEquals(lines.length, 3);
+    }
+
+    @Test
+    void testBinaryFormatHasHeaderTypedTuplesAndTrailer() throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(write(true, 1, 2, 0, 2));
+        byte[] signature = new byte[11];
+        in.get(signature);
+        assertEquals(signature, new byte[] {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0});
+        assertEquals(in.getInt(), 0);
+        assertEquals(in.getInt(), 0);
+
+        // 第一行
+        assertEquals(in.getShort(), 6);
+        assertEquals(in.getInt(), 4);
+        in.getInt();
+        byte[] note = new byte[in.getInt()];
+        in.get(note);
+        assertEquals(new String(note, StandardCharsets.UTF_8), "a\tb\\c\nd 中文");
+        // numeric -12345.0067 = -(1 * 10000^1 + 2345 + 67 * 10000^-1)，dscale 4
+        assertEquals(in.getInt(), 8 + 3 * 2);
+        assertEquals(in.getShort(), 3);
+        assertEquals(in.getShort(), 1);
+        assertEquals(in.getShort(), 0x4000);
+        assertEquals(in.getShort(), 4);
+        assertEquals(in.getShort(), 1);
+        assertEquals(in.getShort(), 2345);
+        assertEquals(in.getShort(), 67);
+        // date 为 2000-01-01 起的天数
+        assertEquals(in.getInt(), 4);
+        assertEquals(in.getInt(), 2);
+        assertEquals(in.getInt(), 1);
+        assertEquals(in.get(), 1);
+        assertEquals(in.getInt(), 16);
+        assertEquals(new UUID(in.getLong(), in.getLong()), UID);
+
+        // 第二行的 note 为 NULL
+        assertEquals(in.getShort(), 6);
+        in.getInt();
+        in.getInt();
+        assertEquals(in.getInt(), -1);
+        in.position(in.position() + 4 + 14 + 4 + 4 + 4 + 1 + 4 + 16);
+
+        assertEquals(in.getShort(), -1);
+        assertFalse(in.hasRemaining());
+    }
+
+    @Test
+    void testNumericEncoding() {
+        assertEquals(numeric("0"), new int[] {0, 0, 0, 0});
+        assertEquals(numeric("0.0012"), new int[] {1, -1, 0, 4, 12});
+        assertEquals(numeric("100000000"), new int[] {1, 2, 0, 0, 1});
+        assertEquals(numeric("12345678901234567890.125"), new int[] {6, 4, 0, 3, 1234, 5678, 9012, 3456, 7890, 1250});
+        assertEquals(numeric("1E+3"), new int[] {1, 0, 0, 0, 1000});
+    }
+
+    private static int[] numeric(String value) {
+        Utf8Buffer out = new Utf8Buffer(64);
+        PgCopyOutputWriter.putNumeric(out, new BigDecimal(value));
+        ByteBuffer in = out.asByteBuffer();
+        int[] shorts = new int[(in.getInt() / 2)];
+        for (int i = 0; i < shorts.length; i++) {
+            shorts[i] = in.getShort();
+        }
+        return shorts;
+    }
+
+    @Test
+    void testSlicesConcatenateIntoOneStream() throws IOException {
+        for (boolean binary : new boolean[] {true, false}) {
+            byte[] whole = write(binary, 1, 3000, 0, 3000);
+            byte[] head = write(binary, 1, 1000, 0, 3000);
+            byte[] tail = write(binary, 1, 2000, 1000, 3000);
+            byte[] joined = Arrays.copyOf(head, head.length + tail.length);
+            System.arraycopy(tail, 0, joined, head.length, tail.length);
+            assertEquals(joined, whole);
+        }
+    }
+
+    @Test
+    void testParallelOutputMatchesSequentialBytes() throws IOException {
+        assertEquals(write(true, 4, 30_000, 0, 30_000), write(true, 1, 30_000, 0, 30_000));
+        assertEquals(write(false, 4, 30_000, 0, 30_000), write(false, 1, 30_000, 0, 30_000));
+    }
+
+    @Test
+    void testControlFileUsesClientSideCopy() throws IOException {
+        File dir = Files.createTempDirectory("dataforge-pgcopy").toFile();
+        String base = new File(dir, "users.pgcopy.gz").getPath();
+        String controlPath = PgCopyOutputWriter.writeControlFile(base, "users", Arrays.asList("id", "name"),
+                Collections.singletonList(base), true);
+
+        assertEquals(controlPath, new File(dir, "users.load.sql").getPath());
+        String control = new String(Files.readAllBytes(new File(controlPath).toPath()), StandardCharsets.UTF_8);
+        assertTrue(control.contains("\\copy \"users\" (\"id\", \"name\") FROM PROGRAM 'gzip -dc "
+                + new File(base).getAbsolutePath() + "' WITH (FORMAT binary)\n"), control);
+    }
+
+    @Test
+    void testTextControlFileCopiesInTextFormat() throws IOException {
+        File dir = Files.createTempDirectory("dataforge-pgcopy").toFile();
+        String base = new File(dir, "users.copy").getPath();
+        String controlPath = PgCopyOutputWriter.writeControlFile(base, "users", Arrays.asList("id", "name"),
+                Collections.singletonList(base), false);
+
+        String control = new String(Files.readAllBytes(new File(controlPath).toPath()), StandardCharsets.UTF_8);
+        assertTrue(control.contains("\\copy \"users\" (\"id\", \"name\") FROM '"
+                + new File(base).getAbsolutePath() + "'\n"), control);
+    }
+}
@@ -0,0 +1,218 @@
+package com.dataforge.output;
+
+import com.dataforge.core.DataGenerator;
+import com.dataforge.core.GenerationContext;
+import com.dataforge.core.columnar.ColumnarGenerationEngine;
+import com.dataforge.core.uniqueness.UniquenessFilter;
+import com.dataforge.core.uniqueness.UniquenessScope;
+import com.dataforge.generators.numeric.IntegerGenerator;
+import com.dataforge.metrics.RunMetrics;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.testng.Assert.*;
+
+class RollingOutputWriterTest {
+
+    private static final List<String> FIELDS = Arrays.asList("id", "name");
+
+    private static Map<String, DataGenerator<?>> generators() {
+        Map<String, DataGenerator<?>> generators = new LinkedHashMap<>();
+        generators.put("id", new IntegerGenerator());
+        generators.put("name", context -> "row-" + context.getRowIndex());
+        return generators;
+    }
+
+    private static RollingOutputWriter.PartWriter csvParts() {
+        return (path, context, startRow, threads) -> new CsvOutputWriter(path, FIELDS, generators())
+                .withThreads(threads).withStartRow(startRow).withStandalone(true).withLineSeparator("\n")
+                .write(context);
+    }
+
+    /**
+     * 从很小的取值空间中随机抽取并借助唯一性过滤器去重，结果依赖此前各行登记的值
+     */
+    private static final class SmallDomainUniqueGenerator implements DataGenerator<String> {
+        private static final int DOMAIN = 2000;
+
+        @Override
+        public String generate(GenerationContext context) {
+            UniquenessFilter seen = context.getUniquenessScope().filter("small-domain");
+            Random random = context.getRandom();
+            for (int attempt = 0; attempt < 3; attempt++) {
+                String value = "v" + random.nextInt(DOMAIN);
+                if (seen.add(value)) {
+                    return value;
+                }
+            }
+            for (long next = seen.size(); ; next++) {
+                if (seen.add("v" + next)) {
+                    return "v" + next;
+                }
+            }
+        }
+
+        @Override
+        public boolean isOrderDependent(GenerationContext context) {
+            return true;
+        }
+    }
+
+    private static GenerationContext uniqueContext(UniquenessScope scope) {
+        GenerationContext context = new GenerationContext(2500, 9L);
+        context.setUniquenessScope(scope);
+        return context;
+    }
+
+    private static String sha256(Path path) throws IOException, NoSuchAlgorithmException {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(path))) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    @Test
+    void testRowRollingWritesCompletePartsAndManifest() throws Exception {
+        Path dir = Files.createTempDirectory("dataforge-rolling");
+        String base = dir.resolve("users.csv").toString();
+        File single = dir.resolve("single.csv").toFile();
+        new CsvOutputWriter(single.getPath(), FIELDS, generators()).withLineSeparator("\n")
+                .write(new GenerationContext(2500, 9L));
+
+        RollingOutputWriter.Manifest manifest = new RollingOutputWriter(base, csvParts())
+                .withMaxRows(1000).withThreads(3)
+                .write(new GenerationContext(2500, 9L), 0);
+
+        assertEquals(manifest.getParts().size(), 3);
+        // 每个分段都带表头，去掉表头后按顺序拼接等于不滚动的输出
+        List<String> rows = new ArrayList<>();
+        for (RollingOutputWriter.Part part : manifest.getParts()) {
+            List<String> lines = Files.readAllLines(Path.of(part.getPath()), StandardCharsets.UTF_8);
+            assertEquals(lines.get(0), "id,name");
+            assertEquals(lines.size() - 1, part.getRowCount());
+            rows.addAll(lines.subList(1, lines.size()));
+        }
+        List<String> expected = Files.readAllLines(single.toPath(), StandardCharsets.UTF_8);
+        assertEquals(rows, expected.subList(1, expected.size()));
+
+        JsonNode json = new ObjectMapper().readTree(new File(RollingOutputWriter.manifestPath(base)));
+        assertEquals(json.get("rowCount").asLong(), 2500);
+        JsonNode last = json.get("parts").get(2);
+        assertEquals(last.get("file").asText(), "users-00003.csv");
+        assertEquals(last.get("startRow").asLong(), 2000);
+        assertEquals(last.get("endRow").asLong(), 2500);
+        Path lastPath = dir.resolve("users-00003.csv");
+        assertEquals(last.get("bytes").asLong(), Files.size(lastPath));
+        assertEquals(last.get("sha256").asText(), sha256(lastPath));
+    }
+
+    @Test
+    void testRewrittenPartMatchesManifestWithUniqueColumn() throws Exception {
+        Map<String, DataGenerator<?>> generators = new LinkedHashMap<>();
+        generators.put("id", new IntegerGenerator());
+        generators.put("name", new SmallDomainUniqueGenerator());
+        Path dir = Files.createTempDirectory("dataforge-rolling");
+        RollingOutputWriter writer = new RollingOutputWriter(dir.resolve("users.csv").toString(),
+                (path, context, startRow, threads) -> new CsvOutputWriter(path, FIELDS, generators)
+                        .withThreads(threads).withStartRow(startRow).withStandalone(true).withLineSeparator("\n")
+                        .write(context))
+                .withMaxRows(1000).withThreads(4)
+                .withOrderDependentColumns(ColumnarGenerationEngine.hasOrderDependentColumns(generators.values(),
+                        new GenerationContext(2500, 9L)));
+
+        RollingOutputWriter.Manifest manifest;
+        try (UniquenessScope scope = new UniquenessScope("rolling-test")) {
+            manifest = writer.write(uniqueContext(scope), 0);
+        }
+        RollingOutputWriter.Part last = manifest.getParts().get(2);
+        String recorded = last.getSha256();
+        Files.delete(Path.of(last.getPath()));
+
+        // 新的运行只重新生成最后一个分段：之前各行按行序重放后，唯一列的取值与原始写出一致
+        RollingOutputWriter.Part rewritten;
+        try (UniquenessScope scope = new UniquenessScope("rolling-rewrite")) {
+            rewritten = writer.rewritePart(uniqueContext(scope), manifest, 3);
+        }
+        assertEquals(rewritten.getSha256(), recorded);
+        assertEquals(sha256(Path.of(last.getPath())), recorded);
+        assertEquals(rewritten.getBytes(), last.getBytes());
+    }
+
+    @Test
+    void testSizeRollingKeepsPartsNearLimit() throws IOException {
+        Path dir = Files.createTempDirectory("dataforge-rolling");
+        String base = dir.resolve("users.csv").toString();
+
+        RollingOutputWriter.Manifest manifest = new RollingOutputWriter(base, csvParts())
+                .withMaxBytes(64 * 1024).withThreads(2)
+                .write(new GenerationContext(20_000, 3L), 0);
+
+        assertTrue(manifest.getParts().size() > 1);
+        long rows = 0;
+        for (RollingOutputWriter.Part part : manifest.getParts()) {
+            assertTrue(part.getBytes() <= 64 * 1024 * 1.05, "Part too large: " + part.getBytes());
+            rows += part.getRowCount();
+        }
+        assertEquals(rows, 20_000);
+    }
+
+    @Test
+    void testSizeSampleIsNotCountedInRunMetrics() throws IOException {
+        Path dir = Files.createTempDirectory("dataforge-rolling");
+        RunMetrics metrics = RunMetrics.getInstance();
+        long fieldRows = metrics.getFieldRows().getOrDefault("id", 0L);
+        long writerRows = metrics.getWriterRows().getOrDefault("csv", 0L);
+
+        new RollingOutputWriter(dir.resolve("users.csv").toString(), csvParts())
+                .withMaxBytes(64 * 1024).withThreads(2)
+                .write(new GenerationContext(20_000, 3L), 0);
+
+        // 估算每行字节数的 10000 行样本不计入，只计正式写出的行
+        assertEquals(metrics.getFieldRows().get("id") - fieldRows, 20_000);
+        assertEquals(metrics.getWriterRows().get("csv") - writerRows, 20_000);
+        assertTrue(metrics.isRecording());
+    }
+
+    @Test
+    void testJsonPartsAreCompleteDocuments() throws IOException {
+        Path dir = Files.createTempDirectory("dataforge-rolling");
+        String base = dir.resolve("users.json").toString();
+
+        RollingOutputWriter.Manifest manifest = new RollingOutputWriter(base,
+                (path, context, startRow, threads) -> new JsonOutputWriter(path, FIELDS, generators())
+                        .withRowRange(startRow, 1000).withStandalone(true).write(context))
+                .withMaxRows(400)
+                .write(new GenerationContext(1000, 1L), 0);
+
+        ObjectMapper mapper = new ObjectMapper();
+        for (RollingOutputWriter.Part part : manifest.getParts()) {
+            JsonNode array = mapper.readTree(new File(part.getPath()));
+            assertEquals(array.size(), part.getRowCount());
+            assertEquals(array.get(0).get("name").asText(), "row-" + part.getStartRow());
+        }
+    }
+
+    @Test
+    void testPartAndManifestPaths() {
+        assertEquals(RollingOutputWriter.partPath("out/users.csv", 1), "out/users-00001.csv");
+        assertEquals(RollingOutputWriter.partPath("users.csv.gz", 12), "users-00012.csv.gz");
+        assertEquals(RollingOutputWriter.partPath("data.v2/users", 3), "data.v2/users-00003");
+        assertEquals(RollingOutputWriter.manifestPath("users.csv.gz"), "users.manifest.json");
+    }
+}